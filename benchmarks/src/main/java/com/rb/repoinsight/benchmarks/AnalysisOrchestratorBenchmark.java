@@ -0,0 +1,80 @@
+package com.rb.repoinsight.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.rb.repoinsight.ai.AiClient;
+import com.rb.repoinsight.model.AiAnalysisResult;
+import com.rb.repoinsight.model.RepoContext;
+import com.rb.repoinsight.scan.RepoMetrics;
+import com.rb.repoinsight.scan.RepoMetricsCollector;
+import com.rb.repoinsight.scan.index.RepoFileIndex;
+import com.rb.repoinsight.scanner.RepoScanner;
+import com.rb.repoinsight.service.AnalysisOrchestrator;
+
+/**
+ * Populating the analysis prompt template and cleaning the response, with
+ * an AI client that answers immediately so only local work is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AnalysisOrchestratorBenchmark {
+
+    private static final String RESPONSE = "Analyzing the repository.\n"
+            + "## Overview\nA multi-module Maven service.\n\n## Architecture\nFour modules.\n";
+
+    private Path root;
+    private RepoContext context;
+    private RepoMetrics metrics;
+    private final AnalysisOrchestrator orchestrator = new AnalysisOrchestrator(new AiClient() {
+        @Override
+        public String analyze(String prompt) {
+            return RESPONSE;
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public String getUnavailabilityReason() {
+            return null;
+        }
+    });
+
+    @Setup
+    public void setUp() throws IOException {
+        root = BenchmarkRepository.create(200);
+        RepoFileIndex index = RepoFileIndex.build(root);
+        context = new RepoScanner().scan(index);
+        metrics = new RepoMetricsCollector().collect(index);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        BenchmarkRepository.delete(root);
+    }
+
+    @Benchmark
+    public AiAnalysisResult performAnalysis() {
+        return orchestrator.performAnalysis(context, metrics);
+    }
+}
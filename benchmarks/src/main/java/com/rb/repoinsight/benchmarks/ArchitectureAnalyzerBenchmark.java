@@ -0,0 +1,60 @@
+package com.rb.repoinsight.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.rb.repoinsight.model.RepoContext;
+import com.rb.repoinsight.scan.ArchitectureAnalyzer;
+import com.rb.repoinsight.scan.index.RepoFileIndex;
+
+/**
+ * Module and package extraction for a multi-module Maven build. The index
+ * reads each POM once, so after the first operation this measures the
+ * analysis over already parsed POMs, as when build detection ran first.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ArchitectureAnalyzerBenchmark {
+
+    @Param({ "100", "1000" })
+    private int files;
+
+    private Path root;
+    private RepoFileIndex index;
+
+    @Setup
+    public void setUp() throws IOException {
+        root = BenchmarkRepository.create(files);
+        index = RepoFileIndex.build(root);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        BenchmarkRepository.delete(root);
+    }
+
+    @Benchmark
+    public RepoContext analyze() {
+        RepoContext context = new RepoContext();
+        ArchitectureAnalyzer.analyze(index, context);
+        return context;
+    }
+}
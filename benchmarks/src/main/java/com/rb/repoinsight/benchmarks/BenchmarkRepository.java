@@ -0,0 +1,124 @@
+package com.rb.repoinsight.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Small deterministic repositories for the benchmarks: a multi-module Maven
+ * build whose sources pull in a few libraries the bundled rules detect.
+ */
+final class BenchmarkRepository {
+
+    static final int MODULES = 4;
+
+    private BenchmarkRepository() {
+    }
+
+    /**
+     * Create a repository with {@code sourceFiles} Java files spread over
+     * {@link #MODULES} modules, one in five of them tests.
+     */
+    static Path create(int sourceFiles) throws IOException {
+        Path root = Files.createTempDirectory("repo-insight-bench");
+        StringBuilder modules = new StringBuilder();
+        for (int module = 0; module < MODULES; module++) {
+            modules.append("        <module>module-").append(module).append("</module>\n");
+            Files.createDirectories(root.resolve("module-" + module));
+            Files.writeString(root.resolve("module-" + module + "/pom.xml"), modulePom(module));
+        }
+        Files.writeString(root.resolve("pom.xml"), "<project>\n"
+                + "    <groupId>com.acme</groupId>\n"
+                + "    <artifactId>bench</artifactId>\n"
+                + "    <version>1.0</version>\n"
+                + "    <packaging>pom</packaging>\n"
+                + "    <modules>\n" + modules + "    </modules>\n"
+                + "</project>\n");
+
+        for (int i = 0; i < sourceFiles; i++) {
+            boolean test = i % 5 == 4;
+            String module = "module-" + (i % MODULES);
+            String pkg = "com/acme/service" + (i % 7);
+            Path dir = root.resolve(module + (test ? "/src/test/java/" : "/src/main/java/") + pkg);
+            Files.createDirectories(dir);
+            String name = (test ? "Service" + i + "Test" : "Service" + i);
+            Files.writeString(dir.resolve(name + ".java"), javaSource(pkg.replace('/', '.'), name, i));
+        }
+        return root;
+    }
+
+    /**
+     * A JaCoCo CSV report with {@code classes} rows where {@link
+     * com.rb.repoinsight.scan.JaCoCoParser} looks for it.
+     */
+    static void writeJaCoCoReport(Path root, int classes) throws IOException {
+        Path report = Files.createDirectories(root.resolve("target/site/jacoco")).resolve("jacoco.csv");
+        StringBuilder csv = new StringBuilder("GROUP,PACKAGE,CLASS,SOURCEFILE,INSTRUCTION_MISSED,"
+                + "INSTRUCTION_COVERED,BRANCH_MISSED,BRANCH_COVERED,LINE_MISSED,LINE_COVERED,"
+                + "COMPLEXITY_MISSED,COMPLEXITY_COVERED,METHOD_MISSED,METHOD_COVERED\n");
+        for (int i = 0; i < classes; i++) {
+            csv.append("bench,com.acme.service").append(i % 7).append(",Service").append(i)
+                    .append(",Service").append(i).append(".java,")
+                    .append(i % 40).append(',').append(100 + i % 60).append(",2,6,3,20,1,4,0,5\n");
+        }
+        Files.writeString(report, csv);
+    }
+
+    static void delete(Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private static String modulePom(int module) {
+        return "<project>\n"
+                + "    <parent>\n"
+                + "        <groupId>com.acme</groupId>\n"
+                + "        <artifactId>bench</artifactId>\n"
+                + "        <version>1.0</version>\n"
+                + "    </parent>\n"
+                + "    <artifactId>module-" + module + "</artifactId>\n"
+                + "    <dependencies>\n"
+                + "        <dependency>\n"
+                + "            <groupId>org.springframework.boot</groupId>\n"
+                + "            <artifactId>spring-boot-starter-web</artifactId>\n"
+                + "            <version>3.1.0</version>\n"
+                + "        </dependency>\n"
+                + "        <dependency>\n"
+                + "            <groupId>org.apache.kafka</groupId>\n"
+                + "            <artifactId>kafka-clients</artifactId>\n"
+                + "            <version>3.5.0</version>\n"
+                + "        </dependency>\n"
+                + "    </dependencies>\n"
+                + "</project>\n";
+    }
+
+    private static String javaSource(String pkg, String name, int seed) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("package ").append(pkg).append(";\n\n");
+        sb.append("import java.util.List;\n");
+        if (seed % 3 == 0) {
+            sb.append("import org.springframework.web.bind.annotation.RestController;\n");
+        }
+        if (seed % 4 == 0) {
+            sb.append("import org.apache.kafka.clients.producer.KafkaProducer;\n");
+        }
+        sb.append("\npublic class ").append(name).append(" {\n\n");
+        // Roughly 2-8 KB per file
+        for (int method = 0; method < 10 + seed % 40; method++) {
+            sb.append("    public int method").append(method).append("(List<String> values) {\n");
+            sb.append("        int total = 0;\n");
+            sb.append("        for (String value : values) {\n");
+            sb.append("            total += value.length() * ").append(method + 1).append(";\n");
+            sb.append("        }\n");
+            sb.append("        return total;\n");
+            sb.append("    }\n\n");
+        }
+        sb.append("}\n");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,65 @@
+package com.rb.repoinsight.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.rb.repoinsight.model.RepoContext;
+import com.rb.repoinsight.report.MarkdownReportGenerator;
+import com.rb.repoinsight.scan.ArchitectureAnalyzer;
+import com.rb.repoinsight.scan.ComplexityAnalyzer;
+import com.rb.repoinsight.scan.RepoMetricsCollector;
+import com.rb.repoinsight.scan.index.RepoFileIndex;
+import com.rb.repoinsight.scanner.RepoScanner;
+
+/**
+ * Rendering and writing the Markdown report for a fully analyzed
+ * repository, without AI output.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MarkdownReportGeneratorBenchmark {
+
+    private Path root;
+    private Path outputFile;
+    private RepoContext context;
+    private final MarkdownReportGenerator generator = new MarkdownReportGenerator();
+
+    @Setup
+    public void setUp() throws IOException {
+        root = BenchmarkRepository.create(200);
+        outputFile = root.resolve("repo-insight.md");
+        RepoFileIndex index = RepoFileIndex.build(root);
+        context = new RepoScanner().scan(index);
+        ArchitectureAnalyzer.analyze(index, context);
+        ComplexityAnalyzer.analyze(context, new RepoMetricsCollector().collect(index));
+        context.setCopilotFailureReason("AI analysis disabled (--disable-ai)");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        BenchmarkRepository.delete(root);
+    }
+
+    @Benchmark
+    public Path generate() {
+        generator.generate(context, outputFile);
+        return outputFile;
+    }
+}
@@ -0,0 +1,74 @@
+package com.rb.repoinsight.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.rb.repoinsight.scan.LineCounter;
+import com.rb.repoinsight.scan.RepoMetrics;
+import com.rb.repoinsight.scan.RepoMetricsCollector;
+import com.rb.repoinsight.scan.index.IndexedFile;
+import com.rb.repoinsight.scan.index.RepoFileIndex;
+
+/**
+ * Line counting of one source file (what {@code RepoMetricsCollector}
+ * does per file) and a full metrics pass over an index, without the
+ * result cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RepoMetricsCollectorBenchmark {
+
+    @Param({ "100", "1000" })
+    private int files;
+
+    private Path root;
+    private RepoFileIndex index;
+    private Path largestSource;
+    private final RepoMetricsCollector collector = new RepoMetricsCollector();
+
+    @Setup
+    public void setUp() throws IOException {
+        root = BenchmarkRepository.create(files);
+        index = RepoFileIndex.build(root);
+        IndexedFile largest = index.getSourceFiles().get(0);
+        for (IndexedFile file : index.getSourceFiles()) {
+            if (file.getSize() > largest.getSize()) {
+                largest = file;
+            }
+        }
+        largestSource = largest.getPath();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        BenchmarkRepository.delete(root);
+    }
+
+    @Benchmark
+    public long countLines() throws IOException {
+        return LineCounter.countLines(largestSource);
+    }
+
+    @Benchmark
+    public RepoMetrics collect() {
+        return collector.collect(index);
+    }
+}
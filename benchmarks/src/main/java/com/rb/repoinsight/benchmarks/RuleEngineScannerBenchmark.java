@@ -0,0 +1,62 @@
+package com.rb.repoinsight.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.rb.repoinsight.model.ExternalDependency;
+import com.rb.repoinsight.scan.RuleEngineScanner;
+import com.rb.repoinsight.scan.cache.FileResultCache;
+import com.rb.repoinsight.scan.index.RepoFileIndex;
+import com.rb.repoinsight.scan.rules.RuleMatchOptions;
+
+/**
+ * The bundled rules matched against a repository on one thread and without
+ * the result cache, reported per source file.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RuleEngineScannerBenchmark {
+
+    private static final int FILES = 200;
+
+    private Path root;
+    private RepoFileIndex index;
+    private RuleEngineScanner scanner;
+
+    @Setup
+    public void setUp() throws IOException {
+        root = BenchmarkRepository.create(FILES);
+        index = RepoFileIndex.build(root);
+        scanner = new RuleEngineScanner(FileResultCache.disabled(), new RuleMatchOptions(), 1);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        BenchmarkRepository.delete(root);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FILES)
+    public List<ExternalDependency> scanPerFile() {
+        return scanner.scan(index);
+    }
+}
@@ -0,0 +1,124 @@
+package com.rb.repoinsight.benchmarks.macro;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Compares macro benchmark results with a stored baseline, scale by scale:
+ * the run's wall time and peak heap (of the whole run; stages overlap, so
+ * heap is not measured per stage), and the wall time of every stage.
+ *
+ * Values below a floor are not judged, since a few milliseconds either way
+ * on a short stage is noise rather than a regression.
+ */
+public class BaselineComparison {
+
+    static final long MIN_JUDGED_NANOS = 50_000_000L;
+    static final String PEAK_HEAP = "peak heap (run)";
+
+    private final double threshold;
+    private final List<Entry> entries = new ArrayList<>();
+
+    /**
+     * One compared value.
+     */
+    public static class Entry {
+        private final String scale;
+        private final String metric;
+        private final long baseline;
+        private final long current;
+        private final boolean regression;
+
+        Entry(String scale, String metric, long baseline, long current, boolean regression) {
+            this.scale = scale;
+            this.metric = metric;
+            this.baseline = baseline;
+            this.current = current;
+            this.regression = regression;
+        }
+
+        public String getScale() {
+            return scale;
+        }
+
+        public String getMetric() {
+            return metric;
+        }
+
+        public long getBaseline() {
+            return baseline;
+        }
+
+        public long getCurrent() {
+            return current;
+        }
+
+        public boolean isRegression() {
+            return regression;
+        }
+    }
+
+    /**
+     * @param threshold Allowed growth over the baseline, e.g. 0.1 for 10%
+     */
+    public BaselineComparison(JsonNode baseline, JsonNode current, double threshold) {
+        this.threshold = threshold;
+        Iterator<Map.Entry<String, JsonNode>> scales = current.path("scales").fields();
+        while (scales.hasNext()) {
+            Map.Entry<String, JsonNode> scale = scales.next();
+            JsonNode before = baseline.path("scales").path(scale.getKey());
+            if (before.isMissingNode()) {
+                continue;
+            }
+            JsonNode after = scale.getValue();
+            compare(scale.getKey(), "wall", before.path("wallNanos"), after.path("wallNanos"), MIN_JUDGED_NANOS);
+            compare(scale.getKey(), PEAK_HEAP, before.path("peakHeapBytes"), after.path("peakHeapBytes"), 0);
+            Iterator<Map.Entry<String, JsonNode>> stages = after.path("stages").fields();
+            while (stages.hasNext()) {
+                Map.Entry<String, JsonNode> stage = stages.next();
+                compare(scale.getKey(), stage.getKey(), before.path("stages").path(stage.getKey()).path("wallNanos"),
+                        stage.getValue().path("wallNanos"), MIN_JUDGED_NANOS);
+            }
+        }
+    }
+
+    private void compare(String scale, String metric, JsonNode before, JsonNode after, long floor) {
+        if (!before.isNumber() || !after.isNumber()) {
+            return;
+        }
+        long baseline = before.asLong();
+        long current = after.asLong();
+        boolean regression = baseline >= floor && current > baseline * (1 + threshold);
+        entries.add(new Entry(scale, metric, baseline, current, regression));
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    public boolean hasRegressions() {
+        return entries.stream().anyMatch(Entry::isRegression);
+    }
+
+    /**
+     * The comparison as a plain-text table; times in ms, heap in MB.
+     */
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%-10s %-22s %12s %12s %8s%n", "Files", "Metric", "Baseline",
+                "Current", "Change"));
+        for (Entry entry : entries) {
+            double scale = entry.metric.equals(PEAK_HEAP) ? 1024 * 1024 : 1_000_000;
+            double change = entry.baseline == 0 ? 0 : (entry.current - entry.baseline) * 100.0 / entry.baseline;
+            sb.append(String.format(Locale.ROOT, "%-10s %-22s %12.1f %12.1f %+7.1f%%%s%n", entry.scale,
+                    entry.metric, entry.baseline / scale, entry.current / scale, change,
+                    entry.regression ? "  REGRESSION" : ""));
+        }
+        return sb.toString();
+    }
+}
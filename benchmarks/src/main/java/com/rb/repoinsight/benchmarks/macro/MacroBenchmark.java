@@ -0,0 +1,237 @@
+package com.rb.repoinsight.benchmarks.macro;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * End-to-end benchmark: generates synthetic repositories of increasing size
+ * and runs the packaged tool on each in a fresh JVM, collecting the wall
+ * and CPU time of every stage and the peak heap of the whole run from the
+ * {@code run-metrics.json} it writes. Stages run concurrently, so heap is
+ * not attributed to them.
+ *
+ * Results are written to {@code macro-results.json} in the work directory
+ * and compared with the baseline; the exit code is 1 if anything regressed
+ * by more than the threshold, or if there is no baseline and
+ * {@code --update-baseline} was not given. Generated repositories are kept and reused
+ * while their settings are unchanged.
+ *
+ * Usage: {@code MacroBenchmark --jar=TOOL_JAR [--scales=10000,100000,1000000]
+ * [--runs=N] [--work-dir=DIR] [--baseline=FILE] [--update-baseline]
+ * [--threshold=0.1] [--heap=SIZE] [repository options] [-- tool options]},
+ * where repository options are those of
+ * {@link SyntheticRepositoryConfig#apply(String)} (except {@code --files}).
+ */
+public class MacroBenchmark {
+
+    private static final String RUN_METRICS_FILE = "run-metrics.json";
+    /** Written by the tool into the repository; removed so later runs do not scan them. */
+    private static final List<String> TOOL_OUTPUTS = List.of("repo-insight.md", RUN_METRICS_FILE, "run-metrics.prom");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Path toolJar;
+    private List<Integer> scales = List.of(10_000, 100_000, 1_000_000);
+    private int runs = 1;
+    private Path workDir = Path.of("target/macro");
+    private Path baselineFile = Path.of("macro-baseline.json");
+    private boolean updateBaseline;
+    private double threshold = 0.1;
+    private String heap;
+    private final List<String> toolArgs = new ArrayList<>(List.of("--disable-ai"));
+    private final List<String> repositoryArgs = new ArrayList<>();
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        MacroBenchmark benchmark = new MacroBenchmark();
+        benchmark.parse(args);
+        System.exit(benchmark.run() ? 0 : 1);
+    }
+
+    private void parse(String[] args) {
+        boolean tool = false;
+        for (String arg : args) {
+            if (tool) {
+                toolArgs.add(arg);
+            } else if ("--".equals(arg)) {
+                tool = true;
+            } else if (arg.startsWith("--jar=")) {
+                toolJar = Path.of(arg.substring("--jar=".length()));
+            } else if (arg.startsWith("--scales=")) {
+                scales = new ArrayList<>();
+                for (String scale : arg.substring("--scales=".length()).split(",")) {
+                    scales.add(Integer.parseInt(scale.trim()));
+                }
+            } else if (arg.startsWith("--runs=")) {
+                runs = Math.max(1, Integer.parseInt(arg.substring("--runs=".length())));
+            } else if (arg.startsWith("--work-dir=")) {
+                workDir = Path.of(arg.substring("--work-dir=".length()));
+            } else if (arg.startsWith("--baseline=")) {
+                baselineFile = Path.of(arg.substring("--baseline=".length()));
+            } else if ("--update-baseline".equals(arg)) {
+                updateBaseline = true;
+            } else if (arg.startsWith("--threshold=")) {
+                threshold = Double.parseDouble(arg.substring("--threshold=".length()));
+            } else if (arg.startsWith("--heap=")) {
+                heap = arg.substring("--heap=".length());
+            } else if (arg.startsWith("--files=") || !new SyntheticRepositoryConfig().apply(arg)) {
+                System.err.println("Warning: Ignoring unknown option " + arg);
+            } else {
+                repositoryArgs.add(arg);
+            }
+        }
+        if (toolJar == null || !Files.isRegularFile(toolJar)) {
+            throw new IllegalArgumentException("--jar must name the packaged tool, e.g. "
+                    + "--jar=target/copilot-repo-insight-0.1.0.jar");
+        }
+    }
+
+    /**
+     * @return false if a run failed or a value regressed
+     */
+    private boolean run() throws IOException, InterruptedException {
+        Files.createDirectories(workDir);
+        ObjectNode results = objectMapper.createObjectNode();
+        ObjectNode machine = results.putObject("machine");
+        machine.put("processors", Runtime.getRuntime().availableProcessors());
+        machine.put("javaVersion", System.getProperty("java.version"));
+        machine.put("osName", System.getProperty("os.name"));
+        ObjectNode scaleResults = results.putObject("scales");
+
+        for (int files : scales) {
+            Path repository = prepareRepository(files);
+            List<JsonNode> measured = new ArrayList<>();
+            for (int run = 0; run < runs; run++) {
+                JsonNode metrics = runTool(repository, workDir.resolve("run-" + files + "-" + run + ".log"));
+                if (metrics == null) {
+                    return false;
+                }
+                measured.add(metrics);
+            }
+            // The median run by wall time stands for the scale
+            measured.sort(Comparator.comparingLong(metrics -> metrics.path("wallNanos").asLong()));
+            scaleResults.set(Integer.toString(files), summarize(measured.get(measured.size() / 2), files));
+            JsonNode summary = scaleResults.get(Integer.toString(files));
+            System.out.println("Measured " + files + " files: " + summary.path("wallNanos").asLong() / 1_000_000
+                    + " ms, peak heap of the whole run " + summary.path("peakHeapBytes").asLong() / (1024 * 1024)
+                    + " MB");
+        }
+
+        Path resultsFile = workDir.resolve("macro-results.json");
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(resultsFile.toFile(), results);
+        System.out.println("Results written to " + resultsFile.toAbsolutePath());
+
+        if (updateBaseline) {
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(baselineFile.toFile(), results);
+            System.out.println("Baseline updated: " + baselineFile.toAbsolutePath());
+            return true;
+        }
+        if (!Files.isRegularFile(baselineFile)) {
+            // Nothing to compare with would otherwise pass silently
+            System.err.println("No baseline at " + baselineFile.toAbsolutePath()
+                    + "; run with --update-baseline to store one");
+            return false;
+        }
+        BaselineComparison comparison = new BaselineComparison(objectMapper.readTree(baselineFile.toFile()),
+                results, threshold);
+        System.out.println();
+        System.out.print(comparison.format());
+        return !comparison.hasRegressions();
+    }
+
+    /**
+     * Generate the repository for a scale unless an identical one is there.
+     */
+    private Path prepareRepository(int files) throws IOException {
+        SyntheticRepositoryConfig config = new SyntheticRepositoryConfig();
+        config.setFiles(files);
+        config.setModules(Math.max(4, Math.min(500, files / 2000)));
+        for (String arg : repositoryArgs) {
+            config.apply(arg);
+        }
+        SyntheticRepositoryGenerator generator = new SyntheticRepositoryGenerator(config);
+        Path repository = workDir.resolve("repo-" + files);
+        if (generator.isGenerated(repository)) {
+            return repository;
+        }
+        if (Files.exists(repository)) {
+            deleteTree(repository);
+        }
+        long start = System.nanoTime();
+        generator.generate(repository);
+        System.out.println("Generated " + generator.getFilesWritten() + " files ("
+                + generator.getBytesWritten() / (1024 * 1024) + " MB) in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms: " + repository);
+        return repository;
+    }
+
+    /**
+     * Run the tool on a repository in its own JVM.
+     *
+     * @return The run metrics, or null if the run failed
+     */
+    private JsonNode runTool(Path repository, Path logFile) throws IOException, InterruptedException {
+        Path metricsFile = repository.resolve(RUN_METRICS_FILE);
+
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (heap != null) {
+            command.add("-Xmx" + heap);
+        }
+        command.add("-jar");
+        command.add(toolJar.toAbsolutePath().toString());
+        command.addAll(toolArgs);
+        Process process = new ProcessBuilder(command)
+                .directory(repository.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile())
+                .start();
+        int exitCode = process.waitFor();
+        try {
+            if (exitCode != 0 || !Files.isRegularFile(metricsFile)) {
+                System.err.println("Analysis of " + repository + " failed (exit code " + exitCode + "), see "
+                        + logFile);
+                return null;
+            }
+            return objectMapper.readTree(metricsFile.toFile());
+        } finally {
+            for (String output : TOOL_OUTPUTS) {
+                Files.deleteIfExists(repository.resolve(output));
+            }
+        }
+    }
+
+    /**
+     * The totals plus wall and CPU time by stage. Peak heap is only known
+     * for the whole run.
+     */
+    private ObjectNode summarize(JsonNode metrics, int files) {
+        ObjectNode summary = objectMapper.createObjectNode();
+        summary.put("files", files);
+        summary.put("wallNanos", metrics.path("wallNanos").asLong());
+        summary.put("cpuNanos", metrics.path("cpuNanos").asLong());
+        summary.put("peakHeapBytes", metrics.path("peakHeapBytes").asLong());
+        ObjectNode stages = summary.putObject("stages");
+        for (JsonNode stage : metrics.path("stages")) {
+            ObjectNode stageSummary = stages.putObject(stage.path("name").asText());
+            stageSummary.put("wallNanos", stage.path("wallNanos").asLong());
+            stageSummary.put("cpuNanos", stage.path("cpuNanos").asLong());
+        }
+        return summary;
+    }
+
+    private static void deleteTree(Path root) throws IOException {
+        try (var paths = Files.walk(root)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.rb.repoinsight.benchmarks.macro;
+
+import java.util.Locale;
+
+/**
+ * Shape of a synthetic repository. The same settings and seed always
+ * produce the same tree.
+ */
+public class SyntheticRepositoryConfig {
+
+    private long seed = 42;
+    private int files = 10_000;
+    private int modules = 10;
+    private int packagesPerModule = 20;
+    private int javaWeight = 70;
+    private int xmlWeight = 10;
+    private int yamlWeight = 10;
+    private int jsonWeight = 10;
+    private long medianFileBytes = 4 * 1024;
+    private double fileSizeSigma = 1.0;
+    private long maxFileBytes = 1024 * 1024;
+    private double testRatio = 0.3;
+    private double ruleTriggerRatio = 0.02;
+    private int binaryBlobs = 20;
+    private long binaryBlobBytes = 256 * 1024;
+    private int outliers = 0;
+    private long outlierBytes = 2L * 1024 * 1024 * 1024;
+
+    /**
+     * Apply a {@code --name=value} option.
+     *
+     * @return false if the option is not a repository setting
+     * @throws IllegalArgumentException If the value is invalid
+     */
+    public boolean apply(String arg) {
+        int equals = arg.indexOf('=');
+        if (!arg.startsWith("--") || equals < 0) {
+            return false;
+        }
+        String value = arg.substring(equals + 1);
+        switch (arg.substring(2, equals)) {
+            case "seed" -> seed = Long.parseLong(value);
+            case "files" -> files = positive(arg, Integer.parseInt(value));
+            case "modules" -> modules = positive(arg, Integer.parseInt(value));
+            case "packages" -> packagesPerModule = positive(arg, Integer.parseInt(value));
+            case "mix" -> applyMix(arg, value);
+            case "median-bytes" -> medianFileBytes = positive(arg, Long.parseLong(value));
+            case "size-sigma" -> fileSizeSigma = Double.parseDouble(value);
+            case "max-bytes" -> maxFileBytes = positive(arg, Long.parseLong(value));
+            case "test-ratio" -> testRatio = ratio(arg, Double.parseDouble(value));
+            case "rule-ratio" -> ruleTriggerRatio = ratio(arg, Double.parseDouble(value));
+            case "blobs" -> binaryBlobs = Integer.parseInt(value);
+            case "blob-bytes" -> binaryBlobBytes = Long.parseLong(value);
+            case "outliers" -> outliers = Integer.parseInt(value);
+            case "outlier-bytes" -> outlierBytes = Long.parseLong(value);
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@code java:xml:yaml:json} weights, e.g. {@code 70:10:10:10}.
+     */
+    private void applyMix(String arg, String value) {
+        String[] weights = value.split(":");
+        if (weights.length != 4) {
+            throw new IllegalArgumentException("Expected java:xml:yaml:json weights in " + arg);
+        }
+        javaWeight = Integer.parseInt(weights[0]);
+        xmlWeight = Integer.parseInt(weights[1]);
+        yamlWeight = Integer.parseInt(weights[2]);
+        jsonWeight = Integer.parseInt(weights[3]);
+        if (javaWeight + xmlWeight + yamlWeight + jsonWeight <= 0) {
+            throw new IllegalArgumentException("No file type has a weight in " + arg);
+        }
+    }
+
+    private static int positive(String arg, int value) {
+        return (int) positive(arg, (long) value);
+    }
+
+    private static long positive(String arg, long value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException("Expected a positive value in " + arg);
+        }
+        return value;
+    }
+
+    private static double ratio(String arg, double value) {
+        if (value < 0 || value > 1) {
+            throw new IllegalArgumentException("Expected a value between 0 and 1 in " + arg);
+        }
+        return value;
+    }
+
+    /**
+     * One line naming every setting, so a generated tree can be matched to
+     * the settings it was generated with.
+     */
+    public String describe() {
+        return String.format(Locale.ROOT,
+                "seed=%d files=%d modules=%d packages=%d mix=%d:%d:%d:%d median-bytes=%d size-sigma=%s"
+                        + " max-bytes=%d test-ratio=%s rule-ratio=%s blobs=%d blob-bytes=%d outliers=%d"
+                        + " outlier-bytes=%d",
+                seed, files, modules, packagesPerModule, javaWeight, xmlWeight, yamlWeight, jsonWeight,
+                medianFileBytes, fileSizeSigma, maxFileBytes, testRatio, ruleTriggerRatio, binaryBlobs,
+                binaryBlobBytes, outliers, outlierBytes);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Text files (Java, XML, YAML and JSON) besides the build files, blobs
+     * and outliers.
+     */
+    public int getFiles() {
+        return files;
+    }
+
+    public void setFiles(int files) {
+        this.files = files;
+    }
+
+    public int getModules() {
+        return modules;
+    }
+
+    public void setModules(int modules) {
+        this.modules = modules;
+    }
+
+    public int getPackagesPerModule() {
+        return packagesPerModule;
+    }
+
+    public void setPackagesPerModule(int packagesPerModule) {
+        this.packagesPerModule = packagesPerModule;
+    }
+
+    public int getJavaWeight() {
+        return javaWeight;
+    }
+
+    public int getXmlWeight() {
+        return xmlWeight;
+    }
+
+    public int getYamlWeight() {
+        return yamlWeight;
+    }
+
+    public int getJsonWeight() {
+        return jsonWeight;
+    }
+
+    /**
+     * Text file sizes are log-normal around this median.
+     */
+    public long getMedianFileBytes() {
+        return medianFileBytes;
+    }
+
+    public void setMedianFileBytes(long medianFileBytes) {
+        this.medianFileBytes = medianFileBytes;
+    }
+
+    /**
+     * Standard deviation of the natural log of the text file sizes; 0 makes
+     * every file the median size.
+     */
+    public double getFileSizeSigma() {
+        return fileSizeSigma;
+    }
+
+    public void setFileSizeSigma(double fileSizeSigma) {
+        this.fileSizeSigma = fileSizeSigma;
+    }
+
+    public long getMaxFileBytes() {
+        return maxFileBytes;
+    }
+
+    public void setMaxFileBytes(long maxFileBytes) {
+        this.maxFileBytes = maxFileBytes;
+    }
+
+    /**
+     * Share of Java files that are tests.
+     */
+    public double getTestRatio() {
+        return testRatio;
+    }
+
+    public void setTestRatio(double testRatio) {
+        this.testRatio = testRatio;
+    }
+
+    /**
+     * Share of text files that contain something a bundled rule detects.
+     */
+    public double getRuleTriggerRatio() {
+        return ruleTriggerRatio;
+    }
+
+    public void setRuleTriggerRatio(double ruleTriggerRatio) {
+        this.ruleTriggerRatio = ruleTriggerRatio;
+    }
+
+    public int getBinaryBlobs() {
+        return binaryBlobs;
+    }
+
+    public void setBinaryBlobs(int binaryBlobs) {
+        this.binaryBlobs = binaryBlobs;
+    }
+
+    public long getBinaryBlobBytes() {
+        return binaryBlobBytes;
+    }
+
+    public void setBinaryBlobBytes(long binaryBlobBytes) {
+        this.binaryBlobBytes = binaryBlobBytes;
+    }
+
+    /**
+     * Very large text files (sparse where the file system allows), for the
+     * paths that read whole files.
+     */
+    public int getOutliers() {
+        return outliers;
+    }
+
+    public void setOutliers(int outliers) {
+        this.outliers = outliers;
+    }
+
+    public long getOutlierBytes() {
+        return outlierBytes;
+    }
+
+    public void setOutlierBytes(long outlierBytes) {
+        this.outlierBytes = outlierBytes;
+    }
+}
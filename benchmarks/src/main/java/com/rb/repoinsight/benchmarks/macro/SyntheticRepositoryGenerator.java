@@ -0,0 +1,333 @@
+package com.rb.repoinsight.benchmarks.macro;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Writes a deterministic multi-module Maven repository for scale tests.
+ *
+ * Every file's type, location, size and content come from a random stream
+ * split off the seed for that file alone, so the same settings always give
+ * byte-identical trees. Filler text avoids everything the bundled rules look
+ * for (including port numbers), so only the files chosen by the rule
+ * trigger ratio produce findings.
+ *
+ * Usage: {@code SyntheticRepositoryGenerator <dir> [--files=N] [--seed=N] ...}
+ * with the options of {@link SyntheticRepositoryConfig#apply(String)}.
+ */
+public class SyntheticRepositoryGenerator {
+
+    /** Written last, with the settings; a tree without it is incomplete. */
+    public static final String MARKER_FILE = ".synthetic-repo";
+
+    private static final String BASE_PACKAGE = "com/synthetic";
+
+    private static final String[] JAVA_TRIGGERS = {
+        "    private static final String URL = \"jdbc:postgresql://db/app\";\n",
+        "    private final RestTemplate restTemplate = new RestTemplate();\n",
+        "    private static final String TOPIC = \"kafka.orders\";\n",
+        "    private static final String CACHE = \"redis://cache\";\n",
+    };
+    private static final String[] YAML_TRIGGERS = {
+        "spring.datasource.url: jdbc:mysql://db/app\n",
+        "broker: amqp://queue\n",
+        "bucket: s3://reports\n",
+    };
+    private static final String[] JSON_TRIGGERS = {
+        "  \"mongo\": \"mongodb://store\",\n",
+        "  \"table\": \"dynamodb-orders\",\n",
+    };
+    private static final String[] XML_TRIGGERS = {
+        "  <endpoint>https://api.partner.example/orders</endpoint>\n",
+        "  <topic>pubsub-events</topic>\n",
+    };
+    private static final String[] WORDS = {
+        "order", "customer", "invoice", "ledger", "account", "payment", "shipment", "catalog",
+        "product", "review", "session", "profile", "report", "schedule", "audit", "region",
+    };
+
+    private final SyntheticRepositoryConfig config;
+    private long filesWritten;
+    private long bytesWritten;
+
+    public SyntheticRepositoryGenerator(SyntheticRepositoryConfig config) {
+        this.config = config;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: SyntheticRepositoryGenerator <dir> [--files=N] [--seed=N] ...");
+            System.exit(2);
+        }
+        SyntheticRepositoryConfig config = new SyntheticRepositoryConfig();
+        for (int i = 1; i < args.length; i++) {
+            if (!config.apply(args[i])) {
+                System.err.println("Warning: Ignoring unknown option " + args[i]);
+            }
+        }
+        SyntheticRepositoryGenerator generator = new SyntheticRepositoryGenerator(config);
+        generator.generate(Path.of(args[0]));
+        System.out.println("Generated " + generator.getFilesWritten() + " files, "
+                + generator.getBytesWritten() + " bytes in " + Path.of(args[0]).toAbsolutePath());
+    }
+
+    /**
+     * Whether {@code root} holds a complete tree generated with the same
+     * settings.
+     */
+    public boolean isGenerated(Path root) throws IOException {
+        Path marker = root.resolve(MARKER_FILE);
+        return Files.isRegularFile(marker) && Files.readString(marker).trim().equals(config.describe());
+    }
+
+    /**
+     * Generate the repository into {@code root}, which must not exist or be
+     * empty.
+     *
+     * @throws IOException If a file cannot be written
+     */
+    public void generate(Path root) throws IOException {
+        Files.createDirectories(root);
+        try (var entries = Files.list(root)) {
+            if (entries.findAny().isPresent()) {
+                throw new IOException("Not an empty directory: " + root);
+            }
+        }
+
+        StringBuilder moduleList = new StringBuilder();
+        for (int module = 0; module < config.getModules(); module++) {
+            moduleList.append("        <module>").append(moduleName(module)).append("</module>\n");
+            write(root.resolve(moduleName(module)).resolve("pom.xml"), modulePom(module));
+        }
+        write(root.resolve("pom.xml"), "<project>\n"
+                + "    <modelVersion>4.0.0</modelVersion>\n"
+                + "    <groupId>com.synthetic</groupId>\n"
+                + "    <artifactId>synthetic-root</artifactId>\n"
+                + "    <version>1.0.0</version>\n"
+                + "    <packaging>pom</packaging>\n"
+                + "    <modules>\n" + moduleList + "    </modules>\n"
+                + "</project>\n");
+
+        for (int file = 0; file < config.getFiles(); file++) {
+            writeTextFile(root, file);
+        }
+        for (int blob = 0; blob < config.getBinaryBlobs(); blob++) {
+            writeBinaryBlob(root, blob);
+        }
+        for (int outlier = 0; outlier < config.getOutliers(); outlier++) {
+            writeOutlier(root, outlier);
+        }
+        Files.writeString(root.resolve(MARKER_FILE), config.describe() + "\n");
+    }
+
+    public long getFilesWritten() {
+        return filesWritten;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    private void writeTextFile(Path root, int index) throws IOException {
+        SplittableRandom random = random(1, index);
+        String module = moduleName(random.nextInt(config.getModules()));
+        String pkg = BASE_PACKAGE + "/" + module.replace("-", "") + "/" + name(random.nextInt(
+                config.getPackagesPerModule()));
+        String name = capitalize(WORDS[random.nextInt(WORDS.length)]) + capitalize(name(index));
+        boolean trigger = random.nextDouble() < config.getRuleTriggerRatio();
+        int targetBytes = (int) fileSize(random);
+
+        int type = random.nextInt(config.getJavaWeight() + config.getXmlWeight() + config.getYamlWeight()
+                + config.getJsonWeight());
+        if (type < config.getJavaWeight()) {
+            boolean test = random.nextDouble() < config.getTestRatio();
+            String className = test ? name + "Test" : name;
+            Path dir = root.resolve(module).resolve(test ? "src/test/java" : "src/main/java").resolve(pkg);
+            write(dir.resolve(className + ".java"),
+                    javaSource(random, pkg.replace('/', '.'), className, targetBytes, trigger));
+        } else {
+            Path dir = root.resolve(module).resolve("src/main/resources").resolve(name(index % 64));
+            type -= config.getJavaWeight();
+            if (type < config.getXmlWeight()) {
+                write(dir.resolve(name + ".xml"), xmlDocument(random, targetBytes, trigger));
+            } else if (type - config.getXmlWeight() < config.getYamlWeight()) {
+                write(dir.resolve(name + ".yml"), yamlDocument(random, targetBytes, trigger));
+            } else {
+                write(dir.resolve(name + ".json"), jsonDocument(random, targetBytes, trigger));
+            }
+        }
+    }
+
+    /**
+     * Log-normal around the median, clamped to the maximum.
+     */
+    private long fileSize(SplittableRandom random) {
+        // Box-Muller; SplittableRandom has no nextGaussian
+        double gaussian = Math.sqrt(-2 * Math.log(1 - random.nextDouble()))
+                * Math.cos(2 * Math.PI * random.nextDouble());
+        double size = config.getMedianFileBytes() * Math.exp(config.getFileSizeSigma() * gaussian);
+        return Math.max(64, Math.min(config.getMaxFileBytes(), Math.round(size)));
+    }
+
+    private String javaSource(SplittableRandom random, String pkg, String className, int targetBytes,
+            boolean trigger) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("package ").append(pkg).append(";\n\n");
+        sb.append("import java.util.List;\n\n");
+        sb.append("public class ").append(className).append(" {\n\n");
+        if (trigger) {
+            sb.append(JAVA_TRIGGERS[random.nextInt(JAVA_TRIGGERS.length)]).append('\n');
+        }
+        for (int method = 0; sb.length() < targetBytes; method++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            sb.append("    public int ").append(word).append(name(method)).append("(List<String> values) {\n");
+            sb.append("        int total = ").append(random.nextInt(100)).append(";\n");
+            sb.append("        for (String value : values) {\n");
+            sb.append("            if (value.startsWith(\"").append(word).append("\")) {\n");
+            sb.append("                total += value.length();\n");
+            sb.append("            }\n");
+            sb.append("        }\n");
+            sb.append("        return total;\n");
+            sb.append("    }\n\n");
+        }
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    private String xmlDocument(SplittableRandom random, int targetBytes, boolean trigger) {
+        StringBuilder sb = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<settings>\n");
+        if (trigger) {
+            sb.append(XML_TRIGGERS[random.nextInt(XML_TRIGGERS.length)]);
+        }
+        while (sb.length() < targetBytes) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            sb.append("  <").append(word).append(" limit=\"").append(random.nextInt(100)).append("\">")
+                    .append(WORDS[random.nextInt(WORDS.length)]).append("</").append(word).append(">\n");
+        }
+        return sb.append("</settings>\n").toString();
+    }
+
+    private String yamlDocument(SplittableRandom random, int targetBytes, boolean trigger) {
+        StringBuilder sb = new StringBuilder();
+        if (trigger) {
+            sb.append(YAML_TRIGGERS[random.nextInt(YAML_TRIGGERS.length)]);
+        }
+        for (int section = 0; sb.length() < targetBytes; section++) {
+            sb.append(WORDS[random.nextInt(WORDS.length)]).append(name(section)).append(":\n");
+            for (int key = 0; key < 4; key++) {
+                sb.append("  ").append(WORDS[random.nextInt(WORDS.length)]).append(": ")
+                        .append(random.nextInt(100)).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    private String jsonDocument(SplittableRandom random, int targetBytes, boolean trigger) {
+        StringBuilder sb = new StringBuilder("{\n");
+        if (trigger) {
+            sb.append(JSON_TRIGGERS[random.nextInt(JSON_TRIGGERS.length)]);
+        }
+        for (int key = 0; sb.length() < targetBytes; key++) {
+            sb.append("  \"").append(WORDS[random.nextInt(WORDS.length)]).append(name(key)).append("\": \"")
+                    .append(WORDS[random.nextInt(WORDS.length)]).append("\",\n");
+        }
+        return sb.append("  \"end\": true\n}\n").toString();
+    }
+
+    private void writeBinaryBlob(Path root, int index) throws IOException {
+        SplittableRandom random = random(2, index);
+        byte[] bytes = new byte[(int) config.getBinaryBlobBytes()];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) random.nextInt(256);
+        }
+        Path file = root.resolve("assets").resolve("blob-" + name(index) + ".bin");
+        Files.createDirectories(file.getParent());
+        Files.write(file, bytes);
+        filesWritten++;
+        bytesWritten += bytes.length;
+    }
+
+    /**
+     * A generated Java source of the outlier size: a short header, then a
+     * hole the file system can leave unallocated.
+     */
+    private void writeOutlier(Path root, int index) throws IOException {
+        String className = "GeneratedTables" + capitalize(name(index));
+        Path file = root.resolve(moduleName(0)).resolve("src/main/java").resolve(BASE_PACKAGE)
+                .resolve("generated").resolve(className + ".java");
+        Files.createDirectories(file.getParent());
+        byte[] header = ("package com.synthetic.generated;\n\npublic class " + className + " {\n")
+                .getBytes(StandardCharsets.UTF_8);
+        try (RandomAccessFile out = new RandomAccessFile(file.toFile(), "rw")) {
+            out.write(header);
+            out.setLength(Math.max(header.length, config.getOutlierBytes()));
+        }
+        filesWritten++;
+        bytesWritten += Math.max(header.length, config.getOutlierBytes());
+    }
+
+    private String modulePom(int module) {
+        return "<project>\n"
+                + "    <modelVersion>4.0.0</modelVersion>\n"
+                + "    <parent>\n"
+                + "        <groupId>com.synthetic</groupId>\n"
+                + "        <artifactId>synthetic-root</artifactId>\n"
+                + "        <version>1.0.0</version>\n"
+                + "    </parent>\n"
+                + "    <artifactId>" + moduleName(module) + "</artifactId>\n"
+                + "    <dependencies>\n"
+                + "        <dependency>\n"
+                + "            <groupId>org.junit.jupiter</groupId>\n"
+                + "            <artifactId>junit-jupiter</artifactId>\n"
+                + "            <version>5.9.3</version>\n"
+                + "            <scope>test</scope>\n"
+                + "        </dependency>\n"
+                + "    </dependencies>\n"
+                + "</project>\n";
+    }
+
+    private void write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        Files.write(file, bytes);
+        filesWritten++;
+        bytesWritten += bytes.length;
+    }
+
+    /**
+     * An independent stream per kind of file and index, so adding blobs or
+     * outliers does not change the text files.
+     */
+    private SplittableRandom random(int kind, int index) {
+        // SplitMix64 finalizer over seed, kind and index
+        long z = config.getSeed() * 0x9E3779B97F4A7C15L + kind * 0xC2B2AE3D27D4EB4FL + index;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return new SplittableRandom(z ^ (z >>> 31));
+    }
+
+    private static String moduleName(int module) {
+        return "module-" + name(module);
+    }
+
+    /**
+     * Letters only, so names never contain the digits the rules look for.
+     */
+    static String name(int index) {
+        StringBuilder sb = new StringBuilder();
+        int value = index;
+        do {
+            sb.append((char) ('a' + value % 26));
+            value /= 26;
+        } while (value > 0);
+        return sb.reverse().toString();
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
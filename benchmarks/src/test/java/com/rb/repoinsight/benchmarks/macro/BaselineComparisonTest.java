@@ -0,0 +1,52 @@
+package com.rb.repoinsight.benchmarks.macro;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BaselineComparison.
+ */
+class BaselineComparisonTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testFlagsGrowthBeyondThreshold() throws Exception {
+        JsonNode baseline = results(1_000_000_000L, 400_000_000L, 10_000_000L);
+        JsonNode current = results(1_050_000_000L, 600_000_000L, 30_000_000L);
+
+        BaselineComparison comparison = new BaselineComparison(baseline, current, 0.1);
+
+        assertTrue(comparison.hasRegressions());
+        assertFalse(entry(comparison, "wall").isRegression());
+        assertTrue(entry(comparison, "index").isRegression());
+        // Below the floor, tripling is still noise
+        assertFalse(entry(comparison, "render").isRegression());
+        assertTrue(comparison.format().contains("REGRESSION"));
+    }
+
+    @Test
+    void testSkipsScalesMissingFromBaseline() throws Exception {
+        JsonNode baseline = objectMapper.readTree("{\"scales\": {}}");
+
+        BaselineComparison comparison = new BaselineComparison(baseline, results(1, 1, 1), 0.1);
+
+        assertTrue(comparison.getEntries().isEmpty());
+        assertFalse(comparison.hasRegressions());
+    }
+
+    private JsonNode results(long wall, long index, long render) throws Exception {
+        return objectMapper.readTree("{\"scales\": {\"10000\": {\"wallNanos\": " + wall
+                + ", \"peakHeapBytes\": 1000, \"stages\": {\"index\": {\"wallNanos\": " + index
+                + "}, \"render\": {\"wallNanos\": " + render + "}}}}}");
+    }
+
+    private static BaselineComparison.Entry entry(BaselineComparison comparison, String metric) {
+        return comparison.getEntries().stream().filter(entry -> entry.getMetric().equals(metric)).findFirst()
+                .orElseThrow();
+    }
+}
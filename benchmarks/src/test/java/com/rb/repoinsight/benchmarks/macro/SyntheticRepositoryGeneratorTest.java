@@ -0,0 +1,83 @@
+package com.rb.repoinsight.benchmarks.macro;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SyntheticRepositoryGenerator.
+ */
+class SyntheticRepositoryGeneratorTest {
+
+    @Test
+    void testSameSeedGivesIdenticalTrees(@TempDir Path tempDir) throws IOException {
+        SyntheticRepositoryConfig config = config(7);
+        new SyntheticRepositoryGenerator(config).generate(tempDir.resolve("a"));
+        new SyntheticRepositoryGenerator(config).generate(tempDir.resolve("b"));
+
+        List<Path> files = files(tempDir.resolve("a"));
+        assertEquals(files, files(tempDir.resolve("b")));
+        for (Path file : files) {
+            assertArrayEquals(Files.readAllBytes(tempDir.resolve("a").resolve(file)),
+                    Files.readAllBytes(tempDir.resolve("b").resolve(file)), file.toString());
+        }
+        new SyntheticRepositoryGenerator(config(8)).generate(tempDir.resolve("c"));
+        assertNotEquals(files, files(tempDir.resolve("c")));
+    }
+
+    @Test
+    void testGeneratesConfiguredShape(@TempDir Path tempDir) throws IOException {
+        SyntheticRepositoryConfig config = config(7);
+        SyntheticRepositoryGenerator generator = new SyntheticRepositoryGenerator(config);
+        Path root = tempDir.resolve("repo");
+        generator.generate(root);
+
+        List<Path> files = files(root);
+        // Text files, module POMs, the root POM, blobs, the outlier and the marker
+        assertEquals(200 + 3 + 1 + 2 + 1 + 1, files.size());
+        assertEquals(200 + 3 + 1 + 2 + 1, generator.getFilesWritten());
+        assertTrue(files.stream().anyMatch(file -> file.toString().contains("src/test/java")));
+        assertTrue(files.stream().anyMatch(file -> file.toString().endsWith(".yml")));
+        Path outlier = files.stream().filter(file -> file.toString().contains("GeneratedTables")).findFirst()
+                .orElseThrow();
+        assertEquals(5_000_000, Files.size(root.resolve(outlier)));
+        assertTrue(generator.isGenerated(root));
+        assertFalse(new SyntheticRepositoryGenerator(config(8)).isGenerated(root));
+    }
+
+    @Test
+    void testNamesAvoidDigits() {
+        assertEquals("a", SyntheticRepositoryGenerator.name(0));
+        assertEquals("ba", SyntheticRepositoryGenerator.name(26));
+        assertTrue(SyntheticRepositoryGenerator.name(5432).chars().allMatch(Character::isLetter));
+    }
+
+    private static SyntheticRepositoryConfig config(long seed) {
+        SyntheticRepositoryConfig config = new SyntheticRepositoryConfig();
+        assertTrue(config.apply("--seed=" + seed));
+        assertTrue(config.apply("--files=200"));
+        assertTrue(config.apply("--modules=3"));
+        assertTrue(config.apply("--blobs=2"));
+        assertTrue(config.apply("--blob-bytes=1024"));
+        assertTrue(config.apply("--outliers=1"));
+        assertTrue(config.apply("--outlier-bytes=5000000"));
+        assertTrue(config.apply("--rule-ratio=0.5"));
+        return config;
+    }
+
+    private static List<Path> files(Path root) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.filter(Files::isRegularFile).map(root::relativize).sorted().forEach(files::add);
+        }
+        return files;
+    }
+}
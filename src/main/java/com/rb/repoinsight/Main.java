@@ -1,49 +1,430 @@
 package com.rb.repoinsight;
 
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
+import com.rb.repoinsight.ai.AiClient;
 import com.rb.repoinsight.ai.CopilotClient;
+import com.rb.repoinsight.model.AiAnalysisResult;
+import com.rb.repoinsight.model.ExternalDependency;
 import com.rb.repoinsight.model.RepoContext;
+import com.rb.repoinsight.model.RunMetrics;
+import com.rb.repoinsight.model.StageMetrics;
+import com.rb.repoinsight.pipeline.Pipeline;
+import com.rb.repoinsight.pipeline.PipelineException;
+import com.rb.repoinsight.pipeline.PipelineKey;
+import com.rb.repoinsight.pipeline.PipelineResults;
+import com.rb.repoinsight.profile.HotSpotSummary;
+import com.rb.repoinsight.profile.JfrProfiler;
 import com.rb.repoinsight.report.MarkdownReportGenerator;
+import com.rb.repoinsight.report.RuleProfileWriter;
+import com.rb.repoinsight.report.RunMetricsWriter;
 import com.rb.repoinsight.scan.ComplexityAnalyzer;
 import com.rb.repoinsight.scan.JaCoCoParser;
 import com.rb.repoinsight.scan.RepoMetrics;
 import com.rb.repoinsight.scan.RepoMetricsCollector;
+import com.rb.repoinsight.scan.RuleEngineScanner;
 import com.rb.repoinsight.scan.TestCoverageCalculator;
+import com.rb.repoinsight.scan.cache.FileResultCache;
+import com.rb.repoinsight.scan.index.IndexOptions;
+import com.rb.repoinsight.scan.index.IndexedFile;
+import com.rb.repoinsight.scan.index.RepoFileIndex;
+import com.rb.repoinsight.scan.maven.LocalRepositoryIndex;
+import com.rb.repoinsight.scan.rules.RegexEngine;
+import com.rb.repoinsight.scan.rules.RuleMatchOptions;
+import com.rb.repoinsight.scan.rules.RulePack;
 import com.rb.repoinsight.scanner.RepoScanner;
 import com.rb.repoinsight.service.AnalysisOrchestrator;
 import com.rb.repoinsight.util.ProcessBuilderCommandExecutor;
 
 public class Main {
 
+    private static final PipelineKey<RepoFileIndex> INDEX = PipelineKey.of("index");
+    private static final PipelineKey<RuleEngineScanner> RULE_ENGINE = PipelineKey.of("ruleEngine");
+    private static final PipelineKey<List<ExternalDependency>> DEPENDENCIES = PipelineKey.of("dependencies");
+    private static final PipelineKey<Void> BUILD = PipelineKey.of("build");
+    private static final PipelineKey<Void> OVERVIEW = PipelineKey.of("overview");
+    private static final PipelineKey<Boolean> AI_AVAILABLE = PipelineKey.of("aiAvailable");
+    private static final PipelineKey<RepoMetrics> METRICS = PipelineKey.of("metrics");
+    private static final PipelineKey<Integer> COVERAGE = PipelineKey.of("coverage");
+    private static final PipelineKey<Void> COMPLEXITY = PipelineKey.of("complexity");
+    private static final PipelineKey<Void> MODULES = PipelineKey.of("modules");
+    private static final PipelineKey<Void> MODULE_DESCRIPTIONS = PipelineKey.of("moduleDescriptions");
+    private static final PipelineKey<AiAnalysisResult> AI_ANALYSIS = PipelineKey.of("aiAnalysis");
+
     public static void main(String[] args) {
         long startTime = System.currentTimeMillis();
         
         // Parse arguments
         boolean enableAi = true;  // AI is enabled by default
         boolean enableAccurateCoverage = false;
+        IndexOptions indexOptions = new IndexOptions();
+        boolean useCache = false;
+        boolean cacheContentHash = false;
+        String cacheDir = FileResultCache.DEFAULT_DIRECTORY;
+        RuleMatchOptions matchOptions = new RuleMatchOptions();
+        List<Path> ruleDirs = new ArrayList<>();
+        Path rulePackFile = null;
+        Path compileRulePackFile = null;
+        Path ruleProfileFile = null;
+        Path profileFile = null;
+        Path localRepository = null;
         
         for (String arg : args) {
             if ("--disable-ai".equals(arg)) {
                 enableAi = false;
             } else if ("--coverage-accurate".equals(arg)) {
                 enableAccurateCoverage = true;
+            } else if (arg.startsWith("--parallelism=")) {
+                indexOptions.setParallelism(parseInt(arg, indexOptions.getParallelism()));
+            } else if (arg.startsWith("--exclude=")) {
+                for (String pattern : arg.substring("--exclude=".length()).split(",")) {
+                    if (!pattern.isBlank()) {
+                        indexOptions.addExcludePattern(pattern.trim());
+                    }
+                }
+            } else if ("--no-gitignore".equals(arg)) {
+                indexOptions.setRespectGitignore(false);
+            } else if ("--git-index".equals(arg)) {
+                indexOptions.setUseGitIndex(true);
+            } else if ("--cache".equals(arg)) {
+                useCache = true;
+            } else if ("--cache-content-hash".equals(arg)) {
+                useCache = true;
+                cacheContentHash = true;
+            } else if (arg.startsWith("--cache-dir=")) {
+                useCache = true;
+                cacheDir = arg.substring("--cache-dir=".length());
+            } else if (arg.startsWith("--regex-engine=")) {
+                String engine = arg.substring("--regex-engine=".length());
+                try {
+                    matchOptions.setRegexEngine(RegexEngine.valueOf(engine.toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Warning: Ignoring invalid value in " + arg);
+                }
+            } else if (arg.startsWith("--rule-timeout-ms=")) {
+                matchOptions.setMatchTimeoutMillis(parseInt(arg, (int) matchOptions.getMatchTimeoutMillis()));
+            } else if (arg.startsWith("--rules-dir=")) {
+                for (String dir : arg.substring("--rules-dir=".length()).split(",")) {
+                    if (!dir.isBlank()) {
+                        ruleDirs.add(Path.of(dir.trim()));
+                    }
+                }
+            } else if (arg.startsWith("--rule-pack=")) {
+                rulePackFile = Path.of(arg.substring("--rule-pack=".length()));
+            } else if ("--rule-profile".equals(arg)) {
+                matchOptions.setProfile(true);
+                ruleProfileFile = Path.of(RuleProfileWriter.DEFAULT_FILE);
+            } else if (arg.startsWith("--rule-profile=")) {
+                matchOptions.setProfile(true);
+                ruleProfileFile = Path.of(arg.substring("--rule-profile=".length()));
+            } else if ("--profile".equals(arg)) {
+                profileFile = Path.of(JfrProfiler.DEFAULT_FILE);
+            } else if (arg.startsWith("--profile=")) {
+                profileFile = Path.of(arg.substring("--profile=".length()));
+            } else if ("--transitive".equals(arg)) {
+                if (localRepository == null) {
+                    localRepository = LocalRepositoryIndex.defaultRepository();
+                }
+            } else if (arg.startsWith("--local-repo=")) {
+                localRepository = Path.of(arg.substring("--local-repo=".length()));
+            } else if (arg.startsWith("--compile-rule-pack=")) {
+                compileRulePackFile = Path.of(arg.substring("--compile-rule-pack=".length()));
             }
         }
 
+        if (compileRulePackFile != null) {
+            int exitCode = compileRulePack(ruleDirs, compileRulePackFile);
+            if (exitCode != 0) {
+                System.exit(exitCode);
+            }
+            return;
+        }
+
         Path repoRoot = Path.of(".").toAbsolutePath().normalize();
 
         System.out.println("Copilot Repo Insight");
         System.out.println("Analyzing repository: " + repoRoot);
         System.out.println();
 
-        RepoScanner scanner = new RepoScanner();
-        RepoContext context = scanner.scan(repoRoot);
+        JfrProfiler profiler = null;
+        if (profileFile != null) {
+            try {
+                profiler = JfrProfiler.start(profileFile);
+            } catch (IOException | IllegalStateException | SecurityException e) {
+                System.err.println("Warning: Failed to start flight recording: " + e.getMessage());
+            }
+        }
+
+        // Everything this run writes inside the repository is its own output,
+        // not part of what is analyzed. The default locations of the optional
+        // outputs are excluded even when they are off, since an earlier run
+        // may have left them behind.
+        Path outputFile = Path.of("repo-insight.md");
+        Path runMetricsDir = outputFile.toAbsolutePath().getParent();
+        List<Path> outputs = new ArrayList<>(List.of(outputFile,
+                runMetricsDir.resolve(RunMetricsWriter.JSON_FILE),
+                runMetricsDir.resolve(RunMetricsWriter.OPENMETRICS_FILE),
+                repoRoot.resolve(cacheDir),
+                Path.of(RuleProfileWriter.DEFAULT_FILE),
+                Path.of(JfrProfiler.DEFAULT_FILE)));
+        if (ruleProfileFile != null) {
+            outputs.add(ruleProfileFile);
+        }
+        if (profileFile != null) {
+            outputs.add(profileFile);
+        }
+        for (Path output : outputs) {
+            indexOptions.addExcludedOutput(repoRoot, output);
+        }
 
+        // Per-file results from the previous run (opt-in)
+        FileResultCache cache = useCache
+                ? FileResultCache.open(repoRoot.resolve(cacheDir), cacheContentHash)
+                : FileResultCache.disabled();
+        LocalRepositoryIndex localRepositoryIndex = localRepository != null
+                ? LocalRepositoryIndex.open(localRepository,
+                        repoRoot.resolve(cacheDir).resolve(LocalRepositoryIndex.FILE_NAME))
+                : null;
+
+        // Option values the stages below capture
+        boolean accurateCoverageRequested = enableAccurateCoverage;
+        Path rulePackSnapshot = rulePackFile;
+        Path ruleProfileOutput = ruleProfileFile;
+        Path localRepositoryRoot = localRepository;
+
+        RepoContext context = new RepoContext();
+        context.setRepoPath(repoRoot.toString());
+        RepoMetricsCollector metricsCollector = new RepoMetricsCollector(cache);
+        AiClient aiClient = new CopilotClient(new ProcessBuilderCommandExecutor());
+        AnalysisOrchestrator orchestrator = new AnalysisOrchestrator(aiClient);
+
+        // Each stage runs once, as soon as the stages it reads from are done;
+        // stages record their results on the context, each in its own fields
+        Pipeline pipeline = new Pipeline();
+        pipeline.stage("index", INDEX, List.of(), in -> {
+            // Walk the repository once; every analyzer below queries this index
+            long indexStart = System.nanoTime();
+            RepoFileIndex index = RepoFileIndex.build(repoRoot, indexOptions);
+            printIndexThroughput(index, indexOptions, System.nanoTime() - indexStart);
+            return index;
+        });
+        pipeline.stage("rule-compile", RULE_ENGINE, List.of(), in -> {
+            RulePack rulePack = RulePack.load(ruleDirs, rulePackSnapshot);
+            if (rulePackSnapshot != null) {
+                System.out.println("Rule pack " + (rulePack.isFromSnapshot() ? "loaded from " : "rebuilt into ")
+                        + rulePackSnapshot);
+            }
+            RuleEngineScanner ruleEngine = new RuleEngineScanner(rulePack, cache, matchOptions,
+                    indexOptions.getParallelism());
+            ruleEngine.setLocalRepository(localRepositoryIndex);
+            return ruleEngine;
+        });
+        pipeline.stage("rule-scan", DEPENDENCIES, List.of(INDEX, RULE_ENGINE), in -> {
+            RuleEngineScanner ruleEngine = in.get(RULE_ENGINE);
+            List<ExternalDependency> dependencies = new RepoScanner(ruleEngine).scanDependencies(in.get(INDEX));
+            context.setExternalDependencies(dependencies);
+            printRuleTotals(ruleEngine, localRepositoryIndex, localRepositoryRoot);
+            if (ruleProfileOutput != null) {
+                context.setRuleCosts(ruleEngine.getRuleCosts());
+                try {
+                    new RuleProfileWriter().write(context.getRuleCosts(), ruleProfileOutput);
+                    System.out.println("Rule profile written to " + ruleProfileOutput.toAbsolutePath());
+                } catch (IOException e) {
+                    System.err.println("Warning: Failed to write rule profile: " + e.getMessage());
+                }
+            }
+            return dependencies;
+        });
+        pipeline.stage("build-detection", BUILD, List.of(INDEX, RULE_ENGINE), in -> {
+            new RepoScanner(in.get(RULE_ENGINE)).detectBuild(in.get(INDEX), context);
+            return null;
+        });
         // Always calculate test coverage and complexity (deterministic)
-        RepoMetricsCollector metricsCollector = new RepoMetricsCollector();
-        RepoMetrics metrics = metricsCollector.collect(repoRoot);
-        
+        pipeline.stage("metrics", METRICS, List.of(INDEX), in -> metricsCollector.collect(in.get(INDEX)));
+        pipeline.stage("coverage", COVERAGE, List.of(METRICS),
+                in -> measureCoverage(repoRoot, in.get(METRICS), accurateCoverageRequested, context));
+        pipeline.stage("complexity", COMPLEXITY, List.of(BUILD, METRICS, COVERAGE), in -> {
+            ComplexityAnalyzer.analyze(context, in.get(METRICS));
+            return null;
+        });
+        // Analyze project architecture (always runs, independent of AI)
+        pipeline.stage("architecture", MODULES, List.of(INDEX), in -> {
+            System.out.println("Running architecture analysis...");
+            orchestrator.analyzeArchitecture(context, in.get(INDEX));
+            System.out.println("Architecture analysis complete");
+            return null;
+        });
+        // AI Analysis (opt-in): the Copilot CLI calls start as soon as their
+        // inputs are ready and wait on threads of their own, overlapping the
+        // local analysis instead of following it
+        if (enableAi) {
+            pipeline.asyncStage("copilot-overview", OVERVIEW, List.of(), in -> {
+                orchestrator.requestOverview(context, repoRoot);
+                return null;
+            });
+            pipeline.stage("module-descriptions", MODULE_DESCRIPTIONS, List.of(INDEX, MODULES, OVERVIEW), in -> {
+                orchestrator.describeModules(context, in.get(INDEX));
+                return null;
+            });
+            pipeline.asyncStage("ai-availability", AI_AVAILABLE, List.of(), in -> aiClient.isAvailable());
+            pipeline.asyncStage("ai-analysis", AI_ANALYSIS, List.of(AI_AVAILABLE, BUILD, DEPENDENCIES, METRICS),
+                    in -> {
+                        System.out.println("Running AI analysis...");
+                        AiAnalysisResult analysis = orchestrator.performAnalysis(context, in.get(METRICS));
+                        System.out.println("AI analysis complete");
+                        return analysis;
+                    });
+        } else {
+            context.setCopilotAvailable(false);
+            context.setCopilotFailureReason("AI analysis disabled (--disable-ai)");
+        }
+
+        PipelineResults results = pipeline.run(indexOptions.getParallelism());
+        System.out.println("Analysis pipeline ran " + pipeline.size() + " stages in "
+                + results.getElapsedNanos() / 1_000_000 + " ms");
+        // Best effort: the report is still written with whatever succeeded
+        for (PipelineException failure : results.getFailures()) {
+            System.err.println("Warning: " + failure.getMessage());
+        }
+        if (!results.getSkippedStages().isEmpty()) {
+            System.err.println("Warning: Skipped stages that depend on a failed stage: "
+                    + String.join(", ", results.getSkippedStages()));
+        }
+        if (results.has(AI_ANALYSIS)) {
+            // Recorded last: the overview above was read by module-descriptions
+            results.get(AI_ANALYSIS).applyTo(context);
+        }
+
+        if (localRepositoryIndex != null) {
+            localRepositoryIndex.save();
+        }
+        if (cache.isEnabled()) {
+            cache.save();
+            System.out.println("Result cache: " + cache.getHits() + " hits, " + cache.getMisses() + " misses");
+        }
+
+        printSummary(context);
+
+        // Timed before rendering so the report can show it
+        context.setGenerationTime(System.currentTimeMillis() - startTime);
+        long renderCpuStart = currentThreadCpuNanos();
+        long renderStart = System.nanoTime();
+        MarkdownReportGenerator reportGenerator = new MarkdownReportGenerator();
+        reportGenerator.generate(context, outputFile);
+        StageMetrics render = new StageMetrics("render", System.nanoTime() - renderStart,
+                currentThreadCpuNanos() - renderCpuStart);
+
+        System.out.println("Report generated: " + outputFile.toAbsolutePath());
+
+        RunMetrics runMetrics = collectRunMetrics(results, cache);
+        runMetrics.getStages().add(render);
+        runMetrics.setWallNanos((System.currentTimeMillis() - startTime) * 1_000_000);
+        writeRunMetrics(runMetrics, runMetricsDir);
+
+        if (profiler != null) {
+            stopProfiler(profiler);
+        }
+    }
+
+    private static void stopProfiler(JfrProfiler profiler) {
+        try {
+            HotSpotSummary summary = profiler.stop();
+            System.out.println();
+            System.out.println("Flight recording written to " + profiler.getOutputFile().toAbsolutePath());
+            System.out.print(summary.format());
+        } catch (IOException e) {
+            System.err.println("Warning: Failed to write flight recording: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Per-stage timings from the pipeline, with file and byte counts for the
+     * stages that work through files, plus process-wide CPU and heap.
+     */
+    private static RunMetrics collectRunMetrics(PipelineResults results, FileResultCache cache) {
+        RunMetrics runMetrics = new RunMetrics();
+        for (Map.Entry<String, Long> stage : results.getStageNanos().entrySet()) {
+            runMetrics.getStages().add(new StageMetrics(stage.getKey(), stage.getValue(),
+                    results.getStageCpuNanos().get(stage.getKey())));
+        }
+
+        // Counts only for stages that ran; a failed stage leaves its dependents without timings
+        if (results.has(INDEX)) {
+            RepoFileIndex index = results.get(INDEX);
+            setFileCounts(runMetrics.getStage("index"), index.getFiles());
+            setFileCounts(runMetrics.getStage("metrics"), index.getSourceFiles());
+        }
+        StageMetrics ruleScan = runMetrics.getStage("rule-scan");
+        if (ruleScan != null && results.has(RULE_ENGINE)) {
+            RuleEngineScanner ruleEngine = results.get(RULE_ENGINE);
+            long[] ruleFiles = ruleEngine.getFileTotals();
+            ruleScan.setFiles(ruleFiles[0]);
+            ruleScan.setBytes(ruleEngine.getBytesMatched());
+            ruleScan.setFilesSkipped(ruleFiles[1] - ruleFiles[0]);
+        }
+
+        runMetrics.setCacheHits(cache.getHits());
+        runMetrics.setCacheMisses(cache.getMisses());
+        runMetrics.setPeakHeapBytes(peakHeapBytes());
+        if (ManagementFactory.getOperatingSystemMXBean()
+                instanceof com.sun.management.OperatingSystemMXBean os) {
+            runMetrics.setCpuNanos(Math.max(0, os.getProcessCpuTime()));
+        }
+        return runMetrics;
+    }
+
+    private static void setFileCounts(StageMetrics stage, List<IndexedFile> files) {
+        long bytes = 0;
+        for (IndexedFile file : files) {
+            bytes += file.getSize();
+        }
+        stage.setFiles((long) files.size());
+        stage.setBytes(bytes);
+    }
+
+    private static long peakHeapBytes() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    private static long currentThreadCpuNanos() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        return threads.isCurrentThreadCpuTimeSupported() ? threads.getCurrentThreadCpuTime() : 0;
+    }
+
+    private static void writeRunMetrics(RunMetrics runMetrics, Path outputDir) {
+        RunMetricsWriter writer = new RunMetricsWriter();
+        try {
+            writer.writeJson(runMetrics, outputDir.resolve(RunMetricsWriter.JSON_FILE));
+            writer.writeOpenMetrics(runMetrics, outputDir.resolve(RunMetricsWriter.OPENMETRICS_FILE));
+        } catch (IOException e) {
+            System.err.println("Warning: Failed to write run metrics: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Use the JaCoCo report when accurate coverage is requested (running
+     * JaCoCo if there is none yet), otherwise or if that fails the heuristic,
+     * and record the result.
+     *
+     * @return The coverage percentage
+     */
+    private static int measureCoverage(Path repoRoot, RepoMetrics metrics, boolean enableAccurateCoverage,
+            RepoContext context) {
         int coverage;
         boolean accurateCoverage = false;
         
@@ -86,32 +467,63 @@ public class Main {
         
         context.setTestCoveragePercentage(coverage);
         context.setAccurateCoverageAvailable(accurateCoverage);
-        ComplexityAnalyzer.analyze(context, metrics);
-
-        // Analyze project architecture (always runs, independent of AI)
-        System.out.println("Running architecture analysis...");
-        CopilotClient aiClient = new CopilotClient(new ProcessBuilderCommandExecutor());
-        AnalysisOrchestrator orchestrator = new AnalysisOrchestrator(aiClient, metricsCollector);
-        orchestrator.analyzeArchitecture(context, repoRoot);
-        System.out.println("Architecture analysis complete");
+        return coverage;
+    }
 
-        // AI Analysis (opt-in)
-        if (enableAi) {
-            System.out.println("Running AI analysis...");
-            orchestrator.performAnalysis(context, repoRoot);
-            System.out.println("AI analysis complete");
+    private static void printRuleTotals(RuleEngineScanner ruleEngine, LocalRepositoryIndex localRepositoryIndex,
+            Path localRepository) {
+        long[] ruleFiles = ruleEngine.getFileTotals();
+        System.out.println("Rules matched against " + ruleFiles[0] + " of " + ruleFiles[1] + " files");
+        long[] prefilter = ruleEngine.getPrefilterTotals();
+        System.out.println("Rule prefilter skipped " + prefilter[1] + " of "
+                + (prefilter[0] + prefilter[1]) + " regex evaluations");
+        if (localRepositoryIndex != null) {
+            System.out.println("Resolved " + ruleEngine.getTransitiveArtifactCount()
+                    + " transitive dependencies from " + localRepository + " ("
+                    + localRepositoryIndex.getPomsRead() + " POMs read, "
+                    + localRepositoryIndex.getPomsFromIndex() + " from index)");
         }
+    }
 
-        printSummary(context);
-
-        MarkdownReportGenerator reportGenerator = new MarkdownReportGenerator();
-        Path outputFile = Path.of("repo-insight.md");
-        reportGenerator.generate(context, outputFile);
+    /**
+     * Validate the rule sources and write them as a snapshot for {@code --rule-pack}.
+     *
+     * @return The process exit code
+     */
+    private static int compileRulePack(List<Path> ruleDirs, Path output) {
+        RulePack pack = RulePack.load(ruleDirs, null);
+        List<String> problems = pack.validate();
+        for (String problem : problems) {
+            System.err.println("Error: " + problem);
+        }
+        if (!problems.isEmpty()) {
+            return 1;
+        }
+        try {
+            pack.write(output);
+        } catch (IOException e) {
+            System.err.println("Error: Failed to write rule pack: " + e.getMessage());
+            return 1;
+        }
+        System.out.println("Compiled " + pack.getRules().size() + " rules into " + output.toAbsolutePath());
+        return 0;
+    }
 
-        System.out.println("Report generated: " + outputFile.toAbsolutePath());
+    private static int parseInt(String arg, int defaultValue) {
+        try {
+            return Integer.parseInt(arg.substring(arg.indexOf('=') + 1));
+        } catch (NumberFormatException e) {
+            System.err.println("Warning: Ignoring invalid value in " + arg);
+            return defaultValue;
+        }
+    }
 
-        long elapsedTime = System.currentTimeMillis() - startTime;
-        context.setGenerationTime(elapsedTime);
+    private static void printIndexThroughput(RepoFileIndex index, IndexOptions options, long elapsedNanos) {
+        long elapsedMillis = Math.max(1, elapsedNanos / 1_000_000);
+        long filesPerSecond = index.size() * 1000L / elapsedMillis;
+        String source = index.isFromGitIndex() ? "git index" : "parallelism " + options.getParallelism();
+        System.out.println("Indexed " + index.size() + " files in " + elapsedMillis + " ms ("
+                + filesPerSecond + " files/sec, " + source + ")");
     }
 
     private static void printSummary(RepoContext context) {
@@ -12,14 +12,22 @@ import com.rb.repoinsight.util.SystemCommandExecutor.CommandResult;
 public class CopilotClient implements AiClient {
 
     private final SystemCommandExecutor executor;
+    private boolean checked;
     private String unavailabilityReason;
 
+    /**
+     * The CLI is looked up on first use, so creating a client is free when
+     * it ends up unused.
+     */
     public CopilotClient(SystemCommandExecutor executor) {
         this.executor = executor;
-        checkAvailability();
     }
 
-    private void checkAvailability() {
+    private synchronized void checkAvailability() {
+        if (checked) {
+            return;
+        }
+        checked = true;
         try {
             // Check if Copilot CLI is installed
             CommandResult check = executor.execute("copilot", "--version");
@@ -37,12 +45,14 @@ public class CopilotClient implements AiClient {
     }
 
     @Override
-    public boolean isAvailable() {
+    public synchronized boolean isAvailable() {
+        checkAvailability();
         return unavailabilityReason == null;
     }
 
     @Override
-    public String getUnavailabilityReason() {
+    public synchronized String getUnavailabilityReason() {
+        checkAvailability();
         return unavailabilityReason;
     }
 
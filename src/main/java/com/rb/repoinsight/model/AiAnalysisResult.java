@@ -0,0 +1,51 @@
+package com.rb.repoinsight.model;
+
+/**
+ * Outcome of an AI analysis: the cleaned output, or why there is none.
+ * Kept apart from {@link RepoContext} so the analysis can run while other
+ * results are still being recorded there.
+ */
+public class AiAnalysisResult {
+
+    private final boolean available;
+    private final String output;
+    private final String failureReason;
+
+    private AiAnalysisResult(boolean available, String output, String failureReason) {
+        this.available = available;
+        this.output = output;
+        this.failureReason = failureReason;
+    }
+
+    public static AiAnalysisResult success(String output) {
+        return new AiAnalysisResult(true, output, null);
+    }
+
+    public static AiAnalysisResult failure(String failureReason) {
+        return new AiAnalysisResult(false, null, failureReason);
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public String getOutput() {
+        return output;
+    }
+
+    public String getFailureReason() {
+        return failureReason;
+    }
+
+    /**
+     * Record the outcome as the report's Copilot overview.
+     */
+    public void applyTo(RepoContext context) {
+        context.setCopilotAvailable(available);
+        if (available) {
+            context.setCopilotOutput(output);
+        } else {
+            context.setCopilotFailureReason(failureReason);
+        }
+    }
+}
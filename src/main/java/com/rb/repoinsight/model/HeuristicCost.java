@@ -0,0 +1,58 @@
+package com.rb.repoinsight.model;
+
+/**
+ * What matching one rule heuristic cost during a scan.
+ */
+public class HeuristicCost {
+
+    private final String heuristic;
+    private final long filesEvaluated;
+    private final long invocations;
+    private final long bytesScanned;
+    private final long timeNanos;
+    private final long hits;
+
+    public HeuristicCost(String heuristic, long filesEvaluated, long invocations, long bytesScanned,
+            long timeNanos, long hits) {
+        this.heuristic = heuristic;
+        this.filesEvaluated = filesEvaluated;
+        this.invocations = invocations;
+        this.bytesScanned = bytesScanned;
+        this.timeNanos = timeNanos;
+        this.hits = hits;
+    }
+
+    public String getHeuristic() {
+        return heuristic;
+    }
+
+    /**
+     * Files the heuristic was still undecided for when matching began.
+     */
+    public long getFilesEvaluated() {
+        return filesEvaluated;
+    }
+
+    /**
+     * Times a matcher ran for the heuristic (once per file window it could
+     * match in).
+     */
+    public long getInvocations() {
+        return invocations;
+    }
+
+    public long getBytesScanned() {
+        return bytesScanned;
+    }
+
+    public long getTimeNanos() {
+        return timeNanos;
+    }
+
+    /**
+     * Files in which the heuristic provided its rule's evidence.
+     */
+    public long getHits() {
+        return hits;
+    }
+}
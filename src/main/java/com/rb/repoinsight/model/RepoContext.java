@@ -153,6 +153,7 @@ public class RepoContext {
 
     private long generationTime = 0;
     private List<ProjectModule> projectModules = new ArrayList<>();
+    private List<RuleCost> ruleCosts = new ArrayList<>();
 
     public long getGenerationTime() {
         return generationTime;
@@ -169,4 +170,16 @@ public class RepoContext {
     public void setProjectModules(List<ProjectModule> projectModules) {
         this.projectModules = projectModules;
     }
-}
\ No newline at end of file
+
+    /**
+     * Cost of each rule in the heuristic scan; empty unless rule profiling
+     * was enabled.
+     */
+    public List<RuleCost> getRuleCosts() {
+        return ruleCosts;
+    }
+
+    public void setRuleCosts(List<RuleCost> ruleCosts) {
+        this.ruleCosts = ruleCosts;
+    }
+}
@@ -10,6 +10,9 @@ public class RuleConfig {
     private DependencyCategory category;
     private List<String> mavenArtifacts = new ArrayList<>();
     private List<String> heuristics = new ArrayList<>();
+    private List<String> fileGlobs = new ArrayList<>();
+    private long maxBytes;
+    private boolean stopAfterFirstHit = true;
 
     public String getName() {
         return name;
@@ -42,4 +45,40 @@ public class RuleConfig {
     public void setHeuristics(List<String> heuristics) {
         this.heuristics = heuristics;
     }
+
+    /**
+     * Gitignore-style patterns selecting the files the heuristics run on;
+     * empty means every scanned file.
+     */
+    public List<String> getFileGlobs() {
+        return fileGlobs;
+    }
+
+    public void setFileGlobs(List<String> fileGlobs) {
+        this.fileGlobs = fileGlobs;
+    }
+
+    /**
+     * Only the first {@code maxBytes} bytes of a file are matched; zero or
+     * negative means the whole file.
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Whether files after the first one with a hit may be skipped for this
+     * rule, since the report only cites the first hit.
+     */
+    public boolean isStopAfterFirstHit() {
+        return stopAfterFirstHit;
+    }
+
+    public void setStopAfterFirstHit(boolean stopAfterFirstHit) {
+        this.stopAfterFirstHit = stopAfterFirstHit;
+    }
 }
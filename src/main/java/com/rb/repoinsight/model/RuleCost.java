@@ -0,0 +1,53 @@
+package com.rb.repoinsight.model;
+
+import java.util.List;
+
+/**
+ * What matching one rule cost during a scan, as the sum of its heuristics.
+ */
+public class RuleCost {
+
+    private final String name;
+    private final List<HeuristicCost> heuristics;
+
+    public RuleCost(String name, List<HeuristicCost> heuristics) {
+        this.name = name;
+        this.heuristics = heuristics;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<HeuristicCost> getHeuristics() {
+        return heuristics;
+    }
+
+    /**
+     * Files the rule was matched against; its first heuristic is evaluated
+     * on every one of them.
+     */
+    public long getFilesEvaluated() {
+        long files = 0;
+        for (HeuristicCost heuristic : heuristics) {
+            files = Math.max(files, heuristic.getFilesEvaluated());
+        }
+        return files;
+    }
+
+    public long getInvocations() {
+        return heuristics.stream().mapToLong(HeuristicCost::getInvocations).sum();
+    }
+
+    public long getBytesScanned() {
+        return heuristics.stream().mapToLong(HeuristicCost::getBytesScanned).sum();
+    }
+
+    public long getTimeNanos() {
+        return heuristics.stream().mapToLong(HeuristicCost::getTimeNanos).sum();
+    }
+
+    public long getHits() {
+        return heuristics.stream().mapToLong(HeuristicCost::getHits).sum();
+    }
+}
@@ -0,0 +1,78 @@
+package com.rb.repoinsight.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Where the time and memory of one run went, stage by stage.
+ */
+public class RunMetrics {
+
+    private long wallNanos;
+    private long cpuNanos;
+    private long peakHeapBytes;
+    private long cacheHits;
+    private long cacheMisses;
+    private List<StageMetrics> stages = new ArrayList<>();
+
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    public void setWallNanos(long wallNanos) {
+        this.wallNanos = wallNanos;
+    }
+
+    /**
+     * CPU time of the whole process, all threads included; 0 if the JVM
+     * does not report it.
+     */
+    public long getCpuNanos() {
+        return cpuNanos;
+    }
+
+    public void setCpuNanos(long cpuNanos) {
+        this.cpuNanos = cpuNanos;
+    }
+
+    public long getPeakHeapBytes() {
+        return peakHeapBytes;
+    }
+
+    public void setPeakHeapBytes(long peakHeapBytes) {
+        this.peakHeapBytes = peakHeapBytes;
+    }
+
+    public long getCacheHits() {
+        return cacheHits;
+    }
+
+    public void setCacheHits(long cacheHits) {
+        this.cacheHits = cacheHits;
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses;
+    }
+
+    public void setCacheMisses(long cacheMisses) {
+        this.cacheMisses = cacheMisses;
+    }
+
+    public List<StageMetrics> getStages() {
+        return stages;
+    }
+
+    public void setStages(List<StageMetrics> stages) {
+        this.stages = stages;
+    }
+
+    public StageMetrics getStage(String name) {
+        for (StageMetrics stage : stages) {
+            if (stage.getName().equals(name)) {
+                return stage;
+            }
+        }
+        return null;
+    }
+}
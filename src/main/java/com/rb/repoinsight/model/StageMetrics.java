@@ -0,0 +1,76 @@
+package com.rb.repoinsight.model;
+
+/**
+ * Timing and throughput of one analysis stage. Counts are {@code null} for
+ * stages that do not work through files.
+ */
+public class StageMetrics {
+
+    private final String name;
+    private final long wallNanos;
+    private final long cpuNanos;
+    private Long files;
+    private Long bytes;
+    private Long filesSkipped;
+
+    public StageMetrics(String name, long wallNanos, long cpuNanos) {
+        this.name = name;
+        this.wallNanos = wallNanos;
+        this.cpuNanos = cpuNanos;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    /**
+     * CPU time of the thread that ran the stage; work it handed to other
+     * threads only shows in the run's process CPU time.
+     */
+    public long getCpuNanos() {
+        return cpuNanos;
+    }
+
+    public Long getFiles() {
+        return files;
+    }
+
+    public void setFiles(Long files) {
+        this.files = files;
+    }
+
+    public Long getBytes() {
+        return bytes;
+    }
+
+    public void setBytes(Long bytes) {
+        this.bytes = bytes;
+    }
+
+    /**
+     * Files the stage did not have to read, such as cache hits.
+     */
+    public Long getFilesSkipped() {
+        return filesSkipped;
+    }
+
+    public void setFilesSkipped(Long filesSkipped) {
+        this.filesSkipped = filesSkipped;
+    }
+
+    public Double getFilesPerSecond() {
+        return files == null ? null : perSecond(files);
+    }
+
+    public Double getBytesPerSecond() {
+        return bytes == null ? null : perSecond(bytes);
+    }
+
+    private double perSecond(long count) {
+        return wallNanos == 0 ? 0 : count * 1_000_000_000.0 / wallNanos;
+    }
+}
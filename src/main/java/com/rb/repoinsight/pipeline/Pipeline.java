@@ -0,0 +1,201 @@
+package com.rb.repoinsight.pipeline;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import com.rb.repoinsight.profile.StageEvent;
+
+/**
+ * Runs analysis stages as a dependency graph.
+ *
+ * Each stage declares the keys it reads and the single key it produces.
+ * A stage starts as soon as all of its inputs are available, so stages
+ * that do not depend on each other run concurrently, and every result is
+ * computed exactly once however many stages read it.
+ *
+ * Stages that mostly wait, such as calls to an external CLI, are added with
+ * {@link #asyncStage} and run on a thread of their own, so they overlap the
+ * computing stages however small the pool is.
+ *
+ * Stages are added after the stages they depend on, which keeps the graph
+ * acyclic. Stages may also record results on a shared object such as the
+ * report context, provided they write disjoint fields and declare as inputs
+ * the stages whose fields they read; completion of an input happens-before
+ * the start of its dependents.
+ *
+ * A failing stage does not end the run: its dependents are skipped, the
+ * other stages still run, and the failure is reported in the results.
+ */
+public class Pipeline {
+
+    private final Map<PipelineKey<?>, Stage<?>> stages = new LinkedHashMap<>();
+    private final Set<String> names = new HashSet<>();
+
+    private static final class Stage<T> {
+        private final String name;
+        private final PipelineKey<T> output;
+        private final List<PipelineKey<?>> inputs;
+        private final StageTask<T> task;
+        private final boolean async;
+
+        Stage(String name, PipelineKey<T> output, List<PipelineKey<?>> inputs, StageTask<T> task, boolean async) {
+            this.name = name;
+            this.output = output;
+            this.inputs = inputs;
+            this.task = task;
+            this.async = async;
+        }
+    }
+
+    /**
+     * Add a stage.
+     *
+     * @param name Name used in timings and errors
+     * @param output The key the stage's result is published under
+     * @param inputs Keys of the results the stage reads, all produced by stages added before
+     * @throws IllegalArgumentException If the name or output is already taken or an input has no producer
+     */
+    public <T> Pipeline stage(String name, PipelineKey<T> output, List<PipelineKey<?>> inputs, StageTask<T> task) {
+        return add(new Stage<>(name, output, List.copyOf(inputs), task, false));
+    }
+
+    /**
+     * Add a stage that runs on a thread of its own rather than in the pool,
+     * for work that blocks on I/O or external processes.
+     *
+     * @see #stage
+     */
+    public <T> Pipeline asyncStage(String name, PipelineKey<T> output, List<PipelineKey<?>> inputs,
+            StageTask<T> task) {
+        return add(new Stage<>(name, output, List.copyOf(inputs), task, true));
+    }
+
+    private Pipeline add(Stage<?> stage) {
+        String name = stage.name;
+        PipelineKey<?> output = stage.output;
+        List<PipelineKey<?>> inputs = stage.inputs;
+        if (names.contains(name)) {
+            throw new IllegalArgumentException("Duplicate stage " + name);
+        }
+        if (stages.containsKey(output)) {
+            throw new IllegalArgumentException("Stage " + name + " produces " + output + ", already produced by stage "
+                    + stages.get(output).name);
+        }
+        for (PipelineKey<?> input : inputs) {
+            if (!stages.containsKey(input)) {
+                throw new IllegalArgumentException("Stage " + name + " reads " + input
+                        + ", which no earlier stage produces");
+            }
+        }
+        names.add(name);
+        stages.put(output, stage);
+        return this;
+    }
+
+    public int size() {
+        return stages.size();
+    }
+
+    /**
+     * Run every stage and wait for all of them. Stages depending on a stage
+     * that failed are skipped; see {@link PipelineResults#getFailures()}.
+     *
+     * @param parallelism Stages that may run at the same time ({@code 1} = one after another)
+     */
+    public PipelineResults run(int parallelism) {
+        Map<PipelineKey<?>, CompletableFuture<Object>> futures = new HashMap<>();
+        Map<String, Long> elapsedNanos = new ConcurrentHashMap<>();
+        Map<String, Long> cpuNanos = new ConcurrentHashMap<>();
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, Math.min(parallelism, Math.max(1, stages.size()))));
+        try {
+            for (Stage<?> stage : stages.values()) {
+                List<CompletableFuture<Object>> inputs = new ArrayList<>();
+                for (PipelineKey<?> input : stage.inputs) {
+                    inputs.add(futures.get(input));
+                }
+                futures.put(stage.output, CompletableFuture.allOf(inputs.toArray(new CompletableFuture<?>[0]))
+                        .thenApplyAsync(ignored -> execute(stage, inputs, elapsedNanos, cpuNanos),
+                                stage.async ? task -> startThread(stage.name, task) : pool));
+            }
+            try {
+                CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0])).join();
+            } catch (CompletionException e) {
+                // Collected per stage below
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        Map<PipelineKey<?>, Object> values = new HashMap<>();
+        Map<String, Long> timings = new LinkedHashMap<>();
+        Map<String, Long> cpuTimings = new LinkedHashMap<>();
+        List<PipelineException> failures = new ArrayList<>();
+        List<String> skipped = new ArrayList<>();
+        for (Stage<?> stage : stages.values()) {
+            CompletableFuture<Object> future = futures.get(stage.output);
+            // Only stages that started have a timing; the others were skipped for a failed input
+            if (!elapsedNanos.containsKey(stage.name)) {
+                skipped.add(stage.name);
+                continue;
+            }
+            try {
+                values.put(stage.output, future.join());
+            } catch (CompletionException e) {
+                failures.add(e.getCause() instanceof PipelineException failure
+                        ? failure
+                        : new PipelineException(stage.name, e.getCause()));
+            }
+            timings.put(stage.name, elapsedNanos.get(stage.name));
+            cpuTimings.put(stage.name, cpuNanos.get(stage.name));
+        }
+        return new PipelineResults(values, timings, cpuTimings, failures, skipped, System.nanoTime() - start);
+    }
+
+    private static void startThread(String stageName, Runnable task) {
+        Thread thread = new Thread(task, "pipeline-" + stageName);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static Object execute(Stage<?> stage, List<CompletableFuture<Object>> inputFutures,
+            Map<String, Long> elapsedNanos, Map<String, Long> cpuNanos) {
+        Map<PipelineKey<?>, Object> inputs = new HashMap<>();
+        for (int i = 0; i < inputFutures.size(); i++) {
+            inputs.put(stage.inputs.get(i), inputFutures.get(i).join());
+        }
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        boolean measureCpu = threads.isCurrentThreadCpuTimeSupported();
+        long cpuStart = measureCpu ? threads.getCurrentThreadCpuTime() : 0;
+        StageEvent event = new StageEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            return stage.task.run(new StageInputs(stage.name, inputs));
+        } catch (PipelineException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new PipelineException(stage.name, e);
+        } finally {
+            elapsedNanos.put(stage.name, System.nanoTime() - start);
+            cpuNanos.put(stage.name, measureCpu ? threads.getCurrentThreadCpuTime() - cpuStart : 0L);
+            event.end();
+            if (event.shouldCommit()) {
+                event.setStage(stage.name);
+                event.commit();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.rb.repoinsight.pipeline;
+
+/**
+ * A pipeline stage failed.
+ */
+public class PipelineException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String stageName;
+
+    public PipelineException(String stageName, Throwable cause) {
+        super("Stage " + stageName + " failed: " + cause, cause);
+        this.stageName = stageName;
+    }
+
+    public String getStageName() {
+        return stageName;
+    }
+}
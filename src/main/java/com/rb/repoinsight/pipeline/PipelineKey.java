@@ -0,0 +1,29 @@
+package com.rb.repoinsight.pipeline;
+
+/**
+ * Names a result passed between pipeline stages. Keys compare by identity,
+ * so each is declared once, typically as a constant.
+ *
+ * @param <T> Type of the result
+ */
+public final class PipelineKey<T> {
+
+    private final String name;
+
+    private PipelineKey(String name) {
+        this.name = name;
+    }
+
+    public static <T> PipelineKey<T> of(String name) {
+        return new PipelineKey<>(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
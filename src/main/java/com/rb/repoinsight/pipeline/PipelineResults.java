@@ -0,0 +1,87 @@
+package com.rb.repoinsight.pipeline;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The outputs of a completed {@link Pipeline} run, how long each stage took
+ * and which stages failed or were skipped.
+ */
+public class PipelineResults {
+
+    private final Map<PipelineKey<?>, Object> values;
+    private final Map<String, Long> stageNanos;
+    private final Map<String, Long> stageCpuNanos;
+    private final List<PipelineException> failures;
+    private final List<String> skippedStages;
+    private final long elapsedNanos;
+
+    PipelineResults(Map<PipelineKey<?>, Object> values, Map<String, Long> stageNanos,
+            Map<String, Long> stageCpuNanos, List<PipelineException> failures, List<String> skippedStages,
+            long elapsedNanos) {
+        this.values = values;
+        this.stageNanos = stageNanos;
+        this.stageCpuNanos = stageCpuNanos;
+        this.failures = failures;
+        this.skippedStages = skippedStages;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Whether the stage producing {@code key} ran and succeeded.
+     */
+    public boolean has(PipelineKey<?> key) {
+        return values.containsKey(key);
+    }
+
+    /**
+     * @throws IllegalArgumentException If no stage produced {@code key}, or it failed or was skipped
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(PipelineKey<T> key) {
+        if (!values.containsKey(key)) {
+            throw new IllegalArgumentException("No stage produced " + key);
+        }
+        return (T) values.get(key);
+    }
+
+    /**
+     * Stages whose task threw, in the order the stages were added.
+     */
+    public List<PipelineException> getFailures() {
+        return Collections.unmodifiableList(failures);
+    }
+
+    /**
+     * Names of the stages that did not run because an input failed.
+     */
+    public List<String> getSkippedStages() {
+        return Collections.unmodifiableList(skippedStages);
+    }
+
+    /**
+     * Time spent in each stage's task, by stage name in the order stages
+     * were added. Waiting for inputs is not included, and skipped stages are
+     * left out.
+     */
+    public Map<String, Long> getStageNanos() {
+        return Collections.unmodifiableMap(stageNanos);
+    }
+
+    /**
+     * CPU time of the thread that ran each stage's task, by stage name.
+     * Work a stage hands to other threads (such as a parallel scan) is not
+     * included; 0 where the JVM cannot measure thread CPU time.
+     */
+    public Map<String, Long> getStageCpuNanos() {
+        return Collections.unmodifiableMap(stageCpuNanos);
+    }
+
+    /**
+     * Wall-clock time of the whole run.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+}
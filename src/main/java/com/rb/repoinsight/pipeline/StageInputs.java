@@ -0,0 +1,28 @@
+package com.rb.repoinsight.pipeline;
+
+import java.util.Map;
+
+/**
+ * The results a stage may read: exactly those it declared as inputs.
+ */
+public class StageInputs {
+
+    private final String stageName;
+    private final Map<PipelineKey<?>, Object> values;
+
+    StageInputs(String stageName, Map<PipelineKey<?>, Object> values) {
+        this.stageName = stageName;
+        this.values = values;
+    }
+
+    /**
+     * @throws IllegalArgumentException If the stage did not declare {@code key} as an input
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(PipelineKey<T> key) {
+        if (!values.containsKey(key)) {
+            throw new IllegalArgumentException("Stage " + stageName + " did not declare input " + key);
+        }
+        return (T) values.get(key);
+    }
+}
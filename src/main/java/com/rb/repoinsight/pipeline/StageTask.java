@@ -0,0 +1,16 @@
+package com.rb.repoinsight.pipeline;
+
+/**
+ * The work of a pipeline stage.
+ *
+ * @param <T> Type of the stage's output
+ */
+@FunctionalInterface
+public interface StageTask<T> {
+
+    /**
+     * @param inputs Results of the stages this one declared as inputs
+     * @return The stage's output; may be null
+     */
+    T run(StageInputs inputs) throws Exception;
+}
@@ -0,0 +1,38 @@
+package com.rb.repoinsight.profile;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Building the file index, by walking the repository or reading the git index.
+ */
+@Name("com.rb.repoinsight.DirectoryWalk")
+@Label("Directory Walk")
+@Category({ "Repo Insight", "Scan" })
+@StackTrace(false)
+public final class DirectoryWalkEvent extends Event {
+
+    @Label("Root")
+    private String root;
+
+    @Label("Files")
+    private int files;
+
+    @Label("From Git Index")
+    private boolean fromGitIndex;
+
+    public void setRoot(String root) {
+        this.root = root;
+    }
+
+    public void setFiles(int files) {
+        this.files = files;
+    }
+
+    public void setFromGitIndex(boolean fromGitIndex) {
+        this.fromGitIndex = fromGitIndex;
+    }
+}
@@ -0,0 +1,35 @@
+package com.rb.repoinsight.profile;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Streaming one file through a group of rules. Files are read once per
+ * group of rules with the same byte limit, so a file can have several; only
+ * reads of 1 ms or more are recorded by default.
+ */
+@Name("com.rb.repoinsight.FileRead")
+@Label("File Read")
+@Category({ "Repo Insight", "Scan" })
+@Threshold("1 ms")
+@StackTrace(false)
+public final class FileReadEvent extends Event {
+
+    @Label("Path")
+    private String path;
+
+    @Label("Bytes")
+    private long bytes;
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public void setBytes(long bytes) {
+        this.bytes = bytes;
+    }
+}
@@ -0,0 +1,127 @@
+package com.rb.repoinsight.profile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Where a recorded run spent its time: the Repo Insight spans by type (and
+ * by stage for pipeline stages), and the methods most often on top of the
+ * stack in execution samples.
+ */
+public class HotSpotSummary {
+
+    static final int MAX_METHODS = 10;
+
+    private static final String EVENT_PREFIX = "com.rb.repoinsight.";
+
+    private final Map<String, Span> spans = new HashMap<>();
+    private final Map<String, Integer> methodSamples = new HashMap<>();
+
+    /**
+     * Totals for one kind of span.
+     */
+    public static class Span {
+        private final String name;
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+
+        Span(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+    }
+
+    /**
+     * @throws IOException If the recording cannot be read
+     */
+    public static HotSpotSummary read(Path recordingFile) throws IOException {
+        HotSpotSummary summary = new HotSpotSummary();
+        try (RecordingFile recording = new RecordingFile(recordingFile)) {
+            while (recording.hasMoreEvents()) {
+                summary.add(recording.readEvent());
+            }
+        }
+        return summary;
+    }
+
+    private void add(RecordedEvent event) {
+        String type = event.getEventType().getName();
+        if (type.startsWith(EVENT_PREFIX)) {
+            String name = event.getEventType().getLabel();
+            if (event.hasField("stage")) {
+                name += ": " + event.getString("stage");
+            }
+            Span span = spans.computeIfAbsent(name, Span::new);
+            long nanos = event.getDuration().toNanos();
+            span.count++;
+            span.totalNanos += nanos;
+            span.maxNanos = Math.max(span.maxNanos, nanos);
+        } else if ("jdk.ExecutionSample".equals(type) && event.getStackTrace() != null
+                && !event.getStackTrace().getFrames().isEmpty()) {
+            RecordedFrame top = event.getStackTrace().getFrames().get(0);
+            RecordedMethod method = top.getMethod();
+            methodSamples.merge(method.getType().getName() + "." + method.getName(), 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Spans by total time, longest first.
+     */
+    public List<Span> getSpans() {
+        List<Span> sorted = new ArrayList<>(spans.values());
+        sorted.sort((a, b) -> Long.compare(b.totalNanos, a.totalNanos));
+        return sorted;
+    }
+
+    /**
+     * The most sampled methods with their sample counts, most sampled first.
+     */
+    public List<Map.Entry<String, Integer>> getHotMethods() {
+        List<Map.Entry<String, Integer>> sorted = new ArrayList<>(methodSamples.entrySet());
+        sorted.sort((a, b) -> b.getValue().compareTo(a.getValue()));
+        return sorted.subList(0, Math.min(MAX_METHODS, sorted.size()));
+    }
+
+    /**
+     * The summary as two plain-text tables.
+     */
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%-40s %8s %12s %10s%n", "Span", "Count", "Total ms", "Max ms"));
+        for (Span span : getSpans()) {
+            sb.append(String.format(Locale.ROOT, "%-40s %8d %12.1f %10.1f%n", span.name, span.count,
+                    span.totalNanos / 1_000_000.0, span.maxNanos / 1_000_000.0));
+        }
+        sb.append(String.format(Locale.ROOT, "%n%8s  %s%n", "Samples", "Hot method"));
+        for (Map.Entry<String, Integer> method : getHotMethods()) {
+            sb.append(String.format(Locale.ROOT, "%8d  %s%n", method.getValue(), method.getKey()));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,65 @@
+package com.rb.repoinsight.profile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+/**
+ * A Java Flight Recorder recording of one run, with the JDK's
+ * {@code profile} settings plus the Repo Insight events.
+ *
+ * The events in this package cost next to nothing while no recording is
+ * running, so they stay in place in every build.
+ */
+public class JfrProfiler {
+
+    public static final String DEFAULT_FILE = "repo-insight.jfr";
+
+    private final Recording recording;
+    private final Path outputFile;
+
+    private JfrProfiler(Recording recording, Path outputFile) {
+        this.recording = recording;
+        this.outputFile = outputFile;
+    }
+
+    /**
+     * Start recording.
+     *
+     * @throws IOException If the JDK's {@code profile} settings cannot be read
+     */
+    public static JfrProfiler start(Path outputFile) throws IOException {
+        Configuration settings;
+        try {
+            settings = Configuration.getConfiguration("profile");
+        } catch (ParseException e) {
+            throw new IOException("Invalid JFR settings: " + e.getMessage(), e);
+        }
+        Recording recording = new Recording(settings);
+        recording.setName("repo-insight");
+        recording.start();
+        return new JfrProfiler(recording, outputFile);
+    }
+
+    public Path getOutputFile() {
+        return outputFile;
+    }
+
+    /**
+     * Stop recording, write the recording to the output file and summarize it.
+     *
+     * @throws IOException If the recording cannot be written or read back
+     */
+    public HotSpotSummary stop() throws IOException {
+        try {
+            recording.stop();
+            recording.dump(outputFile);
+        } finally {
+            recording.close();
+        }
+        return HotSpotSummary.read(outputFile);
+    }
+}
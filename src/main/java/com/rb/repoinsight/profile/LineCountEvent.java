@@ -0,0 +1,33 @@
+package com.rb.repoinsight.profile;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Counting the lines of one file; by default only when it takes 1 ms or more.
+ */
+@Name("com.rb.repoinsight.LineCount")
+@Label("Line Count")
+@Category({ "Repo Insight", "Scan" })
+@Threshold("1 ms")
+@StackTrace(false)
+public final class LineCountEvent extends Event {
+
+    @Label("Path")
+    private String path;
+
+    @Label("Lines")
+    private long lines;
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public void setLines(long lines) {
+        this.lines = lines;
+    }
+}
@@ -0,0 +1,24 @@
+package com.rb.repoinsight.profile;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Parsing one pom.xml.
+ */
+@Name("com.rb.repoinsight.PomParse")
+@Label("POM Parse")
+@Category({ "Repo Insight", "Scan" })
+@StackTrace(false)
+public final class PomParseEvent extends Event {
+
+    @Label("POM")
+    private String pom;
+
+    public void setPom(String pom) {
+        this.pom = pom;
+    }
+}
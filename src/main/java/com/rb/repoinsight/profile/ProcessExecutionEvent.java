@@ -0,0 +1,31 @@
+package com.rb.repoinsight.profile;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Running an external command until it exits.
+ */
+@Name("com.rb.repoinsight.ProcessExecution")
+@Label("Process Execution")
+@Category({ "Repo Insight", "External" })
+@StackTrace(false)
+public final class ProcessExecutionEvent extends Event {
+
+    @Label("Command")
+    private String command;
+
+    @Label("Exit Code")
+    private int exitCode;
+
+    public void setCommand(String command) {
+        this.command = command;
+    }
+
+    public void setExitCode(int exitCode) {
+        this.exitCode = exitCode;
+    }
+}
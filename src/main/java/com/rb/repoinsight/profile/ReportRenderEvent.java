@@ -0,0 +1,24 @@
+package com.rb.repoinsight.profile;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Rendering and writing a report.
+ */
+@Name("com.rb.repoinsight.ReportRender")
+@Label("Report Rendering")
+@Category({ "Repo Insight", "Report" })
+@StackTrace(false)
+public final class ReportRenderEvent extends Event {
+
+    @Label("Output File")
+    private String outputFile;
+
+    public void setOutputFile(String outputFile) {
+        this.outputFile = outputFile;
+    }
+}
@@ -0,0 +1,41 @@
+package com.rb.repoinsight.profile;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Matching the rules that apply to one file, all of its reads included.
+ * Files matched in under 1 ms are not recorded by default.
+ */
+@Name("com.rb.repoinsight.RuleEvaluation")
+@Label("Rule Evaluation")
+@Category({ "Repo Insight", "Scan" })
+@Threshold("1 ms")
+@StackTrace(false)
+public final class RuleEvaluationEvent extends Event {
+
+    @Label("Path")
+    private String path;
+
+    @Label("Rules")
+    private int rules;
+
+    @Label("Hits")
+    private int hits;
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public void setRules(int rules) {
+        this.rules = rules;
+    }
+
+    public void setHits(int hits) {
+        this.hits = hits;
+    }
+}
@@ -0,0 +1,24 @@
+package com.rb.repoinsight.profile;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One analysis pipeline stage, from the start to the end of its task.
+ */
+@Name("com.rb.repoinsight.Stage")
+@Label("Pipeline Stage")
+@Category({ "Repo Insight", "Pipeline" })
+@StackTrace(false)
+public final class StageEvent extends Event {
+
+    @Label("Stage")
+    private String stage;
+
+    public void setStage(String stage) {
+        this.stage = stage;
+    }
+}
@@ -3,12 +3,21 @@ package com.rb.repoinsight.report;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
 
+import com.rb.repoinsight.model.HeuristicCost;
 import com.rb.repoinsight.model.RepoContext;
+import com.rb.repoinsight.model.RuleCost;
+import com.rb.repoinsight.profile.ReportRenderEvent;
 
 public class MarkdownReportGenerator {
 
     public void generate(RepoContext context, Path outputFile) {
+        ReportRenderEvent event = new ReportRenderEvent();
+        event.begin();
         String report = buildReport(context);
 
         try {
@@ -16,6 +25,11 @@ public class MarkdownReportGenerator {
         } catch (IOException e) {
             throw new RuntimeException("Failed to write report", e);
         }
+        event.end();
+        if (event.shouldCommit()) {
+            event.setOutputFile(outputFile.toString());
+            event.commit();
+        }
     }
 
     private String buildReport(RepoContext context) {
@@ -30,7 +44,9 @@ public class MarkdownReportGenerator {
         writeLearnMoreSection(sb, context);
         writeExternalDependencies(sb, context);
         writeCapabilitiesAndHygiene(sb, context);
+        writeRuleCostProfile(sb, context);
         writeCopilotInfo(sb);
+        writeGenerationTime(sb, context);
 
         return sb.toString();
     }
@@ -129,6 +145,51 @@ public class MarkdownReportGenerator {
                 .append(" |\n\n");
     }
 
+    private void writeRuleCostProfile(StringBuilder sb, RepoContext context) {
+        List<RuleCost> costs = new ArrayList<>(context.getRuleCosts());
+        if (costs.isEmpty()) {
+            return;
+        }
+        costs.sort(Comparator.comparingLong(RuleCost::getTimeNanos).reversed());
+        sb.append("## Rule Cost Profile\n\n");
+        sb.append("Time spent matching each rule's heuristics, most expensive first. ");
+        sb.append("Time of passes shared by several heuristics is split evenly between them.\n\n");
+        sb.append("| Rule | Files | Invocations | Bytes scanned | Time (ms) | Hits |\n");
+        sb.append("|------|-------|-------------|---------------|-----------|------|\n");
+        for (RuleCost cost : costs) {
+            sb.append("| ").append(cost.getName())
+                    .append(" | ").append(cost.getFilesEvaluated())
+                    .append(" | ").append(cost.getInvocations())
+                    .append(" | ").append(cost.getBytesScanned())
+                    .append(" | ").append(formatMillis(cost.getTimeNanos()))
+                    .append(" | ").append(cost.getHits())
+                    .append(" |\n");
+        }
+        sb.append("\n");
+
+        sb.append("| Rule | Heuristic | Files | Invocations | Bytes scanned | Time (ms) | Hits |\n");
+        sb.append("|------|-----------|-------|-------------|---------------|-----------|------|\n");
+        for (RuleCost cost : costs) {
+            List<HeuristicCost> heuristics = new ArrayList<>(cost.getHeuristics());
+            heuristics.sort(Comparator.comparingLong(HeuristicCost::getTimeNanos).reversed());
+            for (HeuristicCost heuristic : heuristics) {
+                sb.append("| ").append(cost.getName())
+                        .append(" | `").append(heuristic.getHeuristic().replace("|", "\\|")).append('`')
+                        .append(" | ").append(heuristic.getFilesEvaluated())
+                        .append(" | ").append(heuristic.getInvocations())
+                        .append(" | ").append(heuristic.getBytesScanned())
+                        .append(" | ").append(formatMillis(heuristic.getTimeNanos()))
+                        .append(" | ").append(heuristic.getHits())
+                        .append(" |\n");
+            }
+        }
+        sb.append("\n");
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0);
+    }
+
     private void writeCopilotInfo(StringBuilder sb) {
         sb.append("## Copilot Integration (Optional)\n\n");
         sb.append("This tool can optionally use the GitHub Copilot CLI to generate a\n");
@@ -144,4 +205,10 @@ public class MarkdownReportGenerator {
         sb.append("If Copilot is not available, the report is still generated using\n");
         sb.append("deterministic repository analysis.\n");
     }
+
+    private void writeGenerationTime(StringBuilder sb, RepoContext context) {
+        if (context.getGenerationTime() > 0) {
+            sb.append("\n_Report generated in ").append(context.getGenerationTime()).append(" ms._\n");
+        }
+    }
 }
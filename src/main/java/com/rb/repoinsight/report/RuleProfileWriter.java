@@ -0,0 +1,28 @@
+package com.rb.repoinsight.report;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rb.repoinsight.model.RuleCost;
+
+/**
+ * Writes the rule cost profile as JSON, for tooling that tracks which rules
+ * dominate scan time.
+ *
+ * The file holds {@code {"rules": [...]}} with one entry per rule (name,
+ * totals and a {@code heuristics} array), in rule order. Times are in
+ * nanoseconds.
+ */
+public class RuleProfileWriter {
+
+    public static final String DEFAULT_FILE = "rule-profile.json";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public void write(List<RuleCost> costs, Path outputFile) throws IOException {
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(outputFile.toFile(), Map.of("rules", costs));
+    }
+}
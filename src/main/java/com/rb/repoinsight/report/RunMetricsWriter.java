@@ -0,0 +1,164 @@
+package com.rb.repoinsight.report;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.function.Function;
+
+import com.rb.repoinsight.model.RunMetrics;
+import com.rb.repoinsight.model.StageMetrics;
+
+/**
+ * Writes the run's stage timings and throughput as JSON and in the
+ * OpenMetrics text format, so runs can be compared or scraped.
+ *
+ * Times in the JSON file are in nanoseconds; the OpenMetrics file follows
+ * that format's convention of seconds, with one sample per stage labelled
+ * {@code stage="<name>"}.
+ *
+ * Both files are written by hand rather than through Jackson: their shape
+ * is fixed, and a run served from the index snapshot never needs to load
+ * the JSON library otherwise.
+ */
+public class RunMetricsWriter {
+
+    public static final String JSON_FILE = "run-metrics.json";
+    public static final String OPENMETRICS_FILE = "run-metrics.prom";
+
+    private static final String PREFIX = "repo_insight_";
+
+    public void writeJson(RunMetrics metrics, Path outputFile) throws IOException {
+        Files.writeString(outputFile, buildJson(metrics));
+    }
+
+    public void writeOpenMetrics(RunMetrics metrics, Path outputFile) throws IOException {
+        Files.writeString(outputFile, buildOpenMetrics(metrics));
+    }
+
+    /**
+     * Same layout as a pretty-printed Jackson dump of {@link RunMetrics}:
+     * stage counts and rates without a value are left out.
+     */
+    String buildJson(RunMetrics metrics) {
+        StringBuilder sb = new StringBuilder("{\n");
+        sb.append("  \"wallNanos\" : ").append(metrics.getWallNanos()).append(",\n");
+        sb.append("  \"cpuNanos\" : ").append(metrics.getCpuNanos()).append(",\n");
+        sb.append("  \"peakHeapBytes\" : ").append(metrics.getPeakHeapBytes()).append(",\n");
+        sb.append("  \"cacheHits\" : ").append(metrics.getCacheHits()).append(",\n");
+        sb.append("  \"cacheMisses\" : ").append(metrics.getCacheMisses()).append(",\n");
+        sb.append("  \"stages\" : [");
+        String separator = " ";
+        for (StageMetrics stage : metrics.getStages()) {
+            sb.append(separator).append("{\n");
+            sb.append("    \"name\" : \"").append(escapeJson(stage.getName())).append('"');
+            appendField(sb, "wallNanos", stage.getWallNanos());
+            appendField(sb, "cpuNanos", stage.getCpuNanos());
+            appendField(sb, "files", stage.getFiles());
+            appendField(sb, "bytes", stage.getBytes());
+            appendField(sb, "filesSkipped", stage.getFilesSkipped());
+            appendField(sb, "filesPerSecond", stage.getFilesPerSecond());
+            appendField(sb, "bytesPerSecond", stage.getBytesPerSecond());
+            sb.append("\n  }");
+            separator = ", ";
+        }
+        sb.append(metrics.getStages().isEmpty() ? "]\n" : " ]\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    private static void appendField(StringBuilder sb, String name, Object value) {
+        if (value != null) {
+            sb.append(",\n    \"").append(name).append("\" : ").append(value);
+        }
+    }
+
+    String buildOpenMetrics(RunMetrics metrics) {
+        StringBuilder sb = new StringBuilder();
+        writeGauge(sb, "run_wall_seconds", "Wall-clock time of the run", seconds(metrics.getWallNanos()));
+        writeGauge(sb, "run_cpu_seconds", "CPU time of the process", seconds(metrics.getCpuNanos()));
+        writeGauge(sb, "peak_heap_bytes", "Peak heap usage", Long.toString(metrics.getPeakHeapBytes()));
+        writeGauge(sb, "cache_hits", "Files answered from the result cache", Long.toString(metrics.getCacheHits()));
+        writeGauge(sb, "cache_misses", "Files the result cache had no entry for",
+                Long.toString(metrics.getCacheMisses()));
+
+        writeStageGauge(sb, metrics, "stage_wall_seconds", "Wall-clock time of each stage",
+                stage -> seconds(stage.getWallNanos()));
+        writeStageGauge(sb, metrics, "stage_cpu_seconds", "CPU time of the thread running each stage",
+                stage -> seconds(stage.getCpuNanos()));
+        writeStageGauge(sb, metrics, "stage_files", "Files each stage processed",
+                stage -> format(stage.getFiles()));
+        writeStageGauge(sb, metrics, "stage_bytes", "Bytes each stage processed",
+                stage -> format(stage.getBytes()));
+        writeStageGauge(sb, metrics, "stage_files_skipped", "Files each stage did not have to read",
+                stage -> format(stage.getFilesSkipped()));
+        writeStageGauge(sb, metrics, "stage_files_per_second", "File throughput of each stage",
+                stage -> format(stage.getFilesPerSecond()));
+        writeStageGauge(sb, metrics, "stage_bytes_per_second", "Byte throughput of each stage",
+                stage -> format(stage.getBytesPerSecond()));
+
+        sb.append("# EOF\n");
+        return sb.toString();
+    }
+
+    private static void writeGauge(StringBuilder sb, String name, String help, String value) {
+        writeHeader(sb, name, help);
+        sb.append(PREFIX).append(name).append(' ').append(value).append('\n');
+    }
+
+    /**
+     * One sample per stage that has a value; stages without one are left out.
+     */
+    private static void writeStageGauge(StringBuilder sb, RunMetrics metrics, String name, String help,
+            Function<StageMetrics, String> value) {
+        writeHeader(sb, name, help);
+        for (StageMetrics stage : metrics.getStages()) {
+            String sample = value.apply(stage);
+            if (sample != null) {
+                sb.append(PREFIX).append(name).append("{stage=\"").append(escape(stage.getName())).append("\"} ")
+                        .append(sample).append('\n');
+            }
+        }
+    }
+
+    private static void writeHeader(StringBuilder sb, String name, String help) {
+        sb.append("# TYPE ").append(PREFIX).append(name).append(" gauge\n");
+        if (name.endsWith("_seconds")) {
+            sb.append("# UNIT ").append(PREFIX).append(name).append(" seconds\n");
+        } else if (name.endsWith("_bytes")) {
+            sb.append("# UNIT ").append(PREFIX).append(name).append(" bytes\n");
+        }
+        sb.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.6f", nanos / 1_000_000_000.0);
+    }
+
+    private static String format(Long value) {
+        return value == null ? null : value.toString();
+    }
+
+    private static String format(Double value) {
+        return value == null ? null : String.format(Locale.ROOT, "%.1f", value);
+    }
+
+    private static String escapeJson(String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String escape(String labelValue) {
+        return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -1,7 +1,5 @@
 package com.rb.repoinsight.scan;
 
-import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -10,11 +8,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import com.rb.repoinsight.model.ProjectModule;
 import com.rb.repoinsight.model.RepoContext;
+import com.rb.repoinsight.scan.gradle.GradleProject;
+import com.rb.repoinsight.scan.index.RepoFileIndex;
+import com.rb.repoinsight.scan.maven.PomModel;
 
 /**
  * Analyzes project architecture by extracting modules and packages.
@@ -24,22 +23,28 @@ public class ArchitectureAnalyzer {
 
     /**
      * Analyze the target project's architecture structure.
-     * Extracts modules (from pom.xml) and top-level packages from source directories.
+     * Extracts modules (from pom.xml or the Gradle settings) and top-level packages from source directories.
      */
-    public static void analyze(Path repoRoot, RepoContext context) {
+    public static void analyze(RepoFileIndex index, RepoContext context) {
+        Path repoRoot = index.getRoot();
         List<ProjectModule> modules = new ArrayList<>();
 
-        // 1. Extract modules from pom.xml (if multi-module project)
-        List<String> pomModules = extractModulesFromPom(repoRoot);
+        // 1. Extract modules from pom.xml or settings.gradle (if multi-module project)
+        List<String> buildModules = extractModulesFromPom(index, "");
+        if (buildModules.isEmpty()) {
+            buildModules = extractGradleSubprojects(index);
+        }
 
-        if (!pomModules.isEmpty()) {
-            // Multi-module Maven project
-            for (String moduleName : pomModules) {
-                Path modulePath = repoRoot.resolve(moduleName);
+        if (!buildModules.isEmpty()) {
+            // Multi-module Maven or Gradle project
+            for (String moduleName : buildModules) {
+                String modulePath = index.toRelativePath(Path.of(moduleName));
                 ProjectModule module = new ProjectModule(moduleName, moduleName);
                 
                 // Extract packages from this module
-                List<String> packages = extractTopLevelPackages(modulePath);
+                List<String> packages = modulePath != null
+                        ? extractTopLevelPackages(index, modulePath)
+                        : new ArrayList<>();
                 module.setTopLevelPackages(packages);
                 modules.add(module);
             }
@@ -48,7 +53,7 @@ public class ArchitectureAnalyzer {
             String projectName = repoRoot.getFileName().toString();
             ProjectModule rootModule = new ProjectModule(projectName, ".");
             
-            List<String> packages = extractTopLevelPackages(repoRoot);
+            List<String> packages = extractTopLevelPackages(index, "");
             rootModule.setTopLevelPackages(packages);
             modules.add(rootModule);
         }
@@ -59,113 +64,63 @@ public class ArchitectureAnalyzer {
     /**
      * Extract module names from pom.xml <modules> section.
      */
-    private static List<String> extractModulesFromPom(Path repoRoot) {
-        try {
-            Path pomFile = repoRoot.resolve("pom.xml");
-            if (!Files.exists(pomFile)) {
-                return Collections.emptyList();
-            }
-
-            String pomContent = Files.readString(pomFile);
-            List<String> modules = new ArrayList<>();
-
-            // Regex to match <modules> ... </modules> section
-            Pattern modulesPattern = Pattern.compile(
-                    "<modules>\\s*(.*?)\\s*</modules>",
-                    Pattern.DOTALL | Pattern.CASE_INSENSITIVE);
-            Matcher modulesMatcher = modulesPattern.matcher(pomContent);
+    private static List<String> extractModulesFromPom(RepoFileIndex index, String moduleDir) {
+        PomModel pom = index.getPoms().get(join(moduleDir, "pom.xml"));
+        return pom != null ? pom.getModules() : Collections.emptyList();
+    }
 
-            if (modulesMatcher.find()) {
-                String modulesSection = modulesMatcher.group(1);
-                
-                // Extract individual <module> entries
-                Pattern modulePattern = Pattern.compile(
-                        "<module>\\s*([^<]+)\\s*</module>");
-                Matcher moduleMatcher = modulePattern.matcher(modulesSection);
-
-                while (moduleMatcher.find()) {
-                    String moduleName = moduleMatcher.group(1).trim();
-                    modules.add(moduleName);
-                }
+    /**
+     * Directories of the subprojects included by settings.gradle.
+     */
+    private static List<String> extractGradleSubprojects(RepoFileIndex index) {
+        List<String> modules = new ArrayList<>();
+        for (GradleProject project : index.getGradleBuild().getProjects()) {
+            if (!project.isRoot()) {
+                modules.add(project.getDirectory());
             }
-
-            return modules;
-        } catch (IOException e) {
-            return Collections.emptyList();
         }
+        return modules;
     }
 
     /**
      * Extract top-level packages from src/main/java directory.
-     * Looks for package names by examining directory structure and Java files.
+     * Looks for package names by examining the indexed directory structure.
      * Handles both standard Maven layout and aggregator POMs.
      */
-    private static List<String> extractTopLevelPackages(Path modulePath) {
+    private static List<String> extractTopLevelPackages(RepoFileIndex index, String moduleDir) {
         Set<String> packages = new TreeSet<>();
 
         // Try standard Maven location
-        Path srcDir = modulePath.resolve("src/main/java");
-        if (Files.exists(srcDir)) {
-            try (var stream = Files.list(srcDir)) {
-                stream.filter(Files::isDirectory)
-                        .map(p -> p.getFileName().toString())
-                        .forEach(packages::add);
-            } catch (IOException ignored) {
-            }
-        }
+        packages.addAll(index.listSubdirectories(join(moduleDir, "src/main/java")));
 
         // If no packages found and this looks like an aggregator POM, 
         // check subdirectories for src/main/java
         if (packages.isEmpty()) {
-            try (var stream = Files.list(modulePath)) {
-                stream.filter(Files::isDirectory)
-                        .filter(p -> !p.getFileName().toString().startsWith("."))
-                        .forEach(subdir -> {
-                            Path subSrcDir = subdir.resolve("src/main/java");
-                            if (Files.exists(subSrcDir)) {
-                                try (var subStream = Files.list(subSrcDir)) {
-                                    subStream.filter(Files::isDirectory)
-                                            .map(p -> p.getFileName().toString())
-                                            .forEach(packages::add);
-                                } catch (IOException ignored) {
-                                }
-                            }
-                        });
-            } catch (IOException ignored) {
+            for (String subdir : index.listSubdirectories(moduleDir)) {
+                if (!subdir.startsWith(".")) {
+                    packages.addAll(index.listSubdirectories(join(join(moduleDir, subdir), "src/main/java")));
+                }
             }
         }
 
         // Also try custom sourceDirectory from pom.xml
-        try {
-            Path pomFile = modulePath.resolve("pom.xml");
-            if (Files.exists(pomFile)) {
-                String pomContent = Files.readString(pomFile);
-                
-                // Extract custom sourceDirectory
-                Pattern pattern = Pattern.compile(
-                        "<sourceDirectory>\\s*([^<]+)\\s*</sourceDirectory>");
-                Matcher matcher = pattern.matcher(pomContent);
-                
-                if (matcher.find()) {
-                    String sourceDir = matcher.group(1).trim();
-                    Path customSrc = modulePath.resolve(sourceDir);
-                    
-                    if (Files.exists(customSrc)) {
-                        try (var stream = Files.list(customSrc)) {
-                            stream.filter(Files::isDirectory)
-                                    .map(p -> p.getFileName().toString())
-                                    .forEach(packages::add);
-                        } catch (IOException ignored) {
-                        }
-                    }
-                }
+        PomModel pom = index.getPoms().get(join(moduleDir, "pom.xml"));
+        if (pom != null && pom.getSourceDirectory() != null) {
+            String customSrc = index.toRelativePath(
+                    index.getRoot().resolve(moduleDir).resolve(pom.getSourceDirectory()));
+
+            if (customSrc != null) {
+                packages.addAll(index.listSubdirectories(customSrc));
             }
-        } catch (IOException ignored) {
         }
 
         return new ArrayList<>(packages);
     }
 
+    private static String join(String dir, String child) {
+        return dir.isEmpty() ? child : dir + "/" + child;
+    }
+
     /**
      * Enhance modules with AI descriptions using Copilot.
      * Generates a prompt asking Copilot to describe each module's purpose.
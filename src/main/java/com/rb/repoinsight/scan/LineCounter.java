@@ -0,0 +1,152 @@
+package com.rb.repoinsight.scan;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.rb.repoinsight.profile.LineCountEvent;
+
+/**
+ * Counts lines directly on file bytes, without decoding them into Strings.
+ *
+ * Small files are read into a pooled per-thread direct buffer, large files
+ * are memory-mapped. Line terminators are found eight bytes at a time with
+ * SWAR (SIMD within a register) arithmetic on {@code long} words.
+ *
+ * The result matches {@code Files.lines(path).count()}: {@code \n}, {@code \r}
+ * and {@code \r\n} each end a line, and a final line without a terminator
+ * still counts. Both terminators are single bytes in UTF-8 and every other
+ * ASCII-compatible charset, so no decoding is needed to find them.
+ */
+public final class LineCounter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long MAP_THRESHOLD = 1024 * 1024;
+    private static final long MAP_REGION_SIZE = 256L * 1024 * 1024;
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long LOW_SEVEN_BITS = 0x7f7f7f7f7f7f7f7fL;
+    private static final long LF_WORD = ONES * '\n';
+    private static final long CR_WORD = ONES * '\r';
+
+    private static final ThreadLocal<ByteBuffer> BUFFERS = ThreadLocal.withInitial(
+            () -> ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN));
+
+    private long lineFeeds;
+    private long carriageReturns;
+    private long crlfPairs;
+    private boolean previousWasCr;
+    private int lastByte = -1;
+
+    private LineCounter() {
+    }
+
+    /**
+     * Count the lines of a file.
+     */
+    public static long countLines(Path path) throws IOException {
+        LineCountEvent event = new LineCountEvent();
+        event.begin();
+        long lines = count(path);
+        event.end();
+        if (event.shouldCommit()) {
+            event.setPath(path.toString());
+            event.setLines(lines);
+            event.commit();
+        }
+        return lines;
+    }
+
+    private static long count(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            LineCounter counter = new LineCounter();
+            long size = channel.size();
+            if (size >= MAP_THRESHOLD) {
+                for (long position = 0; position < size; position += MAP_REGION_SIZE) {
+                    long length = Math.min(MAP_REGION_SIZE, size - position);
+                    ByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                    counter.update(region.order(ByteOrder.LITTLE_ENDIAN));
+                }
+            } else {
+                ByteBuffer buffer = BUFFERS.get();
+                buffer.clear();
+                while (channel.read(buffer) > 0) {
+                    buffer.flip();
+                    counter.update(buffer);
+                    buffer.clear();
+                }
+            }
+            return counter.result();
+        }
+    }
+
+    /**
+     * Count the lines in the remaining bytes of a buffer.
+     */
+    public static long countLines(ByteBuffer bytes) {
+        LineCounter counter = new LineCounter();
+        counter.update(bytes.duplicate().order(ByteOrder.LITTLE_ENDIAN));
+        return counter.result();
+    }
+
+    private void update(ByteBuffer buffer) {
+        int position = buffer.position();
+        int limit = buffer.limit();
+        if (position == limit) {
+            return;
+        }
+
+        int i = position;
+        for (; i + Long.BYTES <= limit; i += Long.BYTES) {
+            long word = buffer.getLong(i);
+            long lf = matchMask(word ^ LF_WORD);
+            long cr = matchMask(word ^ CR_WORD);
+            lineFeeds += Long.bitCount(lf);
+            if ((cr | (previousWasCr ? 1 : 0)) != 0) {
+                carriageReturns += Long.bitCount(cr);
+                // Little-endian: byte k sits at bits 8k..8k+7, so CR at k is followed by LF at k+1
+                crlfPairs += Long.bitCount((cr << 8) & lf);
+                if (previousWasCr && (lf & 0x80) != 0) {
+                    crlfPairs++;
+                }
+            }
+            previousWasCr = cr < 0; // high bit set means the last byte was CR
+        }
+        for (; i < limit; i++) {
+            countByte(buffer.get(i));
+        }
+
+        lastByte = buffer.get(limit - 1) & 0xff;
+        buffer.position(limit);
+    }
+
+    private void countByte(byte b) {
+        if (b == '\n') {
+            lineFeeds++;
+            if (previousWasCr) {
+                crlfPairs++;
+            }
+        } else if (b == '\r') {
+            carriageReturns++;
+        }
+        previousWasCr = b == '\r';
+    }
+
+    /**
+     * High bit of each byte set exactly where the byte is zero.
+     */
+    private static long matchMask(long x) {
+        return ~(((x & LOW_SEVEN_BITS) + LOW_SEVEN_BITS) | x | LOW_SEVEN_BITS);
+    }
+
+    private long result() {
+        long lines = lineFeeds + carriageReturns - crlfPairs;
+        if (lastByte != -1 && lastByte != '\n' && lastByte != '\r') {
+            lines++; // unterminated final line
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,107 @@
+package com.rb.repoinsight.scan;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Single-pass accumulator behind {@link RepoMetricsCollector}.
+ *
+ * Each source file is offered once. Counters are primitives, the largest
+ * files are kept in a bounded min-heap and only the names of top-level
+ * packages are collected, so the accumulator's own state grows with K and the
+ * number of packages rather than with the number of files.
+ */
+class MetricsAccumulator {
+
+    /**
+     * Smallest file first; among equal sizes the later file is smaller, so
+     * ties keep the file that was seen first.
+     */
+    private static final Comparator<RankedFile> HEAP_ORDER = Comparator
+            .comparingInt((RankedFile f) -> f.lineCount)
+            .thenComparing(Comparator.comparingLong((RankedFile f) -> f.sequence).reversed());
+
+    private final int maxLargestFiles;
+    private final PriorityQueue<RankedFile> largest;
+    private final Set<String> packages = new TreeSet<>();
+
+    private int totalFiles;
+    private int totalClasses;
+    private int totalTestClasses;
+    private long linesOfCode;
+    private long sequence;
+
+    MetricsAccumulator(int maxLargestFiles) {
+        this.maxLargestFiles = maxLargestFiles;
+        this.largest = new PriorityQueue<>(Math.max(1, maxLargestFiles), HEAP_ORDER);
+    }
+
+    /**
+     * Record one source file.
+     *
+     * @param relativePath Path relative to the repository root, '/'-separated
+     * @param packageName Top-level package, or null if the file is outside src/main/java
+     */
+    void add(String relativePath, boolean test, String packageName, int lineCount) {
+        totalFiles++;
+        if (test) {
+            totalTestClasses++;
+        } else {
+            totalClasses++;
+        }
+        linesOfCode += lineCount;
+
+        offerLargest(new RankedFile(relativePath, lineCount, sequence++));
+
+        if (packageName != null && !packageName.isEmpty()) {
+            packages.add(packageName);
+        }
+    }
+
+    private void offerLargest(RankedFile file) {
+        if (maxLargestFiles <= 0) {
+            return;
+        }
+        if (largest.size() < maxLargestFiles) {
+            largest.add(file);
+        } else if (HEAP_ORDER.compare(file, largest.peek()) > 0) {
+            largest.poll();
+            largest.add(file);
+        }
+    }
+
+    RepoMetrics toMetrics() {
+        RepoMetrics metrics = new RepoMetrics();
+        metrics.setTotalFiles(totalFiles);
+        metrics.setTotalClasses(totalClasses);
+        metrics.setTotalTestClasses(totalTestClasses);
+        metrics.setApproximateLinesOfCode(linesOfCode);
+
+        List<RankedFile> ranked = new ArrayList<>(largest);
+        ranked.sort(HEAP_ORDER.reversed());
+        List<RepoMetrics.FileMetric> largestFiles = new ArrayList<>(ranked.size());
+        for (RankedFile file : ranked) {
+            largestFiles.add(new RepoMetrics.FileMetric(file.relativePath, file.lineCount));
+        }
+        metrics.setLargestFiles(largestFiles);
+
+        metrics.setTopLevelPackages(new ArrayList<>(packages));
+        return metrics;
+    }
+
+    private static class RankedFile {
+        private final String relativePath;
+        private final int lineCount;
+        private final long sequence;
+
+        RankedFile(String relativePath, int lineCount, long sequence) {
+            this.relativePath = relativePath;
+            this.lineCount = lineCount;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -1,47 +1,120 @@
 package com.rb.repoinsight.scan;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.rb.repoinsight.model.ExternalDependency;
 import com.rb.repoinsight.model.RuleConfig;
+import com.rb.repoinsight.model.RuleCost;
+import com.rb.repoinsight.profile.RuleEvaluationEvent;
+import com.rb.repoinsight.scan.cache.CachedFileResult;
+import com.rb.repoinsight.scan.cache.FileResultCache;
+import com.rb.repoinsight.scan.gradle.GradleProject;
+import com.rb.repoinsight.scan.index.IndexedFile;
+import com.rb.repoinsight.scan.index.RepoFileIndex;
+import com.rb.repoinsight.scan.maven.LocalRepositoryIndex;
+import com.rb.repoinsight.scan.maven.PomModel;
+import com.rb.repoinsight.scan.maven.TransitiveDependencyResolver;
+import com.rb.repoinsight.scan.rules.CompiledRuleSet;
+import com.rb.repoinsight.scan.rules.RuleMatchOptions;
+import com.rb.repoinsight.scan.rules.RuleMatchTimeoutException;
+import com.rb.repoinsight.scan.rules.RulePack;
+import com.rb.repoinsight.scan.rules.StreamingRuleMatcher;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class RuleEngineScanner {
 
     private final List<RuleConfig> rules;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final FileResultCache cache;
+    private final long rulesFingerprint;
+    private final CompiledRuleSet compiledRules;
+    private final StreamingRuleMatcher streamingMatcher;
+    private final int parallelism;
+    private final RuleTargets targets;
+    private final boolean[] stopAfterFirstHit;
+    private final long matchTimeoutMillis;
+    private final AtomicLong filesMatched = new AtomicLong();
+    private final AtomicLong filesConsidered = new AtomicLong();
+    private final AtomicLong bytesMatched = new AtomicLong();
+    private LocalRepositoryIndex localRepository;
+    private int transitiveArtifactCount;
 
     public RuleEngineScanner() {
-        this.rules = loadRules();
+        this(FileResultCache.disabled());
     }
 
-    private List<RuleConfig> loadRules() {
-        try (InputStream is = getClass().getResourceAsStream("/rules.json")) {
-            if (is == null) {
-                return Collections.emptyList();
-            }
-            return objectMapper.readValue(is, new TypeReference<List<RuleConfig>>() {
-            });
-        } catch (IOException e) {
-            return Collections.emptyList();
+    public RuleEngineScanner(FileResultCache cache) {
+        this(cache, new RuleMatchOptions());
+    }
+
+    public RuleEngineScanner(FileResultCache cache, RuleMatchOptions matchOptions) {
+        this(cache, matchOptions, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param parallelism Worker threads used to match files ({@code 1} = single-threaded)
+     */
+    public RuleEngineScanner(FileResultCache cache, RuleMatchOptions matchOptions, int parallelism) {
+        this(RulePack.bundled(), cache, matchOptions, parallelism);
+    }
+
+    /**
+     * @param customRules Rules to apply instead of the bundled {@code rules.json}
+     */
+    RuleEngineScanner(List<RuleConfig> customRules, FileResultCache cache, RuleMatchOptions matchOptions,
+            int parallelism) {
+        this(RulePack.of(customRules), cache, matchOptions, parallelism);
+    }
+
+    /**
+     * @param rulePack The rules to apply, see {@link RulePack#load}
+     * @param parallelism Worker threads used to match files ({@code 1} = single-threaded)
+     */
+    public RuleEngineScanner(RulePack rulePack, FileResultCache cache, RuleMatchOptions matchOptions,
+            int parallelism) {
+        this.rules = rulePack.getRules();
+        this.cache = cache;
+        this.parallelism = Math.max(1, parallelism);
+        this.rulesFingerprint = fingerprint(rules);
+        this.matchTimeoutMillis = matchOptions.getMatchTimeoutMillis();
+        this.compiledRules = rulePack.compile(matchOptions);
+        this.streamingMatcher = new StreamingRuleMatcher(compiledRules);
+        this.targets = new RuleTargets(rules);
+        this.stopAfterFirstHit = new boolean[rules.size()];
+        for (int rule = 0; rule < rules.size(); rule++) {
+            stopAfterFirstHit[rule] = rules.get(rule).isStopAfterFirstHit();
         }
     }
 
-    public List<ExternalDependency> scan(Path repoRoot) {
-        Set<String> artifacts = extractMavenArtifacts(repoRoot);
+    /**
+     * Also match library rules against the dependencies that the declared
+     * ones pull in, resolved from the POMs of a local Maven repository.
+     *
+     * @param localRepository The local repository, or null to match declared dependencies only
+     */
+    public void setLocalRepository(LocalRepositoryIndex localRepository) {
+        this.localRepository = localRepository;
+    }
+
+    /**
+     * Dependencies found only transitively by the last scan.
+     */
+    public int getTransitiveArtifactCount() {
+        return transitiveArtifactCount;
+    }
+
+    public List<ExternalDependency> scan(RepoFileIndex index) {
+        Set<String> artifacts = extractLibraryArtifacts(index);
+        Map<String, String> transitive = localRepository != null
+                ? extractTransitiveArtifacts(index, artifacts)
+                : Collections.emptyMap();
         Set<String> detectedSystemNames = new HashSet<>();
         List<ExternalDependency> results = new ArrayList<>();
 
-        // 1. Library-based detection
+        // 1. Library-based detection, declared dependencies first
         for (RuleConfig rule : rules) {
             for (String artifact : rule.getMavenArtifacts()) {
                 if (artifacts.contains(artifact)) {
@@ -52,71 +125,411 @@ public class RuleEngineScanner {
                 }
             }
         }
+        for (RuleConfig rule : rules) {
+            for (String artifact : rule.getMavenArtifacts()) {
+                String via = transitive.get(artifact);
+                if (via != null && detectedSystemNames.add(rule.getName() + rule.getCategory().name())) {
+                    results.add(new ExternalDependency(rule.getName(), rule.getCategory(),
+                            "Library: " + artifact + " (transitive via " + via + ")"));
+                }
+            }
+        }
 
         // 2. Heuristic-based detection
-        try (Stream<Path> paths = Files.walk(repoRoot)) {
-            List<Path> filesToScan = paths
-                    .filter(Files::isRegularFile)
-                    .filter(this::isInterestingFile)
-                    .collect(Collectors.toList());
-
-            for (Path file : filesToScan) {
-                try {
-                    String content = Files.readString(file);
-                    for (RuleConfig rule : rules) {
-                        for (String regex : rule.getHeuristics()) {
-                            Pattern p = Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
-                            Matcher m = p.matcher(content);
-                            if (m.find()) {
-                                if (detectedSystemNames.add(rule.getName() + rule.getCategory().name())) {
-                                    String evidence = "Found in " + repoRoot.relativize(file) + ": " + m.group().trim();
-                                    results.add(new ExternalDependency(rule.getName(), rule.getCategory(), evidence));
-                                }
-                            }
-                        }
-                    }
-                } catch (IOException ignored) {
-                }
+        List<IndexedFile> files = targets.selectFiles(index.getInterestingFiles());
+        filesConsidered.addAndGet(files.size());
+        FirstHits firstHits = findFirstHits(files);
+        for (int i = 0; i < firstHits.count; i++) {
+            RuleConfig rule = rules.get(firstHits.rules[i]);
+            if (detectedSystemNames.add(rule.getName() + rule.getCategory().name())) {
+                String evidence = "Found in " + files.get(firstHits.files[i]).getRelativePath()
+                        + ": " + firstHits.evidence[i];
+                results.add(new ExternalDependency(rule.getName(), rule.getCategory(), evidence));
             }
-        } catch (IOException ignored) {
         }
 
         return results;
     }
 
-    private Set<String> extractMavenArtifacts(Path repoRoot) {
-        Set<String> artifacts = new HashSet<>();
-        Path pom = repoRoot.resolve("pom.xml");
-        if (Files.exists(pom)) {
-            try {
-                String content = Files.readString(pom);
-                // Simple regex to find artifactIds inside dependencies
-                // This is faster than full XML parsing and sufficient for heuristics
-                Pattern p = Pattern.compile("<artifactId>(.*?)</artifactId>");
-                Matcher m = p.matcher(content);
-                while (m.find()) {
-                    artifacts.add(m.group(1).trim());
+    /**
+     * Match every file and keep, for each rule, its hit in the earliest file.
+     * Files are split into contiguous ranges matched by a work-stealing pool;
+     * ranges are merged left to right, so the result does not depend on
+     * scheduling.
+     *
+     * A rule that stops after its first hit is only evaluated on files before
+     * the earliest file it has been found in so far. Once that holds for
+     * every rule, no further files are read.
+     */
+    private FirstHits findFirstHits(List<IndexedFile> files) {
+        AtomicIntegerArray resolvedAt = new AtomicIntegerArray(rules.size());
+        for (int rule = 0; rule < rules.size(); rule++) {
+            resolvedAt.set(rule, Integer.MAX_VALUE);
+        }
+        if (parallelism == 1 || files.size() < 2) {
+            return matchRange(files, 0, files.size(), resolvedAt).sorted();
+        }
+        // A few ranges per worker evens out files of very different sizes
+        int rangeSize = Math.max(1, files.size() / (parallelism * 8));
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return pool.invoke(new RangeTask(files, 0, files.size(), rangeSize, resolvedAt)).sorted();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private FirstHits matchRange(List<IndexedFile> files, int from, int to, AtomicIntegerArray resolvedAt) {
+        FirstHits firstHits = new FirstHits(rules.size());
+        for (int i = from; i < to; i++) {
+            BitSet active = activeRules(i, resolvedAt);
+            if (active.isEmpty()) {
+                // Later files in this range are further right still
+                break;
+            }
+            IndexedFile file = files.get(i);
+            active.and(targets.rulesFor(file));
+            if (active.isEmpty()) {
+                continue;
+            }
+
+            List<CachedFileResult.RuleHit> hits = findRuleHits(file, active);
+            if (hits == null) {
+                continue;
+            }
+            for (CachedFileResult.RuleHit hit : hits) {
+                int rule = hit.getRuleIndex();
+                if (active.get(rule)) {
+                    firstHits.offer(rule, i, hit.getEvidence());
+                    resolvedAt.accumulateAndGet(rule, i, Math::min);
                 }
-            } catch (IOException ignored) {
             }
         }
+        return firstHits;
+    }
+
+    /**
+     * Rules that may still need file {@code position}: those not yet found
+     * in an earlier file, plus those that never stop.
+     */
+    private BitSet activeRules(int position, AtomicIntegerArray resolvedAt) {
+        BitSet active = new BitSet(rules.size());
+        for (int rule = 0; rule < rules.size(); rule++) {
+            if (!stopAfterFirstHit[rule] || resolvedAt.get(rule) > position) {
+                active.set(rule);
+            }
+        }
+        return active;
+    }
+
+    private class RangeTask extends RecursiveTask<FirstHits> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<IndexedFile> files;
+        private final int from;
+        private final int to;
+        private final int rangeSize;
+        private final AtomicIntegerArray resolvedAt;
+
+        RangeTask(List<IndexedFile> files, int from, int to, int rangeSize, AtomicIntegerArray resolvedAt) {
+            this.files = files;
+            this.from = from;
+            this.to = to;
+            this.rangeSize = rangeSize;
+            this.resolvedAt = resolvedAt;
+        }
+
+        @Override
+        protected FirstHits compute() {
+            if (to - from <= rangeSize) {
+                return matchRange(files, from, to, resolvedAt);
+            }
+            int middle = (from + to) >>> 1;
+            RangeTask right = new RangeTask(files, middle, to, rangeSize, resolvedAt);
+            right.fork();
+            FirstHits left = new RangeTask(files, from, middle, rangeSize, resolvedAt).compute();
+            return left.mergeFollowing(right.join());
+        }
+    }
+
+    /**
+     * First hit of each rule within a range of files.
+     */
+    private static final class FirstHits {
+
+        private final int[] fileByRule;
+        private final String[] evidenceByRule;
+        private int count;
+
+        // Filled by sorted(): hits ordered like a sequential scan would report them
+        private int[] rules;
+        private int[] files;
+        private String[] evidence;
+
+        FirstHits(int ruleCount) {
+            this.fileByRule = new int[ruleCount];
+            this.evidenceByRule = new String[ruleCount];
+            Arrays.fill(fileByRule, -1);
+        }
+
+        void offer(int rule, int file, String evidence) {
+            if (fileByRule[rule] < 0) {
+                fileByRule[rule] = file;
+                evidenceByRule[rule] = evidence;
+                count++;
+            }
+        }
+
+        /**
+         * Merge the hits of the range directly after this one.
+         */
+        FirstHits mergeFollowing(FirstHits later) {
+            for (int rule = 0; rule < fileByRule.length; rule++) {
+                if (later.fileByRule[rule] >= 0) {
+                    offer(rule, later.fileByRule[rule], later.evidenceByRule[rule]);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Order hits by file, then by rule, which is the order in which
+         * files are visited and hits are returned for one file.
+         */
+        FirstHits sorted() {
+            Integer[] order = new Integer[count];
+            int next = 0;
+            for (int rule = 0; rule < fileByRule.length; rule++) {
+                if (fileByRule[rule] >= 0) {
+                    order[next++] = rule;
+                }
+            }
+            Arrays.sort(order, Comparator.<Integer>comparingInt(rule -> fileByRule[rule])
+                    .thenComparingInt(rule -> rule));
+            rules = new int[count];
+            files = new int[count];
+            evidence = new String[count];
+            for (int i = 0; i < count; i++) {
+                rules[i] = order[i];
+                files[i] = fileByRule[order[i]];
+                evidence[i] = evidenceByRule[order[i]];
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Rules whose heuristics match a file, each with the text matched by its
+     * first matching heuristic. Answered from the result cache when the file
+     * and the rule set are unchanged and the cached entry covers the rules
+     * asked for; otherwise only the missing rules are evaluated and merged
+     * into the entry.
+     *
+     * @param active Rules to evaluate
+     * @return Hits in rule order, or null if the file could not be read
+     */
+    private List<CachedFileResult.RuleHit> findRuleHits(IndexedFile file, BitSet active) {
+        CachedFileResult cached = cache.lookup(file);
+        List<CachedFileResult.RuleHit> cachedHits = cached == null ? null : cached.getRuleHits(rulesFingerprint);
+        BitSet evaluate = (BitSet) active.clone();
+        if (cachedHits != null) {
+            if (cached.hasEvaluated(active)) {
+                cache.recordHit();
+                return cachedHits;
+            }
+            evaluate.andNot(cached.getEvaluatedRules());
+        }
+        cache.recordMiss();
+
+        List<CachedFileResult.RuleHit> hits;
+        try {
+            hits = matchFile(file, evaluate);
+        } catch (IOException e) {
+            return null;
+        } catch (RuleMatchTimeoutException e) {
+            // Keep what was found, but do not cache it so the file is retried next run
+            System.err.println("Warning: " + e.getMessage() + " in " + file.getRelativePath()
+                    + "; remaining heuristics skipped");
+            return e.getPartialHits();
+        }
+
+        if (cachedHits != null) {
+            evaluate.or(cached.getEvaluatedRules());
+            hits = new ArrayList<>(hits);
+            hits.addAll(cachedHits);
+            hits.sort(Comparator.comparingInt(CachedFileResult.RuleHit::getRuleIndex));
+        }
+        cache.storeRuleHits(file, rulesFingerprint, evaluate, hits);
+        return hits;
+    }
+
+    /**
+     * Stream a file through the given rules. Rules with a byte limit only see
+     * that prefix of the file, so rules are grouped by limit and each group
+     * reads only as much of the file as it needs.
+     *
+     * @throws IOException If the file cannot be read
+     */
+    private List<CachedFileResult.RuleHit> matchFile(IndexedFile file, BitSet evaluate)
+            throws IOException, RuleMatchTimeoutException {
+        RuleEvaluationEvent event = new RuleEvaluationEvent();
+        event.begin();
+        TreeMap<Long, BitSet> rulesByLimit = new TreeMap<>();
+        for (int rule = evaluate.nextSetBit(0); rule >= 0; rule = evaluate.nextSetBit(rule + 1)) {
+            rulesByLimit.computeIfAbsent(Math.max(0, rules.get(rule).getMaxBytes()), k -> new BitSet()).set(rule);
+        }
+        filesMatched.incrementAndGet();
+        bytesMatched.addAndGet(file.getSize());
+
+        List<CachedFileResult.RuleHit> hits = new ArrayList<>();
+        boolean timedOut = false;
+        for (Map.Entry<Long, BitSet> group : rulesByLimit.entrySet()) {
+            try {
+                hits.addAll(streamingMatcher.match(file.getPath(), group.getValue(), group.getKey()));
+            } catch (RuleMatchTimeoutException e) {
+                hits.addAll(e.getPartialHits());
+                timedOut = true;
+            }
+        }
+        if (rulesByLimit.size() > 1) {
+            hits.sort(Comparator.comparingInt(CachedFileResult.RuleHit::getRuleIndex));
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.setPath(file.getRelativePath());
+            event.setRules(evaluate.cardinality());
+            event.setHits(hits.size());
+            event.commit();
+        }
+        if (timedOut) {
+            throw new RuleMatchTimeoutException(matchTimeoutMillis, hits);
+        }
+        return hits;
+    }
+
+    /**
+     * Files the heuristics were matched against (cache hits excluded) and
+     * files that any rule applies to.
+     *
+     * @return {@code {matched, considered}}
+     */
+    public long[] getFileTotals() {
+        return new long[] { filesMatched.get(), filesConsidered.get() };
+    }
+
+    /**
+     * Total size of the files counted as matched by {@link #getFileTotals()}.
+     */
+    public long getBytesMatched() {
+        return bytesMatched.get();
+    }
+
+    /**
+     * Regex evaluations that ran and that the required-literal prefilter
+     * skipped, summed over all rules.
+     *
+     * @return {@code {runs, skips}}
+     */
+    public long[] getPrefilterTotals() {
+        long[] totals = new long[2];
+        for (int rule = 0; rule < compiledRules.getRuleCount(); rule++) {
+            totals[0] += compiledRules.getPrefilterHits(rule);
+            totals[1] += compiledRules.getPrefilterMisses(rule);
+        }
+        return totals;
+    }
+
+    /**
+     * Cost of every rule and heuristic so far; empty unless profiling was
+     * enabled in the match options.
+     */
+    public List<RuleCost> getRuleCosts() {
+        return compiledRules.getCosts();
+    }
+
+    public CompiledRuleSet getCompiledRules() {
+        return compiledRules;
+    }
+
+    /**
+     * Fingerprint of the loaded rule set; cached rule hits are only reused
+     * when it is unchanged.
+     */
+    public long getRulesFingerprint() {
+        return rulesFingerprint;
+    }
+
+    private static long fingerprint(List<RuleConfig> rules) {
+        StringBuilder text = new StringBuilder();
+        for (RuleConfig rule : rules) {
+            text.append(rule.getName()).append('\u0000').append(rule.getCategory()).append('\u0000');
+            for (String heuristic : rule.getHeuristics()) {
+                text.append(heuristic).append('\u0000');
+            }
+            // Globs and limits change which hits a file can have
+            text.append(rule.getMaxBytes()).append('\u0000');
+            for (String glob : rule.getFileGlobs() == null ? List.<String>of() : rule.getFileGlobs()) {
+                text.append(glob).append('\u0000');
+            }
+            text.append('\u0001');
+        }
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < text.length(); i++) {
+            hash ^= text.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Dependencies of the root POM and its modules and of every Gradle
+     * project, each under both {@code artifactId} and
+     * {@code groupId:artifactId} so rules can name either.
+     */
+    private Set<String> extractLibraryArtifacts(RepoFileIndex index) {
+        Set<String> artifacts = new HashSet<>();
+        for (PomModel pom : index.getPoms().getProjects()) {
+            addArtifacts(pom.getDependencies(), artifacts);
+        }
+        for (GradleProject project : index.getGradleBuild().getProjects()) {
+            addArtifacts(project.getDependencies(), artifacts);
+        }
         return artifacts;
     }
 
-    private boolean isInterestingFile(Path path) {
-        String pathString = path.toString().replace("\\", "/");
-        // Don't scan our own source to avoid false positives by rules.json itself or
-        // this scanner
-        if (pathString.contains("com/rb/repoinsight") || pathString.contains("rules.json")) {
-            return false;
+    /**
+     * Dependencies reached only transitively, each under both
+     * {@code artifactId} and {@code groupId:artifactId}, mapped to the
+     * declared dependency they come from.
+     */
+    private Map<String, String> extractTransitiveArtifacts(RepoFileIndex index, Set<String> declared) {
+        List<String> gradleDependencies = new ArrayList<>();
+        for (GradleProject project : index.getGradleBuild().getProjects()) {
+            gradleDependencies.addAll(project.getDependencies());
         }
+        TransitiveDependencyResolver resolver = new TransitiveDependencyResolver(localRepository);
+        Map<String, String> resolved = resolver.resolve(index.getPoms().getProjects(), gradleDependencies);
+        transitiveArtifactCount = resolved.size();
 
-        String name = path.getFileName().toString().toLowerCase();
-        return name.endsWith(".java") ||
-                name.endsWith(".xml") ||
-                name.endsWith(".yml") ||
-                name.endsWith(".yaml") ||
-                name.endsWith(".properties") ||
-                name.endsWith(".json");
+        Map<String, String> transitive = new HashMap<>();
+        for (Map.Entry<String, String> entry : resolved.entrySet()) {
+            String dependency = entry.getKey();
+            String artifactId = dependency.substring(dependency.indexOf(':') + 1);
+            if (!declared.contains(dependency)) {
+                transitive.putIfAbsent(dependency, entry.getValue());
+            }
+            if (!declared.contains(artifactId)) {
+                transitive.putIfAbsent(artifactId, entry.getValue());
+            }
+        }
+        return transitive;
+    }
+
+    private static void addArtifacts(List<String> dependencies, Set<String> artifacts) {
+        for (String dependency : dependencies) {
+            artifacts.add(dependency);
+            artifacts.add(dependency.substring(dependency.indexOf(':') + 1));
+        }
     }
 }
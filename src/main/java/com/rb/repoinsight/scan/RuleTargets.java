@@ -0,0 +1,90 @@
+package com.rb.repoinsight.scan;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.rb.repoinsight.model.RuleConfig;
+import com.rb.repoinsight.scan.index.IndexedFile;
+import com.rb.repoinsight.scan.index.PathGlobs;
+
+/**
+ * Which rules apply to which files, according to each rule's file globs.
+ *
+ * Rules are indexed by the extensions their globs can select. Files are
+ * grouped by extension the same way, so files no rule can apply to are
+ * dropped without testing a single glob, and a file is only tested against
+ * the globs of rules that can select its extension.
+ */
+final class RuleTargets {
+
+    /** Per rule, or null when the rule applies to every file */
+    private final PathGlobs[] globs;
+    /** Rules whose globs can select files of any extension */
+    private final BitSet anyExtension = new BitSet();
+    private final Map<String, BitSet> byExtension = new HashMap<>();
+
+    RuleTargets(List<RuleConfig> rules) {
+        this.globs = new PathGlobs[rules.size()];
+        for (int rule = 0; rule < rules.size(); rule++) {
+            List<String> fileGlobs = rules.get(rule).getFileGlobs();
+            PathGlobs compiled = fileGlobs == null ? null : PathGlobs.compile(fileGlobs);
+            if (compiled == null || compiled.isEmpty()) {
+                anyExtension.set(rule);
+                continue;
+            }
+            globs[rule] = compiled;
+            if (compiled.getExtensions() == null) {
+                anyExtension.set(rule);
+            } else {
+                for (String extension : compiled.getExtensions()) {
+                    byExtension.computeIfAbsent(extension, e -> new BitSet()).set(rule);
+                }
+            }
+        }
+    }
+
+    /**
+     * Files that at least one rule may apply to, in their original order.
+     */
+    List<IndexedFile> selectFiles(List<IndexedFile> files) {
+        if (!anyExtension.isEmpty()) {
+            return files;
+        }
+        Map<String, List<Integer>> filesByExtension = new HashMap<>();
+        for (int i = 0; i < files.size(); i++) {
+            String extension = PathGlobs.extensionOf(files.get(i).getRelativePath());
+            filesByExtension.computeIfAbsent(extension, e -> new ArrayList<>()).add(i);
+        }
+        BitSet selected = new BitSet(files.size());
+        for (String extension : byExtension.keySet()) {
+            for (int i : filesByExtension.getOrDefault(extension, List.of())) {
+                selected.set(i);
+            }
+        }
+        List<IndexedFile> result = new ArrayList<>(selected.cardinality());
+        for (int i = selected.nextSetBit(0); i >= 0; i = selected.nextSetBit(i + 1)) {
+            result.add(files.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Rules whose globs select a file.
+     */
+    BitSet rulesFor(IndexedFile file) {
+        BitSet rules = (BitSet) anyExtension.clone();
+        BitSet forExtension = byExtension.get(PathGlobs.extensionOf(file.getRelativePath()));
+        if (forExtension != null) {
+            rules.or(forExtension);
+        }
+        for (int rule = rules.nextSetBit(0); rule >= 0; rule = rules.nextSetBit(rule + 1)) {
+            if (globs[rule] != null && !globs[rule].matches(file.getRelativePath())) {
+                rules.clear(rule);
+            }
+        }
+        return rules;
+    }
+}
@@ -0,0 +1,132 @@
+package com.rb.repoinsight.scan.cache;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Per-file analysis results kept in the {@link FileResultCache}.
+ * Fields that were not computed for a file are reported as absent, so the
+ * metrics and rule stages can fill in their parts independently.
+ */
+public class CachedFileResult {
+
+    public static final int UNKNOWN_LINE_COUNT = -1;
+
+    private final boolean source;
+    private final boolean test;
+    private final int lineCount;
+    private final long rulesFingerprint;
+    private final List<RuleHit> ruleHits;
+    private final BitSet evaluatedRules;
+
+    public CachedFileResult(boolean source, boolean test, int lineCount,
+            long rulesFingerprint, List<RuleHit> ruleHits) {
+        this(source, test, lineCount, rulesFingerprint, ruleHits, null);
+    }
+
+    /**
+     * @param evaluatedRules Rules the hits were computed for, or null for all rules
+     */
+    public CachedFileResult(boolean source, boolean test, int lineCount,
+            long rulesFingerprint, List<RuleHit> ruleHits, BitSet evaluatedRules) {
+        this.source = source;
+        this.test = test;
+        this.lineCount = lineCount;
+        this.rulesFingerprint = rulesFingerprint;
+        this.ruleHits = ruleHits == null ? null : Collections.unmodifiableList(ruleHits);
+        this.evaluatedRules = evaluatedRules == null ? null : (BitSet) evaluatedRules.clone();
+    }
+
+    public boolean isSource() {
+        return source;
+    }
+
+    public boolean isTest() {
+        return test;
+    }
+
+    public boolean hasLineCount() {
+        return lineCount != UNKNOWN_LINE_COUNT;
+    }
+
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    long getRulesFingerprint() {
+        return rulesFingerprint;
+    }
+
+    boolean hasRuleHits() {
+        return ruleHits != null;
+    }
+
+    List<RuleHit> getRuleHits() {
+        return ruleHits;
+    }
+
+    /**
+     * Rules that matched this file, in rule order. Empty if no rule matched;
+     * null if the file was not evaluated with the given rule set.
+     *
+     * @param expectedFingerprint Fingerprint of the rules currently loaded
+     */
+    public List<RuleHit> getRuleHits(long expectedFingerprint) {
+        return rulesFingerprint == expectedFingerprint ? ruleHits : null;
+    }
+
+    /**
+     * Rules the cached hits were computed for, or null if every rule was
+     * evaluated. Rules outside this set may still match the file.
+     */
+    public BitSet getEvaluatedRules() {
+        return evaluatedRules == null ? null : (BitSet) evaluatedRules.clone();
+    }
+
+    /**
+     * Whether the cached hits are complete for the given rules.
+     */
+    public boolean hasEvaluated(BitSet rules) {
+        if (evaluatedRules == null) {
+            return true;
+        }
+        BitSet missing = (BitSet) rules.clone();
+        missing.andNot(evaluatedRules);
+        return missing.isEmpty();
+    }
+
+    /**
+     * Combine two partial results for the same file, preferring fields of {@code newer}.
+     */
+    static CachedFileResult merge(CachedFileResult older, CachedFileResult newer) {
+        if (older == null) {
+            return newer;
+        }
+        int lines = newer.hasLineCount() ? newer.lineCount : older.lineCount;
+        CachedFileResult rulesSource = newer.hasRuleHits() ? newer : older;
+        return new CachedFileResult(newer.source, newer.test, lines,
+                rulesSource.rulesFingerprint, rulesSource.ruleHits, rulesSource.evaluatedRules);
+    }
+
+    /**
+     * A rule that matched a file, with the matched text used as report evidence.
+     */
+    public static class RuleHit {
+        private final int ruleIndex;
+        private final String evidence;
+
+        public RuleHit(int ruleIndex, String evidence) {
+            this.ruleIndex = ruleIndex;
+            this.evidence = evidence;
+        }
+
+        public int getRuleIndex() {
+            return ruleIndex;
+        }
+
+        public String getEvidence() {
+            return evidence;
+        }
+    }
+}
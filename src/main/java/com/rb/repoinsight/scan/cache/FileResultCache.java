@@ -0,0 +1,499 @@
+package com.rb.repoinsight.scan.cache;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.rb.repoinsight.scan.index.IndexedFile;
+
+/**
+ * Persistent per-file result cache for incremental re-analysis.
+ *
+ * Entries are keyed by relative path, size and modification time (plus an
+ * optional content hash) and hold the line count, source/test classification
+ * and rule hits computed for that file. Unchanged files are answered from the
+ * cache instead of being read again.
+ *
+ * <p>File layout (big-endian):</p>
+ * <pre>
+ * header  magic:int version:int flags:int entryCount:int
+ * entries entryCount x { pathHash:long size:long mtime:long contentHash:long rulesFingerprint:long
+ *                        lineCount:int flags:int dataOffset:int dataLength:int }
+ * data    per entry { pathLength:u16 path:utf8
+ *                     [hitCount:u16 { ruleIndex:u16 evidenceLength:u16 evidence:utf8 }
+ *                      evaluatedWords:u16 { word:long }] }
+ * </pre>
+ * {@code evaluatedWords} is {@value #ALL_RULES_EVALUATED} when the hits cover
+ * every rule; otherwise the words are a {@link BitSet} of the rules evaluated.
+ * The entry table is sorted by path hash, so the file is memory-mapped and
+ * searched in place; loading takes constant time regardless of entry count.
+ *
+ * <p>Size and modification time cannot tell apart two versions of a file
+ * written within the timestamp granularity of the file system. As in Git's
+ * "racy clean" check, an entry whose modification time is within
+ * {@value #RACY_WINDOW_MILLIS} ms of when the cache was written also stores a
+ * content hash, and is only a hit if the hash still matches.</p>
+ */
+public class FileResultCache {
+
+    public static final String DEFAULT_DIRECTORY = ".repo-insight/cache";
+    static final String FILE_NAME = "file-results.bin";
+
+    private static final int MAGIC = 0x52494643; // "RIFC"
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 16;
+    private static final int ENTRY_SIZE = 56;
+
+    private static final int HEADER_FLAG_CONTENT_HASH = 1;
+    private static final int ENTRY_SOURCE = 1;
+    private static final int ENTRY_TEST = 1 << 1;
+    private static final int ENTRY_RULES = 1 << 2;
+
+    private static final int MAX_EVIDENCE_BYTES = 0xffff;
+    private static final int ALL_RULES_EVALUATED = 0xffff;
+
+    /**
+     * How close to the cache write a modification time must be before it is
+     * no longer trusted on its own. Covers file systems with 1 or 2 second
+     * timestamps.
+     */
+    static final long RACY_WINDOW_MILLIS = 2_000;
+
+    private final Path cacheFile;
+    private final boolean verifyContentHash;
+    private final ByteBuffer mapped;
+    private final int entryCount;
+    private final long savedAt;
+
+    private final Map<String, PendingEntry> pending = new ConcurrentHashMap<>();
+    private final Map<String, Long> contentHashes = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private FileResultCache(Path cacheFile, boolean verifyContentHash, ByteBuffer mapped, long savedAt) {
+        this.cacheFile = cacheFile;
+        this.verifyContentHash = verifyContentHash;
+        this.mapped = mapped;
+        this.entryCount = mapped != null ? mapped.getInt(12) : 0;
+        this.savedAt = savedAt;
+    }
+
+    /**
+     * A cache that never hits and never writes.
+     */
+    public static FileResultCache disabled() {
+        return new FileResultCache(null, false, null, 0);
+    }
+
+    /**
+     * Open (or start) the cache stored in a directory. A missing, corrupt or
+     * incompatible cache file is treated as empty.
+     *
+     * @param cacheDir Directory holding the cache file
+     * @param verifyContentHash Also require a matching content hash for a hit
+     */
+    public static FileResultCache open(Path cacheDir, boolean verifyContentHash) {
+        Path file = cacheDir.resolve(FILE_NAME);
+        ByteBuffer buffer = null;
+        long savedAt = 0;
+        if (Files.isRegularFile(file)) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                ByteBuffer candidate = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (isCompatible(candidate, verifyContentHash)) {
+                    buffer = candidate;
+                    savedAt = Files.getLastModifiedTime(file).toMillis();
+                }
+            } catch (IOException e) {
+                System.err.println("Warning: Ignoring unreadable result cache: " + e.getMessage());
+            }
+        }
+        return new FileResultCache(file, verifyContentHash, buffer, savedAt);
+    }
+
+    private static boolean isCompatible(ByteBuffer buffer, boolean verifyContentHash) {
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            return false;
+        }
+        boolean hasContentHash = (buffer.getInt(8) & HEADER_FLAG_CONTENT_HASH) != 0;
+        long tableEnd = HEADER_SIZE + (long) buffer.getInt(12) * ENTRY_SIZE;
+        return hasContentHash == verifyContentHash && tableEnd <= buffer.limit();
+    }
+
+    public boolean isEnabled() {
+        return cacheFile != null;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Count a file a stage answered from the cache without reading it.
+     * Counted by the stages rather than by {@link #lookup} because an entry
+     * only helps a stage when it holds that stage's result.
+     */
+    public void recordHit() {
+        if (isEnabled()) {
+            hits.incrementAndGet();
+        }
+    }
+
+    /**
+     * Count a file a stage had to read despite the cache.
+     */
+    public void recordMiss() {
+        if (isEnabled()) {
+            misses.incrementAndGet();
+        }
+    }
+
+    // --------------------------------------------------
+    // Lookup
+    // --------------------------------------------------
+
+    /**
+     * Find the cached result for a file whose key still matches. Callers
+     * report whether it spared them reading the file with {@link #recordHit}
+     * or {@link #recordMiss}.
+     *
+     * @return The cached result, or null if there is none
+     */
+    public CachedFileResult lookup(IndexedFile file) {
+        if (!isEnabled()) {
+            return null;
+        }
+
+        PendingEntry current = pending.get(file.getRelativePath());
+        if (current != null) {
+            return current.result;
+        }
+
+        CachedFileResult result = mapped != null ? findStored(file) : null;
+        if (result == null) {
+            return null;
+        }
+
+        // Carry the entry forward so it survives the next save
+        pending.merge(file.getRelativePath(), new PendingEntry(file, contentHash(file), result),
+                (older, newer) -> older.mergedWith(newer));
+        return result;
+    }
+
+    private CachedFileResult findStored(IndexedFile file) {
+        byte[] path = file.getRelativePath().getBytes(StandardCharsets.UTF_8);
+        long hash = pathHash(path);
+
+        int low = 0;
+        int high = entryCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midHash = mapped.getLong(entryOffset(mid));
+            if (midHash < hash) {
+                low = mid + 1;
+            } else if (midHash > hash) {
+                high = mid - 1;
+            } else {
+                // Scan the run of equal hashes in both directions
+                for (int i = mid; i >= 0 && mapped.getLong(entryOffset(i)) == hash; i--) {
+                    CachedFileResult result = readIfMatching(i, path, file);
+                    if (result != null) {
+                        return result;
+                    }
+                }
+                for (int i = mid + 1; i < entryCount && mapped.getLong(entryOffset(i)) == hash; i++) {
+                    CachedFileResult result = readIfMatching(i, path, file);
+                    if (result != null) {
+                        return result;
+                    }
+                }
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private CachedFileResult readIfMatching(int entry, byte[] path, IndexedFile file) {
+        int offset = entryOffset(entry);
+        int dataOffset = mapped.getInt(offset + 48);
+        int pathLength = Short.toUnsignedInt(mapped.getShort(dataOffset));
+        if (pathLength != path.length) {
+            return null;
+        }
+        byte[] storedPath = new byte[pathLength];
+        mapped.get(dataOffset + 2, storedPath);
+        if (!Arrays.equals(storedPath, path)) {
+            return null;
+        }
+
+        long lastModified = mapped.getLong(offset + 16);
+        if (mapped.getLong(offset + 8) != file.getSize() || lastModified != file.getLastModified()) {
+            return null;
+        }
+        // A file written just before the cache may have changed again within the same timestamp
+        boolean racy = lastModified >= savedAt - RACY_WINDOW_MILLIS;
+        if ((verifyContentHash || racy) && mapped.getLong(offset + 24) != hashContent(file)) {
+            return null;
+        }
+
+        long rulesFingerprint = mapped.getLong(offset + 32);
+        int lineCount = mapped.getInt(offset + 40);
+        int flags = mapped.getInt(offset + 44);
+        List<CachedFileResult.RuleHit> ruleHits = null;
+        BitSet evaluatedRules = null;
+        if ((flags & ENTRY_RULES) != 0) {
+            int position = dataOffset + 2 + pathLength;
+            int count = Short.toUnsignedInt(mapped.getShort(position));
+            position += 2;
+            ruleHits = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int ruleIndex = Short.toUnsignedInt(mapped.getShort(position));
+                int length = Short.toUnsignedInt(mapped.getShort(position + 2));
+                byte[] evidence = new byte[length];
+                mapped.get(position + 4, evidence);
+                ruleHits.add(new CachedFileResult.RuleHit(ruleIndex, new String(evidence, StandardCharsets.UTF_8)));
+                position += 4 + length;
+            }
+            int words = Short.toUnsignedInt(mapped.getShort(position));
+            if (words != ALL_RULES_EVALUATED) {
+                long[] bits = new long[words];
+                for (int i = 0; i < words; i++) {
+                    bits[i] = mapped.getLong(position + 2 + i * 8);
+                }
+                evaluatedRules = BitSet.valueOf(bits);
+            }
+        }
+        return new CachedFileResult((flags & ENTRY_SOURCE) != 0, (flags & ENTRY_TEST) != 0,
+                lineCount, rulesFingerprint, ruleHits, evaluatedRules);
+    }
+
+    private static int entryOffset(int entry) {
+        return HEADER_SIZE + entry * ENTRY_SIZE;
+    }
+
+    // --------------------------------------------------
+    // Store
+    // --------------------------------------------------
+
+    public void storeLineCount(IndexedFile file, int lineCount) {
+        store(file, new CachedFileResult(file.isSource(), file.isTest(), lineCount, 0, null));
+    }
+
+    /**
+     * Record the rules that matched a file.
+     *
+     * @param rulesFingerprint Fingerprint of the rule set the hits were computed with
+     */
+    public void storeRuleHits(IndexedFile file, long rulesFingerprint, List<CachedFileResult.RuleHit> ruleHits) {
+        storeRuleHits(file, rulesFingerprint, null, ruleHits);
+    }
+
+    /**
+     * Record the rules that matched a file when only some rules were evaluated.
+     *
+     * @param evaluatedRules Rules the hits were computed for, or null for all rules
+     */
+    public void storeRuleHits(IndexedFile file, long rulesFingerprint, BitSet evaluatedRules,
+            List<CachedFileResult.RuleHit> ruleHits) {
+        store(file, new CachedFileResult(file.isSource(), file.isTest(),
+                CachedFileResult.UNKNOWN_LINE_COUNT, rulesFingerprint, new ArrayList<>(ruleHits), evaluatedRules));
+    }
+
+    private void store(IndexedFile file, CachedFileResult result) {
+        if (!isEnabled()) {
+            return;
+        }
+        pending.merge(file.getRelativePath(), new PendingEntry(file, contentHash(file), result),
+                (older, newer) -> older.mergedWith(newer));
+    }
+
+    /**
+     * Write every entry seen in this run to disk. Entries for files that no
+     * longer exist are dropped. Failures are reported but never fatal.
+     */
+    public void save() {
+        if (!isEnabled()) {
+            return;
+        }
+
+        List<Map.Entry<String, PendingEntry>> entries = new ArrayList<>(pending.entrySet());
+        List<byte[]> paths = new ArrayList<>(entries.size());
+        for (Map.Entry<String, PendingEntry> entry : entries) {
+            paths.add(entry.getKey().getBytes(StandardCharsets.UTF_8));
+        }
+        Integer[] order = new Integer[entries.size()];
+        long[] hashes = new long[entries.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+            hashes[i] = pathHash(paths.get(i));
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingLong(i -> hashes[i])
+                .thenComparing(i -> entries.get(i).getKey()));
+
+        try {
+            Files.createDirectories(cacheFile.getParent());
+            Path temp = Files.createTempFile(cacheFile.getParent(), FILE_NAME, ".tmp");
+            try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                writeTo(os, order, entries, paths, hashes);
+            }
+            Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Warning: Failed to save result cache: " + e.getMessage());
+        }
+    }
+
+    private void writeTo(OutputStream os, Integer[] order, List<Map.Entry<String, PendingEntry>> entries,
+            List<byte[]> paths, long[] hashes) throws IOException {
+        DataOutputStream out = new DataOutputStream(os);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(verifyContentHash ? HEADER_FLAG_CONTENT_HASH : 0);
+        out.writeInt(order.length);
+
+        ByteArrayOutputStream dataBytes = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(dataBytes);
+        int dataStart = HEADER_SIZE + order.length * ENTRY_SIZE;
+
+        for (int i : order) {
+            PendingEntry entry = entries.get(i).getValue();
+            CachedFileResult result = entry.result;
+            byte[] path = paths.get(i);
+
+            int flags = (result.isSource() ? ENTRY_SOURCE : 0) | (result.isTest() ? ENTRY_TEST : 0);
+            int offset = dataStart + data.size();
+            data.writeShort(path.length);
+            data.write(path);
+            if (result.hasRuleHits()) {
+                flags |= ENTRY_RULES;
+                data.writeShort(result.getRuleHits().size());
+                for (CachedFileResult.RuleHit hit : result.getRuleHits()) {
+                    byte[] evidence = truncate(hit.getEvidence().getBytes(StandardCharsets.UTF_8));
+                    data.writeShort(hit.getRuleIndex());
+                    data.writeShort(evidence.length);
+                    data.write(evidence);
+                }
+                BitSet evaluated = result.getEvaluatedRules();
+                if (evaluated == null) {
+                    data.writeShort(ALL_RULES_EVALUATED);
+                } else {
+                    long[] words = evaluated.toLongArray();
+                    data.writeShort(words.length);
+                    for (long word : words) {
+                        data.writeLong(word);
+                    }
+                }
+            }
+
+            out.writeLong(hashes[i]);
+            out.writeLong(entry.size);
+            out.writeLong(entry.lastModified);
+            out.writeLong(entry.contentHash);
+            out.writeLong(result.getRulesFingerprint());
+            out.writeInt(result.getLineCount());
+            out.writeInt(flags);
+            out.writeInt(offset);
+            out.writeInt(dataStart + data.size() - offset);
+        }
+
+        dataBytes.writeTo(out);
+        out.flush();
+    }
+
+    private static byte[] truncate(byte[] evidence) {
+        return evidence.length <= MAX_EVIDENCE_BYTES ? evidence : Arrays.copyOf(evidence, MAX_EVIDENCE_BYTES);
+    }
+
+    // --------------------------------------------------
+    // Hashing
+    // --------------------------------------------------
+
+    /**
+     * 64-bit FNV-1a hash of the UTF-8 path.
+     */
+    static long pathHash(byte[] path) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : path) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Content hash to store with a file's entry: 0 when content hashing is
+     * off, unless the file was modified so recently that the cache written
+     * at the end of this run will not be able to trust its timestamp.
+     */
+    private long contentHash(IndexedFile file) {
+        if (!verifyContentHash && file.getLastModified() < System.currentTimeMillis() - RACY_WINDOW_MILLIS) {
+            return 0;
+        }
+        return hashContent(file);
+    }
+
+    /**
+     * First eight bytes of the file's SHA-256. Computed at most once per file
+     * and run.
+     */
+    private long hashContent(IndexedFile file) {
+        return contentHashes.computeIfAbsent(file.getRelativePath(), k -> {
+            try (InputStream in = Files.newInputStream(file.getPath())) {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                byte[] buffer = new byte[64 * 1024];
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    digest.update(buffer, 0, read);
+                }
+                return ByteBuffer.wrap(digest.digest()).getLong();
+            } catch (IOException | NoSuchAlgorithmException e) {
+                return 0L;
+            }
+        });
+    }
+
+    private static class PendingEntry {
+        private final long size;
+        private final long lastModified;
+        private final long contentHash;
+        private final CachedFileResult result;
+
+        PendingEntry(IndexedFile file, long contentHash, CachedFileResult result) {
+            this(file.getSize(), file.getLastModified(), contentHash, result);
+        }
+
+        PendingEntry(long size, long lastModified, long contentHash, CachedFileResult result) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.contentHash = contentHash;
+            this.result = result;
+        }
+
+        PendingEntry mergedWith(PendingEntry newer) {
+            return new PendingEntry(newer.size, newer.lastModified, newer.contentHash,
+                    CachedFileResult.merge(result, newer.result));
+        }
+    }
+}
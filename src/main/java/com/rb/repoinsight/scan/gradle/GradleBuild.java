@@ -0,0 +1,203 @@
+package com.rb.repoinsight.scan.gradle;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import com.rb.repoinsight.scan.index.IndexedFile;
+import com.rb.repoinsight.scan.index.RepoFileIndex;
+
+/**
+ * The projects of a repository's Gradle build, read from the settings
+ * script, the build scripts and {@code gradle/libs.versions.toml} without
+ * running Gradle.
+ *
+ * Build scripts are tokenized in parallel, and scripts with identical
+ * content (common among the subprojects of large builds) are read once:
+ * results are cached by content hash for the run. Use
+ * {@link RepoFileIndex#getGradleBuild()} to share one instance between
+ * analyzers.
+ */
+public class GradleBuild {
+
+    private static final String[] BUILD_FILES = { "build.gradle", "build.gradle.kts" };
+    private static final String[] SETTINGS_FILES = { "settings.gradle", "settings.gradle.kts" };
+
+    private final RepoFileIndex index;
+    private final int parallelism;
+    private final Map<Long, GradleScriptReader.Script> scriptsByHash = new ConcurrentHashMap<>();
+    private List<GradleProject> projects;
+
+    public GradleBuild(RepoFileIndex index) {
+        this(index, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param parallelism Threads used to read build scripts ({@code 1} = single-threaded)
+     */
+    public GradleBuild(RepoFileIndex index, int parallelism) {
+        this.index = index;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Whether the repository has a root build or settings script.
+     */
+    public boolean exists() {
+        return findFile("", BUILD_FILES) != null || findFile("", SETTINGS_FILES) != null;
+    }
+
+    /**
+     * The root project followed by the included projects in settings order.
+     * Empty if the repository has no Gradle build.
+     */
+    public synchronized List<GradleProject> getProjects() {
+        if (projects == null) {
+            projects = exists() ? Collections.unmodifiableList(readProjects()) : Collections.emptyList();
+        }
+        return projects;
+    }
+
+    /**
+     * Number of distinct build scripts read, after deduplication by content.
+     */
+    public int getDistinctScripts() {
+        return scriptsByHash.size();
+    }
+
+    private List<GradleProject> readProjects() {
+        Map<String, String> directories = new LinkedHashMap<>();
+        directories.put(":", "");
+        IndexedFile settings = findFile("", SETTINGS_FILES);
+        if (settings != null) {
+            String content = readString(settings);
+            if (content != null) {
+                directories.putAll(GradleScriptReader.readSettings(content));
+            }
+        }
+        VersionCatalog catalog = readCatalog();
+
+        List<GradleProject> result = new ArrayList<>();
+        List<Callable<GradleScriptReader.Script>> tasks = new ArrayList<>();
+        for (Map.Entry<String, String> entry : directories.entrySet()) {
+            GradleProject project = new GradleProject(entry.getKey(), entry.getValue());
+            IndexedFile buildFile = findFile(entry.getValue(), BUILD_FILES);
+            if (buildFile != null) {
+                project.setBuildFile(buildFile.getRelativePath());
+            }
+            result.add(project);
+            tasks.add(() -> buildFile != null ? readScript(buildFile, catalog) : null);
+        }
+
+        List<GradleScriptReader.Script> scripts = run(tasks);
+        GradleScriptReader.Script root = scripts.get(0);
+        for (int i = 0; i < result.size(); i++) {
+            Set<String> dependencies = new LinkedHashSet<>();
+            Set<String> plugins = new LinkedHashSet<>();
+            if (i > 0 && root != null) {
+                dependencies.addAll(root.subprojectDependencies);
+                plugins.addAll(root.subprojectPlugins);
+            }
+            GradleScriptReader.Script script = scripts.get(i);
+            if (script != null) {
+                dependencies.addAll(script.dependencies);
+                plugins.addAll(script.plugins);
+            }
+            result.get(i).setDependencies(new ArrayList<>(dependencies));
+            result.get(i).setPlugins(new ArrayList<>(plugins));
+        }
+        return result;
+    }
+
+    private List<GradleScriptReader.Script> run(List<Callable<GradleScriptReader.Script>> tasks) {
+        List<GradleScriptReader.Script> results = new ArrayList<>();
+        if (parallelism == 1 || tasks.size() < 2) {
+            for (Callable<GradleScriptReader.Script> task : tasks) {
+                results.add(call(task));
+            }
+            return results;
+        }
+        ForkJoinPool pool = new ForkJoinPool(Math.min(parallelism, tasks.size()));
+        try {
+            for (Future<GradleScriptReader.Script> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reading Gradle build scripts", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to read Gradle build scripts", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        return results;
+    }
+
+    private static GradleScriptReader.Script call(Callable<GradleScriptReader.Script> task) {
+        try {
+            return task.call();
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to read Gradle build scripts", e);
+        }
+    }
+
+    private GradleScriptReader.Script readScript(IndexedFile file, VersionCatalog catalog) {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(file.getPath());
+        } catch (IOException e) {
+            System.err.println("Warning: Failed to read " + file.getRelativePath() + ": " + e.getMessage());
+            return null;
+        }
+        return scriptsByHash.computeIfAbsent(contentHash(bytes),
+                hash -> GradleScriptReader.readBuildScript(new String(bytes, StandardCharsets.UTF_8), catalog));
+    }
+
+    private VersionCatalog readCatalog() {
+        IndexedFile file = index.getFile(VersionCatalog.DEFAULT_PATH);
+        String content = file != null ? readString(file) : null;
+        return content != null ? VersionCatalog.parse(content) : VersionCatalog.EMPTY;
+    }
+
+    private IndexedFile findFile(String directory, String[] names) {
+        for (String name : names) {
+            IndexedFile file = index.getFile(directory.isEmpty() ? name : directory + "/" + name);
+            if (file != null) {
+                return file;
+            }
+        }
+        return null;
+    }
+
+    private static String readString(IndexedFile file) {
+        try {
+            return Files.readString(file.getPath());
+        } catch (IOException e) {
+            System.err.println("Warning: Failed to read " + file.getRelativePath() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static long contentHash(byte[] bytes) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(bytes)).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
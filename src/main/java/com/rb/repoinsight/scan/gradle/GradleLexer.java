@@ -0,0 +1,126 @@
+package com.rb.repoinsight.scan.gradle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a Groovy or Kotlin DSL build script into the tokens
+ * {@link GradleScriptReader} needs: identifiers, string literals, newlines
+ * and single-character symbols. Comments are dropped; string templates are
+ * kept as written.
+ */
+final class GradleLexer {
+
+    enum Type {
+        IDENT, STRING, NEWLINE, SYMBOL
+    }
+
+    static final class Token {
+
+        final Type type;
+        final String text;
+
+        Token(Type type, String text) {
+            this.type = type;
+            this.text = text;
+        }
+
+        boolean is(Type expected, String expectedText) {
+            return type == expected && text.equals(expectedText);
+        }
+
+        boolean isSymbol(char symbol) {
+            return type == Type.SYMBOL && text.length() == 1 && text.charAt(0) == symbol;
+        }
+
+        @Override
+        public String toString() {
+            return type + "(" + text + ")";
+        }
+    }
+
+    private GradleLexer() {
+    }
+
+    static List<Token> tokenize(String script) {
+        List<Token> tokens = new ArrayList<>();
+        int length = script.length();
+        int pos = 0;
+        while (pos < length) {
+            char c = script.charAt(pos);
+            if (c == '\n') {
+                tokens.add(new Token(Type.NEWLINE, "\n"));
+                pos++;
+            } else if (Character.isWhitespace(c)) {
+                pos++;
+            } else if (c == '/' && pos + 1 < length && script.charAt(pos + 1) == '/') {
+                while (pos < length && script.charAt(pos) != '\n') {
+                    pos++;
+                }
+            } else if (c == '/' && pos + 1 < length && script.charAt(pos + 1) == '*') {
+                int end = indexOf(script, "*/", pos + 2);
+                String comment = script.substring(pos, end);
+                // Keep statements separated across multi-line comments
+                if (comment.indexOf('\n') >= 0) {
+                    tokens.add(new Token(Type.NEWLINE, "\n"));
+                }
+                pos = Math.min(length, end + 2);
+            } else if (c == '"' || c == '\'') {
+                pos = readString(script, pos, tokens);
+            } else if (c == '`') {
+                int end = script.indexOf('`', pos + 1);
+                end = end < 0 ? length : end;
+                tokens.add(new Token(Type.IDENT, script.substring(pos + 1, end)));
+                pos = Math.min(length, end + 1);
+            } else if (Character.isJavaIdentifierStart(c) || Character.isDigit(c)) {
+                int start = pos;
+                while (pos < length && Character.isJavaIdentifierPart(script.charAt(pos))) {
+                    pos++;
+                }
+                tokens.add(new Token(Type.IDENT, script.substring(start, pos)));
+            } else {
+                tokens.add(new Token(Type.SYMBOL, String.valueOf(c)));
+                pos++;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Read a single, double or triple quoted string starting at {@code pos}.
+     *
+     * @return The position after the closing quote
+     */
+    private static int readString(String script, int pos, List<Token> tokens) {
+        char quote = script.charAt(pos);
+        int length = script.length();
+        boolean triple = pos + 2 < length && script.charAt(pos + 1) == quote && script.charAt(pos + 2) == quote;
+        if (triple) {
+            String delimiter = String.valueOf(quote).repeat(3);
+            int end = indexOf(script, delimiter, pos + 3);
+            tokens.add(new Token(Type.STRING, script.substring(pos + 3, end)));
+            return Math.min(length, end + 3);
+        }
+        StringBuilder text = new StringBuilder();
+        int i = pos + 1;
+        while (i < length) {
+            char c = script.charAt(i);
+            if (c == '\\' && i + 1 < length) {
+                text.append(script.charAt(i + 1));
+                i += 2;
+            } else if (c == quote || c == '\n') {
+                break;
+            } else {
+                text.append(c);
+                i++;
+            }
+        }
+        tokens.add(new Token(Type.STRING, text.toString()));
+        return i < length && script.charAt(i) == quote ? i + 1 : i;
+    }
+
+    private static int indexOf(String script, String needle, int from) {
+        int end = script.indexOf(needle, from);
+        return end < 0 ? script.length() : end;
+    }
+}
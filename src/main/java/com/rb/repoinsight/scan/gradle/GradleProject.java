@@ -0,0 +1,75 @@
+package com.rb.repoinsight.scan.gradle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One project of a Gradle build: the root or a subproject included by the
+ * settings script, with the dependencies and plugins its build script
+ * declares (including those applied through the root's
+ * {@code subprojects} and {@code allprojects} blocks).
+ */
+public class GradleProject {
+
+    private final String path;
+    private final String directory;
+    private String buildFile;
+    private List<String> dependencies = new ArrayList<>();
+    private List<String> plugins = new ArrayList<>();
+
+    /**
+     * @param path Gradle path of the project, {@code :} for the root
+     * @param directory Directory relative to the repository root, "" for the root
+     */
+    public GradleProject(String path, String directory) {
+        this.path = path;
+        this.directory = directory;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public boolean isRoot() {
+        return ":".equals(path);
+    }
+
+    /**
+     * The build script relative to the repository root, or null if the
+     * project has none.
+     */
+    public String getBuildFile() {
+        return buildFile;
+    }
+
+    public void setBuildFile(String buildFile) {
+        this.buildFile = buildFile;
+    }
+
+    /**
+     * Declared external dependencies as {@code groupId:artifactId}, without
+     * duplicates. Project dependencies and file dependencies are not included.
+     */
+    public List<String> getDependencies() {
+        return dependencies;
+    }
+
+    public void setDependencies(List<String> dependencies) {
+        this.dependencies = dependencies;
+    }
+
+    /**
+     * Applied plugin ids, such as {@code war} or {@code org.springframework.boot}.
+     */
+    public List<String> getPlugins() {
+        return plugins;
+    }
+
+    public void setPlugins(List<String> plugins) {
+        this.plugins = plugins;
+    }
+}
@@ -0,0 +1,418 @@
+package com.rb.repoinsight.scan.gradle;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.rb.repoinsight.scan.gradle.GradleLexer.Token;
+import com.rb.repoinsight.scan.gradle.GradleLexer.Type;
+
+/**
+ * Extracts declarations from the tokens of a build or settings script
+ * without evaluating it.
+ *
+ * Scripts are split into statements (ended by a newline or {@code ;} outside
+ * parentheses) and blocks ({@code name { ... }}). Only statements in the
+ * blocks that matter are interpreted: {@code dependencies} and
+ * {@code plugins} at the top level or inside {@code subprojects} /
+ * {@code allprojects}, {@code apply plugin} anywhere at those levels, and
+ * {@code include} / {@code projectDir} assignments in settings. Anything
+ * computed at configuration time (loops, conditions, variables) is not
+ * followed.
+ */
+final class GradleScriptReader {
+
+    private static final String KOTLIN_GROUP = "org.jetbrains.kotlin";
+
+    /**
+     * What a build script declares for its own project and, through
+     * {@code subprojects} and {@code allprojects}, for its subprojects.
+     */
+    static final class Script {
+
+        final Set<String> dependencies = new LinkedHashSet<>();
+        final Set<String> plugins = new LinkedHashSet<>();
+        final Set<String> subprojectDependencies = new LinkedHashSet<>();
+        final Set<String> subprojectPlugins = new LinkedHashSet<>();
+    }
+
+    private interface StatementHandler {
+        void statement(List<String> blocks, List<Token> tokens);
+    }
+
+    private GradleScriptReader() {
+    }
+
+    static Script readBuildScript(String script, VersionCatalog catalog) {
+        Script result = new Script();
+        parse(GradleLexer.tokenize(script), (blocks, tokens) -> {
+            boolean own = true;
+            boolean subprojects = false;
+            List<String> path = blocks;
+            if (!path.isEmpty() && ("subprojects".equals(path.get(0)) || "allprojects".equals(path.get(0)))) {
+                own = "allprojects".equals(path.get(0));
+                subprojects = true;
+                path = path.subList(1, path.size());
+            }
+            Set<String> dependencies = new LinkedHashSet<>();
+            Set<String> plugins = new LinkedHashSet<>();
+            if (path.size() == 1 && "dependencies".equals(path.get(0))) {
+                readDependency(tokens, catalog, dependencies);
+            } else if (path.size() == 1 && "plugins".equals(path.get(0))) {
+                readPlugin(tokens, catalog, plugins);
+            } else if (path.isEmpty() && tokens.get(0).is(Type.IDENT, "apply")) {
+                String plugin = namedArgument(tokens, 1, "plugin");
+                if (plugin != null) {
+                    plugins.add(plugin);
+                }
+            }
+            if (own) {
+                result.dependencies.addAll(dependencies);
+                result.plugins.addAll(plugins);
+            }
+            if (subprojects) {
+                result.subprojectDependencies.addAll(dependencies);
+                result.subprojectPlugins.addAll(plugins);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * The projects a settings script includes, as Gradle paths (such as
+     * {@code :services:api}) mapped to their directories relative to the
+     * root, in declaration order. Parents of nested paths are included too.
+     */
+    static Map<String, String> readSettings(String script) {
+        Map<String, String> projects = new LinkedHashMap<>();
+        Map<String, String> projectDirs = new LinkedHashMap<>();
+        parse(GradleLexer.tokenize(script), (blocks, tokens) -> {
+            if (!blocks.isEmpty()) {
+                return;
+            }
+            Token first = tokens.get(0);
+            if (first.is(Type.IDENT, "include")) {
+                for (Token token : tokens) {
+                    if (token.type == Type.STRING) {
+                        include(projects, token.text);
+                    }
+                }
+            } else if (first.is(Type.IDENT, "project") && indexOf(tokens, "projectDir") > 0) {
+                List<String> strings = new ArrayList<>();
+                for (Token token : tokens) {
+                    if (token.type == Type.STRING) {
+                        strings.add(token.text);
+                    }
+                }
+                if (strings.size() >= 2) {
+                    projectDirs.put(gradlePath(strings.get(0)), strings.get(strings.size() - 1));
+                }
+            }
+        });
+        projectDirs.forEach((path, dir) -> {
+            if (projects.containsKey(path)) {
+                projects.put(path, trimSlashes(dir));
+            }
+        });
+        return projects;
+    }
+
+    // --------------------------------------------------
+    // Statements and blocks
+    // --------------------------------------------------
+
+    private static void parse(List<Token> tokens, StatementHandler handler) {
+        List<String> blocks = new ArrayList<>();
+        List<Integer> savedDepths = new ArrayList<>();
+        List<Token> statement = new ArrayList<>();
+        int parenDepth = 0;
+        for (int i = 0; i < tokens.size(); i++) {
+            Token token = tokens.get(i);
+            if (token.type == Type.NEWLINE) {
+                if (parenDepth == 0 && !continuesOnNextLine(statement, tokens, i)) {
+                    flush(blocks, statement, handler);
+                }
+            } else if (token.isSymbol(';') && parenDepth == 0) {
+                flush(blocks, statement, handler);
+            } else if (token.isSymbol('{')) {
+                String name = !statement.isEmpty() && statement.get(0).type == Type.IDENT ? statement.get(0).text : "";
+                flush(blocks, statement, handler);
+                blocks.add(name);
+                savedDepths.add(parenDepth);
+                parenDepth = 0;
+            } else if (token.isSymbol('}')) {
+                flush(blocks, statement, handler);
+                if (!blocks.isEmpty()) {
+                    blocks.remove(blocks.size() - 1);
+                    parenDepth = savedDepths.remove(savedDepths.size() - 1);
+                }
+            } else {
+                if (token.isSymbol('(') || token.isSymbol('[')) {
+                    parenDepth++;
+                } else if ((token.isSymbol(')') || token.isSymbol(']')) && parenDepth > 0) {
+                    parenDepth--;
+                }
+                statement.add(token);
+            }
+        }
+        flush(blocks, statement, handler);
+    }
+
+    private static void flush(List<String> blocks, List<Token> statement, StatementHandler handler) {
+        if (!statement.isEmpty()) {
+            handler.statement(blocks, new ArrayList<>(statement));
+            statement.clear();
+        }
+    }
+
+    /**
+     * Whether a statement is unfinished at a newline: it ends with an
+     * operator, or the next line starts with a method call or opens the
+     * statement's block.
+     */
+    private static boolean continuesOnNextLine(List<Token> statement, List<Token> tokens, int newline) {
+        if (statement.isEmpty()) {
+            return false;
+        }
+        Token last = statement.get(statement.size() - 1);
+        if (last.type == Type.SYMBOL && ",.=:+".contains(last.text)) {
+            return true;
+        }
+        for (int i = newline + 1; i < tokens.size(); i++) {
+            if (tokens.get(i).type != Type.NEWLINE) {
+                return tokens.get(i).isSymbol('.') || tokens.get(i).isSymbol('{');
+            }
+        }
+        return false;
+    }
+
+    // --------------------------------------------------
+    // Declarations
+    // --------------------------------------------------
+
+    /**
+     * Read a statement in a {@code dependencies} block, such as
+     * {@code implementation 'g:a:1'}, {@code api(libs.foo)},
+     * {@code implementation group: 'g', name: 'a'} or
+     * {@code implementation(kotlin("stdlib"))}.
+     */
+    private static void readDependency(List<Token> tokens, VersionCatalog catalog, Set<String> dependencies) {
+        if (tokens.get(0).type != Type.IDENT) {
+            return;
+        }
+        String group = namedArgument(tokens, 1, "group");
+        String name = namedArgument(tokens, 1, "name");
+        if (group != null && name != null) {
+            dependencies.add(group + ":" + name);
+            return;
+        }
+        for (int i = 1; i < tokens.size(); i++) {
+            Token token = tokens.get(i);
+            if (token.type == Type.IDENT && isCall(tokens, i)
+                    && ("project".equals(token.text) || "files".equals(token.text) || "fileTree".equals(token.text))) {
+                i = closingParen(tokens, i + 1);
+            } else if (token.is(Type.IDENT, "kotlin") && isCall(tokens, i) && i + 2 < tokens.size()
+                    && tokens.get(i + 2).type == Type.STRING) {
+                dependencies.add(KOTLIN_GROUP + ":kotlin-" + tokens.get(i + 2).text);
+                i = closingParen(tokens, i + 1);
+            } else if (token.is(Type.IDENT, "libs") && i + 1 < tokens.size() && tokens.get(i + 1).isSymbol('.')) {
+                List<String> accessor = new ArrayList<>();
+                i = readAccessor(tokens, i + 2, accessor);
+                addCatalogDependency(accessor, catalog, dependencies);
+            } else if (token.type == Type.STRING) {
+                String coordinates = coordinates(token.text);
+                if (coordinates != null) {
+                    dependencies.add(coordinates);
+                }
+            }
+        }
+    }
+
+    private static void addCatalogDependency(List<String> accessor, VersionCatalog catalog, Set<String> dependencies) {
+        if (accessor.isEmpty() || "versions".equals(accessor.get(0)) || "plugins".equals(accessor.get(0))) {
+            return;
+        }
+        if ("bundles".equals(accessor.get(0))) {
+            List<String> bundle = catalog.getBundle(String.join(".", accessor.subList(1, accessor.size())));
+            if (bundle != null) {
+                dependencies.addAll(bundle);
+            }
+            return;
+        }
+        // Kotlin scripts may unwrap the provider with .get()
+        for (int end = accessor.size(); end > 0; end--) {
+            String library = catalog.getLibrary(String.join(".", accessor.subList(0, end)));
+            if (library != null) {
+                dependencies.add(library);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Read a statement in a {@code plugins} block, such as {@code id 'war'},
+     * {@code id("org.springframework.boot") version "3.2.0"},
+     * {@code alias(libs.plugins.spring.boot)}, {@code kotlin("jvm")} or
+     * {@code `java-library`}.
+     */
+    private static void readPlugin(List<Token> tokens, VersionCatalog catalog, Set<String> plugins) {
+        Token first = tokens.get(0);
+        if (first.type != Type.IDENT) {
+            return;
+        }
+        int apply = indexOf(tokens, "apply");
+        if (apply > 0 && apply + 1 < tokens.size() && tokens.get(apply + 1).is(Type.IDENT, "false")) {
+            return;
+        }
+        if ("id".equals(first.text)) {
+            for (Token token : tokens) {
+                if (token.type == Type.STRING) {
+                    plugins.add(token.text);
+                    return;
+                }
+            }
+        } else if ("kotlin".equals(first.text) && isCall(tokens, 0) && tokens.size() > 2
+                && tokens.get(2).type == Type.STRING) {
+            plugins.add(KOTLIN_GROUP + "." + tokens.get(2).text);
+        } else if ("alias".equals(first.text)) {
+            int libs = indexOf(tokens, "libs");
+            if (libs > 0 && libs + 1 < tokens.size() && tokens.get(libs + 1).isSymbol('.')) {
+                List<String> accessor = new ArrayList<>();
+                readAccessor(tokens, libs + 2, accessor);
+                if (accessor.size() > 1 && "plugins".equals(accessor.get(0))) {
+                    String id = catalog.getPlugin(String.join(".", accessor.subList(1, accessor.size())));
+                    if (id != null) {
+                        plugins.add(id);
+                    }
+                }
+            }
+        } else if (tokens.size() == 1 || tokens.get(1).is(Type.IDENT, "version")) {
+            plugins.add(first.text);
+        }
+    }
+
+    /**
+     * The string value of {@code name: 'value'} or {@code name = "value"}
+     * among the tokens from {@code from} on, or null.
+     */
+    private static String namedArgument(List<Token> tokens, int from, String name) {
+        for (int i = from; i + 2 < tokens.size(); i++) {
+            Token key = tokens.get(i);
+            boolean keyMatches = (key.type == Type.IDENT || key.type == Type.STRING) && key.text.equals(name);
+            if (keyMatches && (tokens.get(i + 1).isSymbol(':') || tokens.get(i + 1).isSymbol('='))
+                    && tokens.get(i + 2).type == Type.STRING) {
+                return tokens.get(i + 2).text;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * {@code groupId:artifactId} of a {@code group:name[:version[:classifier]][@ext]}
+     * notation, or null if the string is not one or is interpolated.
+     */
+    static String coordinates(String notation) {
+        String[] parts = notation.trim().split(":");
+        if (parts.length < 2 || parts.length > 4) {
+            return null;
+        }
+        String group = parts[0];
+        String artifact = parts[1].contains("@") ? parts[1].substring(0, parts[1].indexOf('@')) : parts[1];
+        if (!isIdentifier(group) || !isIdentifier(artifact)) {
+            return null;
+        }
+        return group + ":" + artifact;
+    }
+
+    private static boolean isIdentifier(String text) {
+        if (text.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '.' && c != '-' && c != '_') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Read {@code a.b.c} starting at an identifier, returning the index of
+     * its last token.
+     */
+    private static int readAccessor(List<Token> tokens, int from, List<String> accessor) {
+        int i = from;
+        while (i < tokens.size() && tokens.get(i).type == Type.IDENT) {
+            accessor.add(tokens.get(i).text);
+            if (i + 2 < tokens.size() && tokens.get(i + 1).isSymbol('.')) {
+                i += 2;
+            } else {
+                return i;
+            }
+        }
+        return i - 1;
+    }
+
+    private static boolean isCall(List<Token> tokens, int i) {
+        return i + 1 < tokens.size() && tokens.get(i + 1).isSymbol('(');
+    }
+
+    /**
+     * Index of the parenthesis closing the one at {@code open}.
+     */
+    private static int closingParen(List<Token> tokens, int open) {
+        int depth = 0;
+        for (int i = open; i < tokens.size(); i++) {
+            if (tokens.get(i).isSymbol('(')) {
+                depth++;
+            } else if (tokens.get(i).isSymbol(')') && --depth == 0) {
+                return i;
+            }
+        }
+        return tokens.size() - 1;
+    }
+
+    private static int indexOf(List<Token> tokens, String identifier) {
+        for (int i = 0; i < tokens.size(); i++) {
+            if (tokens.get(i).is(Type.IDENT, identifier)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void include(Map<String, String> projects, String name) {
+        String path = gradlePath(name);
+        if (":".equals(path)) {
+            return;
+        }
+        // Gradle creates the projects along a nested path as well
+        int colon = path.indexOf(':', 1);
+        while (colon > 0) {
+            String parent = path.substring(0, colon);
+            projects.putIfAbsent(parent, parent.substring(1).replace(':', '/'));
+            colon = path.indexOf(':', colon + 1);
+        }
+        projects.putIfAbsent(path, path.substring(1).replace(':', '/'));
+    }
+
+    private static String gradlePath(String name) {
+        String trimmed = name.trim();
+        return trimmed.startsWith(":") ? trimmed : ":" + trimmed;
+    }
+
+    private static String trimSlashes(String dir) {
+        String result = dir.replace('\\', '/');
+        while (result.startsWith("./")) {
+            result = result.substring(2);
+        }
+        while (result.endsWith("/")) {
+            result = result.substring(0, result.length() - 1);
+        }
+        return result;
+    }
+}
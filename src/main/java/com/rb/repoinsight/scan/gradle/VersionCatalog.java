@@ -0,0 +1,236 @@
+package com.rb.repoinsight.scan.gradle;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The libraries, bundles and plugins of a {@code gradle/libs.versions.toml}
+ * version catalog, keyed by the accessor scripts use after {@code libs.}:
+ * aliases are normalized so {@code spring-boot}, {@code spring_boot} and
+ * {@code spring.boot} all become {@code spring.boot}.
+ *
+ * Only the TOML a catalog uses is understood: sections, string values,
+ * inline tables and (possibly multi-line) arrays of strings.
+ */
+final class VersionCatalog {
+
+    static final String DEFAULT_PATH = "gradle/libs.versions.toml";
+
+    static final VersionCatalog EMPTY = new VersionCatalog();
+
+    private final Map<String, String> libraries = new HashMap<>();
+    private final Map<String, List<String>> bundles = new HashMap<>();
+    private final Map<String, String> plugins = new HashMap<>();
+
+    private VersionCatalog() {
+    }
+
+    static VersionCatalog parse(String toml) {
+        VersionCatalog catalog = new VersionCatalog();
+        String section = "";
+        String[] lines = toml.split("\r?\n");
+        for (int i = 0; i < lines.length; i++) {
+            String line = stripComment(lines[i]).trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            if (line.startsWith("[") && !line.contains("=")) {
+                section = line.substring(1, line.length() - 1).trim();
+                continue;
+            }
+            int equals = line.indexOf('=');
+            if (equals < 0) {
+                continue;
+            }
+            String alias = normalize(unquote(line.substring(0, equals).trim()));
+            StringBuilder value = new StringBuilder(line.substring(equals + 1).trim());
+            // Arrays and inline tables may continue on the following lines
+            while (!isComplete(value) && i + 1 < lines.length) {
+                value.append(' ').append(stripComment(lines[++i]).trim());
+            }
+            catalog.add(section, alias, value.toString());
+        }
+        return catalog;
+    }
+
+    private void add(String section, String alias, String value) {
+        switch (section) {
+            case "libraries" -> {
+                String coordinates = value.startsWith("{") ? libraryFromTable(parseTable(value)) : module(unquote(value));
+                if (coordinates != null) {
+                    libraries.put(alias, coordinates);
+                }
+            }
+            case "bundles" -> {
+                List<String> members = new ArrayList<>();
+                for (String member : parseArray(value)) {
+                    members.add(normalize(member));
+                }
+                bundles.put(alias, members);
+            }
+            case "plugins" -> {
+                String id = value.startsWith("{") ? parseTable(value).get("id") : unquote(value).split(":")[0];
+                if (id != null && !id.isEmpty()) {
+                    plugins.put(alias, id);
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * {@code groupId:artifactId} of a library alias, or null if unknown.
+     */
+    String getLibrary(String accessor) {
+        return libraries.get(accessor);
+    }
+
+    /**
+     * {@code groupId:artifactId} of each library in a bundle, or null if the
+     * bundle is unknown.
+     */
+    List<String> getBundle(String accessor) {
+        List<String> members = bundles.get(accessor);
+        if (members == null) {
+            return null;
+        }
+        List<String> result = new ArrayList<>();
+        for (String member : members) {
+            String library = libraries.get(member);
+            if (library != null) {
+                result.add(library);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The plugin id of a plugin alias, or null if unknown.
+     */
+    String getPlugin(String accessor) {
+        return plugins.get(accessor);
+    }
+
+    static String normalize(String alias) {
+        return alias.replace('-', '.').replace('_', '.');
+    }
+
+    private static String libraryFromTable(Map<String, String> table) {
+        if (table.containsKey("module")) {
+            return module(table.get("module"));
+        }
+        String group = table.get("group");
+        String name = table.get("name");
+        return group != null && name != null ? group + ":" + name : null;
+    }
+
+    /**
+     * {@code groupId:artifactId} of a {@code group:name[:version]} string.
+     */
+    private static String module(String notation) {
+        String[] parts = notation.split(":");
+        return parts.length >= 2 && !parts[0].isEmpty() && !parts[1].isEmpty() ? parts[0] + ":" + parts[1] : null;
+    }
+
+    private static Map<String, String> parseTable(String value) {
+        Map<String, String> table = new HashMap<>();
+        String body = value.substring(1, value.lastIndexOf('}') < 0 ? value.length() : value.lastIndexOf('}'));
+        for (String entry : splitTopLevel(body)) {
+            int equals = entry.indexOf('=');
+            if (equals > 0) {
+                table.put(unquote(entry.substring(0, equals).trim()), unquote(entry.substring(equals + 1).trim()));
+            }
+        }
+        return table;
+    }
+
+    private static List<String> parseArray(String value) {
+        List<String> result = new ArrayList<>();
+        int end = value.lastIndexOf(']');
+        String body = value.substring(value.indexOf('[') + 1, end < 0 ? value.length() : end);
+        for (String element : splitTopLevel(body)) {
+            String text = unquote(element.trim());
+            if (!text.isEmpty()) {
+                result.add(text);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Split on commas outside of quotes and nested tables.
+     */
+    private static List<String> splitTopLevel(String body) {
+        List<String> parts = new ArrayList<>();
+        int depth = 0;
+        char quote = 0;
+        int start = 0;
+        for (int i = 0; i < body.length(); i++) {
+            char c = body.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                parts.add(body.substring(start, i));
+                start = i + 1;
+            }
+        }
+        parts.add(body.substring(start));
+        return parts;
+    }
+
+    private static boolean isComplete(CharSequence value) {
+        int depth = 0;
+        char quote = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                depth--;
+            }
+        }
+        return depth <= 0;
+    }
+
+    private static String stripComment(String line) {
+        char quote = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '#') {
+                return line.substring(0, i);
+            }
+        }
+        return line;
+    }
+
+    private static String unquote(String text) {
+        if (text.length() >= 2 && (text.charAt(0) == '"' || text.charAt(0) == '\'')
+                && text.charAt(text.length() - 1) == text.charAt(0)) {
+            return text.substring(1, text.length() - 1);
+        }
+        return text;
+    }
+}
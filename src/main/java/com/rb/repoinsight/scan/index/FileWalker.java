@@ -0,0 +1,18 @@
+package com.rb.repoinsight.scan.index;
+
+import java.nio.file.Path;
+
+/**
+ * Enumeration engine used by {@link RepoFileIndex} to discover files.
+ */
+interface FileWalker {
+
+    /**
+     * Enumerate every regular file and directory below the root.
+     * Implementations are best-effort and skip entries they cannot read.
+     *
+     * @param root Absolute, normalized repository root
+     * @return Collected files and directories
+     */
+    WalkResult walk(Path root);
+}
@@ -0,0 +1,252 @@
+package com.rb.repoinsight.scan.index;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Compiled set of gitignore-style patterns that apply below one base directory.
+ *
+ * Patterns are translated to regular expressions once when the file is loaded.
+ * Plain names such as {@code node_modules} are answered by a hash lookup when the
+ * file contains no negations, since ordering is then irrelevant. Matchers form a
+ * chain: a nested .gitignore takes precedence over the ones above it.
+ */
+class GitIgnoreMatcher {
+
+    private final String baseDir;
+    private final GitIgnoreMatcher parent;
+    private final List<IgnorePattern> patterns;
+    private final boolean hasNegations;
+    private final Set<String> literalNames = new HashSet<>();
+    private final Set<String> literalDirNames = new HashSet<>();
+    private final List<IgnorePattern> globPatterns = new ArrayList<>();
+
+    GitIgnoreMatcher(String baseDir, List<String> lines, GitIgnoreMatcher parent) {
+        this.baseDir = baseDir;
+        this.parent = parent;
+
+        List<IgnorePattern> compiled = new ArrayList<>();
+        for (String line : lines) {
+            IgnorePattern pattern = IgnorePattern.parse(line);
+            if (pattern != null) {
+                compiled.add(pattern);
+            }
+        }
+        this.patterns = Collections.unmodifiableList(compiled);
+        this.hasNegations = compiled.stream().anyMatch(p -> p.negated);
+
+        if (!hasNegations) {
+            for (IgnorePattern pattern : compiled) {
+                if (pattern.literalName != null) {
+                    (pattern.dirOnly ? literalDirNames : literalNames).add(pattern.literalName);
+                } else {
+                    globPatterns.add(pattern);
+                }
+            }
+        }
+    }
+
+    /**
+     * Load a gitignore-style file. Returns the parent unchanged if the file is
+     * missing, unreadable or has no patterns.
+     */
+    static GitIgnoreMatcher load(Path file, String baseDir, GitIgnoreMatcher parent) {
+        try {
+            List<String> lines = Files.readAllLines(file);
+            GitIgnoreMatcher matcher = new GitIgnoreMatcher(baseDir, lines, parent);
+            return matcher.patterns.isEmpty() ? parent : matcher;
+        } catch (IOException e) {
+            return parent;
+        }
+    }
+
+    /**
+     * Decide whether a path is ignored.
+     *
+     * @param relativePath Path relative to the repository root
+     * @param isDirectory Whether the path is a directory
+     * @return true if ignored, false if explicitly re-included, null if no pattern applies
+     */
+    Boolean match(String relativePath, boolean isDirectory) {
+        Boolean verdict = matchOwn(relativePath, isDirectory);
+        if (verdict != null || parent == null) {
+            return verdict;
+        }
+        return parent.match(relativePath, isDirectory);
+    }
+
+    private Boolean matchOwn(String relativePath, boolean isDirectory) {
+        String path;
+        if (baseDir.isEmpty()) {
+            path = relativePath;
+        } else if (relativePath.startsWith(baseDir + "/")) {
+            path = relativePath.substring(baseDir.length() + 1);
+        } else {
+            return null;
+        }
+        String name = path.substring(path.lastIndexOf('/') + 1);
+
+        if (!hasNegations) {
+            if (literalNames.contains(name) || (isDirectory && literalDirNames.contains(name))) {
+                return Boolean.TRUE;
+            }
+            for (IgnorePattern pattern : globPatterns) {
+                if (pattern.matches(path, name, isDirectory)) {
+                    return Boolean.TRUE;
+                }
+            }
+            return null;
+        }
+
+        // Last matching pattern wins
+        for (int i = patterns.size() - 1; i >= 0; i--) {
+            IgnorePattern pattern = patterns.get(i);
+            if (pattern.matches(path, name, isDirectory)) {
+                return !pattern.negated;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * One line of a gitignore file.
+     */
+    static class IgnorePattern {
+
+        final boolean negated;
+        final boolean dirOnly;
+        final boolean anchored;
+        final String literalName;
+        final Pattern regex;
+
+        private IgnorePattern(boolean negated, boolean dirOnly, boolean anchored,
+                String literalName, Pattern regex) {
+            this.negated = negated;
+            this.dirOnly = dirOnly;
+            this.anchored = anchored;
+            this.literalName = literalName;
+            this.regex = regex;
+        }
+
+        static IgnorePattern parse(String line) {
+            String text = stripTrailingSpaces(line);
+            if (text.isEmpty() || text.startsWith("#")) {
+                return null;
+            }
+
+            boolean negated = false;
+            if (text.startsWith("!")) {
+                negated = true;
+                text = text.substring(1);
+            } else if (text.startsWith("\\!") || text.startsWith("\\#")) {
+                text = text.substring(1);
+            }
+
+            boolean dirOnly = false;
+            if (text.endsWith("/")) {
+                dirOnly = true;
+                text = text.substring(0, text.length() - 1);
+            }
+
+            // A slash anywhere but the end anchors the pattern to the base directory
+            boolean anchored = text.contains("/");
+            if (text.startsWith("/")) {
+                text = text.substring(1);
+            }
+            if (text.isEmpty()) {
+                return null;
+            }
+
+            if (!anchored && !hasGlobCharacters(text)) {
+                return new IgnorePattern(negated, dirOnly, false, text.replace("\\", ""), null);
+            }
+            return new IgnorePattern(negated, dirOnly, anchored, null, Pattern.compile(toRegex(text)));
+        }
+
+        boolean matches(String path, String name, boolean isDirectory) {
+            if (dirOnly && !isDirectory) {
+                return false;
+            }
+            if (literalName != null) {
+                return literalName.equals(name);
+            }
+            return regex.matcher(anchored ? path : name).matches();
+        }
+
+        private static boolean hasGlobCharacters(String text) {
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '*' || c == '?' || c == '[') {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static String stripTrailingSpaces(String line) {
+            int end = line.length();
+            while (end > 0 && line.charAt(end - 1) == ' '
+                    && (end < 2 || line.charAt(end - 2) != '\\')) {
+                end--;
+            }
+            return line.substring(0, end).replace("\\ ", " ");
+        }
+
+        static String toRegex(String glob) {
+            StringBuilder regex = new StringBuilder();
+            int i = 0;
+            while (i < glob.length()) {
+                char c = glob.charAt(i);
+                if (c == '*') {
+                    boolean doubleStar = i + 1 < glob.length() && glob.charAt(i + 1) == '*';
+                    boolean atSegmentStart = i == 0 || glob.charAt(i - 1) == '/';
+                    if (doubleStar && atSegmentStart) {
+                        int next = i + 2;
+                        if (next == glob.length()) {
+                            regex.append(".*");
+                            i = next;
+                            continue;
+                        }
+                        if (glob.charAt(next) == '/') {
+                            regex.append("(?:.*/)?");
+                            i = next + 1;
+                            continue;
+                        }
+                    }
+                    regex.append("[^/]*");
+                    i += doubleStar ? 2 : 1;
+                } else if (c == '?') {
+                    regex.append("[^/]");
+                    i++;
+                } else if (c == '[') {
+                    int close = glob.indexOf(']', i + 2);
+                    if (close < 0) {
+                        regex.append("\\[");
+                        i++;
+                        continue;
+                    }
+                    String body = glob.substring(i + 1, close);
+                    if (body.startsWith("!")) {
+                        body = "^" + body.substring(1);
+                    }
+                    regex.append('[').append(body.replace("\\", "\\\\").replace("[", "\\[")).append(']');
+                    i = close + 1;
+                } else if (c == '\\' && i + 1 < glob.length()) {
+                    regex.append(Pattern.quote(String.valueOf(glob.charAt(i + 1))));
+                    i += 2;
+                } else {
+                    regex.append(Pattern.quote(String.valueOf(c)));
+                    i++;
+                }
+            }
+            return regex.toString();
+        }
+    }
+}
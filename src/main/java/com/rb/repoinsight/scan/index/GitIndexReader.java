@@ -0,0 +1,225 @@
+package com.rb.repoinsight.scan.index;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Enumerates tracked files by reading the git index ({@code .git/index}) directly.
+ *
+ * The index already stores every tracked path together with the size and
+ * modification time git last saw, so the file list is obtained with one
+ * sequential read instead of a recursive directory scan. Untracked build output
+ * is excluded automatically.
+ *
+ * Supports index versions 2, 3 and 4. Split and sparse indexes, which do not
+ * list every path in this file, are reported as unsupported so the caller can
+ * fall back to walking the tree.
+ */
+class GitIndexReader {
+
+    private static final int SIGNATURE = 0x44495243; // "DIRC"
+    private static final int ENTRY_FIXED_SIZE = 62;
+    private static final int FLAG_EXTENDED = 0x4000;
+    private static final int FLAG_STAGE_MASK = 0x3000;
+    private static final int EXT_FLAG_SKIP_WORKTREE = 0x4000;
+    private static final int MODE_TYPE_MASK = 0170000;
+    private static final int MODE_REGULAR = 0100000;
+    private static final int CHECKSUM_SIZE = 20;
+
+    private final PathExclusions exclusions;
+
+    GitIndexReader(PathExclusions exclusions) {
+        this.exclusions = exclusions;
+    }
+
+    /**
+     * Locate the index file for a repository root, following the
+     * {@code gitdir:} pointer used by worktrees and submodules.
+     *
+     * @return The index path, or null if the root is not a git checkout
+     */
+    static Path locateIndex(Path root) {
+        Path dotGit = root.resolve(".git");
+        try {
+            if (Files.isRegularFile(dotGit)) {
+                String pointer = Files.readString(dotGit).trim();
+                if (!pointer.startsWith("gitdir:")) {
+                    return null;
+                }
+                dotGit = root.resolve(pointer.substring("gitdir:".length()).trim()).normalize();
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        Path index = dotGit.resolve("index");
+        return Files.isRegularFile(index) ? index : null;
+    }
+
+    /**
+     * Read the tracked files of a repository.
+     *
+     * @param root Absolute, normalized repository root
+     * @return Collected files and their parent directories, or null if no usable index exists
+     */
+    WalkResult read(Path root) {
+        Path indexFile = locateIndex(root);
+        if (indexFile == null) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.BIG_ENDIAN);
+            return parse(root, buffer);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Warning: Failed to read git index, walking the tree instead: " + e.getMessage());
+            return null;
+        }
+    }
+
+    WalkResult parse(Path root, ByteBuffer buffer) {
+        if (buffer.remaining() < 12 + CHECKSUM_SIZE || buffer.getInt() != SIGNATURE) {
+            return null;
+        }
+        int version = buffer.getInt();
+        if (version < 2 || version > 4) {
+            return null;
+        }
+        int entryCount = buffer.getInt();
+
+        WalkResult result = new WalkResult();
+        byte[] previousPath = new byte[0];
+        String lastRecorded = null;
+
+        for (int i = 0; i < entryCount; i++) {
+            int entryStart = buffer.position();
+            buffer.position(entryStart + 8);                // ctime
+            long mtimeSeconds = Integer.toUnsignedLong(buffer.getInt());
+            long mtimeNanos = Integer.toUnsignedLong(buffer.getInt());
+            buffer.position(buffer.position() + 8);         // dev, ino
+            int mode = buffer.getInt();
+            buffer.position(buffer.position() + 8);         // uid, gid
+            long size = Integer.toUnsignedLong(buffer.getInt());
+            buffer.position(buffer.position() + 20);        // object id
+            int flags = Short.toUnsignedInt(buffer.getShort());
+
+            int extendedFlags = 0;
+            if (version >= 3 && (flags & FLAG_EXTENDED) != 0) {
+                extendedFlags = Short.toUnsignedInt(buffer.getShort());
+            }
+
+            byte[] pathBytes;
+            if (version == 4) {
+                int strip = readVarint(buffer);
+                byte[] suffix = readNulTerminated(buffer);
+                int keep = previousPath.length - strip;
+                if (keep < 0) {
+                    return null;
+                }
+                pathBytes = new byte[keep + suffix.length];
+                System.arraycopy(previousPath, 0, pathBytes, 0, keep);
+                System.arraycopy(suffix, 0, pathBytes, keep, suffix.length);
+            } else {
+                pathBytes = readNulTerminated(buffer);
+                // Entries are NUL-padded to a multiple of eight bytes
+                int entryLength = buffer.position() - entryStart;
+                int padded = (entryLength + 7) & ~7;
+                buffer.position(entryStart + padded);
+            }
+            previousPath = pathBytes;
+
+            // Sparse directory entries mean the file list is incomplete
+            if ((mode & MODE_TYPE_MASK) == 0040000) {
+                return null;
+            }
+            // Symlinks, submodules, unmerged duplicates and sparse-checkout entries have no regular file
+            if ((mode & MODE_TYPE_MASK) != MODE_REGULAR
+                    || (extendedFlags & EXT_FLAG_SKIP_WORKTREE) != 0) {
+                continue;
+            }
+
+            String relativePath = new String(pathBytes, StandardCharsets.UTF_8);
+            if ((flags & FLAG_STAGE_MASK) != 0 && relativePath.equals(lastRecorded)) {
+                continue;
+            }
+            if (exclusions.isExcludedPath(relativePath)) {
+                continue;
+            }
+
+            long lastModified = mtimeSeconds * 1000 + mtimeNanos / 1_000_000;
+            result.addFile(RepoFileIndex.createEntry(root, relativePath, size, lastModified));
+            addParentDirectories(result, relativePath);
+            lastRecorded = relativePath;
+        }
+
+        if (hasUnsupportedExtension(buffer)) {
+            return null;
+        }
+        return result;
+    }
+
+    /**
+     * Split indexes ("link") keep most entries in a shared file and sparse
+     * indexes ("sdir") collapse directories, so neither lists every path here.
+     */
+    private static boolean hasUnsupportedExtension(ByteBuffer buffer) {
+        int end = buffer.limit() - CHECKSUM_SIZE;
+        while (buffer.position() + 8 <= end) {
+            byte[] signature = new byte[4];
+            buffer.get(signature);
+            long length = Integer.toUnsignedLong(buffer.getInt());
+            String name = new String(signature, StandardCharsets.US_ASCII);
+            if ("link".equals(name) || "sdir".equals(name)) {
+                return true;
+            }
+            if (buffer.position() + length > end) {
+                break;
+            }
+            buffer.position((int) (buffer.position() + length));
+        }
+        return false;
+    }
+
+    private static void addParentDirectories(WalkResult result, String relativePath) {
+        int slash = relativePath.lastIndexOf('/');
+        while (slash > 0) {
+            String dir = relativePath.substring(0, slash);
+            if (!result.getDirectories().add(dir)) {
+                return; // ancestors were recorded with an earlier sibling
+            }
+            slash = dir.lastIndexOf('/');
+        }
+    }
+
+    private static byte[] readNulTerminated(ByteBuffer buffer) {
+        int start = buffer.position();
+        int end = start;
+        while (buffer.get(end) != 0) {
+            end++;
+        }
+        byte[] bytes = new byte[end - start];
+        buffer.get(bytes);
+        buffer.get(); // NUL
+        return bytes;
+    }
+
+    /**
+     * Offset-encoded varint used by index v4 path compression.
+     */
+    private static int readVarint(ByteBuffer buffer) {
+        int c = Byte.toUnsignedInt(buffer.get());
+        int value = c & 0x7f;
+        while ((c & 0x80) != 0) {
+            value += 1;
+            c = Byte.toUnsignedInt(buffer.get());
+            value = (value << 7) + (c & 0x7f);
+        }
+        return value;
+    }
+}
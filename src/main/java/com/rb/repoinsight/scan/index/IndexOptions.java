@@ -0,0 +1,90 @@
+package com.rb.repoinsight.scan.index;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings that control how {@link RepoFileIndex} enumerates a repository.
+ */
+public class IndexOptions {
+
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private boolean respectGitignore = true;
+    private boolean useGitIndex = false;
+    private List<String> excludePatterns = new ArrayList<>();
+
+    /**
+     * Number of worker threads used to walk the tree. A value of 1 selects the
+     * single-threaded walker.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Whether .gitignore files and .git/info/exclude prune the walk.
+     */
+    public boolean isRespectGitignore() {
+        return respectGitignore;
+    }
+
+    public void setRespectGitignore(boolean respectGitignore) {
+        this.respectGitignore = respectGitignore;
+    }
+
+    /**
+     * Whether to list tracked files from .git/index instead of walking the
+     * working tree. Falls back to the walk when no usable index exists.
+     */
+    public boolean isUseGitIndex() {
+        return useGitIndex;
+    }
+
+    public void setUseGitIndex(boolean useGitIndex) {
+        this.useGitIndex = useGitIndex;
+    }
+
+    /**
+     * Additional exclusions in gitignore syntax, relative to the repository root.
+     */
+    public List<String> getExcludePatterns() {
+        return excludePatterns;
+    }
+
+    public void setExcludePatterns(List<String> excludePatterns) {
+        this.excludePatterns = excludePatterns;
+    }
+
+    public void addExcludePattern(String pattern) {
+        excludePatterns.add(pattern);
+    }
+
+    /**
+     * Exclude a file or directory this tool writes, so that a later run does
+     * not analyze its own output. Outputs outside the repository are ignored.
+     *
+     * @param repoRoot The repository being analyzed
+     * @param output The output path, relative to the working directory or absolute
+     */
+    public void addExcludedOutput(Path repoRoot, Path output) {
+        Path root = repoRoot.toAbsolutePath().normalize();
+        Path path = output.toAbsolutePath().normalize();
+        if (!path.startsWith(root) || path.equals(root)) {
+            return;
+        }
+        StringBuilder pattern = new StringBuilder("/");
+        for (char c : root.relativize(path).toString().replace('\\', '/').toCharArray()) {
+            // Anchored and escaped, so only this exact path matches
+            if (c == '*' || c == '?' || c == '[' || c == '\\') {
+                pattern.append('\\');
+            }
+            pattern.append(c);
+        }
+        addExcludePattern(pattern.toString());
+    }
+}
@@ -0,0 +1,94 @@
+package com.rb.repoinsight.scan.index;
+
+import java.nio.file.Path;
+
+/**
+ * A single regular file captured by {@link RepoFileIndex}.
+ * Holds the attributes read during the walk plus precomputed classifications,
+ * so analyzers never need to stat or re-classify the file themselves.
+ */
+public class IndexedFile {
+
+    static final int SOURCE = 1;
+    static final int TEST = 1 << 1;
+    static final int INTERESTING = 1 << 2;
+    static final int BUILD_FILE = 1 << 3;
+
+    private final String relativePath;
+    private final Path path;
+    private final long size;
+    private final long lastModified;
+    private final int flags;
+
+    IndexedFile(String relativePath, Path path, long size, long lastModified, int flags) {
+        this.relativePath = relativePath;
+        this.path = path;
+        this.size = size;
+        this.lastModified = lastModified;
+        this.flags = flags;
+    }
+
+    /**
+     * Path relative to the repository root, always using '/' as separator.
+     */
+    public String getRelativePath() {
+        return relativePath;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public String getFileName() {
+        int lastSlash = relativePath.lastIndexOf('/');
+        return lastSlash >= 0 ? relativePath.substring(lastSlash + 1) : relativePath;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Last modification time in epoch milliseconds.
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * JVM source file (Java, Kotlin, Scala, Groovy).
+     */
+    public boolean isSource() {
+        return (flags & SOURCE) != 0;
+    }
+
+    /**
+     * Source file that lives under src/test or whose name marks it as a test.
+     */
+    public boolean isTest() {
+        return (flags & TEST) != 0;
+    }
+
+    /**
+     * File the rule engine should scan with its heuristics.
+     */
+    public boolean isInteresting() {
+        return (flags & INTERESTING) != 0;
+    }
+
+    /**
+     * Maven or Gradle build descriptor.
+     */
+    public boolean isBuildFile() {
+        return (flags & BUILD_FILE) != 0;
+    }
+
+    int getFlags() {
+        return flags;
+    }
+
+    @Override
+    public String toString() {
+        return relativePath;
+    }
+}
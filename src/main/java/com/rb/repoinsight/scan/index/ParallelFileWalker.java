@@ -0,0 +1,114 @@
+package com.rb.repoinsight.scan.index;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Work-stealing directory walker built on {@link ForkJoinPool}.
+ *
+ * Every directory is listed by its own {@link RecursiveTask}, so slow
+ * directory reads (for example on network file systems) overlap instead of
+ * being serialized. Children are visited in name order and subtree results are
+ * concatenated in that order, which keeps the output identical to a sorted
+ * depth-first walk regardless of scheduling.
+ */
+class ParallelFileWalker implements FileWalker {
+
+    private final int parallelism;
+    private final PathExclusions exclusions;
+
+    ParallelFileWalker(int parallelism, PathExclusions exclusions) {
+        this.parallelism = Math.max(1, parallelism);
+        this.exclusions = exclusions;
+    }
+
+    @Override
+    public WalkResult walk(Path root) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return pool.invoke(new DirectoryTask(root, root, "", exclusions.rootScope()));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private class DirectoryTask extends RecursiveTask<WalkResult> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Path root;
+        private final Path dir;
+        private final String relativeDir;
+        private final GitIgnoreMatcher parentScope;
+
+        DirectoryTask(Path root, Path dir, String relativeDir, GitIgnoreMatcher parentScope) {
+            this.root = root;
+            this.dir = dir;
+            this.relativeDir = relativeDir;
+            this.parentScope = parentScope;
+        }
+
+        @Override
+        protected WalkResult compute() {
+            List<Path> entries = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+                for (Path entry : stream) {
+                    entries.add(entry);
+                }
+            } catch (IOException e) {
+                // Unreadable directory: skip its contents, like visitFileFailed
+            }
+            entries.sort((a, b) -> a.getFileName().toString().compareTo(b.getFileName().toString()));
+
+            boolean hasGitignore = entries.stream()
+                    .anyMatch(e -> e.getFileName().toString().equals(PathExclusions.GITIGNORE));
+            GitIgnoreMatcher scope = exclusions.enterDirectory(dir, relativeDir, parentScope, hasGitignore);
+
+            // Files are resolved inline; subdirectories are forked as they are found
+            List<Object> ordered = new ArrayList<>(entries.size());
+            for (Path entry : entries) {
+                BasicFileAttributes attrs;
+                try {
+                    attrs = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                } catch (IOException e) {
+                    continue;
+                }
+
+                String name = entry.getFileName().toString();
+                String relativePath = relativeDir.isEmpty() ? name : relativeDir + "/" + name;
+                if (attrs.isDirectory()) {
+                    // Excluded subtrees are never forked, so they are never listed
+                    if (!exclusions.isExcludedDirectory(relativePath, scope)) {
+                        DirectoryTask task = new DirectoryTask(root, entry, relativePath, scope);
+                        task.fork();
+                        ordered.add(task);
+                    }
+                } else if (attrs.isRegularFile() && !exclusions.isExcludedFile(relativePath, scope)) {
+                    ordered.add(RepoFileIndex.createEntry(root, relativePath,
+                            attrs.size(), attrs.lastModifiedTime().toMillis()));
+                }
+            }
+
+            WalkResult result = new WalkResult();
+            if (!relativeDir.isEmpty()) {
+                result.addDirectory(relativeDir);
+            }
+            for (Object item : ordered) {
+                if (item instanceof DirectoryTask) {
+                    result.addAll(((DirectoryTask) item).join());
+                } else {
+                    result.addFile((IndexedFile) item);
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.rb.repoinsight.scan.index;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Decides which directories and files the walkers must not enter or record.
+ *
+ * Exclusions come from three sources, checked in this order:
+ * <ol>
+ *   <li>Per-segment rules for well-known tool and build output directories</li>
+ *   <li>User-supplied patterns (gitignore syntax) from {@link IndexOptions}</li>
+ *   <li>.gitignore files and .git/info/exclude, unless disabled</li>
+ * </ol>
+ * Directory decisions are made before a directory is opened, so excluded
+ * subtrees are never traversed.
+ */
+class PathExclusions {
+
+    static final String GITIGNORE = ".gitignore";
+
+    /**
+     * Directory names that never contain analyzable sources.
+     */
+    private static final Set<String> ALWAYS_EXCLUDED_DIRS = Set.of(
+            ".git", ".svn", ".hg", ".gradle", ".idea", "node_modules", ".repo-insight");
+
+    /**
+     * Build output directory names. Only excluded outside of source roots, so a
+     * package such as com/acme/build is still scanned.
+     */
+    private static final Set<String> BUILD_OUTPUT_DIRS = Set.of("target", "build");
+
+    private final boolean respectGitignore;
+    private final GitIgnoreMatcher userMatcher;
+    private final GitIgnoreMatcher rootMatcher;
+
+    private PathExclusions(boolean respectGitignore, GitIgnoreMatcher userMatcher, GitIgnoreMatcher rootMatcher) {
+        this.respectGitignore = respectGitignore;
+        this.userMatcher = userMatcher;
+        this.rootMatcher = rootMatcher;
+    }
+
+    static PathExclusions load(Path root, IndexOptions options) {
+        List<String> userPatterns = options.getExcludePatterns();
+        GitIgnoreMatcher userMatcher = userPatterns.isEmpty()
+                ? null
+                : new GitIgnoreMatcher("", userPatterns, null);
+
+        GitIgnoreMatcher rootMatcher = null;
+        if (options.isRespectGitignore()) {
+            Path infoExclude = root.resolve(".git/info/exclude");
+            if (Files.isRegularFile(infoExclude)) {
+                rootMatcher = GitIgnoreMatcher.load(infoExclude, "", null);
+            }
+            Path rootGitignore = root.resolve(GITIGNORE);
+            if (Files.isRegularFile(rootGitignore)) {
+                rootMatcher = GitIgnoreMatcher.load(rootGitignore, "", rootMatcher);
+            }
+        }
+
+        return new PathExclusions(options.isRespectGitignore(), userMatcher, rootMatcher);
+    }
+
+    /**
+     * Gitignore scope for the repository root.
+     */
+    GitIgnoreMatcher rootScope() {
+        return rootMatcher;
+    }
+
+    /**
+     * Gitignore scope for the contents of a directory that was just entered.
+     * Picks up a nested .gitignore if the directory has one.
+     */
+    GitIgnoreMatcher enterDirectory(Path dir, String relativeDir, GitIgnoreMatcher parentScope,
+            boolean hasGitignore) {
+        if (!respectGitignore || relativeDir.isEmpty() || !hasGitignore) {
+            return parentScope;
+        }
+        return GitIgnoreMatcher.load(dir.resolve(GITIGNORE), relativeDir, parentScope);
+    }
+
+    boolean isExcludedDirectory(String relativeDir, GitIgnoreMatcher scope) {
+        String name = relativeDir.substring(relativeDir.lastIndexOf('/') + 1);
+        if (ALWAYS_EXCLUDED_DIRS.contains(name)) {
+            return true;
+        }
+        if (BUILD_OUTPUT_DIRS.contains(name) && !isInsideSourceRoot(relativeDir)) {
+            return true;
+        }
+        return isIgnored(relativeDir, true, scope);
+    }
+
+    boolean isExcludedFile(String relativePath, GitIgnoreMatcher scope) {
+        return isIgnored(relativePath, false, scope);
+    }
+
+    /**
+     * Check a path and all of its ancestors. Used by enumerators that do not
+     * traverse directories and therefore cannot prune.
+     */
+    boolean isExcludedPath(String relativePath) {
+        int slash = relativePath.indexOf('/');
+        while (slash >= 0) {
+            if (isExcludedDirectory(relativePath.substring(0, slash), rootMatcher)) {
+                return true;
+            }
+            slash = relativePath.indexOf('/', slash + 1);
+        }
+        return isExcludedFile(relativePath, rootMatcher);
+    }
+
+    private boolean isIgnored(String relativePath, boolean isDirectory, GitIgnoreMatcher scope) {
+        if (userMatcher != null && Boolean.TRUE.equals(userMatcher.match(relativePath, isDirectory))) {
+            return true;
+        }
+        return scope != null && Boolean.TRUE.equals(scope.match(relativePath, isDirectory));
+    }
+
+    private static boolean isInsideSourceRoot(String relativeDir) {
+        return relativeDir.startsWith("src/") || relativeDir.contains("/src/");
+    }
+}
@@ -0,0 +1,120 @@
+package com.rb.repoinsight.scan.index;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * A list of gitignore-style patterns used to select files rather than to
+ * exclude them.
+ *
+ * Patterns follow the same syntax as {@code --exclude}: a pattern without a
+ * slash matches a file name anywhere, a trailing slash selects everything
+ * below a directory, and the last matching pattern wins, so {@code !} can
+ * deselect files selected by an earlier pattern.
+ */
+public final class PathGlobs {
+
+    private final List<GitIgnoreMatcher.IgnorePattern> patterns;
+    private final Set<String> extensions;
+
+    private PathGlobs(List<GitIgnoreMatcher.IgnorePattern> patterns, Set<String> extensions) {
+        this.patterns = patterns;
+        this.extensions = extensions;
+    }
+
+    public static PathGlobs compile(List<String> globs) {
+        List<GitIgnoreMatcher.IgnorePattern> patterns = new ArrayList<>();
+        Set<String> extensions = new HashSet<>();
+        for (String glob : globs) {
+            GitIgnoreMatcher.IgnorePattern pattern = GitIgnoreMatcher.IgnorePattern.parse(glob);
+            if (pattern == null) {
+                continue;
+            }
+            patterns.add(pattern);
+            if (!pattern.negated && extensions != null) {
+                String extension = pattern.dirOnly ? null : globExtension(glob.trim());
+                if (extension == null) {
+                    extensions = null;
+                } else {
+                    extensions.add(extension);
+                }
+            }
+        }
+        return new PathGlobs(patterns, extensions);
+    }
+
+    public boolean isEmpty() {
+        return patterns.isEmpty();
+    }
+
+    /**
+     * Whether a file is selected. A file below a selected directory is
+     * selected too.
+     */
+    public boolean matches(String relativePath) {
+        boolean selected = false;
+        for (GitIgnoreMatcher.IgnorePattern pattern : patterns) {
+            if (matchesPathOrParent(pattern, relativePath)) {
+                selected = !pattern.negated;
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Lower-case extensions (such as {@code .yml}) of every file these
+     * patterns can select, or null if they may select any extension.
+     */
+    public Set<String> getExtensions() {
+        return extensions;
+    }
+
+    /**
+     * Lower-case extension of a file path, including the dot, or the empty
+     * string if the file name has none.
+     */
+    public static String extensionOf(String path) {
+        int dot = path.lastIndexOf('.');
+        if (dot <= path.lastIndexOf('/')) {
+            return "";
+        }
+        return path.substring(dot).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Extension of every file a glob can match, or null if it can match
+     * several (such as {@code *} or {@code *.y*ml}).
+     */
+    private static String globExtension(String glob) {
+        String extension = extensionOf(glob);
+        String segment = glob.substring(glob.lastIndexOf('/') + 1);
+        String checked = extension.isEmpty() ? segment : extension;
+        for (int i = 0; i < checked.length(); i++) {
+            char c = checked.charAt(i);
+            if (c == '*' || c == '?' || c == '[' || c == '\\') {
+                return null;
+            }
+        }
+        return extension;
+    }
+
+    private static boolean matchesPathOrParent(GitIgnoreMatcher.IgnorePattern pattern, String relativePath) {
+        String path = relativePath;
+        boolean isDirectory = false;
+        while (true) {
+            String name = path.substring(path.lastIndexOf('/') + 1);
+            if (pattern.matches(path, name, isDirectory)) {
+                return true;
+            }
+            int slash = path.lastIndexOf('/');
+            if (slash < 0) {
+                return false;
+            }
+            path = path.substring(0, slash);
+            isDirectory = true;
+        }
+    }
+}
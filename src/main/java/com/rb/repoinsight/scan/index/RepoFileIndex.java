@@ -0,0 +1,290 @@
+package com.rb.repoinsight.scan.index;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import com.rb.repoinsight.profile.DirectoryWalkEvent;
+import com.rb.repoinsight.scan.gradle.GradleBuild;
+import com.rb.repoinsight.scan.maven.PomCache;
+
+/**
+ * Snapshot of every regular file in a repository, built with a single walk
+ * (or a single read of the git index when enabled).
+ *
+ * All analyzers query this index instead of walking or stat-ing the tree on
+ * their own. Files are kept in depth-first order with children sorted by name,
+ * so results derived from the index are deterministic across platforms.
+ */
+public class RepoFileIndex {
+
+    private static final String[] SOURCE_EXTENSIONS = { ".java", ".kt", ".scala", ".groovy" };
+    private static final String[] INTERESTING_EXTENSIONS = { ".java", ".xml", ".yml", ".yaml", ".properties", ".json" };
+    private static final Set<String> BUILD_FILE_NAMES = Set.of(
+            "pom.xml", "build.gradle", "build.gradle.kts", "settings.gradle", "settings.gradle.kts");
+
+    /**
+     * Orders relative paths depth-first with siblings sorted by name by treating
+     * '/' as lower than any other character.
+     */
+    static final Comparator<String> PATH_ORDER = (a, b) -> {
+        int length = Math.min(a.length(), b.length());
+        for (int i = 0; i < length; i++) {
+            char ca = a.charAt(i);
+            char cb = b.charAt(i);
+            if (ca != cb) {
+                if (ca == '/') {
+                    return -1;
+                }
+                if (cb == '/') {
+                    return 1;
+                }
+                return Character.compare(ca, cb);
+            }
+        }
+        return Integer.compare(a.length(), b.length());
+    };
+
+    private final Path root;
+    private final List<IndexedFile> files;
+    private final Map<String, IndexedFile> filesByPath;
+    private final Set<String> directories;
+    private final Map<String, List<String>> subdirectories;
+    private final boolean fromGitIndex;
+    private PomCache poms;
+    private GradleBuild gradleBuild;
+
+    RepoFileIndex(Path root, List<IndexedFile> files, Set<String> directories, boolean fromGitIndex) {
+        this.root = root;
+        this.fromGitIndex = fromGitIndex;
+        // Walkers already emit this order, in which case the sort is a linear pass
+        List<IndexedFile> sorted = new ArrayList<>(files);
+        sorted.sort(Comparator.comparing(IndexedFile::getRelativePath, PATH_ORDER));
+        this.files = Collections.unmodifiableList(sorted);
+
+        this.filesByPath = new HashMap<>(sorted.size() * 2);
+        for (IndexedFile file : sorted) {
+            filesByPath.put(file.getRelativePath(), file);
+        }
+
+        this.directories = new HashSet<>(directories);
+        Map<String, Set<String>> children = new HashMap<>();
+        for (String dir : this.directories) {
+            int lastSlash = dir.lastIndexOf('/');
+            String parent = lastSlash >= 0 ? dir.substring(0, lastSlash) : "";
+            children.computeIfAbsent(parent, k -> new TreeSet<>()).add(dir.substring(lastSlash + 1));
+        }
+        this.subdirectories = new HashMap<>();
+        children.forEach((parent, names) -> subdirectories.put(parent, List.copyOf(names)));
+    }
+
+    /**
+     * Walk the repository once with default options.
+     */
+    public static RepoFileIndex build(Path repoRoot) {
+        return build(repoRoot, new IndexOptions());
+    }
+
+    /**
+     * Walk the repository once and capture every regular file with its attributes.
+     * Excluded directories are pruned during the walk. Unreadable entries are
+     * skipped; the index is always returned best-effort.
+     */
+    public static RepoFileIndex build(Path repoRoot, IndexOptions options) {
+        DirectoryWalkEvent event = new DirectoryWalkEvent();
+        event.begin();
+        RepoFileIndex index = walk(repoRoot.toAbsolutePath().normalize(), options);
+        event.end();
+        if (event.shouldCommit()) {
+            event.setRoot(index.getRoot().toString());
+            event.setFiles(index.size());
+            event.setFromGitIndex(index.isFromGitIndex());
+            event.commit();
+        }
+        return index;
+    }
+
+    private static RepoFileIndex walk(Path root, IndexOptions options) {
+        PathExclusions exclusions = PathExclusions.load(root, options);
+
+        if (options.isUseGitIndex()) {
+            WalkResult tracked = new GitIndexReader(exclusions).read(root);
+            if (tracked != null) {
+                return new RepoFileIndex(root, tracked.getFiles(), tracked.getDirectories(), true);
+            }
+        }
+
+        FileWalker walker = options.getParallelism() > 1
+                ? new ParallelFileWalker(options.getParallelism(), exclusions)
+                : new SequentialFileWalker(exclusions);
+        WalkResult result = walker.walk(root);
+
+        return new RepoFileIndex(root, result.getFiles(), result.getDirectories(), false);
+    }
+
+    static String relativize(Path root, Path path) {
+        return root.relativize(path).toString().replace('\\', '/');
+    }
+
+    static IndexedFile createEntry(Path root, String relativePath, long size, long lastModified) {
+        return new IndexedFile(relativePath, root.resolve(relativePath), size, lastModified,
+                classify(relativePath));
+    }
+
+    static int classify(String relativePath) {
+        int lastSlash = relativePath.lastIndexOf('/');
+        String fileName = relativePath.substring(lastSlash + 1);
+        String lowerName = fileName.toLowerCase();
+        int flags = 0;
+
+        // Build output directories are pruned by PathExclusions before files are classified
+        if (endsWithAny(lowerName, SOURCE_EXTENSIONS)) {
+            flags |= IndexedFile.SOURCE;
+            if (relativePath.contains("src/test/") || fileName.contains("Test")) {
+                flags |= IndexedFile.TEST;
+            }
+        }
+
+        // Don't scan our own source to avoid false positives by rules.json itself or
+        // the rule engine
+        if (endsWithAny(lowerName, INTERESTING_EXTENSIONS)
+                && !relativePath.contains("com/rb/repoinsight")
+                && !relativePath.contains("rules.json")) {
+            flags |= IndexedFile.INTERESTING;
+        }
+
+        if (BUILD_FILE_NAMES.contains(fileName)) {
+            flags |= IndexedFile.BUILD_FILE;
+        }
+
+        return flags;
+    }
+
+    private static boolean endsWithAny(String name, String[] extensions) {
+        for (String ext : extensions) {
+            if (name.endsWith(ext)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // --------------------------------------------------
+    // Queries
+    // --------------------------------------------------
+
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * Whether the file list was read from .git/index rather than walked.
+     * Sizes and timestamps then reflect what git last recorded.
+     */
+    public boolean isFromGitIndex() {
+        return fromGitIndex;
+    }
+
+    public List<IndexedFile> getFiles() {
+        return files;
+    }
+
+    public int size() {
+        return files.size();
+    }
+
+    public List<IndexedFile> getSourceFiles() {
+        return files.stream().filter(IndexedFile::isSource).collect(Collectors.toList());
+    }
+
+    public List<IndexedFile> getInterestingFiles() {
+        return files.stream().filter(IndexedFile::isInteresting).collect(Collectors.toList());
+    }
+
+    public List<IndexedFile> getBuildFiles() {
+        return files.stream().filter(IndexedFile::isBuildFile).collect(Collectors.toList());
+    }
+
+    /**
+     * The parsed {@code pom.xml} files, shared by every analyzer using this
+     * index so each POM is read once.
+     */
+    public synchronized PomCache getPoms() {
+        if (poms == null) {
+            poms = new PomCache(this);
+        }
+        return poms;
+    }
+
+    /**
+     * The Gradle build read from the settings and build scripts, shared by
+     * every analyzer using this index.
+     */
+    public synchronized GradleBuild getGradleBuild() {
+        if (gradleBuild == null) {
+            gradleBuild = new GradleBuild(this);
+        }
+        return gradleBuild;
+    }
+
+    public IndexedFile getFile(String relativePath) {
+        return filesByPath.get(relativePath);
+    }
+
+    public boolean containsFile(String relativePath) {
+        return filesByPath.containsKey(relativePath);
+    }
+
+    public boolean containsDirectory(String relativePath) {
+        return directories.contains(relativePath);
+    }
+
+    /**
+     * Equivalent of {@code Files.exists} for a path relative to the root.
+     */
+    public boolean exists(String relativePath) {
+        return containsFile(relativePath) || containsDirectory(relativePath);
+    }
+
+    /**
+     * Names of the direct subdirectories of a directory, sorted by name.
+     * Use "" for the repository root.
+     */
+    public List<String> listSubdirectories(String relativeDir) {
+        return subdirectories.getOrDefault(relativeDir, Collections.emptyList());
+    }
+
+    public boolean anyFileWithExtension(String extension) {
+        return files.stream().anyMatch(f -> f.getRelativePath().endsWith(extension));
+    }
+
+    /**
+     * Whether any file below the given directory ends with the extension.
+     * Use "" for the repository root.
+     */
+    public boolean anyFileUnder(String relativeDir, String extension) {
+        String prefix = relativeDir.isEmpty() ? "" : relativeDir + "/";
+        return files.stream().anyMatch(f -> f.getRelativePath().startsWith(prefix)
+                && f.getRelativePath().endsWith(extension));
+    }
+
+    /**
+     * Convert an absolute or root-relative path to the index's relative form.
+     * Returns null if the path lies outside the repository.
+     */
+    public String toRelativePath(Path path) {
+        Path absolute = root.resolve(path).normalize();
+        if (!absolute.startsWith(root)) {
+            return null;
+        }
+        return relativize(root, absolute);
+    }
+}
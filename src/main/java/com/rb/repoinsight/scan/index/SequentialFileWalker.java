@@ -0,0 +1,81 @@
+package com.rb.repoinsight.scan.index;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single-threaded walker based on {@link Files#walkFileTree}.
+ * Used when parallelism is 1, where forking would only add overhead.
+ * Excluded directories are answered with {@link FileVisitResult#SKIP_SUBTREE}.
+ */
+class SequentialFileWalker implements FileWalker {
+
+    private final PathExclusions exclusions;
+
+    SequentialFileWalker(PathExclusions exclusions) {
+        this.exclusions = exclusions;
+    }
+
+    @Override
+    public WalkResult walk(Path root) {
+        WalkResult result = new WalkResult();
+        // Gitignore scope of each directory currently on the walk stack (null = no patterns)
+        List<GitIgnoreMatcher> scopes = new ArrayList<>();
+
+        try {
+            Files.walkFileTree(root, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    if (dir.equals(root)) {
+                        scopes.add(exclusions.rootScope());
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    String relativeDir = RepoFileIndex.relativize(root, dir);
+                    GitIgnoreMatcher parentScope = scopes.get(scopes.size() - 1);
+                    if (exclusions.isExcludedDirectory(relativeDir, parentScope)) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+
+                    result.addDirectory(relativeDir);
+                    boolean hasGitignore = Files.isRegularFile(dir.resolve(PathExclusions.GITIGNORE));
+                    scopes.add(exclusions.enterDirectory(dir, relativeDir, parentScope, hasGitignore));
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (attrs.isRegularFile()) {
+                        String relativePath = RepoFileIndex.relativize(root, file);
+                        if (!exclusions.isExcludedFile(relativePath, scopes.get(scopes.size() - 1))) {
+                            result.addFile(RepoFileIndex.createEntry(root, relativePath,
+                                    attrs.size(), attrs.lastModifiedTime().toMillis()));
+                        }
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path dir, IOException exc) {
+                    scopes.remove(scopes.size() - 1);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("Warning: Failed to index repository: " + e.getMessage());
+        }
+
+        return result;
+    }
+}
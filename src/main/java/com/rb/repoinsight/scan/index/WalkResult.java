@@ -0,0 +1,37 @@
+package com.rb.repoinsight.scan.index;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Files and directories collected by a {@link FileWalker}.
+ * Paths are relative to the walked root and use '/' as separator.
+ */
+class WalkResult {
+
+    private final List<IndexedFile> files = new ArrayList<>();
+    private final Set<String> directories = new HashSet<>();
+
+    void addFile(IndexedFile file) {
+        files.add(file);
+    }
+
+    void addDirectory(String relativePath) {
+        directories.add(relativePath);
+    }
+
+    void addAll(WalkResult other) {
+        files.addAll(other.files);
+        directories.addAll(other.directories);
+    }
+
+    List<IndexedFile> getFiles() {
+        return files;
+    }
+
+    Set<String> getDirectories() {
+        return directories;
+    }
+}
@@ -0,0 +1,344 @@
+package com.rb.repoinsight.scan.maven;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Persistent index of the POMs read from a local Maven repository
+ * ({@code ~/.m2/repository}), used to resolve dependencies transitively
+ * without network access.
+ *
+ * Each entry holds the parts of one POM the resolver needs (coordinates,
+ * parent, properties, dependencies and dependency management) keyed by the
+ * POM's path, size and modification time. A POM is parsed only when it is
+ * not in the index or has changed since; {@link #save()} writes new and
+ * changed entries back, so the index is updated incrementally.
+ *
+ * <p>File layout (big-endian):</p>
+ * <pre>
+ * header  magic:int version:int entryCount:int
+ * entries entryCount x { path:str size:long mtime:long groupId:str? artifactId:str? version:str?
+ *                        packaging:str? parent:(flag:byte [groupId:str? artifactId:str version:str?])
+ *                        properties:(count:u16 { name:str value:str })
+ *                        dependencies:deps managed:deps }
+ * deps    count:u16 { groupId:str artifactId:str version:str? scope:str? type:str? optional:byte }
+ * str     length:u16 utf8, {@code str?} uses length 0xffff for null
+ * </pre>
+ */
+public class LocalRepositoryIndex {
+
+    public static final String FILE_NAME = "local-repo-index.bin";
+
+    private static final int MAGIC = 0x52494d32; // "RIM2"
+    private static final int VERSION = 1;
+    private static final int NULL_LENGTH = 0xffff;
+
+    private final Path repository;
+    private final Path indexFile;
+    private final Map<String, Entry> entries;
+    private boolean dirty;
+    private long pomsRead;
+    private long pomsFromIndex;
+
+    private LocalRepositoryIndex(Path repository, Path indexFile, Map<String, Entry> entries) {
+        this.repository = repository;
+        this.indexFile = indexFile;
+        this.entries = entries;
+    }
+
+    private static final class Entry {
+        private final long size;
+        private final long lastModified;
+        private final PomModel pom;
+
+        Entry(long size, long lastModified, PomModel pom) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.pom = pom;
+        }
+    }
+
+    /**
+     * The local repository Maven uses: {@code maven.repo.local} if set,
+     * otherwise {@code ~/.m2/repository}.
+     */
+    public static Path defaultRepository() {
+        String configured = System.getProperty("maven.repo.local");
+        if (configured != null && !configured.isBlank()) {
+            return Path.of(configured);
+        }
+        return Path.of(System.getProperty("user.home"), ".m2", "repository");
+    }
+
+    /**
+     * Open the index of a local repository. A missing, corrupt or
+     * incompatible index file is treated as empty.
+     *
+     * @param repository Root of the local Maven repository
+     * @param indexFile Where the index is stored
+     */
+    public static LocalRepositoryIndex open(Path repository, Path indexFile) {
+        Map<String, Entry> entries = new HashMap<>();
+        if (Files.isRegularFile(indexFile)) {
+            try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+                ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (in.limit() >= 12 && in.getInt() == MAGIC && in.getInt() == VERSION) {
+                    int count = in.getInt();
+                    for (int i = 0; i < count; i++) {
+                        String path = readString(in);
+                        entries.put(path, new Entry(in.getLong(), in.getLong(), readPom(in, path)));
+                    }
+                }
+            } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+                System.err.println("Warning: Ignoring unreadable local repository index: " + e.getMessage());
+                entries.clear();
+            }
+        }
+        return new LocalRepositoryIndex(repository, indexFile, entries);
+    }
+
+    public Path getRepository() {
+        return repository;
+    }
+
+    /**
+     * The POM of an artifact as written (not inherited or interpolated), or
+     * null if the local repository does not have it.
+     */
+    public synchronized PomModel get(String groupId, String artifactId, String version) {
+        String path = pomPath(groupId, artifactId, version);
+        Path file = repository.resolve(path);
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException e) {
+            if (entries.remove(path) != null) {
+                dirty = true;
+            }
+            return null;
+        }
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        Entry entry = entries.get(path);
+        if (entry != null && entry.size == size && entry.lastModified == lastModified) {
+            pomsFromIndex++;
+            return entry.pom;
+        }
+        try {
+            PomModel pom = PomReader.read(file, path);
+            entries.put(path, new Entry(size, lastModified, pom));
+            dirty = true;
+            pomsRead++;
+            return pom;
+        } catch (IOException e) {
+            System.err.println("Warning: Failed to read " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Versions of an artifact present in the local repository, in no
+     * particular order.
+     */
+    public List<String> listVersions(String groupId, String artifactId) {
+        Path dir = repository.resolve(groupId.replace('.', '/')).resolve(artifactId);
+        List<String> versions = new ArrayList<>();
+        if (!Files.isDirectory(dir)) {
+            return versions;
+        }
+        try (Stream<Path> children = Files.list(dir)) {
+            children.forEach(child -> {
+                String version = child.getFileName().toString();
+                if (Files.isRegularFile(child.resolve(artifactId + "-" + version + ".pom"))) {
+                    versions.add(version);
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("Warning: Failed to list " + dir + ": " + e.getMessage());
+        }
+        return versions;
+    }
+
+    /**
+     * POMs parsed in this run because they were new or changed.
+     */
+    public synchronized long getPomsRead() {
+        return pomsRead;
+    }
+
+    /**
+     * POMs answered from the index in this run.
+     */
+    public synchronized long getPomsFromIndex() {
+        return pomsFromIndex;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Write the index if anything changed. Failures are reported but never
+     * fatal.
+     */
+    public synchronized void save() {
+        if (!dirty) {
+            return;
+        }
+        try {
+            Files.createDirectories(indexFile.toAbsolutePath().getParent());
+            Path temp = Files.createTempFile(indexFile.toAbsolutePath().getParent(), FILE_NAME, ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(entries.size());
+                for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                    writeString(out, entry.getKey());
+                    out.writeLong(entry.getValue().size);
+                    out.writeLong(entry.getValue().lastModified);
+                    writePom(out, entry.getValue().pom);
+                }
+            }
+            Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            dirty = false;
+        } catch (IOException e) {
+            System.err.println("Warning: Failed to save local repository index: " + e.getMessage());
+        }
+    }
+
+    static String pomPath(String groupId, String artifactId, String version) {
+        return groupId.replace('.', '/') + "/" + artifactId + "/" + version + "/" + artifactId + "-" + version
+                + ".pom";
+    }
+
+    // --------------------------------------------------
+    // Serialization
+    // --------------------------------------------------
+
+    private static void writePom(DataOutputStream out, PomModel pom) throws IOException {
+        writeNullable(out, pom.getGroupId());
+        writeNullable(out, pom.getArtifactId());
+        writeNullable(out, pom.getVersion());
+        writeNullable(out, pom.getPackaging());
+        PomModel.Parent parent = pom.getParent();
+        out.writeByte(parent != null ? 1 : 0);
+        if (parent != null) {
+            writeNullable(out, parent.getGroupId());
+            writeString(out, parent.getArtifactId());
+            writeNullable(out, parent.getVersion());
+        }
+        writeCount(out, pom.getProperties().size());
+        for (Map.Entry<String, String> property : pom.getProperties().entrySet()) {
+            writeString(out, property.getKey());
+            writeString(out, property.getValue());
+        }
+        writeDependencies(out, pom.getDeclaredDependencies());
+        writeDependencies(out, pom.getManagedDependencies());
+    }
+
+    private static PomModel readPom(ByteBuffer in, String path) {
+        PomModel pom = new PomModel(path);
+        pom.setGroupId(readNullable(in));
+        pom.setArtifactId(readNullable(in));
+        pom.setVersion(readNullable(in));
+        pom.setPackaging(readNullable(in));
+        if (in.get() != 0) {
+            pom.setParent(new PomModel.Parent(readNullable(in), readString(in), readNullable(in), null));
+        }
+        int propertyCount = Short.toUnsignedInt(in.getShort());
+        Map<String, String> properties = new LinkedHashMap<>();
+        for (int i = 0; i < propertyCount; i++) {
+            properties.put(readString(in), readString(in));
+        }
+        pom.setProperties(properties);
+        List<PomModel.Dependency> declared = readDependencies(in);
+        List<String> keys = new ArrayList<>();
+        for (PomModel.Dependency dependency : declared) {
+            if (!keys.contains(dependency.getKey())) {
+                keys.add(dependency.getKey());
+            }
+        }
+        pom.setDeclaredDependencies(declared);
+        pom.setDependencies(keys);
+        pom.setManagedDependencies(readDependencies(in));
+        return pom;
+    }
+
+    private static void writeDependencies(DataOutputStream out, List<PomModel.Dependency> dependencies)
+            throws IOException {
+        writeCount(out, dependencies.size());
+        for (PomModel.Dependency dependency : dependencies) {
+            writeString(out, dependency.getGroupId());
+            writeString(out, dependency.getArtifactId());
+            writeNullable(out, dependency.getVersion());
+            writeNullable(out, dependency.getScope());
+            writeNullable(out, dependency.getType());
+            out.writeByte(dependency.isOptional() ? 1 : 0);
+        }
+    }
+
+    private static List<PomModel.Dependency> readDependencies(ByteBuffer in) {
+        int count = Short.toUnsignedInt(in.getShort());
+        List<PomModel.Dependency> dependencies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            dependencies.add(new PomModel.Dependency(readString(in), readString(in), readNullable(in),
+                    readNullable(in), readNullable(in), in.get() != 0));
+        }
+        return dependencies;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeCount(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeShort(NULL_LENGTH);
+        } else {
+            writeString(out, value);
+        }
+    }
+
+    private static void writeCount(DataOutputStream out, int count) throws IOException {
+        if (count >= NULL_LENGTH) {
+            throw new IOException("Local repository index entry too large: " + count);
+        }
+        out.writeShort(count);
+    }
+
+    private static String readString(ByteBuffer in) {
+        String value = readNullable(in);
+        if (value == null) {
+            throw new IllegalArgumentException("Unexpected null string");
+        }
+        return value;
+    }
+
+    private static String readNullable(ByteBuffer in) {
+        int length = Short.toUnsignedInt(in.getShort());
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,128 @@
+package com.rb.repoinsight.scan.maven;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.rb.repoinsight.scan.index.IndexedFile;
+import com.rb.repoinsight.scan.index.RepoFileIndex;
+
+/**
+ * Effective {@link PomModel}s of the POMs in a repository, each read at most
+ * once per run.
+ *
+ * A model inherits from its parent (see {@link PomInheritance}) when the
+ * parent POM is found in the repository at the parent's
+ * {@code relativePath} (default {@code ../pom.xml}) and its coordinates
+ * match. Parents outside the repository are only recorded as coordinates. Use
+ * {@link RepoFileIndex#getPoms()} to share one cache between analyzers.
+ */
+public class PomCache {
+
+    private final RepoFileIndex index;
+    private final Map<String, PomModel> models = new HashMap<>();
+    private final Set<String> resolving = new HashSet<>();
+
+    public PomCache(RepoFileIndex index) {
+        this.index = index;
+    }
+
+    /**
+     * The root {@code pom.xml}, or null if the repository has none.
+     */
+    public PomModel getRoot() {
+        return get("pom.xml");
+    }
+
+    /**
+     * The effective model of a POM, or null if there is no such file or it
+     * cannot be read.
+     *
+     * @param relativePath Path of the POM relative to the repository root
+     */
+    public synchronized PomModel get(String relativePath) {
+        if (models.containsKey(relativePath)) {
+            return models.get(relativePath);
+        }
+        IndexedFile file = index.getFile(relativePath);
+        if (file == null || !resolving.add(relativePath)) {
+            return null;
+        }
+        PomModel model = null;
+        try {
+            PomModel pom = PomReader.read(file.getPath(), relativePath);
+            model = PomInheritance.inherit(pom, findParent(pom));
+        } catch (IOException e) {
+            System.err.println("Warning: Failed to read " + relativePath + ": " + e.getMessage());
+        } finally {
+            resolving.remove(relativePath);
+        }
+        models.put(relativePath, model);
+        return model;
+    }
+
+    /**
+     * The root POM followed by every module reachable from it through
+     * {@code <modules>}, depth-first. Empty if the repository has no root POM.
+     */
+    public List<PomModel> getProjects() {
+        List<PomModel> projects = new ArrayList<>();
+        collectProjects("pom.xml", new HashSet<>(), projects);
+        return projects;
+    }
+
+    private void collectProjects(String pomPath, Set<String> seen, List<PomModel> projects) {
+        if (!seen.add(pomPath)) {
+            return;
+        }
+        PomModel model = get(pomPath);
+        if (model == null) {
+            return;
+        }
+        projects.add(model);
+        for (String module : model.getModules()) {
+            String modulePom = locatePom(model.getDirectory(), module);
+            if (modulePom != null) {
+                collectProjects(modulePom, seen, projects);
+            }
+        }
+    }
+
+    /**
+     * Resolve a module or parent reference (a directory or a POM file)
+     * against a directory, as a path relative to the repository root.
+     */
+    private String locatePom(String dir, String reference) {
+        String path = index.toRelativePath(index.getRoot().resolve(dir).resolve(reference));
+        if (path == null) {
+            return null;
+        }
+        if (index.containsDirectory(path) || path.isEmpty()) {
+            return path.isEmpty() ? "pom.xml" : path + "/pom.xml";
+        }
+        return path;
+    }
+
+    // --------------------------------------------------
+    // Inheritance
+    // --------------------------------------------------
+
+    private PomModel findParent(PomModel pom) {
+        PomModel.Parent declared = pom.getParent();
+        if (declared == null || "".equals(declared.getRelativePath())) {
+            return null;
+        }
+        String reference = declared.getRelativePath() != null ? declared.getRelativePath() : "../pom.xml";
+        String parentPath = locatePom(pom.getDirectory(), reference);
+        PomModel parent = parentPath != null ? get(parentPath) : null;
+        if (parent == null || !declared.getArtifactId().equals(parent.getArtifactId())
+                || (declared.getGroupId() != null && !declared.getGroupId().equals(parent.getGroupId()))) {
+            return null;
+        }
+        return parent;
+    }
+}
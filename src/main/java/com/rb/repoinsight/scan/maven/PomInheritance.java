@@ -0,0 +1,159 @@
+package com.rb.repoinsight.scan.maven;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds effective {@link PomModel}s: parent inheritance followed by
+ * interpolation of {@code ${...}} references, shared by the POMs of the
+ * repository and those of the local Maven repository.
+ *
+ * A model inherits groupId and version (from the {@code <parent>}
+ * coordinates when the parent model is unknown), properties, dependencies,
+ * dependency management, plugins and the source directory. Packaging and
+ * modules are not inherited, as in Maven.
+ */
+final class PomInheritance {
+
+    /** Nesting bound for properties referring to other properties */
+    private static final int MAX_INTERPOLATION_DEPTH = 8;
+
+    private PomInheritance() {
+    }
+
+    /**
+     * @param pom The POM as read
+     * @param parent The effective model of its parent, or null if unknown
+     */
+    static PomModel inherit(PomModel pom, PomModel parent) {
+        PomModel.Parent declared = pom.getParent();
+
+        PomModel effective = new PomModel(pom.getPath());
+        effective.setParent(declared);
+        effective.setPackaging(pom.getPackaging());
+        effective.setGroupId(pom.getGroupId() != null || declared == null ? pom.getGroupId() : declared.getGroupId());
+        effective.setArtifactId(pom.getArtifactId());
+        effective.setVersion(pom.getVersion() != null || declared == null ? pom.getVersion() : declared.getVersion());
+
+        Map<String, String> properties = new LinkedHashMap<>();
+        List<PomModel.Dependency> declaredDependencies = new ArrayList<>();
+        Map<String, PomModel.Dependency> managed = new LinkedHashMap<>();
+        Set<String> plugins = new LinkedHashSet<>();
+        String sourceDirectory = pom.getSourceDirectory();
+        if (parent != null) {
+            properties.putAll(parent.getProperties());
+            declaredDependencies.addAll(parent.getDeclaredDependencies());
+            for (PomModel.Dependency dependency : parent.getManagedDependencies()) {
+                managed.put(managementKey(dependency), dependency);
+            }
+            plugins.addAll(parent.getPlugins());
+            if (sourceDirectory == null) {
+                sourceDirectory = parent.getSourceDirectory();
+            }
+        }
+        properties.putAll(pom.getProperties());
+        effective.setProperties(properties);
+
+        effective.setGroupId(interpolate(effective.getGroupId(), effective));
+        effective.setVersion(interpolate(effective.getVersion(), effective));
+        effective.setArtifactId(interpolate(effective.getArtifactId(), effective));
+        effective.setPackaging(interpolate(effective.getPackaging(), effective));
+        effective.setSourceDirectory(interpolate(sourceDirectory, effective));
+        List<String> modules = new ArrayList<>();
+        for (String module : pom.getModules()) {
+            modules.add(interpolate(module, effective));
+        }
+        effective.setModules(modules);
+
+        for (PomModel.Dependency dependency : pom.getDeclaredDependencies()) {
+            declaredDependencies.add(interpolate(dependency, effective));
+        }
+        effective.setDeclaredDependencies(declaredDependencies);
+        Set<String> keys = new LinkedHashSet<>();
+        for (PomModel.Dependency dependency : declaredDependencies) {
+            keys.add(dependency.getKey());
+        }
+        effective.setDependencies(new ArrayList<>(keys));
+        for (PomModel.Dependency dependency : pom.getManagedDependencies()) {
+            PomModel.Dependency interpolated = interpolate(dependency, effective);
+            managed.put(managementKey(interpolated), interpolated);
+        }
+        effective.setManagedDependencies(new ArrayList<>(managed.values()));
+
+        for (String plugin : pom.getPlugins()) {
+            plugins.add(interpolate(plugin, effective));
+        }
+        effective.setPlugins(new ArrayList<>(plugins));
+        return effective;
+    }
+
+    private static String managementKey(PomModel.Dependency dependency) {
+        return dependency.getKey() + ":" + (dependency.getType() != null ? dependency.getType() : "jar");
+    }
+
+    private static PomModel.Dependency interpolate(PomModel.Dependency dependency, PomModel model) {
+        return new PomModel.Dependency(interpolate(dependency.getGroupId(), model),
+                interpolate(dependency.getArtifactId(), model), interpolate(dependency.getVersion(), model),
+                interpolate(dependency.getScope(), model), interpolate(dependency.getType(), model),
+                dependency.isOptional());
+    }
+
+    /**
+     * Replace {@code ${...}} references to the project's coordinates and
+     * properties. Unknown references are left as they are.
+     */
+    static String interpolate(String value, PomModel model) {
+        if (value == null) {
+            return null;
+        }
+        String result = value;
+        for (int depth = 0; depth < MAX_INTERPOLATION_DEPTH && result.contains("${"); depth++) {
+            String next = interpolateOnce(result, model);
+            if (next.equals(result)) {
+                break;
+            }
+            result = next;
+        }
+        return result;
+    }
+
+    private static String interpolateOnce(String value, PomModel model) {
+        StringBuilder result = new StringBuilder(value.length());
+        int pos = 0;
+        while (pos < value.length()) {
+            int start = value.indexOf("${", pos);
+            int end = start < 0 ? -1 : value.indexOf('}', start + 2);
+            if (end < 0) {
+                result.append(value, pos, value.length());
+                break;
+            }
+            result.append(value, pos, start);
+            String replacement = lookup(value.substring(start + 2, end), model);
+            result.append(replacement != null ? replacement : value.substring(start, end + 1));
+            pos = end + 1;
+        }
+        return result.toString();
+    }
+
+    private static String lookup(String name, PomModel model) {
+        PomModel.Parent parent = model.getParent();
+        switch (name) {
+            case "project.groupId", "pom.groupId", "groupId":
+                return model.getGroupId();
+            case "project.artifactId", "pom.artifactId", "artifactId":
+                return model.getArtifactId();
+            case "project.version", "pom.version", "version":
+                return model.getVersion();
+            case "project.parent.groupId":
+                return parent != null ? parent.getGroupId() : null;
+            case "project.parent.version":
+                return parent != null ? parent.getVersion() : null;
+            default:
+                return model.getProperties().get(name);
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.rb.repoinsight.scan.maven;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The parts of a {@code pom.xml} the analyzers use: coordinates, packaging,
+ * modules, source directory, dependencies and dependency management, build
+ * plugins and properties.
+ *
+ * Models returned by {@link PomCache} are effective: fields missing from the
+ * POM are inherited from its parent when the parent is part of the
+ * repository, and {@code ${...}} references are interpolated.
+ */
+public class PomModel {
+
+    /** Maven's default packaging */
+    public static final String DEFAULT_PACKAGING = "jar";
+
+    private final String path;
+    private String groupId;
+    private String artifactId;
+    private String version;
+    private String packaging;
+    private Parent parent;
+    private String sourceDirectory;
+    private List<String> modules = new ArrayList<>();
+    private List<String> dependencies = new ArrayList<>();
+    private List<Dependency> declaredDependencies = new ArrayList<>();
+    private List<Dependency> managedDependencies = new ArrayList<>();
+    private List<String> plugins = new ArrayList<>();
+    private Map<String, String> properties = new LinkedHashMap<>();
+
+    /**
+     * @param path Path of the POM relative to the repository root
+     */
+    public PomModel(String path) {
+        this.path = path;
+    }
+
+    /**
+     * The coordinates a POM declares in its {@code <parent>} element.
+     */
+    public static class Parent {
+
+        private final String groupId;
+        private final String artifactId;
+        private final String version;
+        private final String relativePath;
+
+        public Parent(String groupId, String artifactId, String version, String relativePath) {
+            this.groupId = groupId;
+            this.artifactId = artifactId;
+            this.version = version;
+            this.relativePath = relativePath;
+        }
+
+        public String getGroupId() {
+            return groupId;
+        }
+
+        public String getArtifactId() {
+            return artifactId;
+        }
+
+        public String getVersion() {
+            return version;
+        }
+
+        /**
+         * The declared {@code <relativePath>}: null if absent, empty if the
+         * parent must not be looked up in the repository.
+         */
+        public String getRelativePath() {
+            return relativePath;
+        }
+
+        /**
+         * The parent as {@code groupId:artifactId}.
+         */
+        public String getKey() {
+            return groupId + ":" + artifactId;
+        }
+    }
+
+    /**
+     * A {@code <dependency>} of the dependencies or dependency management
+     * section.
+     */
+    public static class Dependency {
+
+        private final String groupId;
+        private final String artifactId;
+        private final String version;
+        private final String scope;
+        private final String type;
+        private final boolean optional;
+
+        public Dependency(String groupId, String artifactId, String version, String scope, String type,
+                boolean optional) {
+            this.groupId = groupId;
+            this.artifactId = artifactId;
+            this.version = version;
+            this.scope = scope;
+            this.type = type;
+            this.optional = optional;
+        }
+
+        public String getGroupId() {
+            return groupId;
+        }
+
+        public String getArtifactId() {
+            return artifactId;
+        }
+
+        /**
+         * The declared version, or null if it comes from dependency management.
+         */
+        public String getVersion() {
+            return version;
+        }
+
+        /**
+         * The declared scope, or null for the default ({@code compile}).
+         */
+        public String getScope() {
+            return scope;
+        }
+
+        /**
+         * The declared type, or null for the default ({@code jar}).
+         */
+        public String getType() {
+            return type;
+        }
+
+        public boolean isOptional() {
+            return optional;
+        }
+
+        /**
+         * The dependency as {@code groupId:artifactId}.
+         */
+        public String getKey() {
+            return groupId + ":" + artifactId;
+        }
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Directory containing the POM relative to the repository root, "" for
+     * the root.
+     */
+    public String getDirectory() {
+        int slash = path.lastIndexOf('/');
+        return slash < 0 ? "" : path.substring(0, slash);
+    }
+
+    public String getGroupId() {
+        return groupId;
+    }
+
+    public void setGroupId(String groupId) {
+        this.groupId = groupId;
+    }
+
+    public String getArtifactId() {
+        return artifactId;
+    }
+
+    public void setArtifactId(String artifactId) {
+        this.artifactId = artifactId;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
+    /**
+     * The declared packaging, or null if the POM (and its parents) declare
+     * none, which Maven treats as {@link #DEFAULT_PACKAGING}.
+     */
+    public String getPackaging() {
+        return packaging;
+    }
+
+    public void setPackaging(String packaging) {
+        this.packaging = packaging;
+    }
+
+    public Parent getParent() {
+        return parent;
+    }
+
+    public void setParent(Parent parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * The {@code <build><sourceDirectory>}, relative to the POM's directory
+     * unless absolute, or null if not configured.
+     */
+    public String getSourceDirectory() {
+        return sourceDirectory;
+    }
+
+    public void setSourceDirectory(String sourceDirectory) {
+        this.sourceDirectory = sourceDirectory;
+    }
+
+    public List<String> getModules() {
+        return modules;
+    }
+
+    public void setModules(List<String> modules) {
+        this.modules = modules;
+    }
+
+    /**
+     * Declared dependencies (not dependency management) as
+     * {@code groupId:artifactId}, without duplicates.
+     */
+    public List<String> getDependencies() {
+        return dependencies;
+    }
+
+    public void setDependencies(List<String> dependencies) {
+        this.dependencies = dependencies;
+    }
+
+    /**
+     * Declared dependencies with their version, scope and type.
+     */
+    public List<Dependency> getDeclaredDependencies() {
+        return declaredDependencies;
+    }
+
+    public void setDeclaredDependencies(List<Dependency> declaredDependencies) {
+        this.declaredDependencies = declaredDependencies;
+    }
+
+    /**
+     * Entries of {@code <dependencyManagement>}, including {@code import}
+     * scoped BOMs.
+     */
+    public List<Dependency> getManagedDependencies() {
+        return managedDependencies;
+    }
+
+    public void setManagedDependencies(List<Dependency> managedDependencies) {
+        this.managedDependencies = managedDependencies;
+    }
+
+    /**
+     * Build plugins as {@code groupId:artifactId}.
+     */
+    public List<String> getPlugins() {
+        return plugins;
+    }
+
+    public void setPlugins(List<String> plugins) {
+        this.plugins = plugins;
+    }
+
+    public Map<String, String> getProperties() {
+        return Collections.unmodifiableMap(properties);
+    }
+
+    public void setProperties(Map<String, String> properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * The project as {@code groupId:artifactId}.
+     */
+    public String getKey() {
+        return groupId + ":" + artifactId;
+    }
+}
@@ -0,0 +1,211 @@
+package com.rb.repoinsight.scan.maven;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.rb.repoinsight.profile.PomParseEvent;
+
+/**
+ * Reads a {@code pom.xml} into a {@link PomModel} in one streaming pass.
+ *
+ * Only elements at the paths the model needs are kept; everything else is
+ * skipped without being materialized. DTDs and external entities are
+ * disabled. The model is the POM as written: inheritance and interpolation
+ * are left to {@link PomInheritance}.
+ */
+final class PomReader {
+
+    private static final String DEFAULT_PLUGIN_GROUP = "org.apache.maven.plugins";
+
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    private PomReader() {
+    }
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    /**
+     * Read a POM. A malformed POM yields what was read before the error.
+     *
+     * @param relativePath Path of the POM relative to the repository root
+     */
+    static PomModel read(Path file, String relativePath) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return read(in, relativePath);
+        }
+    }
+
+    static PomModel read(InputStream in, String relativePath) {
+        PomParseEvent event = new PomParseEvent();
+        event.begin();
+        PomModel model = parse(in, relativePath);
+        event.end();
+        if (event.shouldCommit()) {
+            event.setPom(relativePath);
+            event.commit();
+        }
+        return model;
+    }
+
+    private static PomModel parse(InputStream in, String relativePath) {
+        Builder builder = new Builder(new PomModel(relativePath));
+        XMLStreamReader reader = null;
+        try {
+            reader = FACTORY.createXMLStreamReader(in);
+            List<String> stack = new ArrayList<>();
+            StringBuilder text = new StringBuilder();
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        stack.add(reader.getLocalName());
+                        text.setLength(0);
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                        text.append(reader.getText());
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        builder.end(stack, text.toString().trim());
+                        stack.remove(stack.size() - 1);
+                        text.setLength(0);
+                        break;
+                    default:
+                        break;
+                }
+            }
+        } catch (XMLStreamException e) {
+            System.err.println("Warning: Failed to parse " + relativePath + ": " + e.getMessage());
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException ignored) {
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Collects element values by their path below {@code <project>}.
+     */
+    private static final class Builder {
+
+        private final PomModel model;
+        private final List<String> modules = new ArrayList<>();
+        private final List<PomModel.Dependency> dependencies = new ArrayList<>();
+        private final List<PomModel.Dependency> managed = new ArrayList<>();
+        private final Set<String> plugins = new LinkedHashSet<>();
+        private final Map<String, String> properties = new LinkedHashMap<>();
+        private final Map<String, String> parent = new LinkedHashMap<>();
+        private final Map<String, String> fields = new HashMap<>();
+
+        Builder(PomModel model) {
+            this.model = model;
+        }
+
+        void end(List<String> stack, String value) {
+            int depth = stack.size();
+            if (depth < 2 || !"project".equals(stack.get(0))) {
+                return;
+            }
+            String name = stack.get(depth - 1);
+            String section = stack.get(1);
+            if (depth == 2) {
+                switch (name) {
+                    case "groupId" -> model.setGroupId(value);
+                    case "artifactId" -> model.setArtifactId(value);
+                    case "version" -> model.setVersion(value);
+                    case "packaging" -> model.setPackaging(value);
+                    default -> {
+                    }
+                }
+            } else if ("parent".equals(section) && depth == 3) {
+                parent.put(name, value);
+            } else if ("modules".equals(section) && depth == 3 && "module".equals(name)) {
+                if (!value.isEmpty()) {
+                    modules.add(value);
+                }
+            } else if ("properties".equals(section) && depth == 3) {
+                properties.put(name, value);
+            } else if ("dependencies".equals(section) && depth >= 3 && "dependency".equals(stack.get(2))) {
+                if (depth == 3) {
+                    addDependency(dependencies);
+                } else if (depth == 4) {
+                    fields.put(name, value);
+                }
+            } else if ("dependencyManagement".equals(section) && depth >= 4 && "dependencies".equals(stack.get(2))
+                    && "dependency".equals(stack.get(3))) {
+                if (depth == 4) {
+                    addDependency(managed);
+                } else if (depth == 5) {
+                    fields.put(name, value);
+                }
+            } else if ("build".equals(section)) {
+                if (depth == 3 && "sourceDirectory".equals(name)) {
+                    model.setSourceDirectory(value);
+                } else if (depth >= 4 && "plugins".equals(stack.get(2)) && "plugin".equals(stack.get(3))) {
+                    if (depth == 4) {
+                        String group = fields.getOrDefault("groupId", DEFAULT_PLUGIN_GROUP);
+                        if (fields.containsKey("artifactId")) {
+                            plugins.add(group + ":" + fields.get("artifactId"));
+                        }
+                        fields.clear();
+                    } else if (depth == 5) {
+                        fields.put(name, value);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Add the {@code <dependency>} whose child elements were collected.
+         */
+        private void addDependency(List<PomModel.Dependency> target) {
+            if (fields.containsKey("groupId") && fields.containsKey("artifactId")) {
+                target.add(new PomModel.Dependency(fields.get("groupId"), fields.get("artifactId"),
+                        fields.get("version"), fields.get("scope"), fields.get("type"),
+                        "true".equals(fields.get("optional"))));
+            }
+            fields.clear();
+        }
+
+        PomModel build() {
+            if (parent.containsKey("artifactId")) {
+                model.setParent(new PomModel.Parent(parent.get("groupId"), parent.get("artifactId"),
+                        parent.get("version"), parent.get("relativePath")));
+            }
+            model.setModules(modules);
+            Set<String> keys = new LinkedHashSet<>();
+            for (PomModel.Dependency dependency : dependencies) {
+                keys.add(dependency.getKey());
+            }
+            model.setDependencies(new ArrayList<>(keys));
+            model.setDeclaredDependencies(dependencies);
+            model.setManagedDependencies(managed);
+            model.setPlugins(new ArrayList<>(plugins));
+            model.setProperties(properties);
+            return model;
+        }
+    }
+}
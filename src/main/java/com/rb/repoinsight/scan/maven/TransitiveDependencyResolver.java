@@ -0,0 +1,277 @@
+package com.rb.repoinsight.scan.maven;
+
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Resolves the dependencies of a build transitively from the POMs in a
+ * {@link LocalRepositoryIndex}, without network access.
+ *
+ * The graph is walked breadth-first and each {@code groupId:artifactId} is
+ * visited once, which matches Maven's "nearest wins" mediation. Only
+ * {@code compile} and {@code runtime} dependencies that are not optional
+ * are followed. Versions come from the declaration, the project's
+ * dependency management (which, as in Maven, also applies to transitive
+ * dependencies) or the declaring POM's dependency management, including
+ * imported BOMs. When a version cannot be determined, or the exact version
+ * is not in the local repository, the newest version present is used.
+ * Artifacts whose POM is not available are reported but not followed.
+ */
+public class TransitiveDependencyResolver {
+
+    private final LocalRepositoryIndex repository;
+    private final Map<String, PomModel> effectiveModels = new HashMap<>();
+    private final Set<String> resolving = new HashSet<>();
+    private final Set<String> missing = new HashSet<>();
+
+    public TransitiveDependencyResolver(LocalRepositoryIndex repository) {
+        this.repository = repository;
+    }
+
+    private static final class Node {
+        private final PomModel.Dependency dependency;
+        private final String via;
+
+        Node(PomModel.Dependency dependency, String via) {
+            this.dependency = dependency;
+            this.via = via;
+        }
+    }
+
+    /**
+     * @param projects Effective models of the repository's Maven projects
+     * @param otherDependencies Further declared dependencies as {@code groupId:artifactId}
+     *        (such as those of a Gradle build), resolved at their newest local version
+     * @return Each dependency reached only transitively, as {@code groupId:artifactId}, mapped to the
+     *         declared dependency it was reached through, in the order found
+     */
+    public Map<String, String> resolve(List<PomModel> projects, Collection<String> otherDependencies) {
+        Set<String> projectKeys = new HashSet<>();
+        for (PomModel project : projects) {
+            projectKeys.add(project.getKey());
+        }
+
+        Set<String> visited = new HashSet<>();
+        Queue<Node> queue = new ArrayDeque<>();
+        Map<String, PomModel.Dependency> managed = new LinkedHashMap<>();
+        for (PomModel project : projects) {
+            Map<String, PomModel.Dependency> projectManaged = projectManagement(project, projectKeys);
+            projectManaged.forEach(managed::putIfAbsent);
+            for (PomModel.Dependency dependency : project.getDeclaredDependencies()) {
+                if (projectKeys.contains(dependency.getKey())) {
+                    // Sibling modules are part of this build, not the local repository
+                    continue;
+                }
+                PomModel.Dependency withVersion = withManagedVersion(dependency, projectManaged, false);
+                if (visited.add(dependency.getKey()) && isFollowed(dependency)) {
+                    queue.add(new Node(withVersion, dependency.getKey()));
+                }
+            }
+        }
+        for (String key : otherDependencies) {
+            int colon = key.indexOf(':');
+            if (colon > 0 && visited.add(key)) {
+                queue.add(new Node(new PomModel.Dependency(key.substring(0, colon), key.substring(colon + 1),
+                        null, null, null, false), key));
+            }
+        }
+
+        Map<String, String> transitive = new LinkedHashMap<>();
+        while (!queue.isEmpty()) {
+            Node node = queue.remove();
+            PomModel model = effectiveModel(node.dependency.getGroupId(), node.dependency.getArtifactId(),
+                    node.dependency.getVersion());
+            if (model == null) {
+                continue;
+            }
+            Map<String, PomModel.Dependency> nodeManaged = index(model.getManagedDependencies());
+            for (PomModel.Dependency dependency : model.getDeclaredDependencies()) {
+                if (!isFollowed(dependency) || !visited.add(dependency.getKey())) {
+                    continue;
+                }
+                PomModel.Dependency resolved = managed.containsKey(dependency.getKey())
+                        ? withManagedVersion(dependency, managed, true)
+                        : withManagedVersion(dependency, nodeManaged, false);
+                transitive.put(dependency.getKey(), node.via);
+                queue.add(new Node(resolved, node.via));
+            }
+        }
+        return transitive;
+    }
+
+    /**
+     * Artifacts reached whose POM is not in the local repository.
+     */
+    public Set<String> getMissing() {
+        return missing;
+    }
+
+    /**
+     * Dependency management of a project, including what its parent outside
+     * the repository (such as a framework's parent POM) manages.
+     */
+    private Map<String, PomModel.Dependency> projectManagement(PomModel project, Set<String> projectKeys) {
+        Map<String, PomModel.Dependency> managed = new LinkedHashMap<>();
+        PomModel.Parent parent = project.getParent();
+        if (parent != null && parent.getGroupId() != null && !projectKeys.contains(parent.getKey())) {
+            PomModel external = effectiveModel(parent.getGroupId(), parent.getArtifactId(), parent.getVersion());
+            if (external != null) {
+                managed.putAll(index(external.getManagedDependencies()));
+            }
+        }
+        managed.putAll(index(withImports(project.getManagedDependencies())));
+        return managed;
+    }
+
+    /**
+     * The effective model of an artifact in the local repository, or null if
+     * it is not available.
+     */
+    private PomModel effectiveModel(String groupId, String artifactId, String version) {
+        String resolvedVersion = localVersion(groupId, artifactId, version);
+        if (resolvedVersion == null) {
+            missing.add(groupId + ":" + artifactId + (version != null ? ":" + version : ""));
+            return null;
+        }
+        String key = groupId + ":" + artifactId + ":" + resolvedVersion;
+        if (effectiveModels.containsKey(key)) {
+            return effectiveModels.get(key);
+        }
+        if (!resolving.add(key)) {
+            return null;
+        }
+        try {
+            PomModel pom = repository.get(groupId, artifactId, resolvedVersion);
+            PomModel effective = null;
+            if (pom != null) {
+                PomModel.Parent parent = pom.getParent();
+                PomModel parentModel = parent != null && parent.getGroupId() != null
+                        ? effectiveModel(parent.getGroupId(), parent.getArtifactId(), parent.getVersion())
+                        : null;
+                effective = PomInheritance.inherit(pom, parentModel);
+                effective.setManagedDependencies(withImports(effective.getManagedDependencies()));
+            }
+            effectiveModels.put(key, effective);
+            return effective;
+        } finally {
+            resolving.remove(key);
+        }
+    }
+
+    /**
+     * Replace {@code import} scoped BOMs with what they manage; explicit
+     * entries take precedence.
+     */
+    private List<PomModel.Dependency> withImports(List<PomModel.Dependency> managed) {
+        Map<String, PomModel.Dependency> result = new LinkedHashMap<>();
+        List<PomModel.Dependency> imports = new ArrayList<>();
+        for (PomModel.Dependency dependency : managed) {
+            if ("import".equals(dependency.getScope()) && "pom".equals(dependency.getType())) {
+                imports.add(dependency);
+            } else {
+                result.put(dependency.getKey(), dependency);
+            }
+        }
+        for (PomModel.Dependency bom : imports) {
+            PomModel model = effectiveModel(bom.getGroupId(), bom.getArtifactId(), bom.getVersion());
+            if (model != null) {
+                for (PomModel.Dependency dependency : model.getManagedDependencies()) {
+                    result.putIfAbsent(dependency.getKey(), dependency);
+                }
+            }
+        }
+        return new ArrayList<>(result.values());
+    }
+
+    /**
+     * The version to read from the local repository: the requested one if
+     * present, otherwise the newest available; null if there is none.
+     */
+    private String localVersion(String groupId, String artifactId, String version) {
+        if (isExactVersion(version) && repository.get(groupId, artifactId, version) != null) {
+            return version;
+        }
+        String newest = null;
+        for (String candidate : repository.listVersions(groupId, artifactId)) {
+            if (newest == null || compareVersions(candidate, newest) > 0) {
+                newest = candidate;
+            }
+        }
+        return newest;
+    }
+
+    private static boolean isExactVersion(String version) {
+        return version != null && !version.isEmpty() && !version.contains("${")
+                && version.indexOf('[') < 0 && version.indexOf('(') < 0 && version.indexOf(',') < 0;
+    }
+
+    private static boolean isFollowed(PomModel.Dependency dependency) {
+        String scope = dependency.getScope();
+        return !dependency.isOptional() && (scope == null || "compile".equals(scope) || "runtime".equals(scope));
+    }
+
+    /**
+     * @param override Whether the managed version replaces a declared one,
+     *        as the project's management does for transitive dependencies
+     */
+    private static PomModel.Dependency withManagedVersion(PomModel.Dependency dependency,
+            Map<String, PomModel.Dependency> managed, boolean override) {
+        PomModel.Dependency management = managed.get(dependency.getKey());
+        if (management == null || management.getVersion() == null
+                || (!override && dependency.getVersion() != null)) {
+            return dependency;
+        }
+        return new PomModel.Dependency(dependency.getGroupId(), dependency.getArtifactId(),
+                management.getVersion(), dependency.getScope(), dependency.getType(), dependency.isOptional());
+    }
+
+    private static Map<String, PomModel.Dependency> index(List<PomModel.Dependency> dependencies) {
+        Map<String, PomModel.Dependency> result = new LinkedHashMap<>();
+        for (PomModel.Dependency dependency : dependencies) {
+            result.putIfAbsent(dependency.getKey(), dependency);
+        }
+        return result;
+    }
+
+    /**
+     * Compare versions numerically by their dot or dash separated parts;
+     * numeric parts sort after textual ones so releases beat qualifiers
+     * such as {@code RC1}.
+     */
+    static int compareVersions(String a, String b) {
+        String[] left = a.split("[.\\-]");
+        String[] right = b.split("[.\\-]");
+        for (int i = 0; i < Math.max(left.length, right.length); i++) {
+            String l = i < left.length ? left[i] : "";
+            String r = i < right.length ? right[i] : "";
+            boolean lNumeric = !l.isEmpty() && l.chars().allMatch(Character::isDigit);
+            boolean rNumeric = !r.isEmpty() && r.chars().allMatch(Character::isDigit);
+            int result;
+            if (lNumeric && rNumeric) {
+                result = new BigInteger(l).compareTo(new BigInteger(r));
+            } else if (l.isEmpty()) {
+                // 1.0 < 1.0.1, but 1.0 > 1.0-RC1
+                result = rNumeric ? -1 : 1;
+            } else if (r.isEmpty()) {
+                result = lNumeric ? 1 : -1;
+            } else if (lNumeric != rNumeric) {
+                result = lNumeric ? 1 : -1;
+            } else {
+                result = l.compareToIgnoreCase(r);
+            }
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    }
+}
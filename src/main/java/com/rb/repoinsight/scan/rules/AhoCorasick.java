@@ -0,0 +1,159 @@
+package com.rb.repoinsight.scan.rules;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * ASCII case-insensitive Aho-Corasick automaton over a fixed set of literals.
+ *
+ * The trie is compiled into a full transition table over the 128 ASCII
+ * characters, so scanning costs one array lookup per input character no
+ * matter how many literals are loaded. Non-ASCII input never matches a
+ * literal and resets the automaton, mirroring {@code CASE_INSENSITIVE}
+ * without {@code UNICODE_CASE}. Text can be scanned as characters or as
+ * raw UTF-8 bytes.
+ */
+final class AhoCorasick {
+
+    private static final int ALPHABET = 128;
+
+    private final int[] transitions;
+    private final int[][] outputs;
+    private final int[] lengths;
+
+    /**
+     * Receives every occurrence of every literal, in order of end position.
+     */
+    interface MatchListener {
+        /**
+         * @return Exclusive end position up to which scanning should continue;
+         *         return the current end (or less) to stop
+         */
+        int onMatch(int literal, int start, int end);
+    }
+
+    AhoCorasick(List<String> literals) {
+        List<int[]> trie = new ArrayList<>();
+        List<List<Integer>> terminal = new ArrayList<>();
+        trie.add(newState());
+        terminal.add(new ArrayList<>());
+        lengths = new int[literals.size()];
+
+        for (int id = 0; id < literals.size(); id++) {
+            String literal = literals.get(id);
+            lengths[id] = literal.length();
+            int state = 0;
+            for (int i = 0; i < literal.length(); i++) {
+                int c = fold(literal.charAt(i));
+                if (trie.get(state)[c] < 0) {
+                    trie.get(state)[c] = trie.size();
+                    trie.add(newState());
+                    terminal.add(new ArrayList<>());
+                }
+                state = trie.get(state)[c];
+            }
+            terminal.get(state).add(id);
+        }
+
+        int stateCount = trie.size();
+        transitions = new int[stateCount * ALPHABET];
+        outputs = new int[stateCount][];
+        int[] failure = new int[stateCount];
+
+        // Breadth-first: a state's failure target is always finished before the state itself
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int c = 0; c < ALPHABET; c++) {
+            int next = trie.get(0)[c];
+            if (next < 0) {
+                transitions[c] = 0;
+            } else {
+                transitions[c] = next;
+                failure[next] = 0;
+                queue.add(next);
+            }
+        }
+        outputs[0] = toArray(terminal.get(0));
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            outputs[state] = concat(toArray(terminal.get(state)), outputs[failure[state]]);
+            for (int c = 0; c < ALPHABET; c++) {
+                int next = trie.get(state)[c];
+                int fallback = transitions[failure[state] * ALPHABET + c];
+                if (next < 0) {
+                    transitions[state * ALPHABET + c] = fallback;
+                } else {
+                    transitions[state * ALPHABET + c] = next;
+                    failure[next] = fallback;
+                    queue.add(next);
+                }
+            }
+        }
+    }
+
+    int literalLength(int literal) {
+        return lengths[literal];
+    }
+
+    /**
+     * Report all literal occurrences in {@code text[from, to)}.
+     */
+    void scan(CharSequence text, int from, int to, MatchListener listener) {
+        int state = 0;
+        int limit = to;
+        for (int i = from; i < limit; i++) {
+            char c = text.charAt(i);
+            state = c < ALPHABET ? transitions[state * ALPHABET + fold(c)] : 0;
+            for (int literal : outputs[state]) {
+                limit = Math.min(limit, listener.onMatch(literal, i + 1 - lengths[literal], i + 1));
+            }
+        }
+    }
+
+    /**
+     * Report all literal occurrences in {@code bytes[from, to)}. Bytes of
+     * multi-byte UTF-8 sequences are never ASCII, so ASCII literals are found
+     * without decoding.
+     *
+     * @return Position the scan stopped at
+     */
+    int scan(byte[] bytes, int from, int to, MatchListener listener) {
+        int state = 0;
+        int limit = to;
+        int i = from;
+        for (; i < limit; i++) {
+            byte b = bytes[i];
+            state = b >= 0 ? transitions[state * ALPHABET + fold((char) b)] : 0;
+            for (int literal : outputs[state]) {
+                limit = Math.min(limit, listener.onMatch(literal, i + 1 - lengths[literal], i + 1));
+            }
+        }
+        return i;
+    }
+
+    private static int fold(char c) {
+        return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+    }
+
+    private static int[] newState() {
+        int[] state = new int[ALPHABET];
+        Arrays.fill(state, -1);
+        return state;
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int[] concat(int[] a, int[] b) {
+        if (b.length == 0) {
+            return a;
+        }
+        int[] result = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, result, a.length, b.length);
+        return result;
+    }
+}
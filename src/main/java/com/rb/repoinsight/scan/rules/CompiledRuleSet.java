@@ -0,0 +1,756 @@
+package com.rb.repoinsight.scan.rules;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import com.rb.repoinsight.model.HeuristicCost;
+import com.rb.repoinsight.model.RuleConfig;
+import com.rb.repoinsight.model.RuleCost;
+import com.rb.repoinsight.scan.cache.CachedFileResult;
+
+/**
+ * All heuristics of a rule set compiled once into combined matchers.
+ *
+ * Heuristics that are literals or small alternations of literals
+ * ({@code 5432}, {@code (9092|kafka)}, {@code jdbc:(postgresql|mysql)}) are
+ * loaded into one {@link AhoCorasick} automaton. The remaining regular
+ * expressions are joined into a single alternation that finds candidate
+ * positions, where each heuristic is then confirmed with its own pattern.
+ * A file is therefore scanned once for all literals and once for all regexes,
+ * instead of once per heuristic.
+ *
+ * Before any regex runs, the raw bytes are searched for the literals each
+ * regex requires (see {@link RequiredLiterals}); regexes whose literals are
+ * all absent are skipped for that file.
+ *
+ * With {@link RegexEngine#LINEAR}, regexes that {@link LinearRegex} supports
+ * are matched in linear time instead of by {@code java.util.regex}. Every
+ * file is matched under a deadline, which also interrupts backtracking
+ * {@code java.util.regex} matchers.
+ *
+ * Literals and linear regexes run directly on the raw UTF-8 bytes, with ASCII
+ * case folding, and only the evidence of a match is decoded. Content is
+ * decoded to text only when a heuristic that needs {@code java.util.regex}
+ * survives the prefilter.
+ *
+ * With {@link RuleMatchOptions#setProfile profiling} enabled, the cost of
+ * every heuristic is recorded (see {@link #getCosts}).
+ *
+ * Results are identical to running every heuristic separately with
+ * {@code Pattern.compile(regex, CASE_INSENSITIVE).matcher(content).find()}:
+ * each rule reports the leftmost match of its first matching heuristic.
+ */
+public final class CompiledRuleSet {
+
+    private static final int FLAGS = Pattern.CASE_INSENSITIVE;
+
+    private final int ruleCount;
+    private final String[] ruleNames;
+    /** Heuristic ids of each rule, in declaration order */
+    private final int[][] ruleHeuristics;
+    private final int[] heuristicRule;
+    private final String[] heuristicSources;
+
+    private final AhoCorasick literals;
+    /** Owning heuristic and preference order of each automaton literal */
+    private final int[] literalHeuristic;
+    private final int[] literalOrder;
+    private final int maxLiteralLength;
+
+    private final Pattern combined;
+    private final int[] combinedHeuristics;
+    private final int[] standaloneHeuristics;
+    private final Pattern[] patterns;
+    private final LinearRegex[] linearPatterns;
+    private final int[] linearHeuristics;
+    private final long matchTimeoutMillis;
+
+    private final AhoCorasick prefilter;
+    private final int[] prefilterHeuristic;
+    private final boolean[] hasPrefilter;
+    private final AtomicLongArray regexRuns;
+    private final AtomicLongArray regexSkips;
+    private final boolean[] isLiteral;
+    /** Heuristics matched by {@code java.util.regex} on decoded text rather than on bytes */
+    private final boolean[] matchesText;
+    /** Null unless profiling is enabled */
+    private final RuleProfiler profiler;
+    private final ThreadLocal<WindowScratch> scratch;
+
+    private CompiledRuleSet(Builder builder) {
+        this.ruleCount = builder.ruleHeuristics.size();
+        this.ruleNames = builder.ruleNames.toArray(new String[0]);
+        this.ruleHeuristics = builder.ruleHeuristics.toArray(new int[0][]);
+        this.patterns = builder.patterns.toArray(new Pattern[0]);
+        this.heuristicSources = builder.sources.toArray(new String[0]);
+        this.heuristicRule = new int[patterns.length];
+        for (int rule = 0; rule < ruleCount; rule++) {
+            for (int h : ruleHeuristics[rule]) {
+                heuristicRule[h] = rule;
+            }
+        }
+        this.linearPatterns = builder.linearPatterns.toArray(new LinearRegex[0]);
+        this.linearHeuristics = toIntArray(builder.linear);
+        this.matchTimeoutMillis = builder.options.getMatchTimeoutMillis();
+
+        this.literals = new AhoCorasick(builder.literals);
+        this.literalHeuristic = toIntArray(builder.literalHeuristic);
+        this.literalOrder = toIntArray(builder.literalOrder);
+        int maxLength = 0;
+        for (String literal : builder.literals) {
+            maxLength = Math.max(maxLength, literal.length());
+        }
+        this.maxLiteralLength = maxLength;
+
+        Pattern combinedPattern = null;
+        List<Integer> combinable = builder.combinable;
+        if (!combinable.isEmpty()) {
+            StringBuilder alternation = new StringBuilder();
+            for (int h : combinable) {
+                if (alternation.length() > 0) {
+                    alternation.append('|');
+                }
+                alternation.append("(?:").append(patterns[h].pattern()).append(')');
+            }
+            try {
+                combinedPattern = Pattern.compile(alternation.toString(), FLAGS);
+            } catch (PatternSyntaxException e) {
+                builder.standalone.addAll(combinable);
+                combinable = List.of();
+            }
+        }
+        this.combined = combinedPattern;
+        this.combinedHeuristics = toIntArray(combinable);
+        this.standaloneHeuristics = toIntArray(builder.standalone);
+
+        this.prefilter = new AhoCorasick(builder.prefilterLiterals);
+        this.prefilterHeuristic = toIntArray(builder.prefilterHeuristic);
+        this.hasPrefilter = new boolean[patterns.length];
+        for (int h : prefilterHeuristic) {
+            hasPrefilter[h] = true;
+        }
+        this.regexRuns = new AtomicLongArray(ruleCount);
+        this.regexSkips = new AtomicLongArray(ruleCount);
+        this.isLiteral = new boolean[patterns.length];
+        for (int i = 0; i < isLiteral.length; i++) {
+            isLiteral[i] = builder.literal.get(i);
+        }
+        this.matchesText = new boolean[patterns.length];
+        for (int h : combinedHeuristics) {
+            matchesText[h] = true;
+        }
+        for (int h : standaloneHeuristics) {
+            matchesText[h] = true;
+        }
+        this.profiler = builder.options.isProfile() ? new RuleProfiler(patterns.length) : null;
+        this.scratch = ThreadLocal.withInitial(() -> new WindowScratch(patterns.length, combinedHeuristics.length));
+    }
+
+    /**
+     * Compile the heuristics of a rule set with default options.
+     */
+    public static CompiledRuleSet compile(List<RuleConfig> rules) {
+        return compile(rules, new RuleMatchOptions());
+    }
+
+    /**
+     * Compile the heuristics of a rule set. Heuristics that are not valid
+     * regular expressions are reported and never match.
+     */
+    public static CompiledRuleSet compile(List<RuleConfig> rules, RuleMatchOptions options) {
+        return compile(rules, null, options);
+    }
+
+    /**
+     * Compile the heuristics of a rule set whose heuristics were already
+     * analyzed.
+     *
+     * @param prepared Per rule, the analysis of each heuristic; null to analyze them now
+     */
+    static CompiledRuleSet compile(List<RuleConfig> rules, PreparedHeuristic[][] prepared,
+            RuleMatchOptions options) {
+        Builder builder = new Builder(options);
+        for (int r = 0; r < rules.size(); r++) {
+            RuleConfig rule = rules.get(r);
+            List<String> heuristics = rule.getHeuristics();
+            int[] ids = new int[heuristics.size()];
+            for (int i = 0; i < heuristics.size(); i++) {
+                ids[i] = builder.add(rule.getName(), heuristics.get(i), prepared != null ? prepared[r][i] : null);
+            }
+            builder.ruleHeuristics.add(ids);
+            builder.ruleNames.add(rule.getName());
+        }
+        return new CompiledRuleSet(builder);
+    }
+
+    public int getRuleCount() {
+        return ruleCount;
+    }
+
+    public String getRuleName(int rule) {
+        return ruleNames[rule];
+    }
+
+    /**
+     * Regex evaluations of a rule's heuristics that ran because the prefilter
+     * found a required literal (or the heuristic has no prefilter).
+     */
+    public long getPrefilterHits(int rule) {
+        return regexRuns.get(rule);
+    }
+
+    /**
+     * Regex evaluations of a rule's heuristics skipped by the prefilter.
+     */
+    public long getPrefilterMisses(int rule) {
+        return regexSkips.get(rule);
+    }
+
+    /**
+     * Cost of every rule and heuristic in the files matched so far, in rule
+     * order.
+     *
+     * @return The costs, or an empty list if profiling is disabled
+     */
+    public List<RuleCost> getCosts() {
+        List<RuleCost> costs = new ArrayList<>();
+        if (profiler == null) {
+            return costs;
+        }
+        for (int rule = 0; rule < ruleCount; rule++) {
+            List<HeuristicCost> heuristics = new ArrayList<>();
+            for (int h : ruleHeuristics[rule]) {
+                heuristics.add(new HeuristicCost(heuristicSources[h], profiler.getFiles(h),
+                        profiler.getInvocations(h), profiler.getBytes(h), profiler.getNanos(h), profiler.getHits(h)));
+            }
+            costs.add(new RuleCost(ruleNames[rule], heuristics));
+        }
+        return costs;
+    }
+
+    /**
+     * Match every rule against a string.
+     *
+     * @see #match(byte[], CharSequence)
+     */
+    public List<CachedFileResult.RuleHit> match(String content) throws RuleMatchTimeoutException {
+        return match(content.getBytes(StandardCharsets.UTF_8), content);
+    }
+
+    /**
+     * Match every rule against a file's content.
+     *
+     * @see #match(byte[], CharSequence, BitSet)
+     */
+    public List<CachedFileResult.RuleHit> match(byte[] bytes, CharSequence content)
+            throws RuleMatchTimeoutException {
+        return match(bytes, content, null);
+    }
+
+    /**
+     * Match some of the rules against a file's content. Heuristics of the
+     * other rules are not evaluated at all.
+     *
+     * @param bytes Raw UTF-8 file content
+     * @param content The same content decoded, for heuristics that cannot be matched on bytes
+     * @param rules Indexes of the rules to match, or null for all rules
+     * @return For each matching rule (in rule order), the text matched by its
+     *         first matching heuristic
+     * @throws RuleMatchTimeoutException If the file could not be matched within the deadline
+     */
+    public List<CachedFileResult.RuleHit> match(byte[] bytes, CharSequence content, BitSet rules)
+            throws RuleMatchTimeoutException {
+        MatchState state = start(rules);
+        matchWindow(state, bytes, 0, bytes.length, bytes.length, bounds -> {
+            bounds[0] = 0;
+            bounds[1] = content.length();
+            return content;
+        });
+        return state.hits();
+    }
+
+    /**
+     * Start matching one file whose content is then passed to
+     * {@link #matchWindow} one window at a time.
+     *
+     * @param rules Indexes of the rules to match, or null for all rules
+     */
+    MatchState start(BitSet rules) {
+        return new MatchState(rules);
+    }
+
+    /**
+     * Match the heuristics that are still undecided against one window of a
+     * file. Only matches starting in {@code [from, limit)} are accepted: bytes
+     * before {@code from} are context for look-behind and word boundaries,
+     * and bytes after {@code limit} let matches that start before it
+     * complete. Windows must be passed in file order, with each window's
+     * accepted range starting where the previous one ended.
+     *
+     * @param bytes Raw UTF-8 content of the window
+     * @param from Byte offset of the first accepted match start
+     * @param limit Byte offset after the last accepted match start
+     * @param length Number of valid bytes in {@code bytes}
+     * @param text Decodes the window if a heuristic needs {@code java.util.regex}
+     * @throws RuleMatchTimeoutException If the file's deadline passed
+     */
+    void matchWindow(MatchState state, byte[] bytes, int from, int limit, int length, WindowText text)
+            throws RuleMatchTimeoutException {
+        WindowScratch window = scratch.get();
+        int[] starts = window.starts;
+        int[] ends = window.ends;
+        int[] bounds = window.bounds;
+        Arrays.fill(starts, -1);
+        Arrays.fill(bounds, 0);
+        CharSequence content = null;
+
+        boolean[] possible = prefilter(bytes, length, state.pending, window);
+        try {
+            matchLiterals(bytes, from, length, possible, window);
+            matchLinear(bytes, from, length, possible, window, state.deadline);
+
+            if (needsText(possible)) {
+                long begin = profiler != null ? System.nanoTime() : 0;
+                content = text.decode(bounds);
+                CharSequence guarded = state.deadline.guard(content);
+                matchCombined(guarded, bounds[0], possible, window);
+                if (profiler != null) {
+                    boolean[] shared = window.clearedShared();
+                    for (int h : combinedHeuristics) {
+                        shared[h] = possible[h];
+                    }
+                    profiler.recordShared(shared, length - from, System.nanoTime() - begin, true);
+                }
+                for (int h : standaloneHeuristics) {
+                    if (possible[h]) {
+                        begin = profiler != null ? System.nanoTime() : 0;
+                        Matcher m = patterns[h].matcher(guarded);
+                        if (m.find(bounds[0])) {
+                            starts[h] = m.start();
+                            ends[h] = m.end();
+                        }
+                        if (profiler != null) {
+                            profiler.recordInvocation(h, length - from, System.nanoTime() - begin);
+                        }
+                    }
+                }
+            }
+        } catch (MatchDeadline.Expired e) {
+            state.accept(bytes, limit, content, bounds[1], starts, ends);
+            throw new RuleMatchTimeoutException(matchTimeoutMillis, state.hits());
+        }
+        state.accept(bytes, limit, content, bounds[1], starts, ends);
+    }
+
+    /**
+     * The decoded text of a window, produced on demand.
+     */
+    interface WindowText {
+        /**
+         * @param bounds Receives the char offsets corresponding to the
+         *        window's {@code from} and {@code limit}
+         */
+        CharSequence decode(int[] bounds);
+    }
+
+    private boolean needsText(boolean[] possible) {
+        for (int h = 0; h < possible.length; h++) {
+            if (possible[h] && matchesText[h]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Determine which pending heuristics can match in a window at all, and
+     * count the regex evaluations that are run and skipped.
+     */
+    private boolean[] prefilter(byte[] bytes, int byteLength, boolean[] pending, WindowScratch window) {
+        boolean[] possible = window.possible;
+        int wanted = 0;
+        for (int h = 0; h < possible.length; h++) {
+            possible[h] = pending[h] && !hasPrefilter[h];
+            if (pending[h] && hasPrefilter[h]) {
+                wanted++;
+            }
+        }
+        if (wanted > 0) {
+            long begin = profiler != null ? System.nanoTime() : 0;
+            int target = wanted;
+            int[] found = window.found;
+            found[0] = 0;
+            prefilter.scan(bytes, 0, byteLength, (literal, start, end) -> {
+                int h = prefilterHeuristic[literal];
+                if (pending[h] && !possible[h]) {
+                    possible[h] = true;
+                    found[0]++;
+                }
+                return found[0] == target ? end : Integer.MAX_VALUE;
+            });
+            if (profiler != null) {
+                boolean[] shared = window.shared;
+                for (int h = 0; h < shared.length; h++) {
+                    shared[h] = pending[h] && hasPrefilter[h];
+                }
+                profiler.recordShared(shared, 0, System.nanoTime() - begin, false);
+            }
+        }
+
+        for (int h = 0; h < possible.length; h++) {
+            if (pending[h] && isRegex(h)) {
+                if (possible[h]) {
+                    regexRuns.incrementAndGet(heuristicRule[h]);
+                } else {
+                    regexSkips.incrementAndGet(heuristicRule[h]);
+                }
+            }
+        }
+        return possible;
+    }
+
+    private boolean isRegex(int heuristic) {
+        return patterns[heuristic] != null && !isLiteral[heuristic];
+    }
+
+    /**
+     * Leftmost occurrence per literal heuristic; at equal starts the
+     * alternative listed first wins, as with regex alternation.
+     */
+    private void matchLiterals(byte[] bytes, int from, int length, boolean[] possible, WindowScratch window) {
+        int wanted = 0;
+        for (int h = 0; h < patterns.length; h++) {
+            if (isLiteral[h] && possible[h]) {
+                wanted++;
+            }
+        }
+        if (wanted == 0) {
+            return;
+        }
+        long begin = profiler != null ? System.nanoTime() : 0;
+        int target = wanted;
+        int[] starts = window.starts;
+        int[] ends = window.ends;
+        int[] order = window.order;
+        int[] found = window.found; // resolved heuristics, largest resolved start
+        found[0] = 0;
+        found[1] = 0;
+        int reached = literals.scan(bytes, from, length, (literal, start, end) -> {
+            int h = literalHeuristic[literal];
+            if (!possible[h]) {
+                return Integer.MAX_VALUE;
+            }
+            if (starts[h] < 0) {
+                found[0]++;
+                found[1] = Math.max(found[1], start);
+            } else if (start > starts[h] || (start == starts[h] && literalOrder[literal] >= order[h])) {
+                return Integer.MAX_VALUE;
+            }
+            starts[h] = start;
+            ends[h] = end;
+            order[h] = literalOrder[literal];
+            // Once every heuristic has a candidate, later literals can only start further right
+            return found[0] == target ? found[1] + maxLiteralLength : Integer.MAX_VALUE;
+        });
+        if (profiler != null) {
+            boolean[] shared = window.shared;
+            for (int h = 0; h < shared.length; h++) {
+                shared[h] = isLiteral[h] && possible[h];
+            }
+            profiler.recordShared(shared, reached - from, System.nanoTime() - begin, true);
+        }
+    }
+
+    private void matchLinear(byte[] bytes, int from, int length, boolean[] possible, WindowScratch window,
+            MatchDeadline deadline) {
+        int[] starts = window.starts;
+        int[] ends = window.ends;
+        int[] span = window.span;
+        for (int h : linearHeuristics) {
+            if (!possible[h]) {
+                continue;
+            }
+            long begin = profiler != null ? System.nanoTime() : 0;
+            boolean found = linearPatterns[h].find(bytes, from, length, span, deadline);
+            if (found) {
+                starts[h] = span[0];
+                ends[h] = span[1];
+            }
+            if (profiler != null) {
+                profiler.recordInvocation(h, (found ? span[1] : length) - from, System.nanoTime() - begin);
+            }
+        }
+    }
+
+    /**
+     * Walk the candidate positions of the combined alternation and confirm
+     * each still unmatched heuristic there. A heuristic's leftmost match is
+     * always one of these positions.
+     */
+    private void matchCombined(CharSequence content, int start, boolean[] possible, WindowScratch window) {
+        if (combined == null) {
+            return;
+        }
+        int[] starts = window.starts;
+        int[] ends = window.ends;
+        // Matchers are bound to this window's text; only the array is reused
+        Matcher[] matchers = window.matchers;
+        Arrays.fill(matchers, null);
+        int unresolved = 0;
+        for (int h : combinedHeuristics) {
+            if (possible[h]) {
+                unresolved++;
+            }
+        }
+        Matcher candidates = combined.matcher(content);
+        int from = start;
+        while (unresolved > 0 && from <= content.length() && candidates.find(from)) {
+            int position = candidates.start();
+            for (int i = 0; i < combinedHeuristics.length; i++) {
+                int h = combinedHeuristics[i];
+                if (starts[h] >= 0 || !possible[h]) {
+                    continue;
+                }
+                if (matchers[i] == null) {
+                    matchers[i] = patterns[h].matcher(content)
+                            .useTransparentBounds(true)
+                            .useAnchoringBounds(false);
+                }
+                Matcher m = matchers[i].region(position, content.length());
+                if (m.lookingAt()) {
+                    starts[h] = position;
+                    ends[h] = m.end();
+                    unresolved--;
+                }
+            }
+            from = position + 1;
+        }
+    }
+
+    /**
+     * Heuristics still undecided and evidence found so far while one file is
+     * matched window by window. A rule is decided once its first heuristic
+     * has matched; a later heuristic's match only stands if no earlier
+     * heuristic of the rule matches anywhere in the file.
+     */
+    final class MatchState {
+
+        private final boolean[] selectedRules = new boolean[ruleCount];
+        private final boolean[] pending = new boolean[patterns.length];
+        private final String[] evidence = new String[patterns.length];
+        private final MatchDeadline deadline = MatchDeadline.after(matchTimeoutMillis);
+        private int pendingCount;
+
+        private MatchState(BitSet rules) {
+            for (int rule = 0; rule < ruleCount; rule++) {
+                selectedRules[rule] = rules == null || rules.get(rule);
+                if (selectedRules[rule]) {
+                    for (int h : ruleHeuristics[rule]) {
+                        if (patterns[h] != null) {
+                            pending[h] = true;
+                            pendingCount++;
+                            if (profiler != null) {
+                                profiler.recordFile(h);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Whether every selected rule is decided, so the rest of the file
+         * cannot change the result.
+         */
+        boolean isDone() {
+            return pendingCount == 0;
+        }
+
+        /**
+         * Take the evidence of matches that start before the limit: byte
+         * offsets for heuristics matched on bytes, char offsets into the
+         * decoded text for the others.
+         */
+        private void accept(byte[] bytes, int limit, CharSequence content, int textLimit, int[] starts, int[] ends) {
+            for (int rule = 0; rule < ruleCount; rule++) {
+                if (!selectedRules[rule]) {
+                    continue;
+                }
+                int[] heuristics = ruleHeuristics[rule];
+                for (int i = 0; i < heuristics.length; i++) {
+                    int h = heuristics[i];
+                    if (!pending[h] || starts[h] < 0 || starts[h] >= (matchesText[h] ? textLimit : limit)) {
+                        continue;
+                    }
+                    evidence[h] = matchesText[h]
+                            ? content.subSequence(starts[h], ends[h]).toString().trim()
+                            : new String(bytes, starts[h], ends[h] - starts[h], StandardCharsets.UTF_8).trim();
+                    if (profiler != null) {
+                        profiler.recordHit(h);
+                    }
+                    // Later heuristics of this rule can no longer provide its evidence
+                    for (int j = i; j < heuristics.length; j++) {
+                        if (pending[heuristics[j]]) {
+                            pending[heuristics[j]] = false;
+                            pendingCount--;
+                        }
+                    }
+                    break;
+                }
+            }
+        }
+
+        /**
+         * For each matching rule (in rule order), the text matched by its
+         * first matching heuristic.
+         */
+        List<CachedFileResult.RuleHit> hits() {
+            List<CachedFileResult.RuleHit> hits = new ArrayList<>();
+            for (int rule = 0; rule < ruleCount; rule++) {
+                if (!selectedRules[rule]) {
+                    continue;
+                }
+                for (int h : ruleHeuristics[rule]) {
+                    if (evidence[h] != null) {
+                        hits.add(new CachedFileResult.RuleHit(rule, evidence[h]));
+                        break;
+                    }
+                }
+            }
+            return hits;
+        }
+    }
+
+    /**
+     * Per-thread buffers for {@link #matchWindow}, sized to the heuristics
+     * once so that matching a window allocates nothing per call. A window is
+     * matched to completion before the thread starts the next one, so the
+     * buffers are never used by two windows at once.
+     */
+    private static final class WindowScratch {
+        private final int[] starts;
+        private final int[] ends;
+        private final int[] order;
+        private final boolean[] possible;
+        private final boolean[] shared;
+        private final int[] bounds = new int[2];
+        private final int[] span = new int[2];
+        private final int[] found = new int[2];
+        private final Matcher[] matchers;
+
+        WindowScratch(int heuristics, int combinedHeuristics) {
+            this.starts = new int[heuristics];
+            this.ends = new int[heuristics];
+            this.order = new int[heuristics];
+            this.possible = new boolean[heuristics];
+            this.shared = new boolean[heuristics];
+            this.matchers = new Matcher[combinedHeuristics];
+        }
+
+        boolean[] clearedShared() {
+            Arrays.fill(shared, false);
+            return shared;
+        }
+    }
+
+    private static int[] toIntArray(List<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static class Builder {
+        private final RuleMatchOptions options;
+        private final List<int[]> ruleHeuristics = new ArrayList<>();
+        private final List<String> ruleNames = new ArrayList<>();
+        private final List<Pattern> patterns = new ArrayList<>();
+        private final List<String> sources = new ArrayList<>();
+        private final List<LinearRegex> linearPatterns = new ArrayList<>();
+        private final List<Integer> linear = new ArrayList<>();
+        private final List<String> literals = new ArrayList<>();
+        private final List<Integer> literalHeuristic = new ArrayList<>();
+        private final List<Integer> literalOrder = new ArrayList<>();
+        private final List<Integer> combinable = new ArrayList<>();
+        private final List<Integer> standalone = new ArrayList<>();
+        private final List<String> prefilterLiterals = new ArrayList<>();
+        private final List<Integer> prefilterHeuristic = new ArrayList<>();
+        private final List<Boolean> literal = new ArrayList<>();
+
+        Builder(RuleMatchOptions options) {
+            this.options = options;
+        }
+
+        int add(String ruleName, String regex, PreparedHeuristic prepared) {
+            int id = patterns.size();
+            sources.add(regex);
+            Pattern pattern;
+            try {
+                pattern = Pattern.compile(regex, FLAGS);
+            } catch (PatternSyntaxException e) {
+                System.err.println("Warning: Ignoring invalid heuristic in rule " + ruleName + ": " + e.getDescription());
+                patterns.add(null);
+                linearPatterns.add(null);
+                literal.add(false);
+                return id;
+            }
+            patterns.add(pattern);
+            if (prepared == null) {
+                prepared = PreparedHeuristic.analyze(regex);
+            }
+            LinearRegex linearPattern = options.getRegexEngine() == RegexEngine.LINEAR
+                    ? prepared.getLinear()
+                    : null;
+            linearPatterns.add(linearPattern);
+
+            List<String> alternatives = prepared.getLiterals();
+            if (alternatives != null) {
+                for (int i = 0; i < alternatives.size(); i++) {
+                    literals.add(alternatives.get(i));
+                    literalHeuristic.add(id);
+                    literalOrder.add(i);
+                }
+                literal.add(true);
+                return id;
+            }
+
+            literal.add(false);
+            if (linearPattern != null) {
+                linear.add(id);
+            } else if (isCombinable(regex)) {
+                combinable.add(id);
+            } else {
+                standalone.add(id);
+            }
+            List<String> required = prepared.getRequiredLiterals();
+            if (required != null) {
+                for (String requiredLiteral : required) {
+                    prefilterLiterals.add(requiredLiteral);
+                    prefilterHeuristic.add(id);
+                }
+            }
+            return id;
+        }
+
+        /**
+         * Back-references and {@code \G} depend on the surrounding pattern or
+         * on previous matches, so such heuristics are run on their own.
+         */
+        private static boolean isCombinable(String regex) {
+            for (int i = 0; i + 1 < regex.length(); i++) {
+                if (regex.charAt(i) == '\\') {
+                    char next = regex.charAt(i + 1);
+                    if (Character.isDigit(next) || next == 'k' || next == 'G') {
+                        return false;
+                    }
+                    i++;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,895 @@
+package com.rb.repoinsight.scan.rules;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Regular expressions matched by a Thompson NFA simulation (Pike VM).
+ *
+ * Every input character is examined once per NFA state, so matching takes
+ * time linear in the input no matter how the pattern nests its quantifiers;
+ * {@code (a+)+$}-style patterns cannot backtrack catastrophically. Threads
+ * are kept in priority order, which reproduces the leftmost-first match that
+ * {@code java.util.regex} reports.
+ *
+ * Text can be matched as characters or directly as UTF-8 bytes; on bytes
+ * the simulation steps over whole encoded characters, so it reports the same
+ * matches (as byte offsets) as it would on the decoded text.
+ *
+ * Supports literals, {@code .}, character classes with ranges and
+ * {@code \d \w \s} (and their negations), groups, alternation, greedy and
+ * lazy quantifiers and a leading {@code ^}. Anything else (look-around,
+ * back-references, {@code $}, {@code \b}, inline flags, Unicode properties,
+ * possessive quantifiers) is reported as unsupported by {@link #compile} so
+ * the caller can use {@code java.util.regex} instead.
+ */
+final class LinearRegex {
+
+    private static final int CHAR = 0;
+    private static final int CLASS = 1;
+    private static final int ANY = 2;
+    private static final int SPLIT = 3;
+    private static final int JMP = 4;
+    private static final int BEGIN = 5;
+    private static final int MATCH = 6;
+
+    private static final int MAX_PROGRAM_SIZE = 10_000;
+    private static final int MAX_REPEAT = 1_000;
+
+    private final int[] ops;
+    private final int[] arg1;
+    private final int[] arg2;
+    private final CharClass[] classes;
+    private final boolean caseInsensitive;
+
+    private LinearRegex(Compiler compiler, boolean caseInsensitive) {
+        this(Arrays.copyOf(compiler.ops, compiler.size), Arrays.copyOf(compiler.arg1, compiler.size),
+                Arrays.copyOf(compiler.arg2, compiler.size), compiler.classes.toArray(new CharClass[0]),
+                caseInsensitive);
+    }
+
+    private LinearRegex(int[] ops, int[] arg1, int[] arg2, CharClass[] classes, boolean caseInsensitive) {
+        this.ops = ops;
+        this.arg1 = arg1;
+        this.arg2 = arg2;
+        this.classes = classes;
+        this.caseInsensitive = caseInsensitive;
+    }
+
+    /**
+     * @param caseInsensitive ASCII-only case folding, like {@code CASE_INSENSITIVE}
+     * @return The compiled expression, or null if it uses unsupported constructs
+     */
+    static LinearRegex compile(String regex, boolean caseInsensitive) {
+        try {
+            Parser parser = new Parser(regex);
+            Node root = parser.parseAlternation();
+            if (parser.pos != regex.length()) {
+                return null;
+            }
+            Compiler compiler = new Compiler(caseInsensitive);
+            root.emit(compiler);
+            compiler.emit(MATCH, 0, 0);
+            return new LinearRegex(compiler, caseInsensitive);
+        } catch (UnsupportedSyntax e) {
+            return null;
+        }
+    }
+
+    /**
+     * Write the compiled program, to be restored by {@link #readFrom}.
+     */
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeBoolean(caseInsensitive);
+        out.writeInt(ops.length);
+        for (int pc = 0; pc < ops.length; pc++) {
+            out.writeByte(ops[pc]);
+            out.writeInt(arg1[pc]);
+            out.writeInt(arg2[pc]);
+        }
+        out.writeInt(classes.length);
+        for (CharClass charClass : classes) {
+            out.writeBoolean(charClass.negated);
+            out.writeInt(charClass.lows.length);
+            for (int i = 0; i < charClass.lows.length; i++) {
+                out.writeInt(charClass.lows[i]);
+                out.writeInt(charClass.highs[i]);
+            }
+        }
+    }
+
+    /**
+     * Read a program written by {@link #writeTo}.
+     *
+     * @throws IllegalArgumentException If the program is malformed
+     */
+    static LinearRegex readFrom(ByteBuffer in) {
+        boolean caseInsensitive = in.get() != 0;
+        int size = checkCount(in.getInt(), MAX_PROGRAM_SIZE + 1);
+        int[] ops = new int[size];
+        int[] arg1 = new int[size];
+        int[] arg2 = new int[size];
+        for (int pc = 0; pc < size; pc++) {
+            ops[pc] = in.get();
+            arg1[pc] = in.getInt();
+            arg2[pc] = in.getInt();
+        }
+        CharClass[] classes = new CharClass[checkCount(in.getInt(), MAX_PROGRAM_SIZE)];
+        for (int c = 0; c < classes.length; c++) {
+            boolean negated = in.get() != 0;
+            List<int[]> ranges = new ArrayList<>();
+            for (int i = checkCount(in.getInt(), Character.MAX_CODE_POINT); i > 0; i--) {
+                ranges.add(new int[] { in.getInt(), in.getInt() });
+            }
+            classes[c] = new CharClass(ranges, negated);
+        }
+        for (int pc = 0; pc < size; pc++) {
+            boolean valid;
+            switch (ops[pc]) {
+                case CLASS:
+                    valid = arg1[pc] >= 0 && arg1[pc] < classes.length;
+                    break;
+                case SPLIT:
+                    valid = arg1[pc] >= 0 && arg1[pc] < size && arg2[pc] >= 0 && arg2[pc] < size;
+                    break;
+                case JMP:
+                    valid = arg1[pc] >= 0 && arg1[pc] < size;
+                    break;
+                default:
+                    valid = ops[pc] >= CHAR && ops[pc] <= MATCH;
+            }
+            if (!valid) {
+                throw new IllegalArgumentException("Malformed instruction at " + pc);
+            }
+        }
+        if (size == 0 || ops[size - 1] != MATCH) {
+            throw new IllegalArgumentException("Program does not end in a match");
+        }
+        return new LinearRegex(ops, arg1, arg2, classes, caseInsensitive);
+    }
+
+    private static int checkCount(int count, int max) {
+        if (count < 0 || count > max) {
+            throw new IllegalArgumentException("Invalid count " + count);
+        }
+        return count;
+    }
+
+    /**
+     * Find the leftmost-first match starting at or after {@code from}.
+     *
+     * @param span Receives the start and end of the match
+     * @return true if a match was found
+     */
+    boolean find(CharSequence text, int from, int[] span, MatchDeadline deadline) {
+        return find(new CharInput(text), from, text.length(), span, deadline);
+    }
+
+    /**
+     * Find the leftmost-first match in {@code bytes[0, length)} starting at
+     * or after {@code from}. Bytes that are not part of a valid UTF-8
+     * sequence are read one at a time as U+FFFD.
+     *
+     * @param span Receives the start and end of the match, as byte offsets
+     * @return true if a match was found
+     */
+    boolean find(byte[] bytes, int from, int length, int[] span, MatchDeadline deadline) {
+        return find(new Utf8Input(bytes, length), from, length, span, deadline);
+    }
+
+    private boolean find(Input input, int from, int length, int[] span, MatchDeadline deadline) {
+        ThreadList current = new ThreadList(ops.length);
+        ThreadList next = new ThreadList(ops.length);
+        int[] stack = new int[2 * ops.length + 1];
+        boolean matched = false;
+
+        int pos = from;
+        while (true) {
+            if (!matched) {
+                addThread(current, 0, pos, pos, stack);
+            }
+            if (current.size == 0 && matched) {
+                break;
+            }
+
+            int c = pos < length ? input.codePointAt(pos) : -1;
+            int after = pos < length ? input.next(pos) : pos + 1;
+            next.clear();
+            for (int i = 0; i < current.size; i++) {
+                int pc = current.pcs[i];
+                int start = current.starts[i];
+                int op = ops[pc];
+                if (op == MATCH) {
+                    matched = true;
+                    span[0] = start;
+                    span[1] = pos;
+                    break; // lower-priority threads can no longer win
+                }
+                if (c >= 0 && matches(op, pc, c)) {
+                    addThread(next, pc + 1, start, after, stack);
+                }
+            }
+            deadline.check();
+
+            if (pos >= length) {
+                break;
+            }
+            ThreadList swap = current;
+            current = next;
+            next = swap;
+            pos = after;
+        }
+        return matched;
+    }
+
+    private boolean matches(int op, int pc, int c) {
+        switch (op) {
+            case CHAR:
+                return fold(c) == arg1[pc];
+            case CLASS:
+                return classes[arg1[pc]].matches(c, caseInsensitive);
+            case ANY:
+                return c != '\n' && c != '\r' && c != '\u0085' && c != '\u2028' && c != '\u2029';
+            default:
+                return false;
+        }
+    }
+
+    private int fold(int c) {
+        return caseInsensitive && c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+    }
+
+    /**
+     * Follow jumps and splits from {@code pc} in priority order, adding the
+     * reachable consuming instructions to the list.
+     */
+    private void addThread(ThreadList list, int pc, int start, int pos, int[] stack) {
+        int top = 0;
+        stack[top++] = pc;
+        while (top > 0) {
+            int at = stack[--top];
+            if (!list.mark(at)) {
+                continue;
+            }
+            switch (ops[at]) {
+                case JMP:
+                    stack[top++] = arg1[at];
+                    break;
+                case SPLIT:
+                    stack[top++] = arg2[at];
+                    stack[top++] = arg1[at];
+                    break;
+                case BEGIN:
+                    if (pos == 0) {
+                        stack[top++] = at + 1;
+                    }
+                    break;
+                default:
+                    list.add(at, start);
+            }
+        }
+    }
+
+    /**
+     * Text being matched, read one code point at a time.
+     */
+    private interface Input {
+        int codePointAt(int pos);
+
+        /** Position of the code point after the one at {@code pos} */
+        int next(int pos);
+    }
+
+    private static final class CharInput implements Input {
+        private final CharSequence text;
+
+        CharInput(CharSequence text) {
+            this.text = text;
+        }
+
+        @Override
+        public int codePointAt(int pos) {
+            return Character.codePointAt(text, pos);
+        }
+
+        @Override
+        public int next(int pos) {
+            return pos + Character.charCount(Character.codePointAt(text, pos));
+        }
+    }
+
+    /**
+     * UTF-8 bytes decoded on the fly. Overlong forms, surrogates and
+     * truncated sequences are malformed, as for the JDK decoder.
+     */
+    private static final class Utf8Input implements Input {
+        private final byte[] bytes;
+        private final int length;
+
+        Utf8Input(byte[] bytes, int length) {
+            this.bytes = bytes;
+            this.length = length;
+        }
+
+        @Override
+        public int codePointAt(int pos) {
+            int lead = bytes[pos] & 0xff;
+            switch (width(pos)) {
+                case 1:
+                    return lead < 0x80 ? lead : 0xfffd;
+                case 2:
+                    return (lead & 0x1f) << 6 | trail(pos + 1);
+                case 3:
+                    return (lead & 0x0f) << 12 | trail(pos + 1) << 6 | trail(pos + 2);
+                default:
+                    return (lead & 0x07) << 18 | trail(pos + 1) << 12 | trail(pos + 2) << 6 | trail(pos + 3);
+            }
+        }
+
+        @Override
+        public int next(int pos) {
+            return pos + width(pos);
+        }
+
+        /**
+         * Length of the valid sequence at {@code pos}, or 1 if it is malformed.
+         */
+        private int width(int pos) {
+            int lead = bytes[pos] & 0xff;
+            int width;
+            int min = 0x80;
+            int max = 0xbf;
+            if (lead < 0xc2) {
+                return 1;
+            } else if (lead < 0xe0) {
+                width = 2;
+            } else if (lead < 0xf0) {
+                width = 3;
+                min = lead == 0xe0 ? 0xa0 : 0x80;
+                max = lead == 0xed ? 0x9f : 0xbf;
+            } else if (lead < 0xf5) {
+                width = 4;
+                min = lead == 0xf0 ? 0x90 : 0x80;
+                max = lead == 0xf4 ? 0x8f : 0xbf;
+            } else {
+                return 1;
+            }
+            if (pos + width > length) {
+                return 1;
+            }
+            int second = bytes[pos + 1] & 0xff;
+            if (second < min || second > max) {
+                return 1;
+            }
+            for (int i = 2; i < width; i++) {
+                if ((bytes[pos + i] & 0xc0) != 0x80) {
+                    return 1;
+                }
+            }
+            return width;
+        }
+
+        private int trail(int pos) {
+            return bytes[pos] & 0x3f;
+        }
+    }
+
+    /**
+     * Ordered thread list with constant-time membership by program counter.
+     */
+    private static final class ThreadList {
+        private final int[] pcs;
+        private final int[] starts;
+        private final int[] marks;
+        private int generation = 1;
+        private int size;
+
+        ThreadList(int programSize) {
+            pcs = new int[programSize];
+            starts = new int[programSize];
+            marks = new int[programSize];
+        }
+
+        void clear() {
+            size = 0;
+            generation++;
+        }
+
+        boolean mark(int pc) {
+            if (marks[pc] == generation) {
+                return false;
+            }
+            marks[pc] = generation;
+            return true;
+        }
+
+        void add(int pc, int start) {
+            pcs[size] = pc;
+            starts[size] = start;
+            size++;
+        }
+    }
+
+    // --------------------------------------------------
+    // Parsing
+    // --------------------------------------------------
+
+    private static final class UnsupportedSyntax extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        UnsupportedSyntax() {
+            super(null, null, false, false);
+        }
+    }
+
+    private interface Node {
+        void emit(Compiler compiler);
+    }
+
+    private static final class Parser {
+        private final String regex;
+        private int pos;
+
+        Parser(String regex) {
+            this.regex = regex;
+        }
+
+        Node parseAlternation() {
+            List<Node> branches = new ArrayList<>();
+            branches.add(parseSequence());
+            while (pos < regex.length() && regex.charAt(pos) == '|') {
+                pos++;
+                branches.add(parseSequence());
+            }
+            if (branches.size() == 1) {
+                return branches.get(0);
+            }
+            return compiler -> {
+                List<Integer> exits = new ArrayList<>();
+                for (int i = 0; i < branches.size() - 1; i++) {
+                    int split = compiler.emit(SPLIT, 0, 0);
+                    compiler.arg1[split] = compiler.size;
+                    branches.get(i).emit(compiler);
+                    exits.add(compiler.emit(JMP, 0, 0));
+                    compiler.arg2[split] = compiler.size;
+                }
+                branches.get(branches.size() - 1).emit(compiler);
+                for (int exit : exits) {
+                    compiler.arg1[exit] = compiler.size;
+                }
+            };
+        }
+
+        private Node parseSequence() {
+            List<Node> items = new ArrayList<>();
+            while (pos < regex.length() && regex.charAt(pos) != '|' && regex.charAt(pos) != ')') {
+                items.add(parseQuantifier(parseAtom()));
+            }
+            return compiler -> {
+                for (Node item : items) {
+                    item.emit(compiler);
+                }
+            };
+        }
+
+        private Node parseAtom() {
+            char c = regex.charAt(pos);
+            switch (c) {
+                case '(':
+                    pos++;
+                    if (regex.startsWith("?:", pos)) {
+                        pos += 2;
+                    } else if (pos < regex.length() && regex.charAt(pos) == '?') {
+                        throw new UnsupportedSyntax();
+                    }
+                    Node group = parseAlternation();
+                    expect(')');
+                    return group;
+                case '[':
+                    pos++;
+                    CharClass parsed = parseClass();
+                    return compiler -> compiler.emit(CLASS, compiler.addClass(parsed), 0);
+                case '.':
+                    pos++;
+                    return compiler -> compiler.emit(ANY, 0, 0);
+                case '^':
+                    pos++;
+                    return compiler -> compiler.emit(BEGIN, 0, 0);
+                case '\\':
+                    pos++;
+                    return parseEscape();
+                case '$':
+                case '*':
+                case '+':
+                case '?':
+                case '{':
+                    throw new UnsupportedSyntax();
+                default:
+                    int cp = regex.codePointAt(pos);
+                    pos += Character.charCount(cp);
+                    return literal(cp);
+            }
+        }
+
+        private Node parseEscape() {
+            if (pos >= regex.length()) {
+                throw new UnsupportedSyntax();
+            }
+            char c = regex.charAt(pos);
+            CharClass predefined = CharClass.predefined(c);
+            if (predefined != null) {
+                pos++;
+                return compiler -> compiler.emit(CLASS, compiler.addClass(predefined), 0);
+            }
+            return literal(parseEscapedChar());
+        }
+
+        /**
+         * Escaped single character; the backslash has been consumed.
+         */
+        private int parseEscapedChar() {
+            char c = regex.charAt(pos++);
+            switch (c) {
+                case 't':
+                    return '\t';
+                case 'n':
+                    return '\n';
+                case 'r':
+                    return '\r';
+                case 'f':
+                    return '\f';
+                case 'a':
+                    return '\u0007';
+                case 'e':
+                    return '\u001b';
+                case 'x':
+                    if (pos < regex.length() && regex.charAt(pos) == '{') {
+                        int end = regex.indexOf('}', pos);
+                        if (end < 0) {
+                            throw new UnsupportedSyntax();
+                        }
+                        int value = parseHex(pos + 1, end);
+                        pos = end + 1;
+                        return value;
+                    }
+                    pos += 2;
+                    return parseHex(pos - 2, pos);
+                case 'u':
+                    pos += 4;
+                    return parseHex(pos - 4, pos);
+                case '0':
+                    int value = 0;
+                    int digits = 0;
+                    while (pos < regex.length() && digits < 3 && regex.charAt(pos) >= '0' && regex.charAt(pos) <= '7'
+                            && value * 8 + (regex.charAt(pos) - '0') <= 0377) {
+                        value = value * 8 + (regex.charAt(pos++) - '0');
+                        digits++;
+                    }
+                    if (digits == 0) {
+                        throw new UnsupportedSyntax();
+                    }
+                    return value;
+                default:
+                    if (Character.isLetterOrDigit(c)) {
+                        throw new UnsupportedSyntax(); // \b, \p, back-references, \Q ...
+                    }
+                    return c;
+            }
+        }
+
+        private int parseHex(int from, int to) {
+            if (to > regex.length() || from >= to) {
+                throw new UnsupportedSyntax();
+            }
+            try {
+                return Integer.parseInt(regex.substring(from, to), 16);
+            } catch (NumberFormatException e) {
+                throw new UnsupportedSyntax();
+            }
+        }
+
+        private CharClass parseClass() {
+            boolean negated = false;
+            if (pos < regex.length() && regex.charAt(pos) == '^') {
+                negated = true;
+                pos++;
+            }
+            List<int[]> ranges = new ArrayList<>();
+            boolean first = true;
+            while (true) {
+                if (pos >= regex.length()) {
+                    throw new UnsupportedSyntax();
+                }
+                char c = regex.charAt(pos);
+                if (c == ']' && !first) {
+                    pos++;
+                    break;
+                }
+                if (c == '[' || regex.startsWith("&&", pos)) {
+                    throw new UnsupportedSyntax(); // unions and intersections
+                }
+                first = false;
+
+                int low;
+                if (c == '\\') {
+                    pos++;
+                    if (pos >= regex.length()) {
+                        throw new UnsupportedSyntax();
+                    }
+                    CharClass predefined = CharClass.predefined(regex.charAt(pos));
+                    if (predefined != null) {
+                        pos++;
+                        ranges.addAll(predefined.rangeList());
+                        continue;
+                    }
+                    low = parseEscapedChar();
+                } else {
+                    low = regex.codePointAt(pos);
+                    pos += Character.charCount(low);
+                }
+
+                int high = low;
+                if (pos + 1 < regex.length() && regex.charAt(pos) == '-' && regex.charAt(pos + 1) != ']') {
+                    pos++;
+                    char h = regex.charAt(pos);
+                    if (h == '[') {
+                        throw new UnsupportedSyntax();
+                    }
+                    if (h == '\\') {
+                        pos++;
+                        if (pos >= regex.length() || CharClass.predefined(regex.charAt(pos)) != null) {
+                            throw new UnsupportedSyntax();
+                        }
+                        high = parseEscapedChar();
+                    } else {
+                        high = regex.codePointAt(pos);
+                        pos += Character.charCount(high);
+                    }
+                    if (high < low) {
+                        throw new UnsupportedSyntax();
+                    }
+                }
+                ranges.add(new int[] { low, high });
+            }
+            return new CharClass(ranges, negated);
+        }
+
+        private Node parseQuantifier(Node atom) {
+            if (pos >= regex.length()) {
+                return atom;
+            }
+            int min;
+            int max;
+            char c = regex.charAt(pos);
+            if (c == '*') {
+                min = 0;
+                max = -1;
+                pos++;
+            } else if (c == '+') {
+                min = 1;
+                max = -1;
+                pos++;
+            } else if (c == '?') {
+                min = 0;
+                max = 1;
+                pos++;
+            } else if (c == '{') {
+                int end = regex.indexOf('}', pos);
+                if (end < 0) {
+                    throw new UnsupportedSyntax();
+                }
+                String[] bounds = regex.substring(pos + 1, end).split(",", -1);
+                try {
+                    min = Integer.parseInt(bounds[0].trim());
+                    if (bounds.length == 1) {
+                        max = min;
+                    } else if (bounds.length == 2) {
+                        max = bounds[1].trim().isEmpty() ? -1 : Integer.parseInt(bounds[1].trim());
+                    } else {
+                        throw new UnsupportedSyntax();
+                    }
+                } catch (NumberFormatException e) {
+                    throw new UnsupportedSyntax();
+                }
+                if (min > MAX_REPEAT || max > MAX_REPEAT || (max >= 0 && max < min)) {
+                    throw new UnsupportedSyntax();
+                }
+                pos = end + 1;
+            } else {
+                return atom;
+            }
+
+            boolean greedy = true;
+            if (pos < regex.length() && regex.charAt(pos) == '?') {
+                greedy = false;
+                pos++;
+            } else if (pos < regex.length() && regex.charAt(pos) == '+') {
+                throw new UnsupportedSyntax(); // possessive
+            }
+            if (pos < regex.length() && "*+?{".indexOf(regex.charAt(pos)) >= 0) {
+                throw new UnsupportedSyntax();
+            }
+            return repeat(atom, min, max, greedy);
+        }
+
+        private void expect(char c) {
+            if (pos >= regex.length() || regex.charAt(pos) != c) {
+                throw new UnsupportedSyntax();
+            }
+            pos++;
+        }
+
+        private static Node literal(int cp) {
+            return compiler -> compiler.emit(CHAR, compiler.fold(cp), 0);
+        }
+
+        private static Node repeat(Node atom, int min, int max, boolean greedy) {
+            return compiler -> {
+                for (int i = 0; i < min; i++) {
+                    atom.emit(compiler);
+                }
+                if (max < 0) {
+                    int split = compiler.emit(SPLIT, 0, 0);
+                    int body = compiler.size;
+                    atom.emit(compiler);
+                    compiler.emit(JMP, split, 0);
+                    compiler.branch(split, body, compiler.size, greedy);
+                    return;
+                }
+                List<Integer> splits = new ArrayList<>();
+                for (int i = min; i < max; i++) {
+                    int split = compiler.emit(SPLIT, 0, 0);
+                    splits.add(split);
+                    compiler.arg1[split] = compiler.size;
+                    atom.emit(compiler);
+                }
+                for (int split : splits) {
+                    compiler.branch(split, split + 1, compiler.size, greedy);
+                }
+            };
+        }
+    }
+
+    private static final class Compiler {
+        private final boolean caseInsensitive;
+        private int[] ops = new int[64];
+        private int[] arg1 = new int[64];
+        private int[] arg2 = new int[64];
+        private final List<CharClass> classes = new ArrayList<>();
+        private int size;
+
+        Compiler(boolean caseInsensitive) {
+            this.caseInsensitive = caseInsensitive;
+        }
+
+        int emit(int op, int a1, int a2) {
+            if (size == MAX_PROGRAM_SIZE) {
+                throw new UnsupportedSyntax();
+            }
+            if (size == ops.length) {
+                ops = Arrays.copyOf(ops, size * 2);
+                arg1 = Arrays.copyOf(arg1, size * 2);
+                arg2 = Arrays.copyOf(arg2, size * 2);
+            }
+            ops[size] = op;
+            arg1[size] = a1;
+            arg2[size] = a2;
+            return size++;
+        }
+
+        /**
+         * Point a split at its body and exit; greedy prefers the body.
+         */
+        void branch(int split, int body, int exit, boolean greedy) {
+            arg1[split] = greedy ? body : exit;
+            arg2[split] = greedy ? exit : body;
+        }
+
+        int addClass(CharClass charClass) {
+            classes.add(charClass);
+            return classes.size() - 1;
+        }
+
+        int fold(int c) {
+            return caseInsensitive && c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+        }
+    }
+
+    /**
+     * Sorted code point ranges, optionally negated.
+     */
+    private static final class CharClass {
+        private final int[] lows;
+        private final int[] highs;
+        private final boolean negated;
+
+        CharClass(List<int[]> ranges, boolean negated) {
+            List<int[]> sorted = new ArrayList<>(ranges);
+            sorted.sort((a, b) -> Integer.compare(a[0], b[0]));
+            this.lows = new int[sorted.size()];
+            this.highs = new int[sorted.size()];
+            for (int i = 0; i < sorted.size(); i++) {
+                lows[i] = sorted.get(i)[0];
+                highs[i] = sorted.get(i)[1];
+            }
+            this.negated = negated;
+        }
+
+        static CharClass predefined(char escape) {
+            switch (escape) {
+                case 'd':
+                    return of(false, '0', '9');
+                case 'D':
+                    return of(true, '0', '9');
+                case 'w':
+                    return of(false, 'a', 'z', 'A', 'Z', '0', '9', '_', '_');
+                case 'W':
+                    return of(true, 'a', 'z', 'A', 'Z', '0', '9', '_', '_');
+                case 's':
+                    return of(false, ' ', ' ', '\t', '\r');
+                case 'S':
+                    return of(true, ' ', ' ', '\t', '\r');
+                default:
+                    return null;
+            }
+        }
+
+        private static CharClass of(boolean negated, int... bounds) {
+            List<int[]> ranges = new ArrayList<>();
+            for (int i = 0; i < bounds.length; i += 2) {
+                ranges.add(new int[] { bounds[i], bounds[i + 1] });
+            }
+            return new CharClass(ranges, negated);
+        }
+
+        /**
+         * The ranges this class matches, with negation applied.
+         */
+        List<int[]> rangeList() {
+            List<int[]> result = new ArrayList<>();
+            if (!negated) {
+                for (int i = 0; i < lows.length; i++) {
+                    result.add(new int[] { lows[i], highs[i] });
+                }
+                return result;
+            }
+            int next = 0;
+            for (int i = 0; i < lows.length; i++) {
+                if (lows[i] > next) {
+                    result.add(new int[] { next, lows[i] - 1 });
+                }
+                next = Math.max(next, highs[i] + 1);
+            }
+            if (next <= Character.MAX_CODE_POINT) {
+                result.add(new int[] { next, Character.MAX_CODE_POINT });
+            }
+            return result;
+        }
+
+        boolean matches(int c, boolean caseInsensitive) {
+            boolean contained = contains(c);
+            if (!contained && caseInsensitive) {
+                if (c >= 'a' && c <= 'z') {
+                    contained = contains(c - ('a' - 'A'));
+                } else if (c >= 'A' && c <= 'Z') {
+                    contained = contains(c + ('a' - 'A'));
+                }
+            }
+            return contained != negated;
+        }
+
+        private boolean contains(int c) {
+            for (int i = 0; i < lows.length && lows[i] <= c; i++) {
+                if (c <= highs[i]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
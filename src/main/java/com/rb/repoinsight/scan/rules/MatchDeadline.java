@@ -0,0 +1,89 @@
+package com.rb.repoinsight.scan.rules;
+
+/**
+ * Time budget for matching one file.
+ *
+ * The clock is only read every few thousand checks, so the check is cheap
+ * enough to sit in the inner loop of a matcher. When the budget is exhausted
+ * {@link #check()} throws {@link Expired}.
+ */
+final class MatchDeadline {
+
+    private static final int CHECK_INTERVAL_MASK = 0xfff;
+
+    private final long deadlineNanos;
+    private int calls;
+
+    private MatchDeadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * @param timeoutMillis Budget from now; zero or negative means unlimited
+     */
+    static MatchDeadline after(long timeoutMillis) {
+        if (timeoutMillis <= 0) {
+            return new MatchDeadline(Long.MAX_VALUE);
+        }
+        return new MatchDeadline(System.nanoTime() + timeoutMillis * 1_000_000);
+    }
+
+    void check() {
+        if ((++calls & CHECK_INTERVAL_MASK) == 0 && deadlineNanos != Long.MAX_VALUE
+                && System.nanoTime() - deadlineNanos > 0) {
+            throw new Expired();
+        }
+    }
+
+    /**
+     * Wrap text so that every character access by {@code java.util.regex}
+     * is charged against this deadline, which is the only way to interrupt a
+     * backtracking matcher.
+     */
+    CharSequence guard(CharSequence text) {
+        if (deadlineNanos == Long.MAX_VALUE) {
+            return text;
+        }
+        return new GuardedText(text, this);
+    }
+
+    static final class Expired extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        Expired() {
+            super("match deadline exceeded", null, false, false);
+        }
+    }
+
+    private static final class GuardedText implements CharSequence {
+        private final CharSequence text;
+        private final MatchDeadline deadline;
+
+        GuardedText(CharSequence text, MatchDeadline deadline) {
+            this.text = text;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public int length() {
+            return text.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            deadline.check();
+            return text.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new GuardedText(text.subSequence(start, end), deadline);
+        }
+
+        @Override
+        public String toString() {
+            return text.toString();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.rb.repoinsight.scan.rules;
+
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * The analysis {@link CompiledRuleSet} needs for one heuristic: whether it
+ * is a set of literals, which literals any match must contain, and its
+ * {@link LinearRegex} program. Preparing is the costly part of compiling a
+ * rule set, so a {@link RulePack} stores it instead of redoing it on every
+ * start.
+ */
+final class PreparedHeuristic {
+
+    /** Nothing precomputed; used for invalid heuristics */
+    static final PreparedHeuristic NONE = new PreparedHeuristic(null, null, null);
+
+    private final List<String> literals;
+    private final List<String> requiredLiterals;
+    private final LinearRegex linear;
+
+    PreparedHeuristic(List<String> literals, List<String> requiredLiterals, LinearRegex linear) {
+        this.literals = literals;
+        this.requiredLiterals = requiredLiterals;
+        this.linear = linear;
+    }
+
+    /**
+     * Analyze a heuristic, or return {@link #NONE} if it is not a valid
+     * regular expression.
+     */
+    static PreparedHeuristic prepare(String regex) {
+        try {
+            Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
+        } catch (PatternSyntaxException e) {
+            return NONE;
+        }
+        return analyze(regex);
+    }
+
+    /**
+     * Analyze a heuristic already known to be a valid regular expression.
+     */
+    static PreparedHeuristic analyze(String regex) {
+        List<String> literals = RegexLiterals.expand(regex);
+        if (literals != null) {
+            return new PreparedHeuristic(literals, null, null);
+        }
+        return new PreparedHeuristic(null, RequiredLiterals.extract(regex), LinearRegex.compile(regex, true));
+    }
+
+    /**
+     * The literals the heuristic is an alternation of, or null if it is not
+     * one.
+     */
+    List<String> getLiterals() {
+        return literals;
+    }
+
+    /**
+     * Literals at least one of which occurs in every match, or null if there
+     * are none to prefilter on.
+     */
+    List<String> getRequiredLiterals() {
+        return requiredLiterals;
+    }
+
+    /**
+     * The linear-time program, or null if the heuristic is a literal set or
+     * needs {@code java.util.regex}.
+     */
+    LinearRegex getLinear() {
+        return linear;
+    }
+}
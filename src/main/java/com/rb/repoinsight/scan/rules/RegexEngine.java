@@ -0,0 +1,18 @@
+package com.rb.repoinsight.scan.rules;
+
+/**
+ * Matching engine used for heuristics that are real regular expressions.
+ */
+public enum RegexEngine {
+
+    /**
+     * Linear-time NFA simulation ({@link LinearRegex}); heuristics it cannot
+     * express fall back to {@code java.util.regex}.
+     */
+    LINEAR,
+
+    /**
+     * {@code java.util.regex} for every heuristic.
+     */
+    JDK
+}
@@ -0,0 +1,117 @@
+package com.rb.repoinsight.scan.rules;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Expands heuristics that are plain literals, or small alternations of
+ * literals, into the list of strings they can match.
+ *
+ * {@code jdbc:(postgresql|mysql)} becomes {@code [jdbc:postgresql, jdbc:mysql]},
+ * in the order {@code java.util.regex} would try them. Anything with
+ * quantifiers, classes, anchors or other operators is not a literal.
+ */
+final class RegexLiterals {
+
+    static final int MAX_ALTERNATIVES = 64;
+
+    private final String regex;
+    private int pos;
+
+    private RegexLiterals(String regex) {
+        this.regex = regex;
+    }
+
+    /**
+     * @return The alternatives in match-preference order, or null if the regex
+     *         is not a finite set of non-empty ASCII literals
+     */
+    static List<String> expand(String regex) {
+        RegexLiterals parser = new RegexLiterals(regex);
+        List<String> result = parser.parseAlternation();
+        if (result == null || parser.pos != regex.length()) {
+            return null;
+        }
+        for (String literal : result) {
+            if (literal.isEmpty() || !isAscii(literal)) {
+                return null;
+            }
+        }
+        return result;
+    }
+
+    private List<String> parseAlternation() {
+        List<String> result = new ArrayList<>();
+        while (true) {
+            List<String> branch = parseSequence();
+            if (branch == null) {
+                return null;
+            }
+            result.addAll(branch);
+            if (result.size() > MAX_ALTERNATIVES) {
+                return null;
+            }
+            if (pos < regex.length() && regex.charAt(pos) == '|') {
+                pos++;
+            } else {
+                return result;
+            }
+        }
+    }
+
+    private List<String> parseSequence() {
+        List<String> current = new ArrayList<>();
+        current.add("");
+        while (pos < regex.length()) {
+            char c = regex.charAt(pos);
+            List<String> atom;
+            if (c == '|' || c == ')') {
+                break;
+            } else if (c == '(') {
+                pos++;
+                if (regex.startsWith("?:", pos)) {
+                    pos += 2;
+                } else if (pos < regex.length() && regex.charAt(pos) == '?') {
+                    return null; // lookaround, named group or inline flags
+                }
+                atom = parseAlternation();
+                if (atom == null || pos >= regex.length() || regex.charAt(pos) != ')') {
+                    return null;
+                }
+                pos++;
+            } else if (c == '\\') {
+                if (pos + 1 >= regex.length() || Character.isLetterOrDigit(regex.charAt(pos + 1))) {
+                    return null; // \d, \w, \b, back-references, \Q...
+                }
+                atom = List.of(String.valueOf(regex.charAt(pos + 1)));
+                pos += 2;
+            } else if (".[]{}*+?^$".indexOf(c) >= 0) {
+                return null;
+            } else {
+                atom = List.of(String.valueOf(c));
+                pos++;
+            }
+
+            if ((long) current.size() * atom.size() > MAX_ALTERNATIVES) {
+                return null;
+            }
+            List<String> next = new ArrayList<>(current.size() * atom.size());
+            for (String prefix : current) {
+                for (String suffix : atom) {
+                    next.add(prefix + suffix);
+                }
+            }
+            current = next;
+        }
+        return current;
+    }
+
+    private static boolean isAscii(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,254 @@
+package com.rb.repoinsight.scan.rules;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Extracts literal substrings that every match of a regular expression must contain.
+ *
+ * {@code spring\.datasource\.url} requires itself, {@code https?://[\w.-]*api}
+ * requires {@code "http"}, and {@code foo\d+|bar?} requires either {@code "foo"}
+ * or {@code "ba"}. A file that contains none of a heuristic's required literals
+ * cannot match it, so the regex does not need to run there.
+ *
+ * The analysis is conservative: anything it does not understand ends the
+ * current literal run, and a branch without any literal means no prefilter.
+ * Literals are ASCII only, so they can be searched for on raw UTF-8 bytes.
+ */
+final class RequiredLiterals {
+
+    private final String regex;
+    private int pos;
+
+    private RequiredLiterals(String regex) {
+        this.regex = regex;
+    }
+
+    /**
+     * @return Literals of which at least one occurs in every match, or null if
+     *         no such set could be determined
+     */
+    static List<String> extract(String regex) {
+        if (hasUnsupportedFlags(regex)) {
+            return null;
+        }
+        RequiredLiterals parser = new RequiredLiterals(regex);
+        List<String> result = new ArrayList<>();
+        while (true) {
+            String best = parser.parseBranch();
+            if (best == null || best.isEmpty()) {
+                return null;
+            }
+            if (!result.contains(best)) {
+                result.add(best);
+            }
+            if (parser.pos >= regex.length()) {
+                return result;
+            }
+            parser.pos++; // top-level '|'
+        }
+    }
+
+    /**
+     * Comments mode changes what a literal is and Unicode case folding lets
+     * non-ASCII text match ASCII letters, so neither can be prefiltered by bytes.
+     */
+    private static boolean hasUnsupportedFlags(String regex) {
+        int index = regex.indexOf("(?");
+        while (index >= 0) {
+            for (int i = index + 2; i < regex.length(); i++) {
+                char c = regex.charAt(i);
+                if (c == 'x' || c == 'u' || c == 'U') {
+                    return true;
+                }
+                if (!Character.isLetter(c) && c != '-') {
+                    break;
+                }
+            }
+            index = regex.indexOf("(?", index + 2);
+        }
+        return false;
+    }
+
+    /**
+     * Longest run of required literal characters in one top-level branch.
+     */
+    private String parseBranch() {
+        StringBuilder run = new StringBuilder();
+        String best = "";
+        while (pos < regex.length()) {
+            char c = regex.charAt(pos);
+            if (c == '|') {
+                break;
+            }
+
+            String literal = null;
+            if (c == '\\') {
+                if (pos + 1 >= regex.length()) {
+                    return null;
+                }
+                char next = regex.charAt(pos + 1);
+                if (next == 'Q') {
+                    int end = regex.indexOf("\\E", pos + 2);
+                    literal = regex.substring(pos + 2, end < 0 ? regex.length() : end);
+                    pos = end < 0 ? regex.length() : end + 2;
+                } else if (!Character.isLetterOrDigit(next)) {
+                    literal = String.valueOf(next);
+                    pos += 2;
+                } else {
+                    pos += 2;
+                    skipEscapeArgument(next); // class escape, assertion, code point or back-reference
+                }
+            } else if (c == '[') {
+                skipClass();
+            } else if (c == '(') {
+                skipGroup();
+            } else if (c == ')') {
+                return null; // unbalanced
+            } else if (".^$".indexOf(c) >= 0) {
+                pos++;
+            } else {
+                literal = String.valueOf(c);
+                pos++;
+            }
+
+            Quantifier quantifier = readQuantifier();
+            if (literal != null && isAscii(literal)) {
+                if (quantifier == Quantifier.NONE) {
+                    run.append(literal);
+                    continue;
+                }
+                // A quantifier applies to the last character only
+                run.append(literal, 0, quantifier == Quantifier.REPEATED ? literal.length() : literal.length() - 1);
+            }
+            if (run.length() > best.length()) {
+                best = run.toString();
+            }
+            run.setLength(0);
+        }
+        return run.length() > best.length() ? run.toString() : best;
+    }
+
+    private enum Quantifier {
+        NONE, REPEATED, OPTIONAL
+    }
+
+    private Quantifier readQuantifier() {
+        if (pos >= regex.length()) {
+            return Quantifier.NONE;
+        }
+        Quantifier result;
+        char c = regex.charAt(pos);
+        if (c == '?' || c == '*') {
+            result = Quantifier.OPTIONAL;
+            pos++;
+        } else if (c == '+') {
+            result = Quantifier.REPEATED;
+            pos++;
+        } else if (c == '{') {
+            int end = regex.indexOf('}', pos);
+            if (end < 0) {
+                return Quantifier.NONE;
+            }
+            result = regex.startsWith("{0", pos) ? Quantifier.OPTIONAL : Quantifier.REPEATED;
+            pos = end + 1;
+        } else {
+            return Quantifier.NONE;
+        }
+        // Lazy and possessive variants
+        if (pos < regex.length() && (regex.charAt(pos) == '?' || regex.charAt(pos) == '+')) {
+            pos++;
+        }
+        return result;
+    }
+
+    private void skipEscapeArgument(char escape) {
+        switch (escape) {
+            case 'x':
+            case 'p':
+            case 'P':
+            case 'N':
+                if (pos < regex.length() && regex.charAt(pos) == '{') {
+                    int end = regex.indexOf('}', pos);
+                    pos = end < 0 ? regex.length() : end + 1;
+                } else {
+                    pos += escape == 'x' ? 2 : 1;
+                }
+                break;
+            case 'u':
+                pos += 4;
+                break;
+            case 'c':
+                pos += 1;
+                break;
+            case 'k':
+                int end = regex.indexOf('>', pos);
+                pos = end < 0 ? regex.length() : end + 1;
+                break;
+            default:
+                if (Character.isDigit(escape)) {
+                    // Octal escapes and multi-digit back-references
+                    while (pos < regex.length() && Character.isDigit(regex.charAt(pos))) {
+                        pos++;
+                    }
+                }
+        }
+        pos = Math.min(pos, regex.length());
+    }
+
+    private void skipClass() {
+        pos++; // '['
+        if (pos < regex.length() && regex.charAt(pos) == '^') {
+            pos++;
+        }
+        if (pos < regex.length() && regex.charAt(pos) == ']') {
+            pos++; // literal ']' first in class
+        }
+        int depth = 1;
+        while (pos < regex.length() && depth > 0) {
+            char c = regex.charAt(pos);
+            if (c == '\\') {
+                pos++;
+            } else if (c == '[') {
+                depth++;
+            } else if (c == ']') {
+                depth--;
+            }
+            pos++;
+        }
+    }
+
+    private void skipGroup() {
+        int depth = 0;
+        while (pos < regex.length()) {
+            char c = regex.charAt(pos);
+            if (c == '\\') {
+                pos += 2;
+                continue;
+            }
+            if (c == '[') {
+                skipClass();
+                continue;
+            }
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+                if (depth == 0) {
+                    pos++;
+                    return;
+                }
+            }
+            pos++;
+        }
+    }
+
+    private static boolean isAscii(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
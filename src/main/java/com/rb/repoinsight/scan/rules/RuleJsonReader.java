@@ -0,0 +1,49 @@
+package com.rb.repoinsight.scan.rules;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rb.repoinsight.model.RuleConfig;
+
+/**
+ * Parses rule sources: the bundled {@code rules.json} followed by the
+ * {@code *.json} files of each external rule directory, in name order.
+ *
+ * This is the only place rules are read with Jackson, so a run that loads an
+ * up-to-date {@link RulePack} snapshot never loads it.
+ */
+final class RuleJsonReader {
+
+    private static final TypeReference<List<RuleConfig>> RULE_LIST = new TypeReference<List<RuleConfig>>() {
+    };
+
+    private RuleJsonReader() {
+    }
+
+    static List<RuleConfig> read(List<Path> ruleDirs) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<RuleConfig> rules = new ArrayList<>();
+        try (InputStream is = RuleJsonReader.class.getResourceAsStream(RulePack.BUNDLED_RULES)) {
+            if (is != null) {
+                rules.addAll(objectMapper.readValue(is, RULE_LIST));
+            }
+        } catch (IOException e) {
+            System.err.println("Warning: Failed to read bundled rules: " + e.getMessage());
+        }
+        for (Path dir : ruleDirs) {
+            for (Path file : RulePack.listRuleFiles(dir)) {
+                try {
+                    rules.addAll(objectMapper.readValue(file.toFile(), RULE_LIST));
+                } catch (IOException e) {
+                    System.err.println("Warning: Ignoring unreadable rule file " + file + ": " + e.getMessage());
+                }
+            }
+        }
+        return rules;
+    }
+}
@@ -0,0 +1,45 @@
+package com.rb.repoinsight.scan.rules;
+
+/**
+ * Options controlling how {@link CompiledRuleSet} evaluates heuristics.
+ */
+public class RuleMatchOptions {
+
+    public static final long DEFAULT_MATCH_TIMEOUT_MILLIS = 10_000;
+
+    private RegexEngine regexEngine = RegexEngine.LINEAR;
+    private long matchTimeoutMillis = DEFAULT_MATCH_TIMEOUT_MILLIS;
+    private boolean profile;
+
+    public RegexEngine getRegexEngine() {
+        return regexEngine;
+    }
+
+    public void setRegexEngine(RegexEngine regexEngine) {
+        this.regexEngine = regexEngine;
+    }
+
+    /**
+     * Time budget for matching all heuristics against one file; zero or
+     * negative disables the limit.
+     */
+    public long getMatchTimeoutMillis() {
+        return matchTimeoutMillis;
+    }
+
+    public void setMatchTimeoutMillis(long matchTimeoutMillis) {
+        this.matchTimeoutMillis = matchTimeoutMillis;
+    }
+
+    /**
+     * Whether to record what every heuristic costs; see
+     * {@link CompiledRuleSet#getCosts()}.
+     */
+    public boolean isProfile() {
+        return profile;
+    }
+
+    public void setProfile(boolean profile) {
+        this.profile = profile;
+    }
+}
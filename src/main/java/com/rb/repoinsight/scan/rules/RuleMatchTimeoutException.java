@@ -0,0 +1,25 @@
+package com.rb.repoinsight.scan.rules;
+
+import java.util.List;
+
+import com.rb.repoinsight.scan.cache.CachedFileResult;
+
+/**
+ * Matching a file did not finish within {@link RuleMatchOptions#getMatchTimeoutMillis()}.
+ * Carries the hits found before the deadline.
+ */
+public class RuleMatchTimeoutException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient List<CachedFileResult.RuleHit> partialHits;
+
+    public RuleMatchTimeoutException(long timeoutMillis, List<CachedFileResult.RuleHit> partialHits) {
+        super("Rule matching exceeded " + timeoutMillis + " ms");
+        this.partialHits = partialHits;
+    }
+
+    public List<CachedFileResult.RuleHit> getPartialHits() {
+        return partialHits;
+    }
+}
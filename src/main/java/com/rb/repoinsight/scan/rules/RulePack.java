@@ -0,0 +1,384 @@
+package com.rb.repoinsight.scan.rules;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import com.rb.repoinsight.model.DependencyCategory;
+import com.rb.repoinsight.model.RuleConfig;
+
+/**
+ * A rule set together with the prepared analysis of every heuristic, which
+ * can be saved as a compact binary snapshot.
+ *
+ * Loading an up-to-date snapshot memory-maps it and reads it in place,
+ * without parsing JSON or re-analyzing heuristics. The snapshot records a
+ * fingerprint of the rule sources (the bundled {@code rules.json} and every
+ * {@code *.json} file in the external rule directories) and is ignored, then
+ * rewritten, as soon as any of them changes.
+ *
+ * <p>File layout (big-endian):</p>
+ * <pre>
+ * header magic:int version:int sourceFingerprint:long ruleCount:int
+ * rules  ruleCount x { name:str category:str maxBytes:long stopAfterFirstHit:u8
+ *                      mavenArtifacts:list fileGlobs:list heuristicCount:u16
+ *                      { regex:str flags:u8 [literals:list] [requiredLiterals:list] [program] } }
+ * str    length:u16 utf8
+ * list   count:u16 { str }
+ * </pre>
+ * Which of the optional heuristic parts are present is given by its flags;
+ * {@code program} is a {@link LinearRegex} program.
+ */
+public final class RulePack {
+
+    static final String BUNDLED_RULES = "/rules.json";
+
+    private static final int MAGIC = 0x52495250; // "RIRP"
+    /** Bump whenever the layout or the heuristic analysis changes */
+    private static final int VERSION = 1;
+
+    private static final int HAS_LITERALS = 1;
+    private static final int HAS_REQUIRED_LITERALS = 1 << 1;
+    private static final int HAS_PROGRAM = 1 << 2;
+
+    private final List<RuleConfig> rules;
+    private final PreparedHeuristic[][] prepared;
+    private final long sourceFingerprint;
+    private final boolean fromSnapshot;
+
+    private RulePack(List<RuleConfig> rules, PreparedHeuristic[][] prepared, long sourceFingerprint,
+            boolean fromSnapshot) {
+        this.rules = rules;
+        this.prepared = prepared;
+        this.sourceFingerprint = sourceFingerprint;
+        this.fromSnapshot = fromSnapshot;
+    }
+
+    /**
+     * The bundled rules, read from {@code rules.json}.
+     */
+    public static RulePack bundled() {
+        return load(List.of(), null);
+    }
+
+    /**
+     * Load the bundled rules plus the rules of external directories.
+     *
+     * @param ruleDirs Directories whose {@code *.json} files add rules
+     * @param snapshot Snapshot to load if it is up to date, and to rewrite
+     *        otherwise; null to always read the JSON sources
+     */
+    public static RulePack load(List<Path> ruleDirs, Path snapshot) {
+        long fingerprint = fingerprintSources(ruleDirs);
+        if (snapshot != null) {
+            RulePack pack = read(snapshot, fingerprint);
+            if (pack != null) {
+                return pack;
+            }
+        }
+        RulePack pack = prepare(RuleJsonReader.read(ruleDirs), fingerprint);
+        if (snapshot != null) {
+            try {
+                pack.write(snapshot);
+            } catch (IOException e) {
+                System.err.println("Warning: Failed to save rule pack: " + e.getMessage());
+            }
+        }
+        return pack;
+    }
+
+    /**
+     * Prepare a rule set that does not come from the rule sources.
+     */
+    public static RulePack of(List<RuleConfig> rules) {
+        return prepare(rules, 0);
+    }
+
+    private static RulePack prepare(List<RuleConfig> rules, long sourceFingerprint) {
+        PreparedHeuristic[][] prepared = new PreparedHeuristic[rules.size()][];
+        for (int r = 0; r < rules.size(); r++) {
+            List<String> heuristics = nonNull(rules.get(r).getHeuristics());
+            prepared[r] = new PreparedHeuristic[heuristics.size()];
+            for (int i = 0; i < heuristics.size(); i++) {
+                prepared[r][i] = PreparedHeuristic.prepare(heuristics.get(i));
+            }
+        }
+        return new RulePack(rules, prepared, sourceFingerprint, false);
+    }
+
+    public List<RuleConfig> getRules() {
+        return rules;
+    }
+
+    /**
+     * Whether the rules were loaded from a snapshot rather than from JSON.
+     */
+    public boolean isFromSnapshot() {
+        return fromSnapshot;
+    }
+
+    /**
+     * Compile the rules into matchers, reusing the prepared analysis.
+     */
+    public CompiledRuleSet compile(RuleMatchOptions options) {
+        return CompiledRuleSet.compile(rules, prepared, options);
+    }
+
+    /**
+     * Check the rules for mistakes that would otherwise only surface as
+     * warnings or missed detections at scan time.
+     *
+     * @return One message per problem; empty if the rules are valid
+     */
+    public List<String> validate() {
+        List<String> problems = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (int r = 0; r < rules.size(); r++) {
+            RuleConfig rule = rules.get(r);
+            String name = rule.getName();
+            if (name == null || name.isBlank()) {
+                problems.add("Rule #" + (r + 1) + " has no name");
+                name = "#" + (r + 1);
+            }
+            if (rule.getCategory() == null) {
+                problems.add("Rule " + name + " has no category");
+            } else if (!seen.add(name + '\u0000' + rule.getCategory())) {
+                problems.add("Rule " + name + " is defined more than once");
+            }
+            if (nonNull(rule.getHeuristics()).isEmpty() && nonNull(rule.getMavenArtifacts()).isEmpty()) {
+                problems.add("Rule " + name + " has neither heuristics nor mavenArtifacts");
+            }
+            for (String heuristic : nonNull(rule.getHeuristics())) {
+                try {
+                    Pattern.compile(heuristic, Pattern.CASE_INSENSITIVE);
+                } catch (PatternSyntaxException e) {
+                    problems.add("Rule " + name + " has an invalid heuristic " + heuristic + ": " + e.getDescription());
+                }
+            }
+            if (rule.getMaxBytes() < 0) {
+                problems.add("Rule " + name + " has a negative maxBytes");
+            }
+        }
+        return problems;
+    }
+
+    /**
+     * Write the snapshot, replacing any existing file atomically.
+     */
+    public void write(Path file) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path temp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                writeTo(new DataOutputStream(os));
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(sourceFingerprint);
+        out.writeInt(rules.size());
+        for (int r = 0; r < rules.size(); r++) {
+            RuleConfig rule = rules.get(r);
+            writeString(out, rule.getName() == null ? "" : rule.getName());
+            writeString(out, rule.getCategory() == null ? "" : rule.getCategory().name());
+            out.writeLong(rule.getMaxBytes());
+            out.writeBoolean(rule.isStopAfterFirstHit());
+            writeList(out, nonNull(rule.getMavenArtifacts()));
+            writeList(out, nonNull(rule.getFileGlobs()));
+            List<String> heuristics = nonNull(rule.getHeuristics());
+            writeCount(out, heuristics.size());
+            for (int i = 0; i < heuristics.size(); i++) {
+                PreparedHeuristic heuristic = prepared[r][i];
+                writeString(out, heuristics.get(i));
+                int flags = (heuristic.getLiterals() != null ? HAS_LITERALS : 0)
+                        | (heuristic.getRequiredLiterals() != null ? HAS_REQUIRED_LITERALS : 0)
+                        | (heuristic.getLinear() != null ? HAS_PROGRAM : 0);
+                out.writeByte(flags);
+                if (heuristic.getLiterals() != null) {
+                    writeList(out, heuristic.getLiterals());
+                }
+                if (heuristic.getRequiredLiterals() != null) {
+                    writeList(out, heuristic.getRequiredLiterals());
+                }
+                if (heuristic.getLinear() != null) {
+                    heuristic.getLinear().writeTo(out);
+                }
+            }
+        }
+    }
+
+    /**
+     * Load a snapshot if it exists and was written from sources with the
+     * given fingerprint.
+     *
+     * @return The rule pack, or null if the snapshot is missing, stale or corrupt
+     */
+    static RulePack read(Path file, long sourceFingerprint) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (in.limit() < 20 || in.getInt() != MAGIC || in.getInt() != VERSION
+                    || in.getLong() != sourceFingerprint) {
+                return null;
+            }
+            int ruleCount = in.getInt();
+            if (ruleCount < 0 || ruleCount > in.remaining()) {
+                throw new IllegalArgumentException("Invalid rule count " + ruleCount);
+            }
+            List<RuleConfig> rules = new ArrayList<>(ruleCount);
+            PreparedHeuristic[][] prepared = new PreparedHeuristic[ruleCount][];
+            for (int r = 0; r < ruleCount; r++) {
+                RuleConfig rule = new RuleConfig();
+                rule.setName(readString(in));
+                String category = readString(in);
+                rule.setCategory(category.isEmpty() ? null : DependencyCategory.valueOf(category));
+                rule.setMaxBytes(in.getLong());
+                rule.setStopAfterFirstHit(in.get() != 0);
+                rule.setMavenArtifacts(readList(in));
+                rule.setFileGlobs(readList(in));
+                int heuristicCount = Short.toUnsignedInt(in.getShort());
+                List<String> heuristics = new ArrayList<>(heuristicCount);
+                prepared[r] = new PreparedHeuristic[heuristicCount];
+                for (int i = 0; i < heuristicCount; i++) {
+                    heuristics.add(readString(in));
+                    int flags = in.get();
+                    List<String> literals = (flags & HAS_LITERALS) != 0 ? readList(in) : null;
+                    List<String> required = (flags & HAS_REQUIRED_LITERALS) != 0 ? readList(in) : null;
+                    LinearRegex linear = (flags & HAS_PROGRAM) != 0 ? LinearRegex.readFrom(in) : null;
+                    prepared[r][i] = new PreparedHeuristic(literals, required, linear);
+                }
+                rule.setHeuristics(heuristics);
+                rules.add(rule);
+            }
+            return new RulePack(rules, prepared, sourceFingerprint, true);
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            System.err.println("Warning: Ignoring unreadable rule pack " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Fingerprint of the rule sources: the bundled rules and the name and
+     * content of every rule file in the external directories.
+     */
+    static long fingerprintSources(List<Path> ruleDirs) {
+        long hash = 0xcbf29ce484222325L;
+        try (InputStream is = RulePack.class.getResourceAsStream(BUNDLED_RULES)) {
+            if (is != null) {
+                hash = fnv(hash, is.readAllBytes());
+            }
+        } catch (IOException e) {
+            System.err.println("Warning: Failed to read bundled rules: " + e.getMessage());
+        }
+        for (Path dir : ruleDirs) {
+            for (Path file : listRuleFiles(dir)) {
+                hash = fnv(hash, file.toAbsolutePath().normalize().toString().getBytes(StandardCharsets.UTF_8));
+                try {
+                    hash = fnv(hash, Files.readAllBytes(file));
+                } catch (IOException e) {
+                    // Unreadable files are skipped by the reader as well
+                }
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * The {@code *.json} files directly inside a rule directory, in name
+     * order.
+     */
+    static List<Path> listRuleFiles(Path dir) {
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(dir)) {
+            System.err.println("Warning: Rule directory not found: " + dir);
+            return files;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*.json")) {
+            for (Path file : stream) {
+                if (Files.isRegularFile(file)) {
+                    files.add(file);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Warning: Failed to list rule directory " + dir + ": " + e.getMessage());
+        }
+        files.sort(null);
+        return files;
+    }
+
+    private static long fnv(long hash, byte[] bytes) {
+        for (byte b : bytes) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        // Separator, so moving bytes between sources changes the hash
+        hash ^= 0x100;
+        hash *= 0x100000001b3L;
+        return hash;
+    }
+
+    private static <T> List<T> nonNull(List<T> list) {
+        return list != null ? list : List.of();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeCount(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeList(DataOutputStream out, List<String> values) throws IOException {
+        writeCount(out, values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private static void writeCount(DataOutputStream out, int count) throws IOException {
+        if (count > 0xffff) {
+            throw new IOException("Rule pack entry too large: " + count);
+        }
+        out.writeShort(count);
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[Short.toUnsignedInt(in.getShort())];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static List<String> readList(ByteBuffer in) {
+        int count = Short.toUnsignedInt(in.getShort());
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(readString(in));
+        }
+        return values;
+    }
+}
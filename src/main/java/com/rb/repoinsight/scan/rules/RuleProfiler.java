@@ -0,0 +1,100 @@
+package com.rb.repoinsight.scan.rules;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Cost counters per heuristic, collected while a {@link CompiledRuleSet}
+ * matches files with profiling enabled.
+ *
+ * Matching runs one pass per engine for all heuristics at once (the literal
+ * automaton, the prefilter, the combined regex, decoding for
+ * {@code java.util.regex}). The time of such a shared pass is divided evenly
+ * between the heuristics it was run for, so times add up to the total; each
+ * of them is charged every byte the pass covered.
+ */
+final class RuleProfiler {
+
+    private final AtomicLongArray files;
+    private final AtomicLongArray invocations;
+    private final AtomicLongArray bytes;
+    private final AtomicLongArray nanos;
+    private final AtomicLongArray hits;
+
+    RuleProfiler(int heuristicCount) {
+        this.files = new AtomicLongArray(heuristicCount);
+        this.invocations = new AtomicLongArray(heuristicCount);
+        this.bytes = new AtomicLongArray(heuristicCount);
+        this.nanos = new AtomicLongArray(heuristicCount);
+        this.hits = new AtomicLongArray(heuristicCount);
+    }
+
+    /**
+     * A file is about to be matched against a heuristic.
+     */
+    void recordFile(int heuristic) {
+        files.incrementAndGet(heuristic);
+    }
+
+    /**
+     * The heuristic's matcher ran over some bytes of a file.
+     */
+    void recordInvocation(int heuristic, long scannedBytes, long elapsedNanos) {
+        invocations.incrementAndGet(heuristic);
+        bytes.addAndGet(heuristic, scannedBytes);
+        nanos.addAndGet(heuristic, elapsedNanos);
+    }
+
+    /**
+     * A pass over some bytes was made for several heuristics at once.
+     *
+     * @param shared Which heuristics the pass was made for
+     * @param invocation Whether the pass matched them, rather than only prefiltering
+     */
+    void recordShared(boolean[] shared, long scannedBytes, long elapsedNanos, boolean invocation) {
+        int count = 0;
+        for (boolean s : shared) {
+            if (s) {
+                count++;
+            }
+        }
+        if (count == 0) {
+            return;
+        }
+        for (int h = 0; h < shared.length; h++) {
+            if (shared[h]) {
+                if (invocation) {
+                    invocations.incrementAndGet(h);
+                }
+                bytes.addAndGet(h, scannedBytes);
+                nanos.addAndGet(h, elapsedNanos / count);
+            }
+        }
+    }
+
+    /**
+     * The heuristic provided the evidence of its rule in a file.
+     */
+    void recordHit(int heuristic) {
+        hits.incrementAndGet(heuristic);
+    }
+
+    long getFiles(int heuristic) {
+        return files.get(heuristic);
+    }
+
+    long getInvocations(int heuristic) {
+        return invocations.get(heuristic);
+    }
+
+    long getBytes(int heuristic) {
+        return bytes.get(heuristic);
+    }
+
+    long getNanos(int heuristic) {
+        return nanos.get(heuristic);
+    }
+
+    long getHits(int heuristic) {
+        return hits.get(heuristic);
+    }
+}
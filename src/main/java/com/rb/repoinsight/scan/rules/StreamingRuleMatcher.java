@@ -0,0 +1,173 @@
+package com.rb.repoinsight.scan.rules;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.List;
+
+import com.rb.repoinsight.profile.FileReadEvent;
+import com.rb.repoinsight.scan.cache.CachedFileResult;
+
+/**
+ * Matches a {@link CompiledRuleSet} against files of any size in fixed-size
+ * windows, so memory per worker thread is bounded by the window size rather
+ * than by the largest file.
+ *
+ * Each window is read into a pooled per-thread buffer together with a little
+ * context before it and an overlap after it. Matches are only accepted if
+ * they start inside the window proper; the overlap lets a match that starts
+ * near the end of the window complete, and the next window then starts where
+ * this one ended. Evidence is therefore identical to matching the whole file
+ * at once for any match shorter than {@link #OVERLAP_BYTES}. Reading stops as
+ * soon as every rule is decided.
+ *
+ * Windows are matched on their raw bytes. A window is decoded into a pooled
+ * char buffer only if a heuristic that needs {@code java.util.regex} may
+ * match in it. Bytes that are not valid UTF-8 are decoded as U+FFFD, so
+ * files in other encodings are still matched on their ASCII text instead of
+ * being skipped.
+ */
+public final class StreamingRuleMatcher {
+
+    public static final int DEFAULT_WINDOW_BYTES = 1 << 20;
+    /** Longest match guaranteed to be reported exactly across a window boundary */
+    public static final int OVERLAP_BYTES = 64 * 1024;
+    /** Text before a window kept for look-behind and word boundaries */
+    private static final int CONTEXT_BYTES = 256;
+    private static final int MIN_WINDOW_BYTES = 16;
+
+    private final CompiledRuleSet rules;
+    private final int windowBytes;
+    private final int overlapBytes;
+    private final ThreadLocal<byte[]> byteBuffers;
+    private final ThreadLocal<CharBuffer> charBuffers;
+
+    public StreamingRuleMatcher(CompiledRuleSet rules) {
+        this(rules, DEFAULT_WINDOW_BYTES, OVERLAP_BYTES);
+    }
+
+    StreamingRuleMatcher(CompiledRuleSet rules, int windowBytes, int overlapBytes) {
+        this.rules = rules;
+        this.windowBytes = Math.max(MIN_WINDOW_BYTES, windowBytes);
+        this.overlapBytes = Math.max(0, overlapBytes);
+        int capacity = CONTEXT_BYTES + this.windowBytes + this.overlapBytes + 1;
+        this.byteBuffers = ThreadLocal.withInitial(() -> new byte[capacity]);
+        this.charBuffers = ThreadLocal.withInitial(() -> CharBuffer.allocate(capacity));
+    }
+
+    /**
+     * Match some of the rules against a file.
+     *
+     * @param selectedRules Indexes of the rules to match, or null for all rules
+     * @param maxBytes Only match the first {@code maxBytes} bytes; zero or negative for the whole file
+     * @return For each matching rule (in rule order), the text matched by its
+     *         first matching heuristic
+     * @throws IOException If the file cannot be read
+     * @throws RuleMatchTimeoutException If the file could not be matched within the deadline
+     */
+    public List<CachedFileResult.RuleHit> match(Path file, BitSet selectedRules, long maxBytes)
+            throws IOException, RuleMatchTimeoutException {
+        CompiledRuleSet.MatchState state = rules.start(selectedRules);
+        byte[] bytes = byteBuffers.get();
+        CharBuffer chars = charBuffers.get();
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+        FileReadEvent event = new FileReadEvent();
+        event.begin();
+        long size;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            size = maxBytes > 0 ? Math.min(maxBytes, fileSize) : fileSize;
+            long windowStart = 0;
+            while (!state.isDone()) {
+                long readStart = Math.max(0, windowStart - CONTEXT_BYTES);
+                long windowEnd = Math.min(size, windowStart + windowBytes);
+                long overlapEnd = Math.min(size, windowEnd + overlapBytes);
+                // One byte past the end shows whether the end falls inside a character
+                int read = read(channel, readStart, bytes, (int) (Math.min(fileSize, overlapEnd + 1) - readStart));
+                int length = (int) Math.min(read, size - readStart);
+
+                int contextIndex = 0;
+                int windowIndex = (int) (windowStart - readStart);
+                while (contextIndex < windowIndex && isContinuation(bytes[contextIndex])) {
+                    contextIndex++;
+                }
+                boolean last = windowEnd >= size;
+                if (last && read > length) {
+                    // A byte limit must not cut a character in half
+                    length = alignDown(bytes, length, windowIndex);
+                }
+                int windowEndIndex = last ? length : alignDown(bytes, (int) (windowEnd - readStart), windowIndex);
+                int overlapEndIndex = overlapEnd >= size ? length
+                        : alignDown(bytes, (int) (overlapEnd - readStart), windowEndIndex);
+
+                int contextStart = contextIndex;
+                rules.matchWindow(state, bytes, windowIndex, windowEndIndex, overlapEndIndex, bounds -> {
+                    chars.clear();
+                    decode(decoder, bytes, contextStart, windowIndex, chars);
+                    bounds[0] = chars.position();
+                    decode(decoder, bytes, windowIndex, windowEndIndex, chars);
+                    bounds[1] = chars.position();
+                    decode(decoder, bytes, windowEndIndex, overlapEndIndex, chars);
+                    chars.flip();
+                    return chars;
+                });
+                if (last) {
+                    break;
+                }
+                windowStart = readStart + windowEndIndex;
+            }
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.setPath(file.toString());
+            event.setBytes(size);
+            event.commit();
+        }
+        return state.hits();
+    }
+
+    private static int read(FileChannel channel, long position, byte[] bytes, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, Math.max(0, length));
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                break;
+            }
+        }
+        return buffer.position();
+    }
+
+    private static void decode(CharsetDecoder decoder, byte[] bytes, int from, int to, CharBuffer out) {
+        decoder.reset();
+        ByteBuffer in = ByteBuffer.wrap(bytes, from, to - from);
+        decoder.decode(in, out, true);
+        decoder.flush(out);
+    }
+
+    /**
+     * Move a cut point back to the start of the UTF-8 sequence it falls in,
+     * but never below {@code floor}.
+     */
+    private static int alignDown(byte[] bytes, int index, int floor) {
+        for (int i = index; i > floor && index - i <= 3; i--) {
+            if (!isContinuation(bytes[i])) {
+                return i;
+            }
+        }
+        return index;
+    }
+
+    private static boolean isContinuation(byte b) {
+        return (b & 0xc0) == 0x80;
+    }
+}
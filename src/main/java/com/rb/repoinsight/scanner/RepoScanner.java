@@ -1,251 +1,259 @@
 package com.rb.repoinsight.scanner;
 
-import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
-import com.rb.repoinsight.constants.PromptsConfig;
 import com.rb.repoinsight.constants.RepoConstants;
+import com.rb.repoinsight.model.ExternalDependency;
 import com.rb.repoinsight.model.RepoContext;
 import com.rb.repoinsight.scan.RuleEngineScanner;
+import com.rb.repoinsight.scan.cache.FileResultCache;
+import com.rb.repoinsight.scan.gradle.GradleProject;
+import com.rb.repoinsight.scan.index.RepoFileIndex;
+import com.rb.repoinsight.scan.maven.PomModel;
 
 public class RepoScanner {
 
-    public RepoContext scan(Path repoRoot) {
-        RepoContext context = new RepoContext();
-        context.setRepoPath(repoRoot.toAbsolutePath().toString());
+    private static final String MAVEN_COMPILER_PLUGIN = "org.apache.maven.plugins:maven-compiler-plugin";
 
-        RuleEngineScanner ruleEngineScanner = new RuleEngineScanner();
+    private final RuleEngineScanner ruleEngineScanner;
 
-        List<com.rb.repoinsight.model.ExternalDependency> allDeps = new ArrayList<>(ruleEngineScanner.scan(repoRoot));
+    public RepoScanner() {
+        this(FileResultCache.disabled());
+    }
 
-        context.setExternalDependencies(allDeps);
+    public RepoScanner(FileResultCache cache) {
+        this(new RuleEngineScanner(cache));
+    }
 
-        detectBuildTool(repoRoot, context);
-        detectTests(repoRoot, context);
-        detectCi(repoRoot, context);
+    public RepoScanner(RuleEngineScanner ruleEngineScanner) {
+        this.ruleEngineScanner = ruleEngineScanner;
+    }
 
-        if (context.getBuildTool() != null) {
-            detectPackagingAndFrameworks(repoRoot, context);
-        }
+    public RepoContext scan(Path repoRoot) {
+        return scan(RepoFileIndex.build(repoRoot));
+    }
 
-        detectLanguage(repoRoot, context);
-
-        try {
-            Process process = new ProcessBuilder(
-                    "copilot", "suggest",
-                    "--type", "chat",
-                    PromptsConfig.ARCHITECTURAL_OVERVIEW_PROMPT)
-                    .directory(repoRoot.toFile())
-                    .redirectErrorStream(true)
-                    .start();
-
-            String output = new String(process.getInputStream().readAllBytes());
-            int exitCode = process.waitFor();
-
-            if (exitCode == 0 && !output.isBlank()) {
-                context.setCopilotAvailable(true);
-                context.setCopilotOutput(output.trim());
-            } else {
-                context.setCopilotAvailable(false);
-                context.setCopilotFailureReason(
-                        "Copilot CLI returned no output (exit code " + exitCode + ")");
-            }
-        } catch (IOException | InterruptedException e) {
-            context.setCopilotAvailable(false);
-            context.setCopilotFailureReason(e.getMessage());
+    public RepoContext scan(RepoFileIndex index) {
+        RepoContext context = new RepoContext();
+        context.setRepoPath(index.getRoot().toAbsolutePath().toString());
+        context.setExternalDependencies(scanDependencies(index));
+        detectBuild(index, context);
+        return context;
+    }
+
+    /**
+     * External systems found by the rule engine.
+     */
+    public List<ExternalDependency> scanDependencies(RepoFileIndex index) {
+        return new ArrayList<>(ruleEngineScanner.scan(index));
+    }
+
+    /**
+     * Record the build tool, tests, CI, packaging, frameworks and language.
+     */
+    public void detectBuild(RepoFileIndex index, RepoContext context) {
+        detectBuildTool(index, context);
+        detectTests(index, context);
+        detectCi(index, context);
+
+        if (context.getBuildTool() != null) {
+            detectPackagingAndFrameworks(index, context);
         }
 
-        return context;
+        detectLanguage(index, context);
     }
 
     // --------------------------------------------------
     // Detection methods
     // --------------------------------------------------
 
-    private void detectLanguage(Path repoRoot, RepoContext context) {
+    private void detectLanguage(RepoFileIndex index, RepoContext context) {
         // Check standard locations first
-        if (Files.exists(repoRoot.resolve("src/main/java"))) {
+        if (index.exists("src/main/java")) {
             context.setLanguage(RepoConstants.LANGUAGE_JAVA);
             return;
-        } else if (Files.exists(repoRoot.resolve("src/main/kotlin"))) {
+        } else if (index.exists("src/main/kotlin")) {
             context.setLanguage(RepoConstants.LANGUAGE_KOTLIN);
             return;
         }
         
-        // For Maven projects, try to parse pom.xml for custom sourceDirectory
-        if (RepoConstants.BUILD_TOOL_MAVEN.equals(context.getBuildTool())) {
-            try {
-                String pomContent = Files.readString(repoRoot.resolve("pom.xml"));
-                
-                // Look for custom sourceDirectory in pom.xml
-                if (pomContent.contains("<sourceDirectory>")) {
-                    int start = pomContent.indexOf("<sourceDirectory>") + "<sourceDirectory>".length();
-                    int end = pomContent.indexOf("</sourceDirectory>", start);
-                    if (start < end) {
-                        String sourceDir = pomContent.substring(start, end).trim();
-                        Path customSource = repoRoot.resolve(sourceDir);
-                        if (Files.exists(customSource)) {
-                            if (hasJavaFiles(customSource)) {
-                                context.setLanguage(RepoConstants.LANGUAGE_JAVA);
-                                return;
-                            } else if (hasKotlinFiles(customSource)) {
-                                context.setLanguage(RepoConstants.LANGUAGE_KOTLIN);
-                                return;
-                            }
-                        }
+        // For Maven projects, use the custom sourceDirectory of pom.xml
+        PomModel pom = index.getPoms().getRoot();
+        if (RepoConstants.BUILD_TOOL_MAVEN.equals(context.getBuildTool()) && pom != null) {
+            if (pom.getSourceDirectory() != null) {
+                String customSource = index.toRelativePath(Path.of(pom.getSourceDirectory()));
+                if (customSource != null && index.exists(customSource)) {
+                    if (index.anyFileUnder(customSource, ".java")) {
+                        context.setLanguage(RepoConstants.LANGUAGE_JAVA);
+                        return;
+                    } else if (index.anyFileUnder(customSource, ".kt")) {
+                        context.setLanguage(RepoConstants.LANGUAGE_KOTLIN);
+                        return;
                     }
                 }
-                
-                // If pom.xml is explicitly Java and no source files found, still mark as Java
-                if (pomContent.contains("java")) {
-                    context.setLanguage(RepoConstants.LANGUAGE_JAVA);
-                    return;
-                }
-            } catch (IOException e) {
-                // Continue with directory-based detection
+            }
+
+            // If pom.xml is explicitly Java and no source files found, still mark as Java
+            if (configuresJavaCompiler(index)) {
+                context.setLanguage(RepoConstants.LANGUAGE_JAVA);
+                return;
             }
         }
         
         // Check for any Java files in the repository
-        if (hasJavaFilesAnywhere(repoRoot)) {
+        if (index.anyFileWithExtension(".java")) {
             context.setLanguage(RepoConstants.LANGUAGE_JAVA);
-        } else if (hasKotlinFilesAnywhere(repoRoot)) {
+        } else if (index.anyFileWithExtension(".kt")) {
             context.setLanguage(RepoConstants.LANGUAGE_KOTLIN);
         } else {
             context.setLanguage(RepoConstants.LANGUAGE_UNKNOWN);
         }
     }
     
-    private boolean hasJavaFiles(Path dir) {
-        try (var stream = Files.walk(dir)) {
-            return stream.anyMatch(p -> p.toString().endsWith(".java"));
-        } catch (IOException e) {
-            return false;
-        }
-    }
-    
-    private boolean hasKotlinFiles(Path dir) {
-        try (var stream = Files.walk(dir)) {
-            return stream.anyMatch(p -> p.toString().endsWith(".kt"));
-        } catch (IOException e) {
-            return false;
-        }
-    }
-    
-    private boolean hasJavaFilesAnywhere(Path root) {
-        try (var stream = Files.walk(root)) {
-            return stream.limit(1000).anyMatch(p -> p.toString().endsWith(".java"));
-        } catch (IOException e) {
-            return false;
-        }
-    }
-    
-    private boolean hasKotlinFilesAnywhere(Path root) {
-        try (var stream = Files.walk(root)) {
-            return stream.limit(1000).anyMatch(p -> p.toString().endsWith(".kt"));
-        } catch (IOException e) {
-            return false;
-        }
-    }
-
-    private void detectBuildTool(Path repoRoot, RepoContext context) {
-        if (Files.exists(repoRoot.resolve("pom.xml"))) {
+    private void detectBuildTool(RepoFileIndex index, RepoContext context) {
+        if (index.containsFile("pom.xml")) {
             context.setBuildTool(RepoConstants.BUILD_TOOL_MAVEN);
-        } else if (Files.exists(repoRoot.resolve("build.gradle"))
-                || Files.exists(repoRoot.resolve("build.gradle.kts"))) {
+        } else if (index.containsFile("build.gradle")
+                || index.containsFile("build.gradle.kts")) {
             context.setBuildTool(RepoConstants.BUILD_TOOL_GRADLE);
         }
     }
 
-    private void detectTests(Path repoRoot, RepoContext context) {
-        try {
-            Path testDir = repoRoot.resolve("src/test");
-            if (!Files.exists(testDir)) {
-                context.setHasTests(false);
-                return;
-            }
-            
-            // Check if there are actual test files (not just empty directory)
-            try (var stream = Files.walk(testDir)) {
-                boolean hasTestFiles = stream
-                        .filter(Files::isRegularFile)
-                        .anyMatch(path -> path.toString().endsWith(".java"));
-                context.setHasTests(hasTestFiles);
-            }
-        } catch (Exception e) {
+    private void detectTests(RepoFileIndex index, RepoContext context) {
+        if (!index.containsDirectory("src/test")) {
             context.setHasTests(false);
+            return;
         }
+
+        // Check if there are actual test files (not just empty directory)
+        context.setHasTests(index.anyFileUnder("src/test", ".java"));
     }
 
-    private void detectCi(Path repoRoot, RepoContext context) {
+    private void detectCi(RepoFileIndex index, RepoContext context) {
         context.setHasCi(
-                Files.exists(repoRoot.resolve(".github/workflows"))
-                        || Files.exists(repoRoot.resolve(".gitlab-ci.yml")));
+                index.exists(".github/workflows")
+                        || index.exists(".gitlab-ci.yml"));
     }
 
-    private void detectPackagingAndFrameworks(Path repoRoot, RepoContext context) {
-        try {
-            String buildFilesContent = readBuildFiles(repoRoot, context.getBuildTool());
-
-            detectPackaging(buildFilesContent, context);
-            detectSpring(buildFilesContent, context);
-            detectDatabaseIntegration(buildFilesContent, context);
-
-        } catch (IOException e) {
+    private void detectPackagingAndFrameworks(RepoFileIndex index, RepoContext context) {
+        if (!hasBuildModel(index, context.getBuildTool())) {
             // Best-effort scan; do not fail the whole analysis
             context.setPackagingType(RepoConstants.PACKAGING_UNKNOWN);
+            return;
         }
+        String buildFilesContent = readBuildFiles(index, context.getBuildTool());
+        String packaging = declaredPackaging(index, context.getBuildTool());
+
+        detectPackaging(packaging, context);
+        detectSpring(buildFilesContent, context);
+        detectDatabaseIntegration(buildFilesContent, context);
     }
 
     // --------------------------------------------------
     // Heuristic helpers
     // --------------------------------------------------
 
-    private String readBuildFiles(Path repoRoot, String buildTool) throws IOException {
-        StringBuilder content = new StringBuilder();
+    /**
+     * Whether the root build file could be read.
+     */
+    private static boolean hasBuildModel(RepoFileIndex index, String buildTool) {
+        if (RepoConstants.BUILD_TOOL_MAVEN.equals(buildTool)) {
+            return index.getPoms().getRoot() != null;
+        }
+        return !index.getGradleBuild().getProjects().isEmpty();
+    }
 
+    private String readBuildFiles(RepoFileIndex index, String buildTool) {
         if (RepoConstants.BUILD_TOOL_MAVEN.equals(buildTool)) {
-            content.append(Files.readString(repoRoot.resolve("pom.xml")));
+            return describeMavenBuild(index);
         }
+        if (RepoConstants.BUILD_TOOL_GRADLE.equals(buildTool)) {
+            return describeGradleBuild(index);
+        }
+        return "";
+    }
 
+    /**
+     * The packaging of pom.xml, or {@code war} for a Gradle root project
+     * applying the war plugin; null if not declared.
+     */
+    private static String declaredPackaging(RepoFileIndex index, String buildTool) {
+        if (RepoConstants.BUILD_TOOL_MAVEN.equals(buildTool)) {
+            PomModel pom = index.getPoms().getRoot();
+            return pom != null ? pom.getPackaging() : null;
+        }
         if (RepoConstants.BUILD_TOOL_GRADLE.equals(buildTool)) {
-            Path gradle = repoRoot.resolve("build.gradle");
-            Path gradleKts = repoRoot.resolve("build.gradle.kts");
+            List<GradleProject> projects = index.getGradleBuild().getProjects();
+            return !projects.isEmpty() && projects.get(0).getPlugins().contains("war") ? "war" : null;
+        }
+        return null;
+    }
 
-            if (Files.exists(gradle)) {
-                content.append(Files.readString(gradle));
+    /**
+     * Whether a Maven project sets a Java release, through {@code java.version}
+     * or a {@code maven.compiler.*} property, or declares the compiler plugin.
+     */
+    private static boolean configuresJavaCompiler(RepoFileIndex index) {
+        for (PomModel pom : index.getPoms().getProjects()) {
+            if (pom.getPlugins().contains(MAVEN_COMPILER_PLUGIN)) {
+                return true;
             }
-            if (Files.exists(gradleKts)) {
-                content.append(Files.readString(gradleKts));
+            for (String property : pom.getProperties().keySet()) {
+                if ("java.version".equals(property) || property.startsWith("maven.compiler.")) {
+                    return true;
+                }
             }
         }
+        return false;
+    }
 
+    /**
+     * The coordinates and properties of the Maven projects, one per line,
+     * for the identifier checks below.
+     */
+    private static String describeMavenBuild(RepoFileIndex index) {
+        StringBuilder content = new StringBuilder();
+        for (PomModel pom : index.getPoms().getProjects()) {
+            if (pom.getParent() != null) {
+                content.append(pom.getParent().getKey()).append('\n');
+            }
+            for (String coordinate : pom.getDependencies()) {
+                content.append(coordinate).append('\n');
+            }
+            for (String coordinate : pom.getPlugins()) {
+                content.append(coordinate).append('\n');
+            }
+            pom.getProperties().forEach((name, value) -> content.append(name).append('=').append(value).append('\n'));
+        }
         return content.toString();
     }
 
-    private void detectPackaging(String buildFilesContent, RepoContext context) {
-        // Try to parse <packaging> element from pom.xml
-        if (buildFilesContent.contains("<packaging>")) {
-            int start = buildFilesContent.indexOf("<packaging>") + "<packaging>".length();
-            int end = buildFilesContent.indexOf("</packaging>", start);
-            if (start < end) {
-                String packaging = buildFilesContent.substring(start, end).trim();
-                if ("war".equalsIgnoreCase(packaging)) {
-                    context.setPackagingType(RepoConstants.PACKAGING_WAR);
-                    return;
-                } else if ("ear".equalsIgnoreCase(packaging) || "jar".equalsIgnoreCase(packaging)) {
-                    context.setPackagingType(RepoConstants.PACKAGING_JAR);
-                    return;
-                }
+    /**
+     * The dependencies and plugins of the Gradle projects, one per line.
+     */
+    private static String describeGradleBuild(RepoFileIndex index) {
+        StringBuilder content = new StringBuilder();
+        for (GradleProject project : index.getGradleBuild().getProjects()) {
+            for (String coordinate : project.getDependencies()) {
+                content.append(coordinate).append('\n');
+            }
+            for (String plugin : project.getPlugins()) {
+                content.append(plugin).append('\n');
             }
         }
-        
-        // Fallback: detect based on presence of WAR indicators
-        if (buildFilesContent.contains("<packaging>war</packaging>")
-                || (buildFilesContent.contains("war") && buildFilesContent.contains("webapp"))) {
+        return content.toString();
+    }
+
+    /**
+     * Only a declared packaging makes a WAR: without one Maven builds a jar,
+     * even when the war plugin is configured.
+     *
+     * @param packaging The packaging declared in pom.xml, or null
+     */
+    private void detectPackaging(String packaging, RepoContext context) {
+        if ("war".equalsIgnoreCase(packaging)) {
             context.setPackagingType(RepoConstants.PACKAGING_WAR);
         } else {
             // Default to JAR (Maven convention)
@@ -6,12 +6,12 @@ import java.util.stream.Collectors;
 
 import com.rb.repoinsight.ai.AiClient;
 import com.rb.repoinsight.constants.PromptsConfig;
+import com.rb.repoinsight.model.AiAnalysisResult;
 import com.rb.repoinsight.model.RepoContext;
+import com.rb.repoinsight.profile.ProcessExecutionEvent;
 import com.rb.repoinsight.scan.ArchitectureAnalyzer;
-import com.rb.repoinsight.scan.ComplexityAnalyzer;
 import com.rb.repoinsight.scan.RepoMetrics;
-import com.rb.repoinsight.scan.RepoMetricsCollector;
-import com.rb.repoinsight.scan.TestCoverageCalculator;
+import com.rb.repoinsight.scan.index.RepoFileIndex;
 
 /**
  * Orchestrates the AI-enhanced analysis workflow.
@@ -21,37 +21,30 @@ public class AnalysisOrchestrator {
     private static final int MAX_PROMPT_LENGTH = 8000;
 
     private final AiClient aiClient;
-    private final RepoMetricsCollector metricsCollector;
 
-    public AnalysisOrchestrator(AiClient aiClient,
-            RepoMetricsCollector metricsCollector) {
+    public AnalysisOrchestrator(AiClient aiClient) {
         this.aiClient = aiClient;
-        this.metricsCollector = metricsCollector;
     }
 
-    public void performAnalysis(RepoContext context, Path repoRoot) {
+    /**
+     * Ask the AI for an analysis of the repository. Blocks until the AI
+     * responds; the context is only read, so other stages may keep
+     * recording results in it meanwhile.
+     *
+     * @param context Context with the build and dependency results recorded
+     * @param metrics Metrics of the repository, collected once by the caller
+     * @return The outcome, to be recorded with {@link AiAnalysisResult#applyTo}
+     */
+    public AiAnalysisResult performAnalysis(RepoContext context, RepoMetrics metrics) {
 
         if (!aiClient.isAvailable()) {
-            context.setCopilotAvailable(false);
-            context.setCopilotFailureReason(aiClient.getUnavailabilityReason());
             System.out.println("AI Analysis skipped: " + aiClient.getUnavailabilityReason());
-            return;
+            return AiAnalysisResult.failure(aiClient.getUnavailabilityReason());
         }
 
         System.out.println("Sending repository metrics to GitHub Copilot...");
 
         try {
-            RepoMetrics metrics = metricsCollector.collect(repoRoot);
-            
-            // Calculate test coverage (always run heuristic)
-            int coverage = TestCoverageCalculator.calculateApproximateCoverage(
-                metrics.getTotalClasses(), 
-                metrics.getTotalTestClasses());
-            context.setTestCoveragePercentage(coverage);
-            
-            // Analyze complexity and maintainability
-            ComplexityAnalyzer.analyze(context, metrics);
-            
             String prompt = loadAndPopulateTemplate(context, metrics);
 
             if (prompt.length() > MAX_PROMPT_LENGTH) {
@@ -63,25 +56,58 @@ public class AnalysisOrchestrator {
             String analysis = aiClient.analyze(prompt);
 
             if (analysis == null || analysis.trim().isEmpty()) {
-                context.setCopilotAvailable(false);
-                context.setCopilotFailureReason("Empty response from Copilot.");
-                return;
+                return AiAnalysisResult.failure("Empty response from Copilot.");
             }
 
             if (analysis.startsWith("AI Analysis Failed")
                     || analysis.startsWith("AI Analysis Unavailable")) {
-                context.setCopilotAvailable(false);
-                context.setCopilotFailureReason(analysis);
-                return;
+                return AiAnalysisResult.failure(analysis);
             }
 
-            context.setCopilotAvailable(true);
-            context.setCopilotOutput(cleanCopilotOutput(analysis.trim()));
+            return AiAnalysisResult.success(cleanCopilotOutput(analysis.trim()));
 
         } catch (IOException e) {
-            context.setCopilotAvailable(false);
-            context.setCopilotFailureReason("AI Analysis Failed: " + e.getMessage());
             System.err.println("AI Analysis error: " + e.getMessage());
+            return AiAnalysisResult.failure("AI Analysis Failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Ask the Copilot CLI for an architectural overview and record it, or
+     * why it is unavailable. Blocks until the CLI exits.
+     */
+    public void requestOverview(RepoContext context, Path repoRoot) {
+        ProcessExecutionEvent event = new ProcessExecutionEvent();
+        event.begin();
+        try {
+            Process process = new ProcessBuilder(
+                    "copilot", "suggest",
+                    "--type", "chat",
+                    PromptsConfig.ARCHITECTURAL_OVERVIEW_PROMPT)
+                    .directory(repoRoot.toFile())
+                    .redirectErrorStream(true)
+                    .start();
+
+            String output = new String(process.getInputStream().readAllBytes());
+            int exitCode = process.waitFor();
+            event.end();
+            if (event.shouldCommit()) {
+                event.setCommand("copilot suggest --type chat");
+                event.setExitCode(exitCode);
+                event.commit();
+            }
+
+            if (exitCode == 0 && !output.isBlank()) {
+                context.setCopilotAvailable(true);
+                context.setCopilotOutput(output.trim());
+            } else {
+                context.setCopilotAvailable(false);
+                context.setCopilotFailureReason(
+                        "Copilot CLI returned no output (exit code " + exitCode + ")");
+            }
+        } catch (IOException | InterruptedException e) {
+            context.setCopilotAvailable(false);
+            context.setCopilotFailureReason(e.getMessage());
         }
     }
 
@@ -164,17 +190,26 @@ public class AnalysisOrchestrator {
      * Analyze project architecture independently of AI.
      * This runs even when AI is not available.
      */
-    public void analyzeArchitecture(RepoContext context, Path repoRoot) {
+    public void analyzeArchitecture(RepoContext context, RepoFileIndex index) {
+        try {
+            ArchitectureAnalyzer.analyze(index, context);
+        } catch (Exception e) {
+            System.err.println("Architecture analysis error: " + e.getMessage());
+            // Best-effort, continue without architecture data
+        }
+    }
+
+    /**
+     * Add AI descriptions to the modules found by
+     * {@link #analyzeArchitecture}, if the Copilot overview is available.
+     */
+    public void describeModules(RepoContext context, RepoFileIndex index) {
         try {
-            ArchitectureAnalyzer.analyze(repoRoot, context);
-            
-            // Enhance with AI descriptions if available
             if (context.isCopilotAvailable()) {
-                ArchitectureAnalyzer.enhanceWithAiDescriptions(repoRoot, context);
+                ArchitectureAnalyzer.enhanceWithAiDescriptions(index.getRoot(), context);
             }
         } catch (Exception e) {
             System.err.println("Architecture analysis error: " + e.getMessage());
-            // Best-effort, continue without architecture data
         }
     }
 
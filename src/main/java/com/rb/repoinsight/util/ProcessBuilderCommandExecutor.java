@@ -5,6 +5,8 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.util.stream.Collectors;
 
+import com.rb.repoinsight.profile.ProcessExecutionEvent;
+
 /**
  * Production implementation of SystemCommandExecutor using ProcessBuilder.
  */
@@ -33,6 +35,8 @@ public class ProcessBuilderCommandExecutor implements SystemCommandExecutor {
             }
         }
 
+        ProcessExecutionEvent event = new ProcessExecutionEvent();
+        event.begin();
         ProcessBuilder pb = new ProcessBuilder(resolvedCommand);
         pb.redirectErrorStream(false);
 
@@ -55,6 +59,12 @@ public class ProcessBuilderCommandExecutor implements SystemCommandExecutor {
             Thread.currentThread().interrupt();
             throw new IOException("Command execution interrupted", e);
         }
+        event.end();
+        if (event.shouldCommit()) {
+            event.setCommand(String.join(" ", command));
+            event.setExitCode(exitCode);
+            event.commit();
+        }
 
         return new CommandResult(exitCode, stdout, stderr);
     }
@@ -0,0 +1,122 @@
+package com.rb.repoinsight.pipeline;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for Pipeline.
+ */
+class PipelineTest {
+
+    private static final PipelineKey<Integer> SOURCE = PipelineKey.of("source");
+    private static final PipelineKey<Integer> LEFT = PipelineKey.of("left");
+    private static final PipelineKey<Integer> RIGHT = PipelineKey.of("right");
+    private static final PipelineKey<Integer> SUM = PipelineKey.of("sum");
+
+    @Test
+    void testComputesSharedInputOnce() {
+        AtomicInteger sourceRuns = new AtomicInteger();
+        Pipeline pipeline = new Pipeline()
+                .stage("source", SOURCE, List.of(), in -> sourceRuns.incrementAndGet() * 10)
+                .stage("left", LEFT, List.of(SOURCE), in -> in.get(SOURCE) + 1)
+                .stage("right", RIGHT, List.of(SOURCE), in -> in.get(SOURCE) + 2)
+                .stage("sum", SUM, List.of(LEFT, RIGHT), in -> in.get(LEFT) + in.get(RIGHT));
+
+        PipelineResults results = pipeline.run(4);
+
+        assertEquals(23, results.get(SUM));
+        assertEquals(1, sourceRuns.get());
+        assertEquals(List.of("source", "left", "right", "sum"), List.copyOf(results.getStageNanos().keySet()));
+        assertEquals(results.getStageNanos().keySet(), results.getStageCpuNanos().keySet());
+    }
+
+    @Test
+    void testRunsIndependentStagesConcurrently() {
+        // Each stage waits for the other to start, which only completes if both run at once
+        CountDownLatch started = new CountDownLatch(2);
+        Pipeline pipeline = new Pipeline()
+                .stage("left", LEFT, List.of(), in -> awaitOther(started))
+                .stage("right", RIGHT, List.of(), in -> awaitOther(started));
+
+        PipelineResults results = pipeline.run(2);
+
+        assertEquals(1, results.get(LEFT));
+        assertEquals(1, results.get(RIGHT));
+    }
+
+    @Test
+    void testAsyncStageOverlapsPoolStages() {
+        // With a single pool thread, the stages only meet if the async one has its own thread
+        CountDownLatch started = new CountDownLatch(2);
+        Pipeline pipeline = new Pipeline()
+                .asyncStage("left", LEFT, List.of(), in -> awaitOther(started))
+                .stage("right", RIGHT, List.of(), in -> awaitOther(started))
+                .stage("sum", SUM, List.of(LEFT, RIGHT), in -> in.get(LEFT) + in.get(RIGHT));
+
+        PipelineResults results = pipeline.run(1);
+
+        assertEquals(2, results.get(SUM));
+    }
+
+    @Test
+    void testSkipsDependentsOfFailedStageAndRunsTheRest() {
+        AtomicInteger sumRuns = new AtomicInteger();
+        Pipeline pipeline = new Pipeline()
+                .stage("source", SOURCE, List.of(), in -> 1)
+                .stage("left", LEFT, List.of(SOURCE), in -> {
+                    throw new IllegalStateException("broken");
+                })
+                .stage("right", RIGHT, List.of(SOURCE), in -> in.get(SOURCE) + 2)
+                .stage("sum", SUM, List.of(LEFT, RIGHT), in -> sumRuns.incrementAndGet());
+
+        PipelineResults results = pipeline.run(2);
+
+        assertEquals(1, results.getFailures().size());
+        PipelineException failure = results.getFailures().get(0);
+        assertEquals("left", failure.getStageName());
+        assertTrue(failure.getCause() instanceof IllegalStateException);
+        assertEquals(0, sumRuns.get());
+        assertEquals(List.of("sum"), results.getSkippedStages());
+        assertEquals(3, results.get(RIGHT));
+        assertFalse(results.has(LEFT));
+        assertFalse(results.has(SUM));
+        assertThrows(IllegalArgumentException.class, () -> results.get(SUM));
+        assertEquals(List.of("source", "left", "right"), List.copyOf(results.getStageNanos().keySet()));
+    }
+
+    @Test
+    void testRejectsInvalidGraphs() {
+        Pipeline pipeline = new Pipeline().stage("source", SOURCE, List.of(), in -> 1);
+
+        assertThrows(IllegalArgumentException.class, () -> pipeline.stage("other", SOURCE, List.of(), in -> 2));
+        assertThrows(IllegalArgumentException.class, () -> pipeline.stage("source", LEFT, List.of(), in -> 2));
+        assertThrows(IllegalArgumentException.class, () -> pipeline.stage("sum", SUM, List.of(LEFT), in -> 2));
+        assertEquals(1, pipeline.size());
+    }
+
+    @Test
+    void testRejectsUndeclaredInputs() {
+        Pipeline pipeline = new Pipeline()
+                .stage("source", SOURCE, List.of(), in -> 1)
+                .stage("left", LEFT, List.of(), in -> in.get(SOURCE));
+
+        PipelineException failure = pipeline.run(1).getFailures().get(0);
+
+        assertEquals("left", failure.getStageName());
+        assertFalse(failure.getMessage().isEmpty());
+        assertTrue(failure.getCause() instanceof IllegalArgumentException);
+    }
+
+    private static int awaitOther(CountDownLatch started) throws InterruptedException {
+        started.countDown();
+        return started.await(10, TimeUnit.SECONDS) ? 1 : 0;
+    }
+}
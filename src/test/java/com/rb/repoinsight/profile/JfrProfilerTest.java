@@ -0,0 +1,50 @@
+package com.rb.repoinsight.profile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for JfrProfiler and HotSpotSummary.
+ */
+class JfrProfilerTest {
+
+    @Test
+    void testRecordsAndSummarizesSpans(@TempDir Path tempDir) throws IOException {
+        Path recordingFile = tempDir.resolve("run.jfr");
+        JfrProfiler profiler = JfrProfiler.start(recordingFile);
+        for (int i = 0; i < 2; i++) {
+            StageEvent event = new StageEvent();
+            event.begin();
+            event.setStage("index");
+            event.commit();
+        }
+        PomParseEvent pom = new PomParseEvent();
+        pom.setPom("pom.xml");
+        pom.commit();
+
+        HotSpotSummary summary = profiler.stop();
+
+        assertTrue(Files.size(recordingFile) > 0);
+        HotSpotSummary.Span stage = summary.getSpans().stream()
+                .filter(span -> span.getName().equals("Pipeline Stage: index"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(2, stage.getCount());
+        assertTrue(summary.format().contains("POM Parse"));
+    }
+
+    @Test
+    void testEventsAreInertWithoutRecording() {
+        RuleEvaluationEvent event = new RuleEvaluationEvent();
+        event.begin();
+        event.end();
+
+        assertFalse(event.shouldCommit());
+    }
+}
@@ -3,13 +3,16 @@ package com.rb.repoinsight.report;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import com.rb.repoinsight.model.ExternalDependency;
+import com.rb.repoinsight.model.HeuristicCost;
 import com.rb.repoinsight.model.RepoContext;
+import com.rb.repoinsight.model.RuleCost;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -112,4 +115,33 @@ class MarkdownReportGeneratorTest {
         // Check for basic markdown structure
         assertTrue(content.contains("#")); // Headers
     }
+
+    @Test
+    void testGenerateIncludesRuleCostProfileWhenProfiled(@TempDir Path tempDir) throws IOException {
+        Path outputFile = tempDir.resolve("test-report.md");
+        generator.generate(context, outputFile);
+        assertFalse(Files.readString(outputFile).contains("Rule Cost Profile"));
+
+        context.setRuleCosts(List.of(
+                new RuleCost("Kafka", List.of(new HeuristicCost("(9092|kafka)", 10, 12, 4096, 1_500_000, 2))),
+                new RuleCost("Redis", List.of(new HeuristicCost("redis", 10, 10, 2048, 3_000_000, 0)))));
+        generator.generate(context, outputFile);
+
+        String content = Files.readString(outputFile);
+        assertTrue(content.contains("## Rule Cost Profile"));
+        assertTrue(content.indexOf("| Redis | 10 | 10 | 2048 | 3.00 | 0 |") < content.indexOf("| Kafka | 10 |"));
+        assertTrue(content.contains("| Kafka | `(9092\\|kafka)` | 10 | 12 | 4096 | 1.50 | 2 |"));
+    }
+
+    @Test
+    void testGenerateIncludesGenerationTimeWhenSet(@TempDir Path tempDir) throws IOException {
+        Path outputFile = tempDir.resolve("test-report.md");
+        generator.generate(context, outputFile);
+        assertFalse(Files.readString(outputFile).contains("Report generated in"));
+
+        context.setGenerationTime(1234);
+        generator.generate(context, outputFile);
+
+        assertTrue(Files.readString(outputFile).endsWith("_Report generated in 1234 ms._\n"));
+    }
 }
@@ -0,0 +1,72 @@
+package com.rb.repoinsight.report;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rb.repoinsight.model.RunMetrics;
+import com.rb.repoinsight.model.StageMetrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RunMetricsWriter.
+ */
+class RunMetricsWriterTest {
+
+    @Test
+    void testWriteJsonIncludesThroughput(@TempDir Path tempDir) throws IOException {
+        Path outputFile = tempDir.resolve(RunMetricsWriter.JSON_FILE);
+        new RunMetricsWriter().writeJson(metrics(), outputFile);
+
+        JsonNode json = new ObjectMapper().readTree(outputFile.toFile());
+        assertEquals(4096, json.get("peakHeapBytes").asLong());
+        JsonNode index = json.get("stages").get(0);
+        assertEquals("index", index.get("name").asText());
+        assertEquals(200.0, index.get("filesPerSecond").asDouble());
+        assertEquals(3, index.get("filesSkipped").asLong());
+        JsonNode render = json.get("stages").get(1);
+        assertFalse(render.has("files"));
+        assertFalse(render.has("filesPerSecond"));
+    }
+
+    @Test
+    void testWriteJsonEscapesStageNames() throws IOException {
+        RunMetrics metrics = new RunMetrics();
+        metrics.getStages().add(new StageMetrics("a \"quoted\"\\stage\n", 1L, 1L));
+
+        JsonNode json = new ObjectMapper().readTree(new RunMetricsWriter().buildJson(metrics));
+        assertEquals("a \"quoted\"\\stage\n", json.get("stages").get(0).get("name").asText());
+        assertEquals(0, new ObjectMapper().readTree(new RunMetricsWriter().buildJson(new RunMetrics()))
+                .get("stages").size());
+    }
+
+    @Test
+    void testOpenMetricsLabelsStagesAndEnds() {
+        String text = new RunMetricsWriter().buildOpenMetrics(metrics());
+
+        assertTrue(text.contains("# TYPE repo_insight_stage_wall_seconds gauge\n"));
+        assertTrue(text.contains("repo_insight_stage_wall_seconds{stage=\"index\"} 0.500000\n"));
+        assertTrue(text.contains("repo_insight_stage_files{stage=\"index\"} 100\n"));
+        assertFalse(text.contains("repo_insight_stage_files{stage=\"render\"}"));
+        assertTrue(text.contains("repo_insight_peak_heap_bytes 4096\n"));
+        assertTrue(text.endsWith("# EOF\n"));
+    }
+
+    private static RunMetrics metrics() {
+        StageMetrics index = new StageMetrics("index", 500_000_000L, 250_000_000L);
+        index.setFiles(100L);
+        index.setBytes(2048L);
+        index.setFilesSkipped(3L);
+        RunMetrics metrics = new RunMetrics();
+        metrics.setWallNanos(1_000_000_000L);
+        metrics.setPeakHeapBytes(4096);
+        metrics.getStages().add(index);
+        metrics.getStages().add(new StageMetrics("render", 1_000_000L, 1_000_000L));
+        return metrics;
+    }
+}
@@ -0,0 +1,74 @@
+package com.rb.repoinsight.scan;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for LineCounter, checked against Files.lines.
+ */
+class LineCounterTest {
+
+    @Test
+    void testMatchesFilesLinesForTerminatorVariants(@TempDir Path tempDir) throws IOException {
+        String[] samples = {
+                "", "a", "\n", "\r", "\r\n", "a\nb", "a\nb\n", "a\r\nb\r\n", "a\rb\rc",
+                "\n\n\n", "\r\r\n\n", "line one\r\nline two\rline three\nline four",
+                "12345678\r\n1234567\r\n123456\r\r\n", "1234567\r\n", "ümlaut\nzeile\n"
+        };
+        for (String sample : samples) {
+            Path file = tempDir.resolve("sample.txt");
+            Files.writeString(file, sample);
+            assertEquals(expected(file), LineCounter.countLines(file),
+                    "sample: " + sample.replace("\r", "\\r").replace("\n", "\\n"));
+        }
+    }
+
+    @Test
+    void testMatchesFilesLinesForRandomContent(@TempDir Path tempDir) throws IOException {
+        Random random = new Random(7);
+        char[] alphabet = { 'a', 'b', ' ', '\n', '\r' };
+        for (int round = 0; round < 200; round++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(100);
+            for (int i = 0; i < length; i++) {
+                text.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            Path file = tempDir.resolve("random.txt");
+            Files.writeString(file, text);
+            assertEquals(expected(file), LineCounter.countLines(file));
+        }
+    }
+
+    @Test
+    void testCountsLargeMappedFile(@TempDir Path tempDir) throws IOException {
+        // Above the mapping threshold, with a CRLF pair straddling word boundaries
+        String line = "0123456789abcde\r\n";
+        Path file = tempDir.resolve("large.txt");
+        Files.writeString(file, line.repeat(100_000) + "tail");
+
+        assertEquals(100_001, LineCounter.countLines(file));
+    }
+
+    @Test
+    void testCountsBuffer() {
+        ByteBuffer bytes = ByteBuffer.wrap("a\nb\r\nc".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(3, LineCounter.countLines(bytes));
+        assertEquals(0, bytes.position());
+    }
+
+    private static long expected(Path file) throws IOException {
+        try (Stream<String> lines = Files.lines(file)) {
+            return lines.count();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.rb.repoinsight.scan;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for MetricsAccumulator.
+ */
+class MetricsAccumulatorTest {
+
+    @Test
+    void testKeepsLargestFilesWithFirstSeenWinningTies() {
+        MetricsAccumulator accumulator = new MetricsAccumulator(3);
+        accumulator.add("A.java", false, null, 10);
+        accumulator.add("B.java", false, null, 50);
+        accumulator.add("C.java", false, null, 30);
+        accumulator.add("D.java", false, null, 30);
+        accumulator.add("E.java", true, null, 5);
+        accumulator.add("F.java", false, null, 50);
+
+        RepoMetrics metrics = accumulator.toMetrics();
+
+        List<String> largest = metrics.getLargestFiles().stream()
+                .map(RepoMetrics.FileMetric::getRelativePath)
+                .collect(Collectors.toList());
+        assertEquals(List.of("B.java", "F.java", "C.java"), largest);
+        assertEquals(6, metrics.getTotalFiles());
+        assertEquals(5, metrics.getTotalClasses());
+        assertEquals(1, metrics.getTotalTestClasses());
+        assertEquals(175, metrics.getApproximateLinesOfCode());
+    }
+
+    @Test
+    void testCollectsTopLevelPackagesInNameOrder() {
+        MetricsAccumulator accumulator = new MetricsAccumulator(5);
+        accumulator.add("src/main/java/org/A.java", false, "org", 10);
+        accumulator.add("src/main/java/com/B.java", false, "com", 20);
+        accumulator.add("src/main/java/com/C.java", false, "com", 5);
+        accumulator.add("Script.java", false, null, 7);
+
+        RepoMetrics metrics = accumulator.toMetrics();
+
+        assertEquals(List.of("com", "org"), metrics.getTopLevelPackages());
+        assertEquals(42, metrics.getApproximateLinesOfCode());
+    }
+}
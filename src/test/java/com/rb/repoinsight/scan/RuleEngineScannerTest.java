@@ -0,0 +1,214 @@
+package com.rb.repoinsight.scan;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.rb.repoinsight.model.DependencyCategory;
+import com.rb.repoinsight.model.ExternalDependency;
+import com.rb.repoinsight.model.RuleConfig;
+import com.rb.repoinsight.scan.cache.FileResultCache;
+import com.rb.repoinsight.scan.index.RepoFileIndex;
+import com.rb.repoinsight.scan.maven.LocalRepositoryIndex;
+import com.rb.repoinsight.scan.rules.RuleMatchOptions;
+
+/**
+ * Unit tests for RuleEngineScanner.
+ */
+class RuleEngineScannerTest {
+
+    private static final String[] FRAGMENTS = {
+            "jdbc:postgresql://db", "5432", "mongodb://", "redis://", "kafka", "amqp://", "s3://",
+            "https://api.acme.io", "RestTemplate", "plain text", "\n"
+    };
+
+    @Test
+    void testParallelScanReportsSameEvidenceAsSequential(@TempDir Path tempDir) throws IOException {
+        Random random = new Random(5);
+        for (int i = 0; i < 200; i++) {
+            StringBuilder content = new StringBuilder();
+            for (int j = random.nextInt(4); j > 0; j--) {
+                content.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]).append('\n');
+            }
+            Path dir = Files.createDirectories(tempDir.resolve("src/main/resources/m" + (i % 7)));
+            Files.writeString(dir.resolve("app" + i + ".properties"), content);
+        }
+        RepoFileIndex index = RepoFileIndex.build(tempDir);
+
+        List<String> sequential = describe(scanner(1).scan(index));
+        List<String> parallel = describe(scanner(4).scan(index));
+
+        assertTrue(sequential.size() > 3);
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    void testAppliesFileGlobsAndByteLimits(@TempDir Path tempDir) throws IOException {
+        Path resources = Files.createDirectories(tempDir.resolve("src/main/resources"));
+        Files.writeString(resources.resolve("a.properties"), "kafka.bootstrap=localhost:9092");
+        Files.writeString(resources.resolve("b.yml"), "x".repeat(100) + "\nkafka: on\nredis: on");
+        Files.writeString(resources.resolve("c.yml"), "redis: on");
+
+        RuleConfig kafka = rule("Kafka", "kafka");
+        kafka.setFileGlobs(List.of("*.yml"));
+        RuleConfig redis = rule("Redis", "redis");
+        redis.setMaxBytes(50);
+        List<String> found = describe(new RuleEngineScanner(List.of(kafka, redis), FileResultCache.disabled(),
+                new RuleMatchOptions(), 1).scan(RepoFileIndex.build(tempDir)));
+
+        assertEquals(List.of(
+                "Kafka|Persistence|Found in src/main/resources/b.yml: kafka",
+                "Redis|Persistence|Found in src/main/resources/c.yml: redis"), found);
+    }
+
+    @Test
+    void testMatchesMavenArtifactsByIdOrCoordinates(@TempDir Path tempDir) throws IOException {
+        Files.writeString(tempDir.resolve("pom.xml"), "<project><modules><module>app</module></modules></project>");
+        Files.createDirectories(tempDir.resolve("app"));
+        Files.writeString(tempDir.resolve("app/pom.xml"), "<project><dependencies>"
+                + "<dependency><groupId>software.amazon.awssdk</groupId><artifactId>s3</artifactId></dependency>"
+                + "<dependency><groupId>org.apache.kafka</groupId><artifactId>kafka-clients</artifactId></dependency>"
+                + "</dependencies></project>");
+
+        RuleConfig s3 = rule("S3");
+        s3.setMavenArtifacts(List.of("aws-java-sdk-s3", "software.amazon.awssdk:s3"));
+        RuleConfig kafka = rule("Kafka");
+        kafka.setMavenArtifacts(List.of("kafka-clients"));
+        RuleConfig dynamo = rule("DynamoDB");
+        dynamo.setMavenArtifacts(List.of("software.amazon.awssdk:dynamodb", "com.example:s3"));
+        List<String> found = describe(new RuleEngineScanner(List.of(s3, kafka, dynamo), FileResultCache.disabled(),
+                new RuleMatchOptions(), 1).scan(RepoFileIndex.build(tempDir)));
+
+        assertEquals(List.of(
+                "S3|Persistence|Library: software.amazon.awssdk:s3",
+                "Kafka|Persistence|Library: kafka-clients"), found);
+    }
+
+    @Test
+    void testMatchesGradleDependencies(@TempDir Path tempDir) throws IOException {
+        Files.writeString(tempDir.resolve("settings.gradle.kts"), "include(\"app\")");
+        Files.createDirectories(tempDir.resolve("app"));
+        Files.writeString(tempDir.resolve("app/build.gradle.kts"),
+                "dependencies {\n    implementation(\"software.amazon.awssdk:s3:2.20.0\")\n}\n");
+
+        RuleConfig s3 = rule("S3");
+        s3.setMavenArtifacts(List.of("software.amazon.awssdk:s3"));
+        List<String> found = describe(new RuleEngineScanner(List.of(s3), FileResultCache.disabled(),
+                new RuleMatchOptions(), 1).scan(RepoFileIndex.build(tempDir)));
+
+        assertEquals(List.of("S3|Persistence|Library: software.amazon.awssdk:s3"), found);
+    }
+
+    @Test
+    void testMatchesTransitiveDependencies(@TempDir Path tempDir) throws IOException {
+        Path repo = Files.createDirectories(tempDir.resolve("repo"));
+        Files.writeString(repo.resolve("pom.xml"), "<project><dependencies>"
+                + "<dependency><groupId>com.acme</groupId><artifactId>storage</artifactId><version>1.0</version>"
+                + "</dependency></dependencies></project>");
+        Path m2 = tempDir.resolve("m2");
+        Path pom = Files.createDirectories(m2.resolve("com/acme/storage/1.0")).resolve("storage-1.0.pom");
+        Files.writeString(pom, "<project><groupId>com.acme</groupId><artifactId>storage</artifactId>"
+                + "<version>1.0</version><dependencies><dependency><groupId>software.amazon.awssdk</groupId>"
+                + "<artifactId>s3</artifactId><version>2.20.0</version></dependency></dependencies></project>");
+
+        RuleConfig s3 = rule("S3");
+        s3.setMavenArtifacts(List.of("software.amazon.awssdk:s3"));
+        RuleEngineScanner scanner = new RuleEngineScanner(List.of(s3), FileResultCache.disabled(),
+                new RuleMatchOptions(), 1);
+        scanner.setLocalRepository(LocalRepositoryIndex.open(m2, tempDir.resolve("index.bin")));
+        List<String> found = describe(scanner.scan(RepoFileIndex.build(repo)));
+
+        assertEquals(List.of("S3|Persistence|Library: software.amazon.awssdk:s3 (transitive via com.acme:storage)"),
+                found);
+        assertEquals(1, scanner.getTransitiveArtifactCount());
+    }
+
+    @Test
+    void testStopsReadingFilesOnceEveryRuleIsFound(@TempDir Path tempDir) throws IOException {
+        Path resources = Files.createDirectories(tempDir.resolve("src/main/resources"));
+        for (int i = 0; i < 20; i++) {
+            Files.writeString(resources.resolve("app" + (char) ('a' + i) + ".properties"), "kafka redis");
+        }
+        RuleConfig untargeted = rule("Never", "kafka");
+        untargeted.setFileGlobs(List.of("*.gradle"));
+        RuleEngineScanner scanner = new RuleEngineScanner(
+                List.of(rule("Kafka", "kafka"), rule("Redis", "redis"), untargeted),
+                FileResultCache.disabled(), new RuleMatchOptions(), 1);
+
+        List<String> found = describe(scanner.scan(RepoFileIndex.build(tempDir)));
+
+        assertEquals(2, found.size());
+        assertEquals(1, scanner.getFileTotals()[0]);
+        assertEquals(20, scanner.getFileTotals()[1]);
+    }
+
+    @Test
+    void testCompletesPartiallyCachedFiles(@TempDir Path tempDir) throws IOException {
+        Path resources = Files.createDirectories(tempDir.resolve("src/main/resources"));
+        Files.writeString(resources.resolve("a.properties"), "kafka");
+        Files.writeString(resources.resolve("b.properties"), "kafka redis");
+        Path cacheDir = tempDir.resolve("cache");
+        List<RuleConfig> rules = List.of(rule("Kafka", "kafka"), rule("Redis", "redis"));
+
+        FileResultCache first = FileResultCache.open(cacheDir, false);
+        new RuleEngineScanner(rules, first, new RuleMatchOptions(), 1).scan(RepoFileIndex.build(tempDir));
+        first.save();
+
+        // b.properties was only evaluated for Redis; without a.properties Kafka needs it too
+        Files.writeString(resources.resolve("a.properties"), "no brokers");
+        FileResultCache second = FileResultCache.open(cacheDir, false);
+        List<String> found = describe(new RuleEngineScanner(rules, second, new RuleMatchOptions(), 1)
+                .scan(RepoFileIndex.build(tempDir)));
+
+        assertEquals(2, found.size());
+        assertTrue(found.get(0).endsWith("b.properties: kafka"));
+        assertTrue(found.get(1).endsWith("b.properties: redis"));
+        // Both files had to be read again, so neither counts as a hit
+        assertEquals(0, second.getHits());
+        assertEquals(2, second.getMisses());
+    }
+
+    @Test
+    void testResultsStoredInTheSameRunAreNotHits(@TempDir Path tempDir) throws IOException {
+        Path source = Files.createDirectories(tempDir.resolve("src/main/java")).resolve("App.java");
+        Files.writeString(source, "class App { KafkaTemplate template; }\n");
+        RepoFileIndex index = RepoFileIndex.build(tempDir);
+        List<RuleConfig> rules = List.of(rule("Kafka", "KafkaTemplate"));
+
+        FileResultCache cache = FileResultCache.open(tempDir.resolve("cache"), false);
+        new RepoMetricsCollector(cache).collect(index);
+        new RuleEngineScanner(rules, cache, new RuleMatchOptions(), 1).scan(index);
+
+        // The line count stored by the metrics stage does not answer the rule stage
+        assertEquals(0, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    private static RuleConfig rule(String name, String... heuristics) {
+        RuleConfig rule = new RuleConfig();
+        rule.setName(name);
+        rule.setCategory(DependencyCategory.values()[0]);
+        rule.setHeuristics(List.of(heuristics));
+        return rule;
+    }
+
+    private static RuleEngineScanner scanner(int parallelism) {
+        return new RuleEngineScanner(FileResultCache.disabled(), new RuleMatchOptions(), parallelism);
+    }
+
+    private static List<String> describe(List<ExternalDependency> dependencies) {
+        List<String> result = new ArrayList<>();
+        for (ExternalDependency dependency : dependencies) {
+            result.add(dependency.getName() + "|" + dependency.getCategory() + "|" + dependency.getEvidence());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,170 @@
+package com.rb.repoinsight.scan.cache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.rb.repoinsight.scan.index.IndexedFile;
+import com.rb.repoinsight.scan.index.RepoFileIndex;
+
+/**
+ * Unit tests for FileResultCache.
+ */
+class FileResultCacheTest {
+
+    private static final long RULES = 42L;
+
+    @Test
+    void testRoundTripsLineCountsAndRuleHits(@TempDir Path tempDir) throws IOException {
+        Path repo = createRepo(tempDir);
+        Path cacheDir = tempDir.resolve("cache");
+
+        FileResultCache first = FileResultCache.open(cacheDir, false);
+        IndexedFile app = RepoFileIndex.build(repo).getFile("src/main/java/App.java");
+        assertNull(first.lookup(app));
+        first.storeLineCount(app, 3);
+        first.storeRuleHits(app, RULES, List.of(new CachedFileResult.RuleHit(1, "KafkaTemplate")));
+        first.save();
+
+        FileResultCache second = FileResultCache.open(cacheDir, false);
+        CachedFileResult cached = second.lookup(RepoFileIndex.build(repo).getFile("src/main/java/App.java"));
+
+        assertNotNull(cached);
+        assertTrue(cached.isSource());
+        assertEquals(3, cached.getLineCount());
+        List<CachedFileResult.RuleHit> hits = cached.getRuleHits(RULES);
+        assertEquals(1, hits.size());
+        assertEquals(1, hits.get(0).getRuleIndex());
+        assertEquals("KafkaTemplate", hits.get(0).getEvidence());
+        assertNull(cached.getRuleHits(RULES + 1));
+    }
+
+    @Test
+    void testModifiedFileMisses(@TempDir Path tempDir) throws IOException {
+        Path repo = createRepo(tempDir);
+        Path cacheDir = tempDir.resolve("cache");
+
+        FileResultCache first = FileResultCache.open(cacheDir, false);
+        first.storeLineCount(RepoFileIndex.build(repo).getFile("src/main/java/App.java"), 3);
+        first.save();
+
+        Path source = repo.resolve("src/main/java/App.java");
+        Files.writeString(source, "class App {\n  int x;\n}\n// changed\n");
+        Files.setLastModifiedTime(source, FileTime.fromMillis(1_000_000));
+
+        FileResultCache second = FileResultCache.open(cacheDir, false);
+        assertNull(second.lookup(RepoFileIndex.build(repo).getFile("src/main/java/App.java")));
+    }
+
+    @Test
+    void testRacilyModifiedFileMisses(@TempDir Path tempDir) throws IOException {
+        Path repo = createRepo(tempDir);
+        Path cacheDir = tempDir.resolve("cache");
+        Path source = repo.resolve("src/main/java/App.java");
+        FileTime written = Files.getLastModifiedTime(source);
+
+        FileResultCache first = FileResultCache.open(cacheDir, false);
+        first.storeLineCount(RepoFileIndex.build(repo).getFile("src/main/java/App.java"), 3);
+        first.save();
+
+        // Same size and timestamp, as after an edit within the same clock tick
+        Files.writeString(source, "class Bar {\n  int y;\n}\n");
+        Files.setLastModifiedTime(source, written);
+
+        FileResultCache second = FileResultCache.open(cacheDir, false);
+        assertNull(second.lookup(RepoFileIndex.build(repo).getFile("src/main/java/App.java")));
+    }
+
+    @Test
+    void testOldTimestampIsTrustedWithoutHashing(@TempDir Path tempDir) throws IOException {
+        Path repo = createRepo(tempDir);
+        Path cacheDir = tempDir.resolve("cache");
+        Path source = repo.resolve("src/main/java/App.java");
+        FileTime old = FileTime.fromMillis(System.currentTimeMillis() - 10 * FileResultCache.RACY_WINDOW_MILLIS);
+        Files.setLastModifiedTime(source, old);
+
+        FileResultCache first = FileResultCache.open(cacheDir, false);
+        first.storeLineCount(RepoFileIndex.build(repo).getFile("src/main/java/App.java"), 3);
+        first.save();
+
+        Files.writeString(source, "class Bar {\n  int y;\n}\n");
+        Files.setLastModifiedTime(source, old);
+
+        FileResultCache second = FileResultCache.open(cacheDir, false);
+        assertNotNull(second.lookup(RepoFileIndex.build(repo).getFile("src/main/java/App.java")));
+    }
+
+    @Test
+    void testSaveKeepsPartialResultsFromBothStages(@TempDir Path tempDir) throws IOException {
+        Path repo = createRepo(tempDir);
+        Path cacheDir = tempDir.resolve("cache");
+
+        FileResultCache first = FileResultCache.open(cacheDir, false);
+        first.storeRuleHits(RepoFileIndex.build(repo).getFile("src/main/java/App.java"), RULES, List.of());
+        first.save();
+
+        // Second run only counts lines; the earlier rule hits must survive
+        FileResultCache second = FileResultCache.open(cacheDir, false);
+        IndexedFile app = RepoFileIndex.build(repo).getFile("src/main/java/App.java");
+        assertNotNull(second.lookup(app));
+        second.storeLineCount(app, 3);
+        second.save();
+
+        CachedFileResult cached = FileResultCache.open(cacheDir, false).lookup(app);
+        assertEquals(3, cached.getLineCount());
+        assertEquals(List.of(), cached.getRuleHits(RULES));
+    }
+
+    @Test
+    void testRoundTripsEvaluatedRules(@TempDir Path tempDir) throws IOException {
+        Path repo = createRepo(tempDir);
+        Path cacheDir = tempDir.resolve("cache");
+        BitSet evaluated = new BitSet();
+        evaluated.set(2);
+        evaluated.set(70);
+
+        FileResultCache first = FileResultCache.open(cacheDir, false);
+        first.storeRuleHits(RepoFileIndex.build(repo).getFile("src/main/java/App.java"), RULES, evaluated,
+                List.of(new CachedFileResult.RuleHit(70, "redis://")));
+        first.save();
+
+        CachedFileResult cached = FileResultCache.open(cacheDir, false)
+                .lookup(RepoFileIndex.build(repo).getFile("src/main/java/App.java"));
+        assertEquals(evaluated, cached.getEvaluatedRules());
+        assertTrue(cached.hasEvaluated(BitSet.valueOf(new long[] { 1L << 2 })));
+        assertFalse(cached.hasEvaluated(BitSet.valueOf(new long[] { 1L << 3 })));
+        assertEquals("redis://", cached.getRuleHits(RULES).get(0).getEvidence());
+    }
+
+    @Test
+    void testContentHashModeIgnoresCacheWrittenWithoutIt(@TempDir Path tempDir) throws IOException {
+        Path repo = createRepo(tempDir);
+        Path cacheDir = tempDir.resolve("cache");
+
+        FileResultCache first = FileResultCache.open(cacheDir, false);
+        first.storeLineCount(RepoFileIndex.build(repo).getFile("src/main/java/App.java"), 3);
+        first.save();
+
+        FileResultCache hashed = FileResultCache.open(cacheDir, true);
+        assertNull(hashed.lookup(RepoFileIndex.build(repo).getFile("src/main/java/App.java")));
+    }
+
+    private static Path createRepo(Path tempDir) throws IOException {
+        Path repo = tempDir.resolve("repo");
+        Path source = repo.resolve("src/main/java/App.java");
+        Files.createDirectories(source.getParent());
+        Files.writeString(source, "class App {\n  int x;\n}\n");
+        return repo;
+    }
+}
@@ -0,0 +1,158 @@
+package com.rb.repoinsight.scan.gradle;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.rb.repoinsight.scan.index.RepoFileIndex;
+
+/**
+ * Unit tests for GradleBuild.
+ */
+class GradleBuildTest {
+
+    private static final String CATALOG = """
+            [versions]
+            boot = "3.2.0"
+
+            [libraries]
+            spring-boot-web = { module = "org.springframework.boot:spring-boot-starter-web", version.ref = "boot" }
+            postgres = { group = "org.postgresql", name = "postgresql", version = "42.7.1" }
+            s3 = "software.amazon.awssdk:s3:2.20.0" # inline notation
+            jackson-core = { module = "com.fasterxml.jackson.core:jackson-core" }
+            jackson-databind = { module = "com.fasterxml.jackson.core:jackson-databind" }
+
+            [bundles]
+            jackson = [
+                "jackson-core",
+                "jackson_databind",
+            ]
+
+            [plugins]
+            spring-boot = { id = "org.springframework.boot", version.ref = "boot" }
+            """;
+
+    @Test
+    void testReadsSubprojectsCatalogAndSharedDeclarations(@TempDir Path tempDir) throws IOException {
+        write(tempDir, "settings.gradle", """
+                rootProject.name = 'shop'
+                include 'api', ':services:orders'
+                include(":web")
+                project(':web').projectDir = file('frontend/web')
+                """);
+        write(tempDir, "gradle/libs.versions.toml", CATALOG);
+        write(tempDir, "build.gradle", """
+                plugins {
+                    id 'java'
+                    alias(libs.plugins.spring.boot) apply false
+                }
+                subprojects {
+                    apply plugin: 'java-library'
+                    dependencies {
+                        implementation 'org.slf4j:slf4j-api:2.0.9' // logging everywhere
+                    }
+                }
+                """);
+        write(tempDir, "api/build.gradle", """
+                dependencies {
+                    implementation libs.spring.boot.web
+                    implementation project(':services:orders')
+                    runtimeOnly group: 'org.postgresql', name: 'postgresql', version: '42.7.1'
+                    testImplementation('org.junit.jupiter:junit-jupiter:5.10.0') {
+                        exclude group: 'org.hamcrest', module: 'hamcrest'
+                    }
+                }
+                """);
+        write(tempDir, "services/orders/build.gradle.kts", """
+                plugins {
+                    alias(libs.plugins.spring.boot)
+                    kotlin("jvm") version "1.9.22"
+                    `java-library`
+                }
+                dependencies {
+                    implementation(libs.s3)
+                    implementation(libs.bundles.jackson)
+                    implementation(kotlin("stdlib"))
+                    /* implementation("commented:out:1") */
+                    api(
+                        "io.micrometer:micrometer-core:1.12.0"
+                    )
+                }
+                """);
+        write(tempDir, "frontend/web/build.gradle", "apply plugin: 'war'\n");
+
+        List<GradleProject> projects = RepoFileIndex.build(tempDir).getGradleBuild().getProjects();
+
+        assertEquals(List.of(":", ":api", ":services", ":services:orders", ":web"),
+                projects.stream().map(GradleProject::getPath).collect(Collectors.toList()));
+        GradleProject root = projects.get(0);
+        assertEquals(List.of(), root.getDependencies());
+        assertEquals(List.of("java"), root.getPlugins());
+
+        GradleProject api = projects.get(1);
+        assertEquals("api/build.gradle", api.getBuildFile());
+        assertEquals(List.of("org.slf4j:slf4j-api", "org.springframework.boot:spring-boot-starter-web",
+                "org.postgresql:postgresql", "org.junit.jupiter:junit-jupiter"), api.getDependencies());
+        assertEquals(List.of("java-library"), api.getPlugins());
+
+        GradleProject services = projects.get(2);
+        assertEquals("services", services.getDirectory());
+        assertNull(services.getBuildFile());
+
+        GradleProject orders = projects.get(3);
+        assertEquals(List.of("org.slf4j:slf4j-api", "software.amazon.awssdk:s3",
+                "com.fasterxml.jackson.core:jackson-core", "com.fasterxml.jackson.core:jackson-databind",
+                "org.jetbrains.kotlin:kotlin-stdlib", "io.micrometer:micrometer-core"), orders.getDependencies());
+        assertEquals(List.of("java-library", "org.springframework.boot", "org.jetbrains.kotlin.jvm"),
+                orders.getPlugins());
+
+        GradleProject web = projects.get(4);
+        assertEquals("frontend/web", web.getDirectory());
+        assertEquals(List.of("java-library", "war"), web.getPlugins());
+    }
+
+    @Test
+    void testReadsIdenticalScriptsOnce(@TempDir Path tempDir) throws IOException {
+        StringBuilder settings = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            settings.append("include 'module").append(i).append("'\n");
+            write(tempDir, "module" + i + "/build.gradle", i % 2 == 0
+                    ? "dependencies { implementation 'com.google.guava:guava:33.0.0-jre' }"
+                    : "dependencies { implementation 'org.apache.kafka:kafka-clients:3.6.0' }");
+        }
+        write(tempDir, "settings.gradle", settings.toString());
+
+        GradleBuild build = new GradleBuild(RepoFileIndex.build(tempDir), 4);
+        List<GradleProject> projects = build.getProjects();
+
+        assertEquals(41, projects.size());
+        assertEquals(2, build.getDistinctScripts());
+        assertEquals(List.of("com.google.guava:guava"), projects.get(1).getDependencies());
+        assertEquals(List.of("org.apache.kafka:kafka-clients"), projects.get(40).getDependencies());
+    }
+
+    @Test
+    void testIsEmptyWithoutGradleBuild(@TempDir Path tempDir) throws IOException {
+        write(tempDir, "pom.xml", "<project/>");
+
+        GradleBuild build = RepoFileIndex.build(tempDir).getGradleBuild();
+
+        assertFalse(build.exists());
+        assertTrue(build.getProjects().isEmpty());
+    }
+
+    private static void write(Path root, String relativePath, String content) throws IOException {
+        Path file = root.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+}
@@ -0,0 +1,131 @@
+package com.rb.repoinsight.scan.index;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for GitIndexReader, using hand-built index files.
+ */
+class GitIndexReaderTest {
+
+    private static final int MODE_FILE = 0100644;
+    private static final int MODE_SYMLINK = 0120000;
+
+    @Test
+    void testReadsVersion2Index(@TempDir Path tempDir) throws IOException {
+        writeIndex(tempDir, 2, new String[] { "pom.xml", "src/main/java/App.java", "link" },
+                new int[] { MODE_FILE, MODE_FILE, MODE_SYMLINK });
+
+        RepoFileIndex index = buildFromGitIndex(tempDir);
+
+        assertTrue(index.isFromGitIndex());
+        assertEquals(List.of("pom.xml", "src/main/java/App.java"), paths(index));
+        assertEquals(42, index.getFile("pom.xml").getSize());
+        assertEquals(1_700_000_000_000L, index.getFile("pom.xml").getLastModified());
+        assertTrue(index.containsDirectory("src/main/java"));
+        assertTrue(index.getFile("src/main/java/App.java").isSource());
+    }
+
+    @Test
+    void testReadsVersion4PrefixCompressedIndex(@TempDir Path tempDir) throws IOException {
+        writeIndex(tempDir, 4, new String[] { "src/main/java/A.java", "src/main/java/B.java", "src/test/T.java" },
+                new int[] { MODE_FILE, MODE_FILE, MODE_FILE });
+
+        RepoFileIndex index = buildFromGitIndex(tempDir);
+
+        assertEquals(List.of("src/main/java/A.java", "src/main/java/B.java", "src/test/T.java"), paths(index));
+    }
+
+    @Test
+    void testAppliesExclusionsToTrackedFiles(@TempDir Path tempDir) throws IOException {
+        writeIndex(tempDir, 2, new String[] { "node_modules/x.json", "target/Out.java", "App.java" },
+                new int[] { MODE_FILE, MODE_FILE, MODE_FILE });
+
+        RepoFileIndex index = buildFromGitIndex(tempDir);
+
+        assertEquals(List.of("App.java"), paths(index));
+    }
+
+    @Test
+    void testFallsBackToWalkWithoutIndex(@TempDir Path tempDir) throws IOException {
+        Files.writeString(tempDir.resolve("App.java"), "class App {}");
+
+        RepoFileIndex index = buildFromGitIndex(tempDir);
+
+        assertFalse(index.isFromGitIndex());
+        assertEquals(List.of("App.java"), paths(index));
+    }
+
+    private static RepoFileIndex buildFromGitIndex(Path root) {
+        IndexOptions options = new IndexOptions();
+        options.setUseGitIndex(true);
+        return RepoFileIndex.build(root, options);
+    }
+
+    private static List<String> paths(RepoFileIndex index) {
+        return index.getFiles().stream()
+                .map(IndexedFile::getRelativePath)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Write a minimal .git/index with the given entries, sorted as git would.
+     */
+    private static void writeIndex(Path root, int version, String[] paths, int[] modes) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeBytes("DIRC");
+        out.writeInt(version);
+        out.writeInt(paths.length);
+
+        byte[] previous = new byte[0];
+        for (int i = 0; i < paths.length; i++) {
+            byte[] path = paths[i].getBytes(StandardCharsets.UTF_8);
+            int start = out.size();
+            out.writeInt(0);                // ctime seconds
+            out.writeInt(0);                // ctime nanoseconds
+            out.writeInt(1_700_000_000);    // mtime seconds
+            out.writeInt(0);                // mtime nanoseconds
+            out.writeInt(0);                // dev
+            out.writeInt(0);                // ino
+            out.writeInt(modes[i]);
+            out.writeInt(0);                // uid
+            out.writeInt(0);                // gid
+            out.writeInt(42);               // size
+            out.write(new byte[20]);        // object id
+            out.writeShort(Math.min(path.length, 0xfff));
+
+            if (version == 4) {
+                int common = 0;
+                while (common < previous.length && common < path.length && previous[common] == path[common]) {
+                    common++;
+                }
+                out.writeByte(previous.length - common); // single-byte varint is enough here
+                out.write(path, common, path.length - common);
+                out.writeByte(0);
+            } else {
+                out.write(path);
+                int length = out.size() - start;
+                int padded = (length + 8) & ~7;
+                out.write(new byte[padded - length]);
+            }
+            previous = path;
+        }
+        out.write(new byte[20]);            // checksum (not verified)
+
+        Files.createDirectories(root.resolve(".git"));
+        Files.write(root.resolve(".git/index"), bytes.toByteArray());
+    }
+}
@@ -0,0 +1,170 @@
+package com.rb.repoinsight.scan.index;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for RepoFileIndex.
+ */
+class RepoFileIndexTest {
+
+    @Test
+    void testIndexCapturesSizeAndClassifications(@TempDir Path tempDir) throws IOException {
+        Path mainDir = tempDir.resolve("src/main/java/com/example");
+        Path testDir = tempDir.resolve("src/test/java/com/example");
+        Files.createDirectories(mainDir);
+        Files.createDirectories(testDir);
+        Files.writeString(mainDir.resolve("App.java"), "class App {}\n");
+        Files.writeString(testDir.resolve("AppTest.java"), "class AppTest {}\n");
+        Files.writeString(tempDir.resolve("pom.xml"), "<project/>");
+
+        RepoFileIndex index = RepoFileIndex.build(tempDir);
+
+        IndexedFile app = index.getFile("src/main/java/com/example/App.java");
+        assertNotNull(app);
+        assertEquals(13, app.getSize());
+        assertTrue(app.isSource());
+        assertFalse(app.isTest());
+        assertTrue(app.isInteresting());
+
+        assertTrue(index.getFile("src/test/java/com/example/AppTest.java").isTest());
+        assertTrue(index.getFile("pom.xml").isBuildFile());
+        assertEquals(2, index.getSourceFiles().size());
+    }
+
+    @Test
+    void testIndexPrunesBuildOutputButKeepsLookalikes(@TempDir Path tempDir) throws IOException {
+        Files.createDirectories(tempDir.resolve("target/generated-sources"));
+        Files.writeString(tempDir.resolve("target/generated-sources/Generated.java"), "class Generated {}");
+        Files.createDirectories(tempDir.resolve("node_modules/lib"));
+        Files.writeString(tempDir.resolve("node_modules/lib/index.json"), "{}");
+        Files.createDirectories(tempDir.resolve("buildSrc/src/main/java"));
+        Files.writeString(tempDir.resolve("buildSrc/src/main/java/Plugin.java"), "class Plugin {}");
+        Files.createDirectories(tempDir.resolve("src/main/java/com/acme/build"));
+        Files.writeString(tempDir.resolve("src/main/java/com/acme/build/Step.java"), "class Step {}");
+
+        RepoFileIndex index = RepoFileIndex.build(tempDir);
+
+        assertFalse(index.containsDirectory("target"));
+        assertFalse(index.containsDirectory("node_modules"));
+        assertTrue(index.containsFile("buildSrc/src/main/java/Plugin.java"));
+        assertTrue(index.containsFile("src/main/java/com/acme/build/Step.java"));
+        assertEquals(2, index.getSourceFiles().size());
+    }
+
+    @Test
+    void testIndexHonorsGitignoreAndUserExcludes(@TempDir Path tempDir) throws IOException {
+        Files.writeString(tempDir.resolve(".gitignore"), "*.log\n/generated/\n!keep.log\n");
+        Files.createDirectories(tempDir.resolve("generated"));
+        Files.writeString(tempDir.resolve("generated/Out.java"), "class Out {}");
+        Files.createDirectories(tempDir.resolve("docs/nested"));
+        Files.writeString(tempDir.resolve("docs/.gitignore"), "nested/\n");
+        Files.writeString(tempDir.resolve("docs/nested/a.md"), "");
+        Files.writeString(tempDir.resolve("debug.log"), "");
+        Files.writeString(tempDir.resolve("keep.log"), "");
+        Files.createDirectories(tempDir.resolve("fixtures"));
+        Files.writeString(tempDir.resolve("fixtures/big.json"), "{}");
+
+        // Both walkers must prune identically
+        for (int parallelism : new int[] { 1, 4 }) {
+            IndexOptions options = new IndexOptions();
+            options.setParallelism(parallelism);
+            options.addExcludePattern("fixtures/");
+
+            RepoFileIndex index = RepoFileIndex.build(tempDir, options);
+
+            assertFalse(index.containsDirectory("generated"));
+            assertFalse(index.containsDirectory("docs/nested"));
+            assertFalse(index.containsFile("debug.log"));
+            assertTrue(index.containsFile("keep.log"));
+            assertFalse(index.containsDirectory("fixtures"));
+        }
+    }
+
+    @Test
+    void testIndexSkipsExcludedOutputsOnly(@TempDir Path tempDir) throws IOException {
+        Files.writeString(tempDir.resolve("run-metrics.json"), "{\"wallNanos\": 5432}");
+        Files.createDirectories(tempDir.resolve("config"));
+        Files.writeString(tempDir.resolve("config/run-metrics.json"), "{}");
+        Files.createDirectories(tempDir.resolve("out[1]"));
+        Files.writeString(tempDir.resolve("out[1]/report.md"), "# Report\n");
+        Files.writeString(tempDir.resolve("out1.md"), "# Notes\n");
+
+        IndexOptions options = new IndexOptions();
+        options.addExcludedOutput(tempDir, tempDir.resolve("run-metrics.json"));
+        options.addExcludedOutput(tempDir, tempDir.resolve("out[1]"));
+        options.addExcludedOutput(tempDir, tempDir.resolveSibling("elsewhere.json"));
+        RepoFileIndex index = RepoFileIndex.build(tempDir, options);
+
+        assertFalse(index.containsFile("run-metrics.json"));
+        assertTrue(index.containsFile("config/run-metrics.json"));
+        assertFalse(index.containsFile("out[1]/report.md"));
+        assertTrue(index.containsFile("out1.md"));
+        assertEquals(2, options.getExcludePatterns().size());
+    }
+
+    @Test
+    void testIndexOrdersFilesDepthFirstByName(@TempDir Path tempDir) throws IOException {
+        Files.createDirectories(tempDir.resolve("a/b"));
+        Files.writeString(tempDir.resolve("a/b/c.txt"), "");
+        Files.writeString(tempDir.resolve("a.txt"), "");
+        Files.writeString(tempDir.resolve("b.txt"), "");
+
+        RepoFileIndex index = RepoFileIndex.build(tempDir);
+
+        List<String> paths = index.getFiles().stream()
+                .map(IndexedFile::getRelativePath)
+                .collect(Collectors.toList());
+        assertEquals(List.of("a/b/c.txt", "a.txt", "b.txt"), paths);
+    }
+
+    @Test
+    void testIndexAnswersDirectoryQueries(@TempDir Path tempDir) throws IOException {
+        Files.createDirectories(tempDir.resolve("src/main/java/com/example"));
+        Files.createDirectories(tempDir.resolve("src/main/java/org/sample"));
+        Files.createDirectories(tempDir.resolve("src/test"));
+
+        RepoFileIndex index = RepoFileIndex.build(tempDir);
+
+        assertTrue(index.containsDirectory("src/test"));
+        assertTrue(index.exists("src/main/java"));
+        assertFalse(index.anyFileUnder("src/test", ".java"));
+        assertEquals(List.of("com", "org"), index.listSubdirectories("src/main/java"));
+    }
+
+    @Test
+    void testParallelWalkMatchesSequentialWalk(@TempDir Path tempDir) throws IOException {
+        for (int module = 0; module < 5; module++) {
+            Path pkg = tempDir.resolve("module" + module + "/src/main/java/com/example");
+            Files.createDirectories(pkg);
+            for (int i = 0; i < 10; i++) {
+                Files.writeString(pkg.resolve("Class" + i + ".java"), "class Class" + i + " {}");
+            }
+        }
+
+        IndexOptions sequential = new IndexOptions();
+        sequential.setParallelism(1);
+        IndexOptions parallel = new IndexOptions();
+        parallel.setParallelism(4);
+
+        List<String> expected = RepoFileIndex.build(tempDir, sequential).getFiles().stream()
+                .map(IndexedFile::getRelativePath)
+                .collect(Collectors.toList());
+        List<String> actual = RepoFileIndex.build(tempDir, parallel).getFiles().stream()
+                .map(IndexedFile::getRelativePath)
+                .collect(Collectors.toList());
+
+        assertEquals(50, actual.size());
+        assertEquals(expected, actual);
+    }
+}
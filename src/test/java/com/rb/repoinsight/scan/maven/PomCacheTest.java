@@ -0,0 +1,144 @@
+package com.rb.repoinsight.scan.maven;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.rb.repoinsight.scan.index.RepoFileIndex;
+
+/**
+ * Unit tests for PomCache.
+ */
+class PomCacheTest {
+
+    private static final String PARENT_POM = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <project xmlns="http://maven.apache.org/POM/4.0.0">
+              <groupId>com.acme</groupId>
+              <artifactId>platform</artifactId>
+              <version>2.1</version>
+              <packaging>pom</packaging>
+              <properties>
+                <aws.group>software.amazon.awssdk</aws.group>
+              </properties>
+              <modules>
+                <module>service</module>
+                <module>missing</module>
+              </modules>
+              <dependencyManagement>
+                <dependencies>
+                  <dependency><groupId>managed</groupId><artifactId>only</artifactId></dependency>
+                </dependencies>
+              </dependencyManagement>
+              <dependencies>
+                <dependency><groupId>org.slf4j</groupId><artifactId>slf4j-api</artifactId></dependency>
+              </dependencies>
+              <build>
+                <sourceDirectory>src/java</sourceDirectory>
+              </build>
+            </project>
+            """;
+
+    private static final String SERVICE_POM = """
+            <project>
+              <parent>
+                <groupId>com.acme</groupId>
+                <artifactId>platform</artifactId>
+                <version>2.1</version>
+              </parent>
+              <artifactId>service</artifactId>
+              <packaging>war</packaging>
+              <dependencies>
+                <dependency>
+                  <groupId>${aws.group}</groupId>
+                  <artifactId>s3</artifactId>
+                  <exclusions>
+                    <exclusion><groupId>commons-logging</groupId><artifactId>commons-logging</artifactId></exclusion>
+                  </exclusions>
+                </dependency>
+                <dependency><groupId>${project.groupId}</groupId><artifactId>common</artifactId></dependency>
+              </dependencies>
+              <build>
+                <plugins>
+                  <plugin><artifactId>maven-war-plugin</artifactId></plugin>
+                </plugins>
+              </build>
+            </project>
+            """;
+
+    @Test
+    void testResolvesParentInheritanceAndInterpolation(@TempDir Path tempDir) throws IOException {
+        Files.writeString(tempDir.resolve("pom.xml"), PARENT_POM);
+        Files.createDirectories(tempDir.resolve("service"));
+        Files.writeString(tempDir.resolve("service/pom.xml"), SERVICE_POM);
+
+        PomCache poms = RepoFileIndex.build(tempDir).getPoms();
+        PomModel service = poms.get("service/pom.xml");
+
+        assertEquals("com.acme:service", service.getKey());
+        assertEquals("2.1", service.getVersion());
+        assertEquals("war", service.getPackaging());
+        assertEquals("com.acme:platform", service.getParent().getKey());
+        assertEquals("src/java", service.getSourceDirectory());
+        assertEquals(List.of("org.slf4j:slf4j-api", "software.amazon.awssdk:s3", "com.acme:common"),
+                service.getDependencies());
+        assertEquals(List.of("org.apache.maven.plugins:maven-war-plugin"), service.getPlugins());
+        assertSame(service, poms.get("service/pom.xml"));
+    }
+
+    @Test
+    void testListsProjectsThroughModules(@TempDir Path tempDir) throws IOException {
+        Files.writeString(tempDir.resolve("pom.xml"), PARENT_POM);
+        Files.createDirectories(tempDir.resolve("service"));
+        Files.writeString(tempDir.resolve("service/pom.xml"), SERVICE_POM);
+
+        PomCache poms = RepoFileIndex.build(tempDir).getPoms();
+
+        List<String> projects = poms.getProjects().stream().map(PomModel::getPath).collect(Collectors.toList());
+        assertEquals(List.of("pom.xml", "service/pom.xml"), projects);
+        assertEquals(List.of("service", "missing"), poms.getRoot().getModules());
+        assertEquals(List.of("org.slf4j:slf4j-api"), poms.getRoot().getDependencies());
+    }
+
+    @Test
+    void testIgnoresParentOutsideRepository(@TempDir Path tempDir) throws IOException {
+        Files.writeString(tempDir.resolve("pom.xml"), """
+                <project>
+                  <parent>
+                    <groupId>org.springframework.boot</groupId>
+                    <artifactId>spring-boot-starter-parent</artifactId>
+                    <version>3.2.0</version>
+                    <relativePath/>
+                  </parent>
+                  <artifactId>app</artifactId>
+                </project>
+                """);
+
+        PomModel root = RepoFileIndex.build(tempDir).getPoms().getRoot();
+
+        assertEquals("org.springframework.boot:app", root.getKey());
+        assertEquals("3.2.0", root.getVersion());
+        assertNull(root.getPackaging());
+        assertNull(root.getSourceDirectory());
+    }
+
+    @Test
+    void testKeepsWhatWasReadFromMalformedPom(@TempDir Path tempDir) throws IOException {
+        Files.writeString(tempDir.resolve("pom.xml"),
+                "<project><artifactId>broken</artifactId><dependencies><dependency>"
+                        + "<groupId>g</groupId><artifactId>a</artifactId></dependency><dependency>");
+
+        PomModel root = RepoFileIndex.build(tempDir).getPoms().getRoot();
+
+        assertEquals("broken", root.getArtifactId());
+        assertEquals(List.of("g:a"), root.getDependencies());
+    }
+}
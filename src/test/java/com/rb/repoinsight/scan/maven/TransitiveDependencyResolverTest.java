@@ -0,0 +1,134 @@
+package com.rb.repoinsight.scan.maven;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.rb.repoinsight.scan.index.RepoFileIndex;
+
+/**
+ * Unit tests for TransitiveDependencyResolver and LocalRepositoryIndex.
+ */
+class TransitiveDependencyResolverTest {
+
+    @Test
+    void testResolvesTransitiveClosure(@TempDir Path tempDir) throws IOException {
+        Path m2 = tempDir.resolve("m2");
+        install(m2, "com.acme", "client", "1.0",
+                dependency("com.acme", "transport", "2.0", null)
+                        + dependency("org.test", "only-in-tests", "1.0", "test"));
+        install(m2, "com.acme", "transport", "2.0", dependency("io.netty", "netty-handler", "4.1", null));
+        install(m2, "io.netty", "netty-handler", "4.1", "");
+        Path repo = project(tempDir, dependency("com.acme", "client", "1.0", null));
+
+        TransitiveDependencyResolver resolver = new TransitiveDependencyResolver(
+                LocalRepositoryIndex.open(m2, tempDir.resolve("index.bin")));
+        Map<String, String> transitive = resolver.resolve(RepoFileIndex.build(repo).getPoms().getProjects(),
+                List.of());
+
+        assertEquals(Map.of("com.acme:transport", "com.acme:client", "io.netty:netty-handler", "com.acme:client"),
+                transitive);
+    }
+
+    @Test
+    void testAppliesParentAndImportedManagement(@TempDir Path tempDir) throws IOException {
+        Path m2 = tempDir.resolve("m2");
+        install(m2, "com.acme", "bom", "1.0", "", """
+                <packaging>pom</packaging>
+                <dependencyManagement><dependencies>
+                """ + dependency("com.acme", "lib", "3.0", null) + "</dependencies></dependencyManagement>");
+        install(m2, "com.acme", "parent", "1.0", "", """
+                <packaging>pom</packaging>
+                <properties><bom.version>1.0</bom.version></properties>
+                <dependencyManagement><dependencies>
+                  <dependency><groupId>com.acme</groupId><artifactId>bom</artifactId>
+                    <version>${bom.version}</version><type>pom</type><scope>import</scope></dependency>
+                </dependencies></dependencyManagement>""");
+        install(m2, "com.acme", "app", "1.0", dependency("com.acme", "lib", null, null), """
+                <parent><groupId>com.acme</groupId><artifactId>parent</artifactId><version>1.0</version></parent>""");
+        install(m2, "com.acme", "lib", "4.0", dependency("old", "dependency", "1.0", null));
+        install(m2, "com.acme", "lib", "3.0", dependency("new", "dependency", "1.0", null));
+        Path repo = project(tempDir, dependency("com.acme", "app", "1.0", null));
+
+        TransitiveDependencyResolver resolver = new TransitiveDependencyResolver(
+                LocalRepositoryIndex.open(m2, tempDir.resolve("index.bin")));
+        Map<String, String> transitive = resolver.resolve(RepoFileIndex.build(repo).getPoms().getProjects(),
+                List.of());
+
+        assertEquals(List.of("com.acme:lib", "new:dependency"), List.copyOf(transitive.keySet()));
+        assertTrue(resolver.getMissing().contains("new:dependency:1.0"));
+    }
+
+    @Test
+    void testReusesIndexUntilPomChanges(@TempDir Path tempDir) throws IOException {
+        Path m2 = tempDir.resolve("m2");
+        Path indexFile = tempDir.resolve("index.bin");
+        install(m2, "com.acme", "client", "1.0", dependency("com.acme", "transport", "2.0", null));
+        install(m2, "com.acme", "transport", "2.0", "");
+        List<PomModel> projects = RepoFileIndex.build(project(tempDir, dependency("com.acme", "client", "1.0", null)))
+                .getPoms().getProjects();
+
+        LocalRepositoryIndex first = LocalRepositoryIndex.open(m2, indexFile);
+        new TransitiveDependencyResolver(first).resolve(projects, List.of());
+        first.save();
+        assertEquals(2, first.getPomsRead());
+
+        LocalRepositoryIndex second = LocalRepositoryIndex.open(m2, indexFile);
+        Map<String, String> transitive = new TransitiveDependencyResolver(second).resolve(projects, List.of());
+        assertEquals(0, second.getPomsRead());
+        assertEquals(Map.of("com.acme:transport", "com.acme:client"), transitive);
+
+        Path changed = m2.resolve(LocalRepositoryIndex.pomPath("com.acme", "transport", "2.0"));
+        Files.writeString(changed,
+                pom("com.acme", "transport", "2.0", dependency("io.grpc", "grpc-core", "1.0", null), ""));
+        LocalRepositoryIndex third = LocalRepositoryIndex.open(m2, indexFile);
+        transitive = new TransitiveDependencyResolver(third).resolve(projects, List.of());
+        assertEquals(1, third.getPomsRead());
+        assertTrue(transitive.containsKey("io.grpc:grpc-core"));
+    }
+
+    @Test
+    void testComparesVersionsNumerically() {
+        assertTrue(TransitiveDependencyResolver.compareVersions("1.10", "1.9") > 0);
+        assertTrue(TransitiveDependencyResolver.compareVersions("2.0", "2.0-RC1") > 0);
+        assertTrue(TransitiveDependencyResolver.compareVersions("2.0.1", "2.0") > 0);
+        assertEquals(0, TransitiveDependencyResolver.compareVersions("3.0", "3.0"));
+    }
+
+    private static Path project(Path tempDir, String dependencies) throws IOException {
+        Path repo = Files.createDirectories(tempDir.resolve("repo"));
+        Files.writeString(repo.resolve("pom.xml"), pom("com.example", "app", "1.0", dependencies, ""));
+        return repo;
+    }
+
+    private static void install(Path m2, String groupId, String artifactId, String version, String dependencies)
+            throws IOException {
+        install(m2, groupId, artifactId, version, dependencies, "");
+    }
+
+    private static void install(Path m2, String groupId, String artifactId, String version, String dependencies,
+            String extra) throws IOException {
+        Path file = m2.resolve(LocalRepositoryIndex.pomPath(groupId, artifactId, version));
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, pom(groupId, artifactId, version, dependencies, extra));
+    }
+
+    private static String pom(String groupId, String artifactId, String version, String dependencies,
+            String extra) {
+        return "<project><groupId>" + groupId + "</groupId><artifactId>" + artifactId + "</artifactId><version>"
+                + version + "</version>" + extra + "<dependencies>" + dependencies + "</dependencies></project>";
+    }
+
+    private static String dependency(String groupId, String artifactId, String version, String scope) {
+        return "<dependency><groupId>" + groupId + "</groupId><artifactId>" + artifactId + "</artifactId>"
+                + (version != null ? "<version>" + version + "</version>" : "")
+                + (scope != null ? "<scope>" + scope + "</scope>" : "") + "</dependency>";
+    }
+}
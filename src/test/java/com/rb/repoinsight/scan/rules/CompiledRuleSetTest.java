@@ -0,0 +1,182 @@
+package com.rb.repoinsight.scan.rules;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rb.repoinsight.model.DependencyCategory;
+import com.rb.repoinsight.model.HeuristicCost;
+import com.rb.repoinsight.model.RuleConfig;
+import com.rb.repoinsight.model.RuleCost;
+import com.rb.repoinsight.scan.cache.CachedFileResult;
+
+/**
+ * Unit tests for CompiledRuleSet, checked against running each heuristic separately.
+ */
+class CompiledRuleSetTest {
+
+    private static final String[] FRAGMENTS = {
+            "jdbc:postgresql://db", "JDBC:MySQL", "5432", "3306", "mongodb://", "27017", "redis://",
+            "Kafka", "9092", "amqp://", "amazonaws.com/sqs", "AMAZONAWS.COM/SNS", "sqs://", "s3://",
+            "DynamoDB", "pubsub", "https://api.acme.io", "http://service-x", "RestTemplate", "webclient",
+            "spring.datasource.url", "springXdatasource", " ", "\n", "x", "ab", "aab", "über", "kafk", "api42", "port=80",
+            "é€", "\uD83D\uDE00", "\u2028"
+    };
+
+    @Test
+    void testMatchesLikeSeparateRegexesOnRandomContent() throws Exception {
+        List<RuleConfig> rules = new ArrayList<>(loadBundledRules());
+        rules.add(rule("Overlapping", "(ab|aab|a)", "b+"));
+        rules.add(rule("Backreference", "(a)\\1b"));
+        rules.add(rule("Lookbehind", "(?<=x)ab", "^kafk"));
+        rules.add(rule("Escapes", "\\x41pi\\d+", "port=\\d{2}|\\Qsqs:\\E/+"));
+        rules.add(rule("Wide", "b.r[^x]{2}", "\\S\\S?x", "k.\\W"));
+        RuleMatchOptions jdk = new RuleMatchOptions();
+        jdk.setRegexEngine(RegexEngine.JDK);
+        CompiledRuleSet compiled = CompiledRuleSet.compile(rules);
+        CompiledRuleSet compiledJdk = CompiledRuleSet.compile(rules, jdk);
+
+        Random random = new Random(11);
+        for (int round = 0; round < 500; round++) {
+            StringBuilder content = new StringBuilder();
+            int pieces = random.nextInt(12);
+            for (int i = 0; i < pieces; i++) {
+                content.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+            }
+            String text = content.toString();
+            List<String> expected = describe(naive(rules, text));
+            assertEquals(expected, describe(compiled.match(text)), text);
+            assertEquals(expected, describe(compiledJdk.match(text)), text);
+        }
+    }
+
+    @Test
+    void testExpandsLiteralAlternations() {
+        assertEquals(List.of("jdbc:postgresql", "jdbc:mysql"), RegexLiterals.expand("jdbc:(postgresql|mysql)"));
+        assertEquals(List.of("amazonaws.com/sqs", "amazonaws.com/sns", "sqs://"),
+                RegexLiterals.expand("(amazonaws\\.com/(sqs|sns)|sqs://)"));
+        assertNull(RegexLiterals.expand("https?://"));
+        assertNull(RegexLiterals.expand("\\bkafka"));
+        assertNull(RegexLiterals.expand("(kafka)?"));
+    }
+
+    @Test
+    void testExtractsRequiredLiterals() {
+        assertEquals(List.of("http"), RequiredLiterals.extract("https?://[\\w\\.-]*(api|service|cloud)[\\w\\.-]*"));
+        assertEquals(List.of("spring.datasource.url"), RequiredLiterals.extract("spring\\.datasource\\.url"));
+        assertEquals(List.of("foo", "ba"), RequiredLiterals.extract("foo\\d+|bar?"));
+        assertEquals(List.of("pi"), RequiredLiterals.extract("\\x41pi\\d"));
+        assertNull(RequiredLiterals.extract("\\d+|kafka"));
+        assertNull(RequiredLiterals.extract("(?x)k a f k a"));
+    }
+
+    @Test
+    void testPrefilterSkipsRegexWithoutRequiredLiteral() throws Exception {
+        CompiledRuleSet compiled = CompiledRuleSet.compile(List.of(rule("Http", "https?://\\w+")));
+
+        compiled.match("no urls here");
+        compiled.match("see https://example");
+
+        assertEquals(1, compiled.getPrefilterHits(0));
+        assertEquals(1, compiled.getPrefilterMisses(0));
+    }
+
+    @Test
+    void testTimesOutOnCatastrophicBacktracking() {
+        RuleMatchOptions options = new RuleMatchOptions();
+        options.setRegexEngine(RegexEngine.JDK);
+        options.setMatchTimeoutMillis(200);
+        CompiledRuleSet compiled = CompiledRuleSet.compile(
+                List.of(rule("Literal", "kafka"), rule("Evil", "(.*a){20}b")), options);
+
+        RuleMatchTimeoutException e = assertThrows(RuleMatchTimeoutException.class,
+                () -> compiled.match("kafka\nb\n" + "a".repeat(40) + "!"));
+
+        assertEquals(List.of("0:kafka"), describe(e.getPartialHits()));
+    }
+
+    @Test
+    void testProfilesHeuristicCosts() throws Exception {
+        RuleMatchOptions options = new RuleMatchOptions();
+        options.setProfile(true);
+        CompiledRuleSet compiled = CompiledRuleSet.compile(
+                List.of(rule("Kafka", "kafka", "9092"), rule("Web", "https?://\\w+api")), options);
+
+        compiled.match("kafka at https://myapi");
+        compiled.match("broker on 9092");
+        compiled.match("nothing here");
+
+        List<RuleCost> costs = compiled.getCosts();
+        HeuristicCost kafka = costs.get(0).getHeuristics().get(0);
+        HeuristicCost port = costs.get(0).getHeuristics().get(1);
+        HeuristicCost web = costs.get(1).getHeuristics().get(0);
+        assertEquals(3, costs.get(0).getFilesEvaluated());
+        assertEquals(3, kafka.getInvocations());
+        assertEquals(1, kafka.getHits());
+        assertEquals(3, port.getFilesEvaluated());
+        assertEquals(1, port.getHits());
+        assertEquals(1, web.getInvocations()); // skipped by the prefilter where "http" is absent
+        assertEquals(1, web.getHits());
+        assertTrue(kafka.getBytesScanned() > 0);
+        assertTrue(costs.get(0).getTimeNanos() > 0);
+        assertTrue(CompiledRuleSet.compile(List.of(rule("Kafka", "kafka"))).getCosts().isEmpty());
+    }
+
+    @Test
+    void testIgnoresInvalidHeuristic() throws Exception {
+        CompiledRuleSet compiled = CompiledRuleSet.compile(List.of(rule("Broken", "(unclosed", "kafka")));
+
+        List<CachedFileResult.RuleHit> hits = compiled.match("uses kafka");
+
+        assertEquals(List.of("0:kafka"), describe(hits));
+    }
+
+    private static List<CachedFileResult.RuleHit> naive(List<RuleConfig> rules, String content) {
+        List<CachedFileResult.RuleHit> hits = new ArrayList<>();
+        for (int i = 0; i < rules.size(); i++) {
+            for (String regex : rules.get(i).getHeuristics()) {
+                Matcher m = Pattern.compile(regex, Pattern.CASE_INSENSITIVE).matcher(content);
+                if (m.find()) {
+                    hits.add(new CachedFileResult.RuleHit(i, m.group().trim()));
+                    break;
+                }
+            }
+        }
+        return hits;
+    }
+
+    private static List<String> describe(List<CachedFileResult.RuleHit> hits) {
+        List<String> result = new ArrayList<>();
+        for (CachedFileResult.RuleHit hit : hits) {
+            result.add(hit.getRuleIndex() + ":" + hit.getEvidence());
+        }
+        return result;
+    }
+
+    private static RuleConfig rule(String name, String... heuristics) {
+        RuleConfig rule = new RuleConfig();
+        rule.setName(name);
+        rule.setCategory(DependencyCategory.values()[0]);
+        rule.setHeuristics(List.of(heuristics));
+        return rule;
+    }
+
+    private static List<RuleConfig> loadBundledRules() throws IOException {
+        try (InputStream is = CompiledRuleSetTest.class.getResourceAsStream("/rules.json")) {
+            return new ObjectMapper().readValue(is, new TypeReference<List<RuleConfig>>() {
+            });
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.rb.repoinsight.scan.rules;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for LinearRegex, checked against java.util.regex.
+ */
+class LinearRegexTest {
+
+    private static final String[] PATTERNS = {
+            "abc", "a|ab|abc", "(a|ab)(c|bcd)", "a*", "a+?b", "a*?", "(a*)*b", "x{2,3}", "x{2}y?",
+            "[a-c]+", "[^ab]+", "[\\w.-]+@[a-z]+", "\\d+\\.\\d*", "\\s+\\S", "^ab", "a.c", "(?:ab)+c",
+            "https?://[\\w\\.-]*(api|service|cloud)[\\w\\.-]*", "[]a]+", "[-x]z", "\\x41\\u0062", "B[A-C]"
+    };
+
+    private static final char[] ALPHABET = { 'a', 'b', 'c', 'x', 'y', 'z', 'A', 'B', '.', '-', '@', ' ', '\n', '1', '2' };
+
+    @Test
+    void testMatchesLikeJavaRegex() {
+        Random random = new Random(3);
+        int[] span = new int[2];
+        for (String regex : PATTERNS) {
+            LinearRegex linear = LinearRegex.compile(regex, true);
+            assertNotNull(linear, regex);
+            Pattern pattern = Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
+            for (int round = 0; round < 300; round++) {
+                String text = randomText(random);
+                Matcher m = pattern.matcher(text);
+                boolean expected = m.find();
+                boolean actual = linear.find(text, 0, span, MatchDeadline.after(0));
+                assertEquals(expected, actual, regex + " on " + text);
+                if (expected) {
+                    assertEquals(m.start(), span[0], regex + " on " + text);
+                    assertEquals(m.end(), span[1], regex + " on " + text);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testMatchesUtf8BytesLikeDecodedText() {
+        Random random = new Random(7);
+        int[] span = new int[2];
+        String[] pieces = { "a", "b", "x", " ", "\n", "é", "€", "\uD83D\uDE00", "\u0085", "\u2028" };
+        for (String regex : new String[] { "a.b", "a[^x]+b", "\\S+", "\\W\\w", "x.{2}", "€|é" }) {
+            LinearRegex linear = LinearRegex.compile(regex, true);
+            Pattern pattern = Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
+            for (int round = 0; round < 300; round++) {
+                StringBuilder text = new StringBuilder();
+                for (int i = random.nextInt(10); i > 0; i--) {
+                    text.append(pieces[random.nextInt(pieces.length)]);
+                }
+                byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+                Matcher m = pattern.matcher(text);
+                boolean expected = m.find();
+                assertEquals(expected, linear.find(bytes, 0, bytes.length, span, MatchDeadline.after(0)), regex);
+                if (expected) {
+                    assertEquals(utf8Length(text.substring(0, m.start())), span[0], regex + " on " + text);
+                    assertEquals(utf8Length(text.substring(0, m.end())), span[1], regex + " on " + text);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testReadsMalformedBytesAsReplacementCharacters() {
+        LinearRegex linear = LinearRegex.compile("a.b", true);
+        int[] span = new int[2];
+        byte[] latin1 = "xa\u00e9b".getBytes(StandardCharsets.ISO_8859_1);
+
+        assertTrue(linear.find(latin1, 0, latin1.length, span, MatchDeadline.after(0)));
+        assertEquals(1, span[0]);
+        assertEquals(4, span[1]);
+    }
+
+    @Test
+    void testRejectsUnsupportedConstructs() {
+        assertNull(LinearRegex.compile("(?<=a)b", true));
+        assertNull(LinearRegex.compile("(a)\\1", true));
+        assertNull(LinearRegex.compile("end$", true));
+        assertNull(LinearRegex.compile("\\bword", true));
+        assertNull(LinearRegex.compile("a++", true));
+        assertNull(LinearRegex.compile("(?i)abc", true));
+    }
+
+    @Test
+    void testNestedQuantifiersRunInLinearTime() {
+        LinearRegex linear = LinearRegex.compile("(a+)+b", true);
+        String text = "a".repeat(200_000);
+
+        long start = System.nanoTime();
+        assertFalse(linear.find(text, 0, new int[2], MatchDeadline.after(0)));
+        assertTrue(System.nanoTime() - start < 5_000_000_000L);
+    }
+
+    private static int utf8Length(String text) {
+        return text.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static String randomText(Random random) {
+        StringBuilder text = new StringBuilder();
+        int length = random.nextInt(16);
+        for (int i = 0; i < length; i++) {
+            text.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,129 @@
+package com.rb.repoinsight.scan.rules;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.rb.repoinsight.model.DependencyCategory;
+import com.rb.repoinsight.model.RuleConfig;
+import com.rb.repoinsight.scan.cache.CachedFileResult;
+
+/**
+ * Unit tests for RulePack.
+ */
+class RulePackTest {
+
+    private static final String[] TEXTS = {
+            "", "jdbc:postgresql://db:5432/app", "spring.datasource.url=x", "KAFKA bootstrap 9092",
+            "see https://api.acme.io/v1 and s3://bucket", "amazonaws.com/SQS", "über webclient"
+    };
+
+    @Test
+    void testSnapshotMatchesLikeJsonRules(@TempDir Path tempDir) throws Exception {
+        Path snapshot = tempDir.resolve("rules.pack");
+
+        RulePack fromJson = RulePack.load(List.of(), snapshot);
+        RulePack fromSnapshot = RulePack.load(List.of(), snapshot);
+
+        assertFalse(fromJson.isFromSnapshot());
+        assertTrue(fromSnapshot.isFromSnapshot());
+        assertEquals(describeRules(fromJson), describeRules(fromSnapshot));
+        for (RegexEngine engine : RegexEngine.values()) {
+            RuleMatchOptions options = new RuleMatchOptions();
+            options.setRegexEngine(engine);
+            CompiledRuleSet expected = fromJson.compile(options);
+            CompiledRuleSet actual = fromSnapshot.compile(options);
+            for (String text : TEXTS) {
+                assertEquals(describeHits(expected.match(text)), describeHits(actual.match(text)), text);
+            }
+        }
+    }
+
+    @Test
+    void testRebuildsSnapshotWhenRuleSourcesChange(@TempDir Path tempDir) throws IOException {
+        Path rulesDir = Files.createDirectories(tempDir.resolve("rules"));
+        Path extra = rulesDir.resolve("extra.json");
+        Files.writeString(extra, "[{\"name\": \"Acme Bus\", \"category\": \"MESSAGING\", \"heuristics\": [\"acme-bus\"]}]");
+        Path snapshot = tempDir.resolve("rules.pack");
+
+        RulePack first = RulePack.load(List.of(rulesDir), snapshot);
+        RulePack second = RulePack.load(List.of(rulesDir), snapshot);
+        Files.writeString(extra, "[{\"name\": \"Acme Queue\", \"category\": \"MESSAGING\", \"heuristics\": [\"acme-q\"]}]");
+        RulePack third = RulePack.load(List.of(rulesDir), snapshot);
+
+        assertFalse(first.isFromSnapshot());
+        assertTrue(second.isFromSnapshot());
+        assertEquals("Acme Bus", last(second).getName());
+        assertFalse(third.isFromSnapshot());
+        assertEquals("Acme Queue", last(third).getName());
+        assertEquals(List.of(), RulePack.load(List.of(), snapshot).validate());
+    }
+
+    @Test
+    void testIgnoresCorruptSnapshot(@TempDir Path tempDir) throws IOException {
+        Path snapshot = tempDir.resolve("rules.pack");
+        RulePack.load(List.of(), snapshot);
+        byte[] bytes = Files.readAllBytes(snapshot);
+        Files.write(snapshot, Arrays.copyOf(bytes, bytes.length / 2));
+
+        RulePack pack = RulePack.load(List.of(), snapshot);
+
+        assertFalse(pack.isFromSnapshot());
+        assertTrue(RulePack.load(List.of(), snapshot).isFromSnapshot());
+    }
+
+    @Test
+    void testValidateReportsProblems() {
+        RuleConfig invalid = rule("Broken", "(unclosed");
+        RuleConfig unnamed = rule(null, "kafka");
+        RuleConfig empty = rule("Empty");
+
+        List<String> problems = RulePack.of(List.of(rule("Kafka", "kafka"), invalid, rule("Kafka", "9092"),
+                unnamed, empty)).validate();
+
+        assertEquals(4, problems.size());
+        assertTrue(problems.get(0).startsWith("Rule Broken has an invalid heuristic"));
+        assertEquals("Rule Kafka is defined more than once", problems.get(1));
+        assertEquals("Rule #4 has no name", problems.get(2));
+        assertEquals("Rule Empty has neither heuristics nor mavenArtifacts", problems.get(3));
+    }
+
+    private static RuleConfig last(RulePack pack) {
+        return pack.getRules().get(pack.getRules().size() - 1);
+    }
+
+    private static List<String> describeRules(RulePack pack) {
+        List<String> result = new ArrayList<>();
+        for (RuleConfig rule : pack.getRules()) {
+            result.add(rule.getName() + "|" + rule.getCategory() + "|" + rule.getMavenArtifacts() + "|"
+                    + rule.getHeuristics() + "|" + rule.getFileGlobs() + "|" + rule.getMaxBytes() + "|"
+                    + rule.isStopAfterFirstHit());
+        }
+        return result;
+    }
+
+    private static List<String> describeHits(List<CachedFileResult.RuleHit> hits) {
+        List<String> result = new ArrayList<>();
+        for (CachedFileResult.RuleHit hit : hits) {
+            result.add(hit.getRuleIndex() + ":" + hit.getEvidence());
+        }
+        return result;
+    }
+
+    private static RuleConfig rule(String name, String... heuristics) {
+        RuleConfig rule = new RuleConfig();
+        rule.setName(name);
+        rule.setCategory(DependencyCategory.MESSAGING);
+        rule.setHeuristics(List.of(heuristics));
+        return rule;
+    }
+}
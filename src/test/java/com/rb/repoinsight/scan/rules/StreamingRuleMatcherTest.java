@@ -0,0 +1,99 @@
+package com.rb.repoinsight.scan.rules;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rb.repoinsight.model.DependencyCategory;
+import com.rb.repoinsight.model.RuleConfig;
+import com.rb.repoinsight.scan.cache.CachedFileResult;
+
+/**
+ * Unit tests for StreamingRuleMatcher, checked against matching whole files at once.
+ */
+class StreamingRuleMatcherTest {
+
+    private static final String[] FRAGMENTS = {
+            "jdbc:postgresql://db", "JDBC:MySQL", "5432", "mongodb://", "redis://", "Kafka", "amqp://",
+            "amazonaws.com/sqs", "s3://", "https://api.acme.io", "RestTemplate", "spring.datasource.url",
+            " ", "\n", "x", "ab", "über", "日本", "kafk", "port=80"
+    };
+
+    @Test
+    void testWindowsFindSameHitsAsWholeFile(@TempDir Path tempDir) throws Exception {
+        List<RuleConfig> rules = new ArrayList<>(loadBundledRules());
+        rules.add(rule("Fallback", "nothing-here", "kafk"));
+        rules.add(rule("Lookbehind", "(?<=x)ab"));
+        rules.add(rule("Anchored", "^jdbc"));
+        CompiledRuleSet compiled = CompiledRuleSet.compile(rules);
+        StreamingRuleMatcher windowed = new StreamingRuleMatcher(compiled, 64, 128);
+
+        Random random = new Random(17);
+        Path file = tempDir.resolve("content.txt");
+        for (int round = 0; round < 300; round++) {
+            StringBuilder content = new StringBuilder();
+            int pieces = random.nextInt(60);
+            for (int i = 0; i < pieces; i++) {
+                content.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+            }
+            String text = content.toString();
+            Files.writeString(file, text);
+
+            assertEquals(describe(compiled.match(text)), describe(windowed.match(file, null, 0)), text);
+        }
+    }
+
+    @Test
+    void testMatchesFilesThatAreNotUtf8(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("latin1.properties");
+        Files.write(file, "café=1\nbroker=kafka\n".getBytes(StandardCharsets.ISO_8859_1));
+        CompiledRuleSet compiled = CompiledRuleSet.compile(List.of(rule("Kafka", "kafka")));
+
+        assertEquals(List.of("0:kafka"), describe(new StreamingRuleMatcher(compiled).match(file, null, 0)));
+    }
+
+    @Test
+    void testStopsAtByteLimit(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("big.json");
+        Files.writeString(file, "x".repeat(1000) + "redis");
+        CompiledRuleSet compiled = CompiledRuleSet.compile(List.of(rule("Redis", "redis")));
+        StreamingRuleMatcher matcher = new StreamingRuleMatcher(compiled, 64, 16);
+
+        assertEquals(List.of(), describe(matcher.match(file, null, 1000)));
+        assertEquals(List.of("0:redis"), describe(matcher.match(file, null, 1005)));
+    }
+
+    private static List<String> describe(List<CachedFileResult.RuleHit> hits) {
+        List<String> result = new ArrayList<>();
+        for (CachedFileResult.RuleHit hit : hits) {
+            result.add(hit.getRuleIndex() + ":" + hit.getEvidence());
+        }
+        return result;
+    }
+
+    private static RuleConfig rule(String name, String... heuristics) {
+        RuleConfig rule = new RuleConfig();
+        rule.setName(name);
+        rule.setCategory(DependencyCategory.values()[0]);
+        rule.setHeuristics(List.of(heuristics));
+        return rule;
+    }
+
+    private static List<RuleConfig> loadBundledRules() throws IOException {
+        try (InputStream is = StreamingRuleMatcherTest.class.getResourceAsStream("/rules.json")) {
+            return new ObjectMapper().readValue(is, new TypeReference<List<RuleConfig>>() {
+            });
+        }
+    }
+}
@@ -3,6 +3,8 @@ package com.rb.repoinsight.scanner;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -13,6 +15,15 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import com.rb.repoinsight.model.RepoContext;
+import com.rb.repoinsight.model.RunMetrics;
+import com.rb.repoinsight.model.StageMetrics;
+import com.rb.repoinsight.report.RuleProfileWriter;
+import com.rb.repoinsight.report.RunMetricsWriter;
+import com.rb.repoinsight.scan.RuleEngineScanner;
+import com.rb.repoinsight.scan.cache.FileResultCache;
+import com.rb.repoinsight.scan.index.IndexOptions;
+import com.rb.repoinsight.scan.index.RepoFileIndex;
+import com.rb.repoinsight.scan.rules.RuleMatchOptions;
 
 /**
  * Unit tests for RepoScanner.
@@ -49,6 +60,41 @@ class RepoScannerTest {
         assertEquals("Java", context.getLanguage());
     }
 
+    @Test
+    void testPomWithoutPackagingIsJarEvenWithWarPlugin(@TempDir Path tempDir) throws IOException {
+        Files.writeString(tempDir.resolve("pom.xml"), "<project><artifactId>app</artifactId>"
+                + "<properties><java.version>17</java.version></properties>"
+                + "<build><plugins><plugin><artifactId>maven-war-plugin</artifactId>"
+                + "<configuration><warSourceDirectory>src/main/webapp</warSourceDirectory></configuration>"
+                + "</plugin></plugins></build></project>");
+
+        RepoContext context = scanner.scan(tempDir);
+
+        assertEquals("JAR", context.getPackagingType());
+        assertEquals("Java", context.getLanguage());
+    }
+
+    @Test
+    void testPomWithoutPackagingOrJavaSettingsHasUnknownLanguage(@TempDir Path tempDir) throws IOException {
+        // The dependency's coordinates mention "javax" but say nothing about the project's language
+        Files.writeString(tempDir.resolve("pom.xml"), "<project><artifactId>app</artifactId>"
+                + "<dependencies><dependency><groupId>javax.servlet</groupId>"
+                + "<artifactId>javax.servlet-api</artifactId></dependency></dependencies></project>");
+
+        RepoContext context = scanner.scan(tempDir);
+
+        assertEquals("JAR", context.getPackagingType());
+        assertEquals("UNKNOWN", context.getLanguage());
+    }
+
+    @Test
+    void testDeclaredWarPackagingIsWar(@TempDir Path tempDir) throws IOException {
+        Files.writeString(tempDir.resolve("pom.xml"),
+                "<project><artifactId>app</artifactId><packaging>war</packaging></project>");
+
+        assertEquals("WAR", scanner.scan(tempDir).getPackagingType());
+    }
+
     @Test
     void testScanDetectsTestsWhenJavaTestFilesExist(@TempDir Path tempDir) throws IOException {
         // Create test directory with actual test files
@@ -170,4 +216,46 @@ class RepoScannerTest {
         
         assertFalse(context.hasTests());
     }
+
+    @Test
+    void testRescanIgnoresOwnRunMetrics(@TempDir Path tempDir) throws IOException {
+        Files.writeString(tempDir.resolve("pom.xml"), "<project><artifactId>app</artifactId></project>");
+        List<String> first = dependencyEvidence(scanner.scan(tempDir));
+
+        // Timings that happen to contain the PostgreSQL port
+        RunMetrics metrics = new RunMetrics();
+        metrics.setWallNanos(154_320_000L);
+        metrics.getStages().add(new StageMetrics("index", 5432L, 5432L));
+        RunMetricsWriter writer = new RunMetricsWriter();
+        writer.writeJson(metrics, tempDir.resolve(RunMetricsWriter.JSON_FILE));
+        writer.writeOpenMetrics(metrics, tempDir.resolve(RunMetricsWriter.OPENMETRICS_FILE));
+
+        IndexOptions indexOptions = new IndexOptions();
+        indexOptions.addExcludedOutput(tempDir, tempDir.resolve(RunMetricsWriter.JSON_FILE));
+        indexOptions.addExcludedOutput(tempDir, tempDir.resolve(RunMetricsWriter.OPENMETRICS_FILE));
+        assertEquals(first, dependencyEvidence(new RepoScanner().scan(RepoFileIndex.build(tempDir, indexOptions))));
+    }
+
+    @Test
+    void testRescanIgnoresOwnRuleProfile(@TempDir Path tempDir) throws IOException {
+        Files.writeString(tempDir.resolve("pom.xml"), "<project><artifactId>app</artifactId></project>");
+        RuleMatchOptions options = new RuleMatchOptions();
+        options.setProfile(true);
+        RuleEngineScanner ruleEngine = new RuleEngineScanner(FileResultCache.disabled(), options);
+        List<String> first = dependencyEvidence(new RepoScanner(ruleEngine).scan(tempDir));
+
+        // The profile quotes every heuristic, so scanning it would match them all
+        Path profile = tempDir.resolve(RuleProfileWriter.DEFAULT_FILE);
+        new RuleProfileWriter().write(ruleEngine.getRuleCosts(), profile);
+
+        IndexOptions indexOptions = new IndexOptions();
+        indexOptions.addExcludedOutput(tempDir, profile);
+        assertEquals(first, dependencyEvidence(new RepoScanner().scan(RepoFileIndex.build(tempDir, indexOptions))));
+    }
+
+    private static List<String> dependencyEvidence(RepoContext context) {
+        return context.getExternalDependencies().stream()
+                .map(dependency -> dependency.getName() + ": " + dependency.getEvidence())
+                .collect(Collectors.toList());
+    }
 }
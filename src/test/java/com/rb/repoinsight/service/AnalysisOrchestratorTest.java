@@ -0,0 +1,90 @@
+package com.rb.repoinsight.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.rb.repoinsight.ai.AiClient;
+import com.rb.repoinsight.model.AiAnalysisResult;
+import com.rb.repoinsight.model.RepoContext;
+import com.rb.repoinsight.scan.RepoMetrics;
+import com.rb.repoinsight.scan.RepoMetricsCollector;
+import com.rb.repoinsight.scan.index.RepoFileIndex;
+
+/**
+ * Unit tests for AnalysisOrchestrator.
+ */
+class AnalysisOrchestratorTest {
+
+    @Test
+    void testAnalysisLeavesContextUntilApplied(@TempDir Path tempDir) throws IOException {
+        FakeAiClient client = new FakeAiClient(null, "Let me look.\n## Overview\nA Maven service");
+        RepoContext context = new RepoContext();
+        context.setBuildTool("Maven");
+
+        AiAnalysisResult result = new AnalysisOrchestrator(client).performAnalysis(context, metrics(tempDir));
+
+        assertTrue(result.isAvailable());
+        assertEquals("## Overview\nA Maven service", result.getOutput());
+        assertTrue(client.prompts.get(0).contains("Maven"));
+        assertFalse(context.isCopilotAvailable());
+        result.applyTo(context);
+        assertTrue(context.isCopilotAvailable());
+        assertEquals("## Overview\nA Maven service", context.getCopilotOutput());
+    }
+
+    @Test
+    void testSkipsUnavailableClient(@TempDir Path tempDir) throws IOException {
+        FakeAiClient client = new FakeAiClient("not installed", "unused");
+
+        AiAnalysisResult result = new AnalysisOrchestrator(client).performAnalysis(new RepoContext(),
+                metrics(tempDir));
+
+        assertFalse(result.isAvailable());
+        assertNull(result.getOutput());
+        assertEquals("not installed", result.getFailureReason());
+        assertTrue(client.prompts.isEmpty());
+    }
+
+    private static RepoMetrics metrics(Path tempDir) throws IOException {
+        Path sources = Files.createDirectories(tempDir.resolve("src/main/java/com/acme"));
+        Files.writeString(sources.resolve("App.java"), "class App {}\n");
+        return new RepoMetricsCollector().collect(RepoFileIndex.build(tempDir));
+    }
+
+    private static final class FakeAiClient implements AiClient {
+        private final String unavailabilityReason;
+        private final String response;
+        private final List<String> prompts = new ArrayList<>();
+
+        FakeAiClient(String unavailabilityReason, String response) {
+            this.unavailabilityReason = unavailabilityReason;
+            this.response = response;
+        }
+
+        @Override
+        public String analyze(String prompt) {
+            prompts.add(prompt);
+            return response;
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return unavailabilityReason == null;
+        }
+
+        @Override
+        public String getUnavailabilityReason() {
+            return unavailabilityReason;
+        }
+    }
+}